@@ -0,0 +1,39 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * run the benchmarks with the allocation rate (via the gc profiler) and write the results as JSON such that the results of releases
+ * can be compared by machine. Usage: [release] [regex of benchmarks to include]* where the results land in benchmarks-$release.json;
+ * use org.openjdk.jmh.Main directly for the full set of JMH options.
+ */
+public class Main {
+  public static void main(String[] args) throws Exception {
+    String release = args.length > 0 ? args[0] : "local";
+    ChainedOptionsBuilder options = new OptionsBuilder() //
+        .addProfiler(GCProfiler.class) //
+        .resultFormat(ResultFormatType.JSON) //
+        .result("benchmarks-" + release + ".json");
+    if (args.length > 1) {
+      for (int k = 1; k < args.length; k++) {
+        options.include(args[k]);
+      }
+    } else {
+      options.include("org\\.adamalang\\.benchmarks\\..*");
+    }
+    new Runner(options.build()).run();
+  }
+}
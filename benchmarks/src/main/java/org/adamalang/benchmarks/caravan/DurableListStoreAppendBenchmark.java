@@ -0,0 +1,75 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.caravan;
+
+import org.adamalang.caravan.data.DurableListStore;
+import org.adamalang.caravan.data.DurableListStoreMetrics;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the write path of a data change into caravan: append to a document's list (which flushes the write ahead log as the buffer fills);
+ * the history of each document is trimmed as the service would such that the store stays in a steady state.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DurableListStoreAppendBenchmark {
+  private static final int DOCUMENTS = 1000;
+  private static final int HISTORY = 64;
+
+  @Param({"64", "1024"})
+  public int deltaSize;
+
+  private File root;
+  private DurableListStore store;
+  private Random rng;
+  private byte[] delta;
+  private int seq;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    root = File.createTempFile("dls", "append_benchmark");
+    root.delete();
+    root.mkdirs();
+    store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(root, "STORE"), root, 256L * 1024 * 1024, 1024 * 1024, 64 * 1024 * 1024);
+    rng = new Random(42);
+    delta = new byte[deltaSize];
+    rng.nextBytes(delta);
+    seq = 0;
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws Exception {
+    store.shutdown();
+    for (File file : root.listFiles()) {
+      file.delete();
+    }
+    root.delete();
+  }
+
+  @Benchmark
+  public Integer append() {
+    seq++;
+    long id = rng.nextInt(DOCUMENTS);
+    Integer size = store.append(id, delta, seq, 0, () -> {});
+    if (size != null && size > HISTORY) {
+      store.trim(id, size - HISTORY / 2, () -> {});
+    }
+    return size;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.caravan;
+
+import org.adamalang.caravan.data.DurableListStore;
+import org.adamalang.caravan.data.DurableListStoreMetrics;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/** measure the cost of a cut over (checkpoint) after a single write and the recovery (load) time as the store grows */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DurableListStoreCheckpointBenchmark {
+  @Param({"10000", "100000"})
+  public int documents;
+
+  private File root;
+  private DurableListStore store;
+  private int seq;
+
+  private DurableListStore open() throws Exception {
+    return new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(root, "STORE"), root, 256L * 1024 * 1024, 1024 * 1024, 64 * 1024 * 1024);
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    root = File.createTempFile("dls", "checkpoint_benchmark");
+    root.delete();
+    root.mkdirs();
+    store = open();
+    byte[] bytes = "{\"data\":{\"x\":123},\"seq\":1}".getBytes(StandardCharsets.UTF_8);
+    for (int k = 0; k < documents; k++) {
+      store.append(k, bytes, 1, 0, () -> {});
+    }
+    store.flush(true);
+    seq = 1;
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws Exception {
+    store.shutdown();
+    for (File file : root.listFiles()) {
+      file.delete();
+    }
+    root.delete();
+  }
+
+  /** a single document changes between cut overs */
+  @Benchmark
+  public void cutOverAfterOneWrite() {
+    seq++;
+    store.append(seq % documents, ("{\"seq\":" + seq + "}").getBytes(StandardCharsets.UTF_8), seq, 0, () -> {});
+    store.flush(true);
+  }
+
+  /** close and recover the store (load the checkpoint, rebuild the heap, then write a new checkpoint) */
+  @Benchmark
+  public void recover() throws Exception {
+    store.shutdown();
+    store = open();
+  }
+}
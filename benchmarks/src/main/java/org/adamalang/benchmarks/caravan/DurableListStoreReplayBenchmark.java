@@ -0,0 +1,82 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.caravan;
+
+import org.adamalang.caravan.data.DurableListStore;
+import org.adamalang.caravan.data.DurableListStoreMetrics;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** replay a write ahead log of 64MB of appends (with a mix of trims); the score (operations per second) is MB/s */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DurableListStoreReplayBenchmark {
+  private static final int WAL_MEGABYTES = 64;
+  private File root;
+  private File saved;
+
+  private DurableListStore open() throws Exception {
+    return new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(root, "STORE"), root, 512L * 1024 * 1024, 1024 * 1024, 1024L * 1024 * 1024);
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    root = File.createTempFile("dls", "replay_benchmark");
+    root.delete();
+    root.mkdirs();
+    DurableListStore store = open();
+    Random rng = new Random(42);
+    byte[] bytes = new byte[1024];
+    long written = 0;
+    int seq = 0;
+    while (written < WAL_MEGABYTES * 1024L * 1024L) {
+      rng.nextBytes(bytes);
+      long id = rng.nextInt(10000);
+      store.append(id, bytes, seq++, 0, () -> {});
+      if (seq % 4 == 0) {
+        store.trim(id, 1, () -> {});
+      }
+      written += bytes.length;
+    }
+    store.flush(false);
+    store.shutdown();
+    saved = new File(root, "WAL.SAVED");
+    Files.copy(new File(root, "WAL").toPath(), saved.toPath());
+  }
+
+  @Setup(Level.Invocation)
+  public void restore() throws Exception {
+    Files.copy(saved.toPath(), new File(root, "WAL").toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    for (File file : root.listFiles()) {
+      file.delete();
+    }
+    root.delete();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(WAL_MEGABYTES)
+  public void replay() throws Exception {
+    open().shutdown();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.caravan;
+
+import org.adamalang.caravan.index.AnnotatedRegion;
+import org.adamalang.caravan.index.Heap;
+import org.adamalang.caravan.index.Index;
+import org.adamalang.caravan.index.Region;
+import org.adamalang.caravan.index.heaps.IndexedHeap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** compare the primitive Index and IndexedHeap against the boxed versions under a document store like churn */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+  @Param({"10000", "1000000"})
+  public int documents;
+
+  @Param({"primitive", "boxed"})
+  public String implementation;
+
+  private Random rng;
+  private Index primitiveIndex;
+  private BoxedIndex boxedIndex;
+  private Heap heap;
+  private int seq;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    rng = new Random(42);
+    seq = 0;
+    boolean primitive = "primitive".equals(implementation);
+    primitiveIndex = primitive ? new Index() : null;
+    boxedIndex = primitive ? null : new BoxedIndex();
+    heap = primitive ? new IndexedHeap(Long.MAX_VALUE / 2) : new BoxedIndexedHeap(Long.MAX_VALUE / 2);
+    for (int id = 0; id < documents; id++) {
+      for (int k = 0; k < 4; k++) {
+        append(id);
+      }
+    }
+  }
+
+  private void append(long id) {
+    Region region = heap.ask(64 + rng.nextInt(512));
+    AnnotatedRegion annotated = new AnnotatedRegion(region.position, region.size, seq++, 0L);
+    if (primitiveIndex != null) {
+      primitiveIndex.append(id, annotated);
+    } else {
+      boxedIndex.append(id, annotated);
+    }
+  }
+
+  /** a point lookup of a document's regions (i.e. a cache miss) */
+  @Benchmark
+  public void get(Blackhole hole) {
+    long id = rng.nextInt(documents);
+    Iterator<AnnotatedRegion> it = primitiveIndex != null ? primitiveIndex.get(id) : boxedIndex.get(id);
+    while (it.hasNext()) {
+      hole.consume(it.next());
+    }
+  }
+
+  /** a patch: allocate, append, then trim the oldest region and return it to the heap */
+  @Benchmark
+  public void appendAndTrim() {
+    long id = rng.nextInt(documents);
+    append(id);
+    ArrayList<AnnotatedRegion> trimmed = primitiveIndex != null ? primitiveIndex.trim(id, 1) : boxedIndex.trim(id, 1);
+    for (AnnotatedRegion region : trimmed) {
+      heap.free(region);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.json;
+
+import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
+import org.adamalang.runtime.json.JsonAlgebra;
+import org.adamalang.runtime.json.JsonStreamReader;
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the merge work of loading a document from the MySQL backend by the length of its history: replaying every delta by parsing each
+ * into a tree (the old way), replaying every delta by streaming each into the document, and loading the materialized snapshot
+ * plus the deltas after it. The database round trips are left out, but they scale with the rows read in the same way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DocumentLoadBenchmark {
+  private static final int TAIL = 16;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int history;
+
+  @Param({"replay-tree", "replay-stream", "snapshot-tail"})
+  public String load;
+
+  private ArrayList<String> deltas;
+  private String snapshot;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random rng = new Random(42);
+    deltas = new ArrayList<>();
+    // the first delta constructs the document
+    JsonStreamWriter init = new JsonStreamWriter();
+    init.beginObject();
+    for (int k = 0; k < 40; k++) {
+      init.writeObjectFieldIntro("f" + k);
+      init.writeInteger(k);
+    }
+    init.writeObjectFieldIntro("players");
+    init.beginObject();
+    for (int k = 0; k < 8; k++) {
+      init.writeObjectFieldIntro("" + k);
+      init.beginObject();
+      init.writeObjectFieldIntro("name");
+      init.writeString("player-" + k);
+      init.writeObjectFieldIntro("score");
+      init.writeInteger(0);
+      init.endObject();
+    }
+    init.endObject();
+    init.endObject();
+    deltas.add(init.toString());
+    // the rest of the deltas touch a few fields as a game would
+    for (int k = 1; k < history; k++) {
+      JsonStreamWriter delta = new JsonStreamWriter();
+      delta.beginObject();
+      delta.writeObjectFieldIntro("f" + rng.nextInt(40));
+      delta.writeInteger(rng.nextInt(1000));
+      delta.writeObjectFieldIntro("players");
+      delta.beginObject();
+      delta.writeObjectFieldIntro("" + rng.nextInt(8));
+      delta.beginObject();
+      delta.writeObjectFieldIntro("score");
+      delta.writeInteger(k);
+      delta.endObject();
+      delta.endObject();
+      delta.writeObjectFieldIntro("__seq");
+      delta.writeInteger(k);
+      delta.endObject();
+      deltas.add(delta.toString());
+    }
+    AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator();
+    for (int k = 0; k < Math.max(1, deltas.size() - TAIL); k++) {
+      merge.next(deltas.get(k));
+    }
+    snapshot = merge.finish();
+  }
+
+  @Benchmark
+  public String get() {
+    switch (load) {
+      case "replay-tree": {
+        Object state = null;
+        for (String delta : deltas) {
+          Object tree = new JsonStreamReader(delta).readJavaTree();
+          state = state == null ? tree : JsonAlgebra.merge(state, tree, true);
+        }
+        JsonStreamWriter writer = new JsonStreamWriter();
+        writer.writeTree(state);
+        return writer.toString();
+      }
+      case "replay-stream": {
+        AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator();
+        for (String delta : deltas) {
+          merge.next(delta);
+        }
+        return merge.finish();
+      }
+      default: {
+        AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator();
+        merge.next(snapshot);
+        for (int k = Math.max(1, deltas.size() - TAIL); k < deltas.size(); k++) {
+          merge.next(deltas.get(k));
+        }
+        return merge.finish();
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.json;
+
+import org.adamalang.runtime.json.JsonStreamReader;
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the JSON codec which every request, data change, and broadcast flows through: writing a document shaped like a game, streaming
+ * through it (as __insert does), skipping it, and parsing it into a tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonStreamBenchmark {
+  @Param({"8", "128", "2048"})
+  public int rows;
+
+  private String json;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    json = write();
+  }
+
+  @Benchmark
+  public String write() {
+    Random rng = new Random(42);
+    JsonStreamWriter writer = new JsonStreamWriter();
+    writer.beginObject();
+    writer.writeObjectFieldIntro("round");
+    writer.writeInteger(rows);
+    writer.writeObjectFieldIntro("title");
+    writer.writeString("a game with \"quotes\" and a\nnewline");
+    writer.writeObjectFieldIntro("cards");
+    writer.beginObject();
+    for (int k = 0; k < rows; k++) {
+      writer.writeObjectFieldIntro(k);
+      writer.beginObject();
+      writer.writeObjectFieldIntro("id");
+      writer.writeInteger(k);
+      writer.writeObjectFieldIntro("name");
+      writer.writeString("card-" + rng.nextInt(1000));
+      writer.writeObjectFieldIntro("value");
+      writer.writeDouble(rng.nextDouble());
+      writer.writeObjectFieldIntro("visible");
+      writer.writeBoolean(rng.nextBoolean());
+      writer.writeObjectFieldIntro("tags");
+      writer.beginArray();
+      for (int j = 0; j < 3; j++) {
+        writer.writeInteger(rng.nextInt(100));
+      }
+      writer.endArray();
+      writer.endObject();
+    }
+    writer.endObject();
+    writer.endObject();
+    return writer.toString();
+  }
+
+  /** walk every token as generated code does */
+  @Benchmark
+  public long read_stream() {
+    return walk(new JsonStreamReader(json));
+  }
+
+  @Benchmark
+  public JsonStreamReader read_skip() {
+    JsonStreamReader reader = new JsonStreamReader(json);
+    reader.skipValue();
+    return reader;
+  }
+
+  @Benchmark
+  public Object read_tree() {
+    return new JsonStreamReader(json).readJavaTree();
+  }
+
+  private static long walk(JsonStreamReader reader) {
+    long sum = 0;
+    if (reader.startObject()) {
+      while (reader.notEndOfObject()) {
+        sum += reader.fieldName().length();
+        sum += walk(reader);
+      }
+    } else if (reader.startArray()) {
+      while (reader.notEndOfArray()) {
+        sum += walk(reader);
+      }
+    } else {
+      sum += reader.skipValueIntoJson().length();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.net;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.adamalang.net.codec.ClientCodec;
+import org.adamalang.net.codec.ClientMessage;
+import org.adamalang.net.codec.ServerCodec;
+import org.adamalang.net.codec.ServerMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** the binary codecs between the web tier and the adama tier for the messages of a connection: a send in, and a data change out */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+  @Param({"64", "4096"})
+  public int payloadSize;
+
+  private ClientMessage.StreamSend send;
+  private ServerMessage.StreamData data;
+  private ByteBuf buf;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    StringBuilder payload = new StringBuilder();
+    payload.append("{\"what\":\"");
+    while (payload.length() < payloadSize - 2) {
+      payload.append((char) ('a' + payload.length() % 26));
+    }
+    payload.append("\"}");
+    send = new ClientMessage.StreamSend();
+    send.op = 42;
+    send.channel = "say";
+    send.marker = "marker";
+    send.message = payload.toString();
+    data = new ServerMessage.StreamData();
+    data.delta = "{\"data\":" + payload + ",\"seq\":42}";
+    buf = PooledByteBufAllocator.DEFAULT.buffer(2 * payloadSize + 128);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    buf.release();
+  }
+
+  @Benchmark
+  public ClientMessage.StreamSend client_send() {
+    buf.clear();
+    ClientCodec.write(buf, send);
+    return ClientCodec.read_StreamSend(buf);
+  }
+
+  @Benchmark
+  public ServerMessage.StreamData server_data() {
+    buf.clear();
+    ServerCodec.write(buf, data);
+    return ServerCodec.read_StreamData(buf);
+  }
+}
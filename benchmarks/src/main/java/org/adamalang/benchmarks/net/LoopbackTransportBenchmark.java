@@ -0,0 +1,141 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.net;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.adamalang.common.ConfigObject;
+import org.adamalang.common.Json;
+import org.adamalang.common.net.NetTransport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * compare the transports over loopback using the framing of the adama to web protocol (a 4 byte length prefix per frame) with an
+ * echo server; TLS is left out as it costs the same for every transport. A transport which isn't available on the host fails
+ * its trial rather than silently measuring the fallback.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoopbackTransportBenchmark {
+  private static final int PIPELINE_DEPTH = 64;
+
+  @Param({"nio", "epoll", "io_uring"})
+  public String transport;
+
+  @Param({"pooled-direct", "pooled-heap"})
+  public String allocator;
+
+  @Param({"128", "8192"})
+  public int frameSize;
+
+  private EventLoopGroup boss;
+  private EventLoopGroup workers;
+  private Channel server;
+  private Channel client;
+  private Semaphore echoes;
+  private byte[] payload;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    ObjectNode node = Json.newJsonObject();
+    node.put("bench_transport", transport);
+    node.put("bench_allocator", allocator);
+    NetTransport net = new NetTransport(new ConfigObject(node), "bench");
+    if (!net.kind.name.equals(transport)) {
+      // the transport fell back, so measuring it would mislabel the result
+      throw new IllegalStateException("transport-unavailable:" + transport);
+    }
+    boss = net.group(1);
+    workers = net.group(2);
+    echoes = new Semaphore(0);
+    payload = new byte[frameSize];
+    ServerBootstrap serverBootstrap = new ServerBootstrap();
+    serverBootstrap.group(boss, workers);
+    net.server(serverBootstrap);
+    serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
+      @Override
+      protected void initChannel(SocketChannel ch) {
+        ch.pipeline().addLast(new LengthFieldPrepender(4));
+        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(67108864, 0, 4, 0, 4));
+        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+          @Override
+          public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.write(msg);
+          }
+
+          @Override
+          public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+          }
+        });
+      }
+    });
+    server = serverBootstrap.bind("127.0.0.1", 0).sync().channel();
+    Bootstrap clientBootstrap = new Bootstrap();
+    clientBootstrap.group(workers);
+    net.client(clientBootstrap);
+    clientBootstrap.handler(new ChannelInitializer<SocketChannel>() {
+      @Override
+      protected void initChannel(SocketChannel ch) {
+        ch.pipeline().addLast(new LengthFieldPrepender(4));
+        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(67108864, 0, 4, 0, 4));
+        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+          @Override
+          public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ((ByteBuf) msg).release();
+            echoes.release();
+          }
+        });
+      }
+    });
+    client = clientBootstrap.connect(server.localAddress()).sync().channel();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws Exception {
+    client.close().sync();
+    server.close().sync();
+    workers.shutdownGracefully().sync();
+    boss.shutdownGracefully().sync();
+  }
+
+  /** latency of a single frame there and back */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void round_trip() throws Exception {
+    client.writeAndFlush(client.alloc().buffer(frameSize).writeBytes(payload));
+    echoes.acquire();
+  }
+
+  /** throughput of frames when many are in flight */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(PIPELINE_DEPTH)
+  public void pipelined() throws Exception {
+    for (int k = 0; k < PIPELINE_DEPTH; k++) {
+      client.write(client.alloc().buffer(frameSize).writeBytes(payload));
+    }
+    client.flush();
+    echoes.acquire(PIPELINE_DEPTH);
+  }
+}
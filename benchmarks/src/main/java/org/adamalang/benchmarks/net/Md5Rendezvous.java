@@ -0,0 +1,42 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.net;
+
+import org.adamalang.common.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.TreeSet;
+
+/** the prior (MD5 per target) version of SpaceState.pick kept as the baseline for the comparison */
+public class Md5Rendezvous {
+  private final TreeSet<String> targets;
+
+  public Md5Rendezvous(TreeSet<String> targets) {
+    this.targets = targets;
+  }
+
+  public String pick(String key) {
+    String winner = null;
+    String winningHash = "";
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    for (String target : targets) {
+      MessageDigest digest = Hashing.md5();
+      digest.update(target.getBytes(StandardCharsets.UTF_8));
+      digest.update(keyBytes);
+      String targetHash = Hashing.finishAndEncode(digest);
+      if (targetHash.compareTo(winningHash) > 0) {
+        winner = target;
+        winningHash = targetHash;
+      }
+    }
+    return winner;
+  }
+}
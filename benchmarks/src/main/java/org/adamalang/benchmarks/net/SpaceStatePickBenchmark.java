@@ -0,0 +1,62 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.net;
+
+import org.adamalang.net.client.routing.reactive.RendezvousPicker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/** compare routing a key across the targets of a space with seeded 64-bit rendezvous hashing against MD5 per target */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SpaceStatePickBenchmark {
+  @Param({"500"})
+  public int targets;
+
+  @Param({"seeded", "md5"})
+  public String implementation;
+
+  private Random rng;
+  private RendezvousPicker seeded;
+  private Md5Rendezvous md5;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    rng = new Random(42);
+    TreeSet<String> set = new TreeSet<>();
+    for (int k = 0; k < targets; k++) {
+      set.add("10.0." + (k / 256) + "." + (k % 256) + ":8001");
+    }
+    boolean isSeeded = "seeded".equals(implementation);
+    seeded = isSeeded ? new RendezvousPicker(set) : null;
+    md5 = isSeeded ? null : new Md5Rendezvous(set);
+  }
+
+  /** a key which has not been routed before (i.e. a memo miss) */
+  @Benchmark
+  public String pick_fresh() {
+    String key = "doc-" + rng.nextLong();
+    return seeded != null ? seeded.pick(key) : md5.pick(key);
+  }
+
+  /** a key from a hot working set which fits within the memo */
+  @Benchmark
+  public String pick_hot() {
+    String key = "doc-" + rng.nextInt(256);
+    return seeded != null ? seeded.pick(key) : md5.pick(key);
+  }
+}
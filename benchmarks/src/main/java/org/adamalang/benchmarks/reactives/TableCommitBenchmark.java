@@ -0,0 +1,171 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.reactives;
+
+import org.adamalang.runtime.contracts.RxParent;
+import org.adamalang.runtime.json.JsonStreamReader;
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.adamalang.runtime.reactives.RxInt32;
+import org.adamalang.runtime.reactives.RxRecordBase;
+import org.adamalang.runtime.reactives.RxTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** the cost of committing (or reverting) a transaction which changes a single cell of a table against the size of the table */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TableCommitBenchmark {
+  @Param({"100", "1000", "10000", "50000"})
+  public int rows;
+
+  private Random rng;
+  private RxTable<Row> table;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    rng = new Random(42);
+    RxParent root = new RxParent() {
+      @Override
+      public void __raiseDirty() {
+      }
+
+      @Override
+      public boolean __isAlive() {
+        return true;
+      }
+    };
+    table = new RxTable<>(null, root, "row", Row::new, 0);
+    for (int k = 0; k < rows; k++) {
+      table.make(k).value.set(k);
+    }
+    table.__commit("rows", new JsonStreamWriter(), new JsonStreamWriter());
+  }
+
+  @Benchmark
+  public JsonStreamWriter commit_one_cell() {
+    Row row = table.getById(rng.nextInt(rows));
+    row.value.set(row.value.get() + 1);
+    JsonStreamWriter forward = new JsonStreamWriter();
+    table.__commit("rows", forward, new JsonStreamWriter());
+    return forward;
+  }
+
+  @Benchmark
+  public RxTable<Row> revert_one_cell() {
+    Row row = table.getById(rng.nextInt(rows));
+    row.value.set(row.value.get() + 1);
+    table.__revert();
+    return table;
+  }
+
+  /** a row with a single integer, shaped like the generated code */
+  public static class Row extends RxRecordBase<Row> {
+    private final RxInt32 value;
+    private int id;
+
+    public Row(RxParent parent) {
+      super(parent);
+      this.value = new RxInt32(this, 0);
+      this.id = 0;
+    }
+
+    @Override
+    public void __commit(String name, JsonStreamWriter forward, JsonStreamWriter reverse) {
+      if (__isDirty()) {
+        forward.writeObjectFieldIntro(name);
+        forward.beginObject();
+        reverse.writeObjectFieldIntro(name);
+        reverse.beginObject();
+        value.__commit("value", forward, reverse);
+        forward.endObject();
+        reverse.endObject();
+        __lowerDirtyCommit();
+      }
+    }
+
+    @Override
+    public void __dump(JsonStreamWriter writer) {
+      writer.beginObject();
+      writer.writeObjectFieldIntro("value");
+      value.__dump(writer);
+      writer.endObject();
+    }
+
+    @Override
+    public void __insert(JsonStreamReader reader) {
+      if (reader.startObject()) {
+        while (reader.notEndOfObject()) {
+          if ("value".equals(reader.fieldName())) {
+            value.__insert(reader);
+          } else {
+            reader.skipValue();
+          }
+        }
+      }
+    }
+
+    @Override
+    public void __patch(JsonStreamReader reader) {
+      __insert(reader);
+    }
+
+    @Override
+    public void __revert() {
+      if (__isDirty()) {
+        __isDying = false;
+        value.__revert();
+        __lowerDirtyRevert();
+      }
+    }
+
+    @Override
+    public void __deindex() {
+    }
+
+    @Override
+    public String[] __getIndexColumns() {
+      return new String[0];
+    }
+
+    @Override
+    public int[] __getIndexValues() {
+      return new int[0];
+    }
+
+    @Override
+    public void __killFields() {
+    }
+
+    @Override
+    public String __name() {
+      return "row";
+    }
+
+    @Override
+    public void __reindex() {
+    }
+
+    @Override
+    public void __setId(int id, boolean force) {
+      this.id = id;
+    }
+
+    @Override
+    public int __id() {
+      return id;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.runtime;
+
+import org.adamalang.runtime.contracts.Perspective;
+import org.adamalang.runtime.delta.secure.AssetIdEncoder;
+import org.adamalang.runtime.delta.secure.SecureAssetUtil;
+import org.adamalang.runtime.deploy.DeploymentFactory;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.remote.Deliverer;
+import org.adamalang.runtime.sys.CoreRequestContext;
+import org.adamalang.runtime.sys.LivingDocument;
+import org.adamalang.runtime.sys.LivingDocumentChange;
+import org.adamalang.runtime.sys.LivingDocumentRequest;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the hot path of a message to a document: parse the request, run the channel, commit the change (LivingDocument.__transact and
+ * the RxTable commit beneath it), then build and deliver the broadcast to every connected viewer. The document is the chat
+ * example (examples/chat.adama) compiled via the same path as a deployment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DocumentTransactBenchmark {
+  private static final String CHAT = "" + //
+      "@static {\n" + //
+      "  create(who) { return true; }\n" + //
+      "  invent(who) { return true; }\n" + //
+      "  maximum_history = 100;\n" + //
+      "}\n" + //
+      "@connected (who) {\n" + //
+      "  return true;\n" + //
+      "}\n" + //
+      "record Line {\n" + //
+      "  public client who;\n" + //
+      "  public string what;\n" + //
+      "  public long when;\n" + //
+      "}\n" + //
+      "table<Line> _chat;\n" + //
+      "message Say {\n" + //
+      "  string what;\n" + //
+      "}\n" + //
+      "channel say(client who, Say what) {\n" + //
+      "  _chat <- {who:who, what:what.what, when: Time.now()};\n" + //
+      "  (iterate _chat order by when desc offset 5).delete();\n" + //
+      "}\n" + //
+      "view bool ordering;\n" + //
+      "bubble chat = @viewer.ordering ? (iterate _chat order id desc) : (iterate _chat order id asc);\n";
+
+  @Param({"0", "1", "16", "256"})
+  public int viewers;
+
+  private LivingDocumentFactory factory;
+  private LivingDocument document;
+  private CoreRequestContext context;
+  private long time;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    factory = DeploymentFactory.compile("bench", "Chat", CHAT, new HashMap<>(), Deliverer.FAILURE);
+    document = factory.create(null);
+    document.__lateBind("bench", "0", Deliverer.FAILURE, factory.registry);
+    NtClient owner = new NtClient("owner", "bench");
+    time = 1;
+    document.__transact(LivingDocumentRequest.construct(time++, owner, "{}", "42"), factory).complete();
+    document.__transact(LivingDocumentRequest.connect(time++, owner), factory).complete();
+    AssetIdEncoder encoder = new AssetIdEncoder(SecureAssetUtil.makeAssetKeyHeader());
+    for (int k = 0; k < viewers; k++) {
+      NtClient viewer = new NtClient("viewer-" + k, "bench");
+      document.__transact(LivingDocumentRequest.connect(time++, viewer), factory).complete();
+      document.__createView(viewer, Perspective.DEAD, encoder);
+    }
+    context = new CoreRequestContext(owner, "origin", "127.0.0.1", "0");
+    // the first message brings every view up to date, so the measurement is of the steady state
+    document.__transact(LivingDocumentRequest.send(time++, context, null, "say", "{\"what\":\"hello\"}"), factory).complete();
+  }
+
+  /** the request arrives as JSON (as from the log or a remote peer) */
+  @Benchmark
+  public LivingDocumentChange send_json() throws Exception {
+    String request = "{\"command\":\"send\",\"timestamp\":" + (time++) + ",\"who\":{\"agent\":\"owner\",\"authority\":\"bench\"},\"key\":\"0\",\"origin\":\"origin\",\"ip\":\"127.0.0.1\",\"channel\":\"say\",\"message\":{\"what\":\"hello\"}}";
+    LivingDocumentChange change = document.__transact(request, factory);
+    change.complete();
+    return change;
+  }
+
+  /** the request arrives typed (as from a connection within the process) */
+  @Benchmark
+  public LivingDocumentChange send_typed() throws Exception {
+    LivingDocumentChange change = document.__transact(LivingDocumentRequest.send(time++, context, null, "say", "{\"what\":\"hello\"}"), factory);
+    change.complete();
+    return change;
+  }
+}
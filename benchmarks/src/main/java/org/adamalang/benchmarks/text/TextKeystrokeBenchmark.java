@@ -0,0 +1,64 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks.text;
+
+import org.adamalang.runtime.text.Text;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the cost of a keystroke (a single character OT change at a random position) against the size of the text; the "read" variants
+ * also read the text after each keystroke as a document which renders the text would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TextKeystrokeBenchmark {
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean read;
+
+  private Random rng;
+  private Text text;
+  private int length;
+  private int seq;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    rng = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int k = 0; k < size; k++) {
+      sb.append(k % 80 == 79 ? '\n' : (char) ('a' + rng.nextInt(26)));
+    }
+    text = new Text(0);
+    text.set(sb.toString(), 0);
+    length = size;
+    seq = 0;
+  }
+
+  @Benchmark
+  public Object keystroke() {
+    int at = rng.nextInt(length + 1);
+    text.append(seq, "{\"clientID\":\"bench\",\"changes\":[" + at + ",[0,\"x\"]," + (length - at) + "]}");
+    seq++;
+    length++;
+    if (read) {
+      return text.get().value;
+    }
+    return text;
+  }
+}
@@ -13,6 +13,8 @@ import org.adamalang.canary.agents.local.LocalCanaryConfig;
 import org.adamalang.canary.agents.local.LocalDrive;
 import org.adamalang.canary.agents.net.LocalNetCanaryConfig;
 import org.adamalang.canary.agents.net.LocalNetDrive;
+import org.adamalang.canary.agents.openloop.OpenLoopCanaryConfig;
+import org.adamalang.canary.agents.openloop.OpenLoopDrive;
 import org.adamalang.canary.agents.simple.SimpleCanaryConfig;
 import org.adamalang.canary.agents.simple.SimpleDrive;
 import org.adamalang.common.ConfigObject;
@@ -29,5 +31,8 @@ public class DriveTraffic {
     if ("localnet".equals(mode)) {
       LocalNetDrive.go(new LocalNetCanaryConfig(config));
     }
+    if ("openloop".equals(mode)) {
+      OpenLoopDrive.go(new OpenLoopCanaryConfig(config));
+    }
   }
 }
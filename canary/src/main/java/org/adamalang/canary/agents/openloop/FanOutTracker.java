@@ -0,0 +1,87 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * pairs the deltas which viewers of a document receive with the message which caused them via the sequencer: the ack of a send
+ * yields the sequencer of the change, and every delta carries the sequencer it brings the viewer up to. A delta may beat the ack
+ * of its send, so early arrivals are held until the ack lands.
+ */
+public class FanOutTracker {
+  private static final int WINDOW = 1000;
+  private final OpenLoopMetrics metrics;
+  private final TreeMap<Integer, Long> intended;
+  private final TreeMap<Integer, ArrayList<Long>> early;
+  private int highest;
+
+  public FanOutTracker(OpenLoopMetrics metrics) {
+    this.metrics = metrics;
+    this.intended = new TreeMap<>();
+    this.early = new TreeMap<>();
+    this.highest = 0;
+  }
+
+  /** a send which was intended to go out at the given time was acknowledged as the given sequencer */
+  public synchronized void ack(int seq, long intendedNanos) {
+    intended.put(seq, intendedNanos);
+    ArrayList<Long> arrivals = early.remove(seq);
+    if (arrivals != null) {
+      for (long arrival : arrivals) {
+        metrics.record_fanout_latency(arrival - intendedNanos);
+      }
+    }
+    trim(seq);
+  }
+
+  /** a viewer received a delta */
+  public synchronized void delta(String data, long arrivalNanos) {
+    int seq = seqOf(data);
+    if (seq < 0) {
+      return;
+    }
+    Long at = intended.get(seq);
+    if (at != null) {
+      metrics.record_fanout_latency(arrivalNanos - at);
+    } else if (seq > highest - WINDOW) {
+      early.computeIfAbsent(seq, (k) -> new ArrayList<>()).add(arrivalNanos);
+    }
+    trim(seq);
+  }
+
+  /** keep the memory bounded; changes not caused by a send (i.e. connects) never pair */
+  private void trim(int seq) {
+    highest = Math.max(highest, seq);
+    intended.headMap(highest - WINDOW).clear();
+    early.headMap(highest - WINDOW).clear();
+  }
+
+  /** extract the sequencer from a delta (i.e. {"data":{...},"seq":42}) without parsing the data */
+  public static int seqOf(String data) {
+    int at = data.lastIndexOf("\"seq\":");
+    if (at < 0) {
+      return -1;
+    }
+    int value = 0;
+    boolean found = false;
+    for (int k = at + 6; k < data.length(); k++) {
+      char ch = data.charAt(k);
+      if (ch >= '0' && ch <= '9') {
+        value = value * 10 + (ch - '0');
+        found = true;
+      } else {
+        break;
+      }
+    }
+    return found ? value : -1;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.runtime.contracts.Streamback;
+import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.sys.CoreRequestContext;
+import org.adamalang.runtime.sys.CoreService;
+import org.adamalang.runtime.sys.CoreStream;
+
+/** an open loop agent against an in-process CoreService */
+public class LocalOpenLoopAgent extends OpenLoopAgent implements Streamback {
+  private final CoreService service;
+  private CoreStream stream;
+
+  public LocalOpenLoopAgent(CoreService service, OpenLoopCanaryConfig config, int agentId, Key key, FanOutTracker tracker) {
+    super(config, agentId, key, tracker);
+    this.service = service;
+  }
+
+  @Override
+  protected void connect() {
+    service.connect(new CoreRequestContext(who, "origin", "127.0.0.1", key.key), key, "{}", null, this);
+  }
+
+  @Override
+  protected void send(String channel, String message, Callback<Integer> callback) {
+    stream.send(channel, null, message, callback);
+  }
+
+  @Override
+  public void onSetupComplete(CoreStream stream) {
+    this.stream = stream;
+  }
+
+  @Override
+  public void status(StreamStatus status) {
+  }
+
+  @Override
+  public void next(String data) {
+    onDelta(data);
+  }
+
+  @Override
+  public void failure(ErrorCodeException exception) {
+    onFailure(exception.code);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import org.adamalang.common.Callback;
+import org.adamalang.net.client.Client;
+import org.adamalang.net.client.contracts.SimpleEvents;
+import org.adamalang.net.client.sm.Connection;
+import org.adamalang.runtime.data.Key;
+
+/** an open loop agent against a net server */
+public class NetOpenLoopAgent extends OpenLoopAgent implements SimpleEvents {
+  private final Client client;
+  private Connection connection;
+
+  public NetOpenLoopAgent(Client client, OpenLoopCanaryConfig config, int agentId, Key key, FanOutTracker tracker) {
+    super(config, agentId, key, tracker);
+    this.client = client;
+  }
+
+  @Override
+  protected void connect() {
+    connection = client.connect("127.0.0.1", "origin", who.agent, who.authority, key.space, key.key, "{}", null, this);
+  }
+
+  @Override
+  protected void send(String channel, String message, Callback<Integer> callback) {
+    connection.send(channel, null, message, callback);
+  }
+
+  @Override
+  public void connected() {
+  }
+
+  @Override
+  public void delta(String data) {
+    onDelta(data);
+  }
+
+  @Override
+  public void error(int code) {
+    onFailure(code);
+  }
+
+  @Override
+  public void disconnected() {
+  }
+}
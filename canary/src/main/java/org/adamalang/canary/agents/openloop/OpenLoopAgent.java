@@ -0,0 +1,90 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import org.adamalang.canary.agents.simple.SimpleCanaryConfig;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.natives.NtClient;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** a connection to a document which is driven by the open loop schedule rather than its own pace */
+public abstract class OpenLoopAgent {
+  protected final OpenLoopCanaryConfig config;
+  protected final NtClient who;
+  protected final Key key;
+  private final FanOutTracker tracker;
+  private final AtomicBoolean firstDelta;
+  private volatile boolean ready;
+  private long intendedConnectNanos;
+
+  public OpenLoopAgent(OpenLoopCanaryConfig config, int agentId, Key key, FanOutTracker tracker) {
+    this.config = config;
+    this.who = new NtClient("agent" + agentId, "canary");
+    this.key = key;
+    this.tracker = tracker;
+    this.firstDelta = new AtomicBoolean(true);
+    this.ready = false;
+  }
+
+  /** open the connection to the document */
+  protected abstract void connect();
+
+  /** send the document a message */
+  protected abstract void send(String channel, String message, Callback<Integer> callback);
+
+  /** the connection was meant to open at the given time */
+  public void kickOff(long intendedNanos) {
+    this.intendedConnectNanos = intendedNanos;
+    connect();
+  }
+
+  /** has the connection received the first delta such that it can send */
+  public boolean ready() {
+    return ready;
+  }
+
+  /** send a message which was meant to go out at the given time */
+  public void issue(SimpleCanaryConfig.Message msg, long intendedNanos) {
+    config.metrics.messages_sent.incrementAndGet();
+    send(msg.channel, msg.message.toString(), new Callback<Integer>() {
+      @Override
+      public void success(Integer seq) {
+        config.metrics.record_send_latency(System.nanoTime() - intendedNanos);
+        config.metrics.messages_acked.incrementAndGet();
+        tracker.ack(seq, intendedNanos);
+      }
+
+      @Override
+      public void failure(ErrorCodeException ex) {
+        config.metrics.report_failure(ex.code);
+        config.metrics.messages_failed.incrementAndGet();
+      }
+    });
+  }
+
+  protected void onDelta(String data) {
+    long now = System.nanoTime();
+    if (firstDelta.compareAndSet(true, false)) {
+      config.metrics.record_connect_latency(now - intendedConnectNanos);
+      ready = true;
+    }
+    config.metrics.deltas.incrementAndGet();
+    tracker.delta(data, now);
+  }
+
+  protected void onFailure(int code) {
+    ready = false;
+    config.metrics.stream_failed.incrementAndGet();
+    config.metrics.report_failure(code);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import org.adamalang.canary.agents.simple.SimpleCanaryConfig;
+import org.adamalang.common.ConfigObject;
+
+/** configuration for the open loop mode which issues traffic at a target rate regardless of how the system responds */
+public class OpenLoopCanaryConfig {
+  public final String target;
+  public final String source;
+  public final String space;
+  public final String keyPrefix;
+  public final int keyIdMin;
+  public final int keyIdMax;
+  public final int agents;
+  public final int connectsPerSecond;
+  public final int messagesPerSecond;
+  public final int warmupSeconds;
+  public final int durationSeconds;
+  public final SimpleCanaryConfig.Message[] messages;
+  public final int coreThreads;
+  public final String identityFile;
+  public final int port;
+  public final String reportFile;
+  public final OpenLoopMetrics metrics;
+
+  public OpenLoopCanaryConfig(ConfigObject config) {
+    this.target = config.strOf("target", "local");
+    this.source = config.strOf("source", "canary.adama");
+    this.space = config.strOf("space", "demo");
+    this.keyPrefix = config.strOf("key_prefix", "");
+    this.keyIdMin = config.intOf("key_id_min", 1);
+    this.keyIdMax = config.intOf("key_id_max", 50);
+    this.agents = config.intOf("agents", 100);
+    this.connectsPerSecond = config.intOf("connects_per_second", 100);
+    this.messagesPerSecond = config.intOf("messages_per_second", 1000);
+    this.warmupSeconds = config.intOf("warmup_seconds", 5);
+    this.durationSeconds = config.intOf("duration_seconds", 30);
+    String[] rawMessages = config.stringsOf("messages", "messages was not an array");
+    this.messages = new SimpleCanaryConfig.Message[rawMessages.length];
+    for (int k = 0; k < messages.length; k++) {
+      this.messages[k] = new SimpleCanaryConfig.Message(rawMessages[k]);
+    }
+    this.coreThreads = config.intOf("core_threads", 2);
+    this.identityFile = config.strOf("identity_file", "localhost.identity");
+    this.port = config.intOf("port", 9999);
+    this.reportFile = config.strOf("report_file", "canary-latency.txt");
+    this.metrics = new OpenLoopMetrics();
+  }
+}
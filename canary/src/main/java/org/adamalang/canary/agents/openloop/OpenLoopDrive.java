@@ -0,0 +1,177 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.adamalang.canary.agents.simple.SimpleCanaryConfig;
+import org.adamalang.common.*;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.common.net.NetBase;
+import org.adamalang.common.net.ServerHandle;
+import org.adamalang.net.client.Client;
+import org.adamalang.net.client.ClientConfig;
+import org.adamalang.net.client.ClientMetrics;
+import org.adamalang.net.client.routing.ClientRouter;
+import org.adamalang.net.server.Handler;
+import org.adamalang.net.server.ServerMetrics;
+import org.adamalang.net.server.ServerNexus;
+import org.adamalang.runtime.data.InMemoryDataService;
+import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.deploy.DeploymentFactoryBase;
+import org.adamalang.runtime.deploy.DeploymentPlan;
+import org.adamalang.runtime.sys.CoreMetrics;
+import org.adamalang.runtime.sys.CoreService;
+import org.adamalang.runtime.sys.metering.DiskMeteringBatchMaker;
+import org.adamalang.runtime.sys.metering.MeteringPubSub;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * drive traffic open loop: connections open and messages go out on a fixed schedule (the target arrival rate) no matter how long
+ * prior requests take, and latency is measured from when the request should have gone out. A closed loop (where each agent waits
+ * on its prior send or on a fixed delay after a slow one) sends less as the system slows, so it hides the very stalls it should
+ * report (coordinated omission).
+ */
+public class OpenLoopDrive {
+  /** a request issued this long after its intended time means the generator itself fell behind */
+  private static final long LATE_NANOS = 1000000L;
+
+  public static void go(OpenLoopCanaryConfig config) throws Exception {
+    ExceptionLogger logger = new ExceptionLogger() {
+      @Override
+      public void convertedToErrorCode(Throwable t, int errorCode) {
+        System.exit(100);
+      }
+    };
+    DeploymentFactoryBase deploymentFactoryBase = new DeploymentFactoryBase();
+    String singleScript = Files.readString(new File(config.source).toPath());
+    ObjectNode planNode = Json.newJsonObject();
+    planNode.putObject("versions").put("file", singleScript);
+    planNode.put("default", "file");
+    planNode.putArray("plan");
+    DeploymentPlan plan = new DeploymentPlan(planNode.toString(), logger);
+    deploymentFactoryBase.deploy(config.space, plan);
+    MeteringPubSub meteringPubSub = new MeteringPubSub(TimeSource.REAL_TIME, deploymentFactoryBase);
+    CoreService service = new CoreService(new CoreMetrics(new NoOpMetricsFactory()), deploymentFactoryBase, meteringPubSub.publisher(), new InMemoryDataService(Executors.newSingleThreadExecutor(), TimeSource.REAL_TIME), TimeSource.REAL_TIME, config.coreThreads);
+
+    HashMap<Key, FanOutTracker> trackers = new HashMap<>();
+    OpenLoopAgent[] agents = new OpenLoopAgent[config.agents];
+    Runnable shutdown;
+    if ("localnet".equals(config.target)) {
+      SimpleExecutor executor = SimpleExecutor.create("billing");
+      MachineIdentity identity = MachineIdentity.fromFile(config.identityFile);
+      NetBase netBase = new NetBase(identity, 1, 4);
+      File billingRoot = new File(File.createTempFile("ADAMATEST_", "x23").getParentFile(), "Billing-" + System.currentTimeMillis());
+      billingRoot.mkdir();
+      DiskMeteringBatchMaker batchMaker = new DiskMeteringBatchMaker(TimeSource.REAL_TIME, executor, billingRoot, 1800000L);
+      ServerNexus nexus = new ServerNexus(netBase, identity, service, new ServerMetrics(new NoOpMetricsFactory()), deploymentFactoryBase, (space) -> {
+      }, meteringPubSub, batchMaker, config.port, 2);
+      ServerHandle handle = netBase.serve(config.port, (upstream -> new Handler(nexus, upstream)));
+      ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+      Client client = new Client(netBase, new ClientConfig(), metrics, ClientRouter.REACTIVE(metrics), null);
+      client.getTargetPublisher().accept(Collections.singletonList("127.0.0.1:" + config.port));
+      for (int k = 0; k < agents.length; k++) {
+        Key key = keyOf(config, k);
+        agents[k] = new NetOpenLoopAgent(client, config, k, key, trackers.computeIfAbsent(key, (x) -> new FanOutTracker(config.metrics)));
+      }
+      shutdown = () -> {
+        client.shutdown();
+        handle.kill();
+        netBase.shutdown();
+        for (File file : billingRoot.listFiles()) {
+          file.delete();
+        }
+        billingRoot.delete();
+        executor.shutdown();
+      };
+    } else {
+      for (int k = 0; k < agents.length; k++) {
+        Key key = keyOf(config, k);
+        agents[k] = new LocalOpenLoopAgent(service, config, k, key, trackers.computeIfAbsent(key, (x) -> new FanOutTracker(config.metrics)));
+      }
+      shutdown = () -> {};
+    }
+
+    Thread generator = new Thread(() -> generate(config, agents), "open-loop-generator");
+    generator.start();
+    long connectSeconds = (long) Math.ceil(agents.length / (double) Math.max(1, config.connectsPerSecond));
+    for (long second = 0; second < connectSeconds + config.warmupSeconds; second++) {
+      Thread.sleep(1000);
+      config.metrics.snapshot();
+    }
+    config.metrics.startMeasuring();
+    generator.join();
+    // let the stragglers land such that they are charged rather than dropped
+    Thread.sleep(1000);
+    config.metrics.snapshot();
+    config.metrics.report(new File(config.reportFile));
+    System.out.println("wrote latency percentiles to " + config.reportFile);
+    shutdown.run();
+    service.shutdown();
+  }
+
+  /** spread the agents evenly over the keys such that each document has viewers to fan out to */
+  private static Key keyOf(OpenLoopCanaryConfig config, int agentId) {
+    int keys = config.keyIdMax - config.keyIdMin + 1;
+    return new Key(config.space, config.keyPrefix + (config.keyIdMin + agentId % keys));
+  }
+
+  /** the schedule: connect every agent at the connect rate, then send at the message rate until the duration has elapsed */
+  private static void generate(OpenLoopCanaryConfig config, OpenLoopAgent[] agents) {
+    Random rng = new Random();
+    long start = System.nanoTime();
+    long connectInterval = 1000000000L / Math.max(1, config.connectsPerSecond);
+    for (int k = 0; k < agents.length; k++) {
+      long intended = start + k * connectInterval;
+      waitUntil(intended);
+      agents[k].kickOff(intended);
+    }
+    long sendStart = start + (long) Math.ceil(agents.length / (double) Math.max(1, config.connectsPerSecond)) * 1000000000L;
+    long sendInterval = 1000000000L / Math.max(1, config.messagesPerSecond);
+    long sends = (long) (config.warmupSeconds + config.durationSeconds) * Math.max(1, config.messagesPerSecond);
+    for (long k = 0; k < sends; k++) {
+      long intended = sendStart + k * sendInterval;
+      waitUntil(intended);
+      if (System.nanoTime() - intended > LATE_NANOS) {
+        config.metrics.messages_late.incrementAndGet();
+      }
+      OpenLoopAgent agent = pickReady(agents, rng.nextInt(agents.length));
+      if (agent == null) {
+        config.metrics.messages_failed.incrementAndGet();
+        continue;
+      }
+      SimpleCanaryConfig.Message msg = config.messages[rng.nextInt(config.messages.length)];
+      agent.issue(msg, intended);
+    }
+  }
+
+  private static OpenLoopAgent pickReady(OpenLoopAgent[] agents, int at) {
+    for (int k = 0; k < agents.length; k++) {
+      OpenLoopAgent agent = agents[(at + k) % agents.length];
+      if (agent.ready()) {
+        return agent;
+      }
+    }
+    return null;
+  }
+
+  private static void waitUntil(long intended) {
+    long remaining;
+    while ((remaining = intended - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.canary.agents.openloop;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * latency (in nanoseconds from the intended time, such that a stall is charged to every request which should have happened during
+ * it) is recorded into HDR histograms; the console shows each second while the report file holds the distribution after warmup.
+ */
+public class OpenLoopMetrics {
+  public final AtomicInteger messages_sent;
+  public final AtomicInteger messages_acked;
+  public final AtomicInteger messages_failed;
+  public final AtomicInteger messages_late;
+  public final AtomicInteger deltas;
+  public final AtomicInteger stream_failed;
+  private final Recorder send;
+  private final Recorder connect;
+  private final Recorder fanout;
+  private final Histogram sendTotal;
+  private final Histogram connectTotal;
+  private final Histogram fanoutTotal;
+  private final HashMap<Integer, Integer> failure_reasons;
+  private Histogram sendInterval;
+  private Histogram connectInterval;
+  private Histogram fanoutInterval;
+  private boolean measuring;
+
+  public OpenLoopMetrics() {
+    this.messages_sent = new AtomicInteger(0);
+    this.messages_acked = new AtomicInteger(0);
+    this.messages_failed = new AtomicInteger(0);
+    this.messages_late = new AtomicInteger(0);
+    this.deltas = new AtomicInteger(0);
+    this.stream_failed = new AtomicInteger(0);
+    this.send = new Recorder(3);
+    this.connect = new Recorder(3);
+    this.fanout = new Recorder(3);
+    this.sendTotal = new Histogram(3);
+    this.connectTotal = new Histogram(3);
+    this.fanoutTotal = new Histogram(3);
+    this.failure_reasons = new HashMap<>();
+    this.sendInterval = null;
+    this.connectInterval = null;
+    this.fanoutInterval = null;
+    this.measuring = false;
+    System.out.println("| Sent | Send Ack | Send Fail | Late | Deltas | Stream Fail | Send p50 | Send p99 | Send p99.9 | Send Max | Fan-out p50 | Fan-out p99 | Connect p99 | Errors |");
+    System.out.println("| --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- |");
+  }
+
+  /** the time from when a message should have been sent until it was acknowledged */
+  public void record_send_latency(long nanos) {
+    send.recordValue(Math.max(0, nanos));
+  }
+
+  /** the time from when a connection should have been opened until the first delta arrived */
+  public void record_connect_latency(long nanos) {
+    connect.recordValue(Math.max(0, nanos));
+  }
+
+  /** the time from when a message should have been sent until a viewer received the change */
+  public void record_fanout_latency(long nanos) {
+    fanout.recordValue(Math.max(0, nanos));
+  }
+
+  public synchronized void report_failure(int code) {
+    Integer prior = failure_reasons.get(code);
+    if (prior == null) {
+      failure_reasons.put(code, 1);
+    } else {
+      failure_reasons.put(code, prior + 1);
+    }
+  }
+
+  /** the warmup is over, so everything recorded from here lands in the report */
+  public synchronized void startMeasuring() {
+    snapshot();
+    measuring = true;
+  }
+
+  public synchronized void snapshot() {
+    sendInterval = send.getIntervalHistogram(sendInterval);
+    connectInterval = connect.getIntervalHistogram(connectInterval);
+    fanoutInterval = fanout.getIntervalHistogram(fanoutInterval);
+    if (measuring) {
+      sendTotal.add(sendInterval);
+      connectTotal.add(connectInterval);
+      fanoutTotal.add(fanoutInterval);
+    }
+    StringBuilder sb = new StringBuilder();
+    boolean append = false;
+    for (Map.Entry<Integer, Integer> entry : failure_reasons.entrySet()) {
+      if (append) {
+        sb.append("|");
+      }
+      append = true;
+      sb.append(entry.getKey() + "=" + entry.getValue());
+    }
+    System.out.println("| " + messages_sent.getAndSet(0) + " | " + messages_acked.getAndSet(0) + " | " + messages_failed.getAndSet(0) + " | " + messages_late.getAndSet(0) + " | " + deltas.getAndSet(0) + " | " + stream_failed.get() + " | " + micros(sendInterval, 50) + " | " + micros(sendInterval, 99) + " | " + micros(sendInterval, 99.9) + " | " + micros(sendInterval, 100) + " | " + micros(fanoutInterval, 50) + " | " + micros(fanoutInterval, 99) + " | " + micros(connectInterval, 99) + " | " + sb + " |");
+  }
+
+  /** write the percentile distributions (in microseconds) of everything measured after the warmup */
+  public synchronized void report(File file) throws Exception {
+    try (PrintStream output = new PrintStream(new FileOutputStream(file))) {
+      write(output, "send", sendTotal);
+      write(output, "connect-to-first-delta", connectTotal);
+      write(output, "delta-fan-out", fanoutTotal);
+    }
+  }
+
+  private static void write(PrintStream output, String name, Histogram histogram) {
+    output.println("# " + name + " latency (microseconds)");
+    output.println("# count=" + histogram.getTotalCount() + " p50=" + micros(histogram, 50) + " p90=" + micros(histogram, 90) + " p99=" + micros(histogram, 99) + " p99.9=" + micros(histogram, 99.9) + " p99.99=" + micros(histogram, 99.99) + " max=" + micros(histogram, 100));
+    if (histogram.getTotalCount() > 0) {
+      histogram.outputPercentileDistribution(output, 1000.0);
+    }
+    output.println();
+  }
+
+  private static long micros(Histogram histogram, double percentile) {
+    if (histogram.getTotalCount() == 0) {
+      return -1;
+    }
+    return histogram.getValueAtPercentile(percentile) / 1000;
+  }
+}
@@ -9,8 +9,10 @@
  */
 package org.adamalang.cli.commands;
 
+import org.adamalang.ErrorCodes;
 import org.adamalang.api.ApiMetrics;
 import org.adamalang.caravan.CaravanDataService;
+import org.adamalang.caravan.CaravanMetrics;
 import org.adamalang.caravan.data.DurableListStore;
 import org.adamalang.caravan.data.DurableListStoreMetrics;
 import org.adamalang.caravan.events.FinderServiceToKeyToIdService;
@@ -20,6 +22,7 @@ import org.adamalang.common.*;
 import org.adamalang.common.jvm.MachineHeat;
 import org.adamalang.common.metrics.MetricsFactory;
 import org.adamalang.common.net.NetBase;
+import org.adamalang.common.net.NetTransport;
 import org.adamalang.common.net.ServerHandle;
 import org.adamalang.extern.Email;
 import org.adamalang.extern.ExternNexus;
@@ -40,7 +43,9 @@ import org.adamalang.mysql.DataBaseMetrics;
 import org.adamalang.mysql.backend.BackendMetrics;
 import org.adamalang.mysql.deployments.Deployments;
 import org.adamalang.mysql.deployments.data.Deployment;
+import org.adamalang.mysql.finder.CachingFinder;
 import org.adamalang.mysql.finder.Finder;
+import org.adamalang.mysql.finder.FinderMetrics;
 import org.adamalang.mysql.frontend.Health;
 import org.adamalang.net.client.Client;
 import org.adamalang.net.client.ClientConfig;
@@ -56,7 +61,9 @@ import org.adamalang.runtime.contracts.DeploymentMonitor;
 import org.adamalang.runtime.data.*;
 import org.adamalang.runtime.data.managed.Base;
 import org.adamalang.runtime.deploy.DeploymentFactoryBase;
+import org.adamalang.runtime.deploy.DeploymentMetrics;
 import org.adamalang.runtime.deploy.DeploymentPlan;
+import org.adamalang.runtime.deploy.DiskByteCodeCache;
 import org.adamalang.runtime.natives.NtClient;
 import org.adamalang.runtime.natives.NtDynamic;
 import org.adamalang.runtime.sys.CoreMetrics;
@@ -78,7 +85,6 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -157,11 +163,13 @@ public class Service {
     int coreThreads = config.get_int("service_thread_count", 8);
     String identityFileName = config.get_string("identity_filename", "me.identity");
     String billingRootPath = config.get_string("billing_path", "billing");
+    String byteCodeCachePath = config.get_string("byte_code_cache_path", "byte-code-cache");
+    int deployParallelism = config.get_int("deploy_parallelism", Runtime.getRuntime().availableProcessors());
     MachineIdentity identity = MachineIdentity.fromFile(identityFileName);
     String machine = identity.ip + ":" + port;
     Engine engine = new Engine(identity, TimeSource.REAL_TIME, new HashSet<>(config.get_str_list("bootstrap")), gossipPort, monitoringPort, new GossipMetricsImpl(prometheusMetricsFactory), EngineRole.Node);
     engine.start();
-    DeploymentFactoryBase deploymentFactoryBase = new DeploymentFactoryBase();
+    DeploymentFactoryBase deploymentFactoryBase = new DeploymentFactoryBase(new DiskByteCodeCache(new File(byteCodeCachePath)), new DeploymentMetrics(prometheusMetricsFactory));
     DataBase dataBase = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "backend"), new DataBaseMetrics(prometheusMetricsFactory, "backend"));
     ScheduledExecutorService databasePings = Executors.newSingleThreadScheduledExecutor();
     databasePings.scheduleAtFixedRate(() -> {
@@ -173,10 +181,12 @@ public class Service {
     }, 30000, 30000, TimeUnit.MILLISECONDS);
 
     final DataService data;
-    final Finder finder;
+    final FinderService finder;
     {
       String caravanRoot = config.get_string("caravan_root", "caravan");
       String region = config.get_string("region", null);
+      int caravanMaxCommitLatencyMicroseconds = config.get_int("caravan_max_commit_latency_us", 2000);
+      int caravanCacheBudgetMegabytes = config.get_int("caravan_cache_budget_mb", 1024);
       AWSConfig awsConfig = new AWSConfig(new ConfigObject(config.get_or_create_child("aws")));
       AWSMetrics awsMetrics = new AWSMetrics(prometheusMetricsFactory);
       S3 s3 = new S3(awsConfig, awsMetrics);
@@ -189,32 +199,11 @@ public class Service {
       walRoot.mkdir();
       dataRoot.mkdir();
       File storePath = new File(dataRoot, "store");
-      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(prometheusMetricsFactory), storePath, walRoot, 4L * 1024 * 1024 * 1024, 16 * 1024 * 1024, 64 * 1024 * 1024);
-      finder = new Finder(dataBase, region);
-      CaravanDataService caravanDataService = new CaravanDataService(s3, new FinderServiceToKeyToIdService(finder), store, caravanExecutor);
-      Base managedBase = new Base(finder, caravanDataService, region, machine, managedExecutor, 2 * 60 * 1000);
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(prometheusMetricsFactory), storePath, walRoot, 4L * 1024 * 1024 * 1024, 16 * 1024 * 1024, 64 * 1024 * 1024, caravanExecutor, caravanMaxCommitLatencyMicroseconds * 1000L);
+      finder = new CachingFinder(new Finder(dataBase, region), new FinderMetrics(prometheusMetricsFactory), TimeSource.REAL_TIME, config.get_int("finder_cache_size", 10000), config.get_int("finder_cache_ttl_ms", 2500), config.get_int("finder_batch_size", 64), config.get_int("finder_inflight_batches", 4));
+      CaravanDataService caravanDataService = new CaravanDataService(new CaravanMetrics(prometheusMetricsFactory), s3, new FinderServiceToKeyToIdService(finder), store, caravanExecutor, caravanCacheBudgetMegabytes * 1024L * 1024L);
+      Base managedBase = new Base(finder, caravanDataService, region, machine, managedExecutor, 2 * 60 * 1000, config.get_int("managed_close_archive_ms", 5000));
       data = new ManagedDataService(managedBase);
-      AtomicBoolean alive = new AtomicBoolean(true);
-      Thread flusher = new Thread(new Runnable() {
-        @Override
-        public void run() {
-          while (alive.get()) {
-            try {
-              Thread.sleep(0, 800000);
-              caravanDataService.flush(false).await(1000, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException ie) {
-              return;
-            }
-          }
-        }
-      });
-      flusher.start();
-      Runtime.getRuntime().addShutdownHook(new Thread(ExceptionRunnable.TO_RUNTIME(new ExceptionRunnable() {
-        @Override
-        public void run() throws Exception {
-          alive.set(false);
-        }
-      })));
     }
     MeteringPubSub meteringPubSub = new MeteringPubSub(TimeSource.REAL_TIME, deploymentFactoryBase);
     CoreMetrics coreMetrics = new CoreMetrics(prometheusMetricsFactory);
@@ -259,21 +248,38 @@ public class Service {
       try {
         if ("*".equals(space)) {
           ArrayList<Deployment> deployments = Deployments.listSpacesOnTarget(dataBase, identity.ip + ":" + port);
+          HashMap<String, DeploymentPlan> plans = new HashMap<>();
           for (Deployment deployment : deployments) {
             try {
-              deploymentFactoryBase.deploy(deployment.space, new DeploymentPlan(deployment.plan, (x, y) -> {
+              plans.put(deployment.space, new DeploymentPlan(deployment.plan, (x, y) -> {
               }));
-              service.deploy(deploymentMonitor);
             } catch (Exception ex) {
               if (ex instanceof ErrorCodeException) {
-                LOGGER.error("failed-scan-" + space + ":" + ((ErrorCodeException) ex).code);
+                LOGGER.error("failed-scan-" + deployment.space + ":" + ((ErrorCodeException) ex).code);
               } else {
-                LOGGER.error("failed-scan-" + space, ex);
+                LOGGER.error("failed-scan-" + deployment.space, ex);
               }
             }
           }
+          // compile all the spaces in parallel, and let documents within each space flow as soon as the space is ready
+          Map<String, ErrorCodeException> failures = deploymentFactoryBase.deployAll(plans, deployParallelism, (ready) -> service.deploy(deploymentMonitor));
+          for (Map.Entry<String, ErrorCodeException> failure : failures.entrySet()) {
+            LOGGER.error("failed-scan-" + failure.getKey() + ":" + failure.getValue().code);
+          }
         } else {
-          Deployment deployment = Deployments.get(dataBase, identity.ip + ":" + port, space);
+          Deployment deployment;
+          try {
+            deployment = Deployments.get(dataBase, identity.ip + ":" + port, space);
+          } catch (ErrorCodeException notFound) {
+            if (notFound.code != ErrorCodes.DEPLOYMENT_NOT_FOUND) {
+              throw notFound;
+            }
+            // the space was moved off this host (i.e. by the overlord to relieve heat), so drain the documents such that they archive and load elsewhere
+            deploymentFactoryBase.undeploy(space);
+            service.shed((key) -> key.space.equals(space));
+            LOGGER.info("undeployed-and-shed:" + space);
+            return;
+          }
           deploymentFactoryBase.deploy(deployment.space, new DeploymentPlan(deployment.plan, (x, y) -> {
           }));
           service.deploy(deploymentMonitor);
@@ -299,7 +305,7 @@ public class Service {
 
     // prime the host with spaces
     scanForDeployments.accept("*");
-    NetBase netBase = new NetBase(identity, 1, 2);
+    NetBase netBase = new NetBase(identity, new NetTransport(new ConfigObject(config.read()), "net"), 1, 2);
     ServerNexus nexus = new ServerNexus(netBase, identity, service, new ServerMetrics(prometheusMetricsFactory), deploymentFactoryBase, scanForDeployments, meteringPubSub, billingBatchMaker, port, 4);
     ServerHandle handle = netBase.serve(port, (upstream) -> new Handler(nexus, upstream));
     Thread serverThread = new Thread(() -> handle.waitForEnd());
@@ -390,14 +396,14 @@ public class Service {
     System.err.println("gossiping on:" + gossipPort);
     WebConfig webConfig = new WebConfig(new ConfigObject(config.get_or_create_child("web")));
     System.err.println("standing up http on:" + webConfig.port);
-    NetBase netBase = new NetBase(identity, 1, 2);
+    NetBase netBase = new NetBase(identity, new NetTransport(new ConfigObject(config.read()), "net"), 1, 2);
     ClientConfig clientConfig = new ClientConfig();
     ClientMetrics metrics = new ClientMetrics(prometheusMetricsFactory);
     AWSConfig awsConfig = new AWSConfig(new ConfigObject(config.get_or_create_child("aws")));
     AWSMetrics awsMetrics = new AWSMetrics(prometheusMetricsFactory);
     S3 s3 = new S3(awsConfig, awsMetrics);
 
-    Finder finder = new Finder(dataBaseFront, region);
+    FinderService finder = new CachingFinder(new Finder(dataBaseFront, region), new FinderMetrics(prometheusMetricsFactory), TimeSource.REAL_TIME, config.get_int("finder_cache_size", 10000), config.get_int("finder_cache_ttl_ms", 2500), config.get_int("finder_batch_size", 64), config.get_int("finder_inflight_batches", 4));
     ClientRouter router = ClientRouter.FINDER(metrics, finder, region);
     Client client = new Client(netBase, clientConfig, metrics, router, null);
     Consumer<Collection<String>> targetPublisher = client.getTargetPublisher();
@@ -15,10 +15,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.ssl.ClientAuth;
@@ -41,8 +39,9 @@ import java.util.regex.Pattern;
 public class NetBase {
   private static final Logger LOGGER = LoggerFactory.getLogger(NetBase.class);
   private static final ExceptionLogger EXLOGGER = ExceptionLogger.FOR(NetBase.class);
-  public final NioEventLoopGroup bossGroup;
-  public final NioEventLoopGroup workerGroup;
+  public final NetTransport transport;
+  public final EventLoopGroup bossGroup;
+  public final EventLoopGroup workerGroup;
   public final MachineIdentity identity;
   private final AtomicBoolean alive;
   private final CountDownLatch killLatch;
@@ -50,10 +49,17 @@ public class NetBase {
   private final ArrayList<CountDownLatch> blockers;
 
   public NetBase(MachineIdentity identity, int bossThreads, int workerThreads) throws Exception {
+    this(identity, NetTransport.defaults(), bossThreads, workerThreads);
+  }
+
+  public NetBase(MachineIdentity identity, NetTransport transport, int bossThreads, int workerThreads) throws Exception {
     this.identity = identity;
+    this.transport = transport;
     this.sslContext = SslContextBuilder.forClient().keyManager(identity.getCert(), identity.getKey()).trustManager(identity.getTrust()).build();
-    this.bossGroup = new NioEventLoopGroup(bossThreads);
-    this.workerGroup = new NioEventLoopGroup(workerThreads);
+    // each acceptor is bound to a boss thread
+    this.bossGroup = transport.group(Math.max(bossThreads, transport.acceptors));
+    this.workerGroup = transport.group(workerThreads);
+    LOGGER.info("transport:" + transport.kind.name);
     this.alive = new AtomicBoolean(true);
     this.killLatch = new CountDownLatch(1);
     this.blockers = new ArrayList<>();
@@ -74,10 +80,9 @@ public class NetBase {
       Bootstrap bootstrap = new Bootstrap();
       bootstrap.group(workerGroup);
       bootstrap.remoteAddress(peerHost, peerPort);
-      bootstrap.channel(NioSocketChannel.class);
+      transport.client(bootstrap);
       bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
       bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 250);
-      bootstrap.option(ChannelOption.TCP_NODELAY, true);
       bootstrap.handler(new ChannelInitializer<SocketChannel>() {
         @Override
         protected void initChannel(SocketChannel ch) throws Exception {
@@ -103,7 +108,7 @@ public class NetBase {
   public ServerHandle serve(int port, Handler handler) throws Exception {
     ServerBootstrap bootstrap = new ServerBootstrap();
     bootstrap.group(bossGroup, workerGroup);
-    bootstrap.channel(NioServerSocketChannel.class);
+    transport.server(bootstrap);
     bootstrap.localAddress(port);
     SslContext sslContext = makeServerSslContext();
     SocketChannelSet set = new SocketChannelSet();
@@ -115,7 +120,10 @@ public class NetBase {
         ch.pipeline().addLast(new ChannelServer(ch, set, handler));
       }
     });
-    ChannelFuture future = bootstrap.bind();
+    ArrayList<ChannelFuture> futures = new ArrayList<>();
+    for (int k = 0; k < transport.acceptors; k++) {
+      futures.add(bootstrap.bind());
+    }
     LOGGER.info("started");
     CountDownLatch waitForEndLatch = new CountDownLatch(1);
     return new ServerHandle() {
@@ -123,7 +131,9 @@ public class NetBase {
       public void waitForEnd() {
         LOGGER.info("waiting");
         try {
-          future.channel().closeFuture().sync();
+          for (ChannelFuture future : futures) {
+            future.channel().closeFuture().sync();
+          }
         } catch (Exception ex) {
           LOGGER.info("failure", ex);
           ex.printStackTrace();
@@ -135,9 +145,11 @@ public class NetBase {
       @Override
       public void kill() {
         try {
-          future.channel().close().sync();
-          if (future.channel().parent() != null) {
-            future.channel().parent().close().sync();
+          for (ChannelFuture future : futures) {
+            future.channel().close().sync();
+            if (future.channel().parent() != null) {
+              future.channel().parent().close().sync();
+            }
           }
           set.kill();
           waitForEndLatch.await(1000, TimeUnit.MILLISECONDS);
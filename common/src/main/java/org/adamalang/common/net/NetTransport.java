@@ -0,0 +1,214 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.common.net;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.adamalang.common.ConfigObject;
+import org.adamalang.common.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.function.IntFunction;
+
+/**
+ * the socket transport (and its settings) for both clients and servers. The transport is picked by preference: io_uring (if the
+ * incubator artifact is on the classpath and the kernel supports it), then epoll (on linux), and finally NIO which is always
+ * available. The settings are read from a config with a prefix (i.e. "net" reads "net_transport", "net_allocator", etc).
+ */
+public class NetTransport {
+  private static final Logger LOGGER = LoggerFactory.getLogger(NetTransport.class);
+  public final Kind kind;
+  public final ByteBufAllocator allocator;
+  public final int acceptors;
+  public final boolean tcpNoDelay;
+  public final int sendBufferBytes;
+  public final int receiveBufferBytes;
+
+  public NetTransport(ConfigObject config, String prefix) {
+    this.kind = Kind.pick(config.strOf(prefix + "_transport", "auto"));
+    this.allocator = allocatorOf(config.strOf(prefix + "_allocator", "pooled-direct"));
+    int acceptorsRequested = Math.max(1, config.intOf(prefix + "_acceptors", 1));
+    if (acceptorsRequested > 1 && kind.reusePort == null) {
+      LOGGER.warn("transport-lacks-reuse-port:" + kind.name + " so using a single acceptor");
+      acceptorsRequested = 1;
+    }
+    this.acceptors = acceptorsRequested;
+    this.tcpNoDelay = config.boolOf(prefix + "_tcp_no_delay", true);
+    this.sendBufferBytes = config.intOf(prefix + "_send_buffer_bytes", 0);
+    this.receiveBufferBytes = config.intOf(prefix + "_receive_buffer_bytes", 0);
+  }
+
+  /** the transport with every setting defaulted */
+  public static NetTransport defaults() {
+    return new NetTransport(new ConfigObject(Json.newJsonObject()), "net");
+  }
+
+  /** make an event loop group for this transport (0 threads means netty's default) */
+  public EventLoopGroup group(int threads) {
+    return kind.groups.apply(threads);
+  }
+
+  /** configure a client bootstrap with the channel and the socket settings */
+  public void client(Bootstrap bootstrap) {
+    bootstrap.channel(kind.clientChannel);
+    bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+    bootstrap.option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    if (sendBufferBytes > 0) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferBytes);
+    }
+    if (receiveBufferBytes > 0) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferBytes);
+    }
+  }
+
+  /** configure a server bootstrap with the channel and the socket settings for the accepted children */
+  public void server(ServerBootstrap bootstrap) {
+    bootstrap.channel(kind.serverChannel);
+    bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+    if (acceptors > 1) {
+      // each acceptor binds its own socket to the port and the kernel spreads the connections between them
+      bootstrap.option(kind.reusePort, true);
+    }
+    if (receiveBufferBytes > 0) {
+      // set on the listening socket such that a window larger than 64KB can be negotiated
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferBytes);
+    }
+    bootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+    bootstrap.childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    if (sendBufferBytes > 0) {
+      bootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferBytes);
+    }
+  }
+
+  /** internal: map the name of the allocator to the allocator */
+  private static ByteBufAllocator allocatorOf(String name) {
+    switch (name) {
+      case "pooled-heap":
+        return new PooledByteBufAllocator(false);
+      case "unpooled":
+        return UnpooledByteBufAllocator.DEFAULT;
+      case "pooled-direct":
+        // the shared pool which prefers direct buffers (unless netty was told otherwise)
+        return PooledByteBufAllocator.DEFAULT;
+      default:
+        LOGGER.warn("unknown-allocator:" + name + " so using pooled-direct");
+        return PooledByteBufAllocator.DEFAULT;
+    }
+  }
+
+  /** the kinds of transports */
+  public static class Kind {
+    public static final Kind NIO = new Kind("nio", NioEventLoopGroup::new, NioServerSocketChannel.class, NioSocketChannel.class, null);
+    public final String name;
+    private final IntFunction<EventLoopGroup> groups;
+    private final Class<? extends ServerChannel> serverChannel;
+    private final Class<? extends Channel> clientChannel;
+    private final ChannelOption<Boolean> reusePort;
+
+    private Kind(String name, IntFunction<EventLoopGroup> groups, Class<? extends ServerChannel> serverChannel, Class<? extends Channel> clientChannel, ChannelOption<Boolean> reusePort) {
+      this.name = name;
+      this.groups = groups;
+      this.serverChannel = serverChannel;
+      this.clientChannel = clientChannel;
+      this.reusePort = reusePort;
+    }
+
+    /** does the kind support binding many acceptors to the same port */
+    public boolean supportsReusePort() {
+      return reusePort != null;
+    }
+
+    /** pick the kind by the preference (auto, io_uring, epoll, nio); a preference which isn't available falls through the order */
+    public static Kind pick(String preference) {
+      switch (preference) {
+        case "nio":
+          return NIO;
+        case "epoll": {
+          Kind kind = epoll();
+          return kind != null ? kind : fallback(preference, NIO);
+        }
+        case "io_uring":
+        case "auto": {
+          Kind kind = ioUring();
+          if (kind != null) {
+            return kind;
+          }
+          kind = epoll();
+          if (kind == null) {
+            kind = NIO;
+          }
+          return "auto".equals(preference) ? kind : fallback(preference, kind);
+        }
+        default:
+          return fallback(preference, NIO);
+      }
+    }
+
+    /** internal: log that the preference isn't available */
+    private static Kind fallback(String preference, Kind kind) {
+      LOGGER.warn("transport-unavailable:" + preference + " so using " + kind.name);
+      return kind;
+    }
+
+    /** the epoll transport if the native library loads (i.e. linux) */
+    public static Kind epoll() {
+      try {
+        if (!Epoll.isAvailable()) {
+          return null;
+        }
+        return new Kind("epoll", EpollEventLoopGroup::new, EpollServerSocketChannel.class, EpollSocketChannel.class, EpollChannelOption.SO_REUSEPORT);
+      } catch (Throwable ex) {
+        // the native classes aren't on the classpath
+        return null;
+      }
+    }
+
+    /** the io_uring transport if the (incubator) artifact is on the classpath and the kernel supports it */
+    @SuppressWarnings("unchecked")
+    public static Kind ioUring() {
+      try {
+        String pkg = "io.netty.incubator.channel.uring.";
+        if (!((Boolean) Class.forName(pkg + "IOUring").getMethod("isAvailable").invoke(null))) {
+          return null;
+        }
+        Constructor<? extends EventLoopGroup> constructor = Class.forName(pkg + "IOUringEventLoopGroup").asSubclass(EventLoopGroup.class).getConstructor(int.class);
+        Class<? extends ServerChannel> serverChannel = Class.forName(pkg + "IOUringServerSocketChannel").asSubclass(ServerChannel.class);
+        Class<? extends Channel> clientChannel = Class.forName(pkg + "IOUringSocketChannel").asSubclass(Channel.class);
+        ChannelOption<Boolean> reusePort = (ChannelOption<Boolean>) Class.forName(pkg + "IOUringChannelOption").getField("SO_REUSEPORT").get(null);
+        return new Kind("io_uring", (threads) -> {
+          try {
+            return constructor.newInstance(threads);
+          } catch (Exception ex) {
+            throw new RuntimeException(ex);
+          }
+        }, serverChannel, clientChannel, reusePort);
+      } catch (Throwable ex) {
+        return null;
+      }
+    }
+  }
+}
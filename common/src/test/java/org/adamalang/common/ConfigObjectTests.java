@@ -28,6 +28,18 @@ public class ConfigObjectTests {
     Assert.assertEquals("123", config.strOf("key", "123"));
   }
 
+  @Test
+  public void bool() {
+    ObjectNode root = Json.newJsonObject();
+    ConfigObject config = new ConfigObject(root);
+    Assert.assertTrue(config.boolOf("key", true));
+    Assert.assertTrue(root.get("key").booleanValue());
+    root.put("key", false);
+    Assert.assertFalse(config.boolOf("key", true));
+    root.put("key", "false");
+    Assert.assertTrue(config.boolOf("key", true));
+  }
+
   @Test
   public void strings() {
     try {
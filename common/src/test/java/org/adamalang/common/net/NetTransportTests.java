@@ -0,0 +1,61 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.common.net;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import org.adamalang.common.ConfigObject;
+import org.adamalang.common.Json;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NetTransportTests {
+  @Test
+  public void defaults() {
+    NetTransport transport = NetTransport.defaults();
+    Assert.assertEquals(PooledByteBufAllocator.DEFAULT, transport.allocator);
+    Assert.assertEquals(1, transport.acceptors);
+    Assert.assertTrue(transport.tcpNoDelay);
+    Assert.assertEquals(0, transport.sendBufferBytes);
+    Assert.assertEquals(0, transport.receiveBufferBytes);
+    Assert.assertNotNull(transport.kind.name);
+  }
+
+  @Test
+  public void nio_lacks_reuse_port() {
+    ObjectNode node = Json.newJsonObject();
+    node.put("x_transport", "nio");
+    node.put("x_allocator", "unpooled");
+    node.put("x_acceptors", 4);
+    node.put("x_tcp_no_delay", false);
+    node.put("x_send_buffer_bytes", 1000);
+    NetTransport transport = new NetTransport(new ConfigObject(node), "x");
+    Assert.assertEquals("nio", transport.kind.name);
+    Assert.assertFalse(transport.kind.supportsReusePort());
+    Assert.assertEquals(UnpooledByteBufAllocator.DEFAULT, transport.allocator);
+    Assert.assertEquals(1, transport.acceptors);
+    Assert.assertFalse(transport.tcpNoDelay);
+    Assert.assertEquals(1000, transport.sendBufferBytes);
+    EventLoopGroup group = transport.group(1);
+    group.shutdownGracefully();
+  }
+
+  @Test
+  public void fallback() {
+    Assert.assertEquals("nio", NetTransport.Kind.pick("carrier-pigeon").name);
+    Assert.assertEquals("nio", NetTransport.Kind.pick("nio").name);
+    NetTransport.Kind epoll = NetTransport.Kind.epoll();
+    Assert.assertEquals(epoll != null ? "epoll" : "nio", NetTransport.Kind.pick("epoll").name);
+    Assert.assertNotNull(NetTransport.Kind.pick("io_uring"));
+    Assert.assertNotNull(NetTransport.Kind.pick("auto"));
+  }
+}
@@ -14,6 +14,10 @@ public interface RxParent {
   /** make this item dirty */
   void __raiseDirty();
 
+  /** a child which was clean is now dirty; parents which track their dirty children (i.e. tables) override this */
+  default void __raiseDirtyChild(RxChild child) {
+  }
+
   /** is the parent alive */
   boolean __isAlive();
 }
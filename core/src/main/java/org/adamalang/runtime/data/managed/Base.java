@@ -28,9 +28,15 @@ public class Base {
   public final HashMap<Key, Machine> documents;
   public final SimpleExecutor executor;
   public final int archiveTimeMilliseconds;
+  public final int closeArchiveTimeMilliseconds;
   private final AtomicInteger failureBackoff;
 
   public Base(FinderService finder, ArchivingDataService data, String region, String target, SimpleExecutor executor, int archiveTimeMilliseconds) {
+    this(finder, data, region, target, executor, archiveTimeMilliseconds, archiveTimeMilliseconds);
+  }
+
+  /** closeArchiveTimeMilliseconds bounds how long a closed document with unarchived writes waits before archiving (and being freed) */
+  public Base(FinderService finder, ArchivingDataService data, String region, String target, SimpleExecutor executor, int archiveTimeMilliseconds, int closeArchiveTimeMilliseconds) {
     this.finder = finder;
     this.data = data;
     this.region = region;
@@ -38,6 +44,7 @@ public class Base {
     this.documents = new HashMap<>();
     this.executor = executor;
     this.archiveTimeMilliseconds = archiveTimeMilliseconds;
+    this.closeArchiveTimeMilliseconds = closeArchiveTimeMilliseconds;
     this.failureBackoff = new AtomicInteger(1);
   }
 
@@ -30,6 +30,7 @@ public class Machine {
   private int writesInFlight;
   private String lastArchiveKey;
   private boolean attemptClose;
+  private boolean archiving;
 
   public Machine(Key key, Base base) {
     this.key = key;
@@ -42,6 +43,7 @@ public class Machine {
     this.writesInFlight = 0;
     this.lastArchiveKey = null;
     this.attemptClose = false;
+    this.archiving = false;
   }
 
   private void queue(Action action) {
@@ -97,6 +99,7 @@ public class Machine {
         }
         lastArchiveKey = result.archiveKey;
         cancelArchive = null;
+        archiving = false;
         pendingWrites -= writesInFlight;
         writesInFlight = 0;
         if (pendingWrites > 0) {
@@ -113,12 +116,14 @@ public class Machine {
       @Override
       public void execute() throws Exception {
         cancelArchive = null;
+        archiving = false;
         scheduleArchiveWhileInExecutor(true);
       }
     });
   }
 
   private void archiveWhileInExecutor() {
+    archiving = true;
     base.data.backup(key, new Callback<>() {
       @Override
       public void success(BackupResult result) {
@@ -143,6 +148,10 @@ public class Machine {
   }
 
   private void scheduleArchiveWhileInExecutor(boolean dueToFailure) {
+    scheduleArchiveWhileInExecutor(dueToFailure ? base.reportFailureGetRetryBackoff() : base.archiveTimeMilliseconds);
+  }
+
+  private void scheduleArchiveWhileInExecutor(int delay) {
     if (cancelArchive == null) {
       writesInFlight = pendingWrites;
       cancelArchive = base.executor.schedule(new NamedRunnable("machine-archive") {
@@ -150,7 +159,7 @@ public class Machine {
         public void execute() throws Exception {
           archiveWhileInExecutor();
         }
-      }, dueToFailure ? base.reportFailureGetRetryBackoff() : base.archiveTimeMilliseconds);
+      }, delay);
     }
   }
 
@@ -307,8 +316,15 @@ public class Machine {
 
   public void close() {
     attemptClose = true;
-    if (state == State.OnMachine && pendingWrites == 0) {
-      executeClosed();
+    if (state == State.OnMachine) {
+      if (pendingWrites == 0) {
+        executeClosed();
+      } else if (cancelArchive != null && !archiving && base.closeArchiveTimeMilliseconds < base.archiveTimeMilliseconds) {
+        // the document is leaving (i.e. shed to move it off a hot host), so archive sooner such that it can restore elsewhere
+        cancelArchive.run();
+        cancelArchive = null;
+        scheduleArchiveWhileInExecutor(base.closeArchiveTimeMilliseconds);
+      }
     }
   }
 
@@ -23,4 +23,20 @@ public class AssetIdEncoder {
   public String encrypt(String id) {
     return SecureAssetUtil.encryptToBase64(key, id);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof AssetIdEncoder) {
+      return key.equals(((AssetIdEncoder) o).key);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return key.hashCode();
+  }
 }
@@ -0,0 +1,33 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.adamalang.translator.jvm.CachedByteCode;
+
+/** a cache of compiled byte code such that deployments (and restarts) can skip the java compiler */
+public interface ByteCodeCache {
+  /** find the byte code for the given version within the space; returns null when there is no entry */
+  CachedByteCode get(String space, DeployedVersion version);
+
+  /** remember the byte code for the given version within the space */
+  void put(String space, DeployedVersion version, CachedByteCode code);
+
+  /** a cache that remembers nothing */
+  ByteCodeCache NONE = new ByteCodeCache() {
+    @Override
+    public CachedByteCode get(String space, DeployedVersion version) {
+      return null;
+    }
+
+    @Override
+    public void put(String space, DeployedVersion version, CachedByteCode code) {
+    }
+  };
+}
@@ -12,6 +12,7 @@ package org.adamalang.runtime.deploy;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.metrics.RequestResponseMonitor;
 import org.adamalang.runtime.contracts.LivingDocumentFactoryFactory;
 import org.adamalang.runtime.data.Key;
 import org.adamalang.runtime.json.JsonStreamWriter;
@@ -19,6 +20,7 @@ import org.adamalang.runtime.remote.Deliverer;
 import org.adamalang.translator.env.CompilerOptions;
 import org.adamalang.translator.env.EnvironmentState;
 import org.adamalang.translator.env.GlobalObjectPool;
+import org.adamalang.translator.jvm.CachedByteCode;
 import org.adamalang.translator.jvm.LivingDocumentFactory;
 import org.adamalang.translator.parser.Parser;
 import org.adamalang.translator.parser.exceptions.AdamaLangException;
@@ -49,6 +51,14 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
    * @throws ErrorCodeException
    */
   public DeploymentFactory(String name, String spacePrefix, AtomicInteger newClassId, DeploymentFactory prior, DeploymentPlan plan, Deliverer deliverer) throws ErrorCodeException {
+    this(name, spacePrefix, newClassId, prior, plan, deliverer, ByteCodeCache.NONE, DeploymentMetrics.NOOP);
+  }
+
+  /**
+   * @param cache - a cache of byte code which allows skipping the compiler
+   * @param metrics - measure the deployment
+   */
+  public DeploymentFactory(String name, String spacePrefix, AtomicInteger newClassId, DeploymentFactory prior, DeploymentPlan plan, Deliverer deliverer, ByteCodeCache cache, DeploymentMetrics metrics) throws ErrorCodeException {
     this.name = name;
     this.deliverer = deliverer;
     this.factories = new HashMap<>();
@@ -62,7 +72,7 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
         }
       }
       if (factory == null) {
-        factory = compile(name, spacePrefix + newClassId.getAndIncrement(), entry.getValue().main, entry.getValue().includes, deliverer);
+        factory = factoryOf(name, spacePrefix, newClassId, entry.getValue(), deliverer, cache, metrics);
       }
       factories.put(entry.getKey(), factory);
     }
@@ -70,7 +80,39 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
   }
 
 
+  /** produce a factory for the given version by either pulling the byte code from the cache or compiling it */
+  private static LivingDocumentFactory factoryOf(String spaceName, String spacePrefix, AtomicInteger newClassId, DeployedVersion version, Deliverer deliverer, ByteCodeCache cache, DeploymentMetrics metrics) throws ErrorCodeException {
+    CachedByteCode cached = cache.get(spaceName, version);
+    if (cached != null) {
+      RequestResponseMonitor.RequestResponseMonitorInstance hit = metrics.deploy_cache_hit.start();
+      try {
+        LivingDocumentFactory factory = new LivingDocumentFactory(cached, deliverer);
+        hit.success();
+        return factory;
+      } catch (ErrorCodeException ex) {
+        // the cached byte code no longer binds to the runtime, so fall through to the compiler
+        hit.failure(ex.code);
+      }
+    }
+    RequestResponseMonitor.RequestResponseMonitorInstance miss = metrics.deploy_cache_miss.start();
+    try {
+      CachedByteCode code = compileByteCode(spaceName, spacePrefix + newClassId.getAndIncrement(), version.main, version.includes);
+      LivingDocumentFactory factory = new LivingDocumentFactory(code, deliverer);
+      cache.put(spaceName, version, code);
+      miss.success();
+      return factory;
+    } catch (ErrorCodeException ex) {
+      miss.failure(ex.code);
+      throw ex;
+    }
+  }
+
   public static LivingDocumentFactory compile(String spaceName, String className, final String code, HashMap<String, String> includes, Deliverer deliverer) throws ErrorCodeException {
+    return new LivingDocumentFactory(compileByteCode(spaceName, className, code, includes), deliverer);
+  }
+
+  /** parse, type check, generate java, and then compile the java into byte code */
+  public static CachedByteCode compileByteCode(String spaceName, String className, final String code, HashMap<String, String> includes) throws ErrorCodeException {
     try {
       final var options = CompilerOptions.start().make();
       final var globals = GlobalObjectPool.createPoolWithStdLib();
@@ -87,7 +129,7 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
       final var java = document.compileJava(state);
       JsonStreamWriter reflection = new JsonStreamWriter();
       document.writeTypeReflectionJson(reflection);
-      return new LivingDocumentFactory(className, java, reflection.toString(), deliverer);
+      return LivingDocumentFactory.compile(className, java, reflection.toString());
     } catch (AdamaLangException ex) {
       throw new ErrorCodeException(ErrorCodes.DEPLOYMENT_CANT_PARSE_LANGUAGE, ex);
     }
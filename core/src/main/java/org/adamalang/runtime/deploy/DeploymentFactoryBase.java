@@ -12,6 +12,8 @@ package org.adamalang.runtime.deploy;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.ExceptionLogger;
+import org.adamalang.common.metrics.RequestResponseMonitor;
 import org.adamalang.runtime.contracts.LivingDocumentFactoryFactory;
 import org.adamalang.runtime.data.Key;
 import org.adamalang.runtime.natives.NtClient;
@@ -19,20 +21,35 @@ import org.adamalang.runtime.remote.Deliverer;
 import org.adamalang.runtime.remote.RemoteResult;
 import org.adamalang.translator.jvm.LivingDocumentFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /** this is the base for all spaces to resolve against */
 public class DeploymentFactoryBase implements LivingDocumentFactoryFactory, Deliverer {
+  private static final ExceptionLogger LOGGER = ExceptionLogger.FOR(DeploymentFactoryBase.class);
   private final AtomicInteger newClassId;
   private final ConcurrentHashMap<String, DeploymentFactory> spaces;
+  private final ByteCodeCache cache;
+  private final DeploymentMetrics metrics;
   private Deliverer deliverer;
 
   public DeploymentFactoryBase() {
+    this(ByteCodeCache.NONE, DeploymentMetrics.NOOP);
+  }
+
+  public DeploymentFactoryBase(ByteCodeCache cache, DeploymentMetrics metrics) {
     this.newClassId = new AtomicInteger(0);
     this.spaces = new ConcurrentHashMap<>();
     this.deliverer = Deliverer.FAILURE;
+    this.cache = cache;
+    this.metrics = metrics;
   }
 
   public void attachDeliverer(Deliverer deliverer) {
@@ -53,7 +70,58 @@ public class DeploymentFactoryBase implements LivingDocumentFactoryFactory, Deli
   }
 
   public void deploy(String space, DeploymentPlan plan) throws ErrorCodeException {
-    spaces.put(space, new DeploymentFactory(space, getSpaceClassNamePrefix(space), newClassId, spaces.get(space), plan, this));
+    RequestResponseMonitor.RequestResponseMonitorInstance instance = metrics.deploy_space.start();
+    try {
+      spaces.put(space, new DeploymentFactory(space, getSpaceClassNamePrefix(space), newClassId, spaces.get(space), plan, this, cache, metrics));
+      instance.success();
+    } catch (ErrorCodeException ex) {
+      instance.failure(ex.code);
+      throw ex;
+    }
+  }
+
+  /** remove the space from this host such that new documents within the space will no longer load here (i.e. the space moved) */
+  public void undeploy(String space) {
+    spaces.remove(space);
+  }
+
+  /**
+   * deploy many spaces at once by compiling them in parallel on a bounded pool. Each space is
+   * isolated such that a failure only impacts that space, and each space is swapped in (and
+   * announced via ready) as soon as it is compiled such that documents may load while others
+   * are still compiling.
+   * @return the failures by space
+   */
+  public Map<String, ErrorCodeException> deployAll(Map<String, DeploymentPlan> plans, int parallelism, Consumer<String> ready) {
+    ConcurrentHashMap<String, ErrorCodeException> failures = new ConcurrentHashMap<>();
+    if (plans.size() == 0) {
+      return failures;
+    }
+    ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, plans.size())), (p) -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName("deploy-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+    try {
+      ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (Map.Entry<String, DeploymentPlan> entry : plans.entrySet()) {
+        tasks.add(pool.submit(() -> {
+          try {
+            deploy(entry.getKey(), entry.getValue());
+          } catch (Throwable ex) {
+            failures.put(entry.getKey(), ErrorCodeException.detectOrWrap(ErrorCodes.DEPLOYMENT_BATCH_UNKNOWN_EXCEPTION, ex, LOGGER));
+            return;
+          }
+          ready.accept(entry.getKey());
+        }));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    return failures;
   }
 
   /** issue #108; expose this internal bit for others to use to keep sanity in check */
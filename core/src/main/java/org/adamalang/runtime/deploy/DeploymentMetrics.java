@@ -0,0 +1,28 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.adamalang.common.metrics.MetricsFactory;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.common.metrics.RequestResponseMonitor;
+
+/** metrics for deploying spaces; the hit rate of the byte code cache is the ratio of hits to misses */
+public class DeploymentMetrics {
+  public static final DeploymentMetrics NOOP = new DeploymentMetrics(new NoOpMetricsFactory());
+  public final RequestResponseMonitor deploy_space;
+  public final RequestResponseMonitor deploy_cache_hit;
+  public final RequestResponseMonitor deploy_cache_miss;
+
+  public DeploymentMetrics(MetricsFactory factory) {
+    deploy_space = factory.makeRequestResponseMonitor("deploy_space");
+    deploy_cache_hit = factory.makeRequestResponseMonitor("deploy_cache_hit");
+    deploy_cache_miss = factory.makeRequestResponseMonitor("deploy_cache_miss");
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.adamalang.common.AlphaHex;
+import org.adamalang.common.Hashing;
+import org.adamalang.translator.jvm.CachedByteCode;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** a content addressed cache of byte code held within a directory; the files are keyed by the hash of the script along with the compiler and runtime */
+public class DiskByteCodeCache implements ByteCodeCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiskByteCodeCache.class);
+  private final File root;
+  private final String fingerprint;
+
+  public DiskByteCodeCache(File root) {
+    this(root, fingerprintOfRuntime());
+  }
+
+  public DiskByteCodeCache(File root, String fingerprint) {
+    this.root = root;
+    this.fingerprint = fingerprint;
+    root.mkdirs();
+  }
+
+  /** the runtime (JVM + the jar holding the Adama compiler) dictates whether or not byte code is reusable */
+  public static String fingerprintOfRuntime() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(Runtime.version().toString());
+    try {
+      File source = new File(LivingDocumentFactory.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      sb.append("/").append(source.getAbsolutePath()).append("/").append(source.length()).append("/").append(source.lastModified());
+    } catch (Exception ex) {
+      // without a code source, we can only rely on the JVM version
+    }
+    return sb.toString();
+  }
+
+  /** compute the key for the given version within the space */
+  public String keyOf(String space, DeployedVersion version) {
+    MessageDigest digest = Hashing.md5();
+    update(digest, fingerprint);
+    update(digest, space);
+    update(digest, version.main);
+    for (Map.Entry<String, String> include : new TreeMap<>(version.includes).entrySet()) {
+      update(digest, include.getKey());
+      update(digest, include.getValue());
+    }
+    return AlphaHex.encode(digest.digest());
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.update((byte) (bytes.length >>> 24));
+    digest.update((byte) (bytes.length >>> 16));
+    digest.update((byte) (bytes.length >>> 8));
+    digest.update((byte) bytes.length);
+    digest.update(bytes);
+  }
+
+  @Override
+  public CachedByteCode get(String space, DeployedVersion version) {
+    File file = new File(root, keyOf(space, version) + ".adama.class");
+    if (!file.exists()) {
+      return null;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      return CachedByteCode.read(input);
+    } catch (Exception ex) {
+      LOGGER.error("failed-read-byte-code-cache:" + file.getName(), ex);
+      file.delete();
+      return null;
+    }
+  }
+
+  @Override
+  public void put(String space, DeployedVersion version, CachedByteCode code) {
+    String key = keyOf(space, version);
+    File temp = new File(root, key + ".tmp");
+    try {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+        code.write(output);
+      }
+      // the move is atomic such that a crash never leaves a partial entry behind
+      Files.move(temp.toPath(), new File(root, key + ".adama.class").toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (Exception ex) {
+      LOGGER.error("failed-write-byte-code-cache:" + key, ex);
+      temp.delete();
+    }
+  }
+}
@@ -12,15 +12,14 @@ package org.adamalang.runtime.index;
 import org.adamalang.runtime.contracts.IndexQuerySet;
 import org.adamalang.runtime.reactives.RxRecordBase;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
 /** an index of a single column of data */
 public class ReactiveIndex<Ty extends RxRecordBase> {
-  /** a data structure which is precise; we know that the given item is in this bucket for SURE */
-  private final TreeMap<Integer, TreeSet<Ty>> index;
+  /** a data structure which is precise; we know that the given item (by table key) is in this bucket for SURE */
+  private final TreeMap<Integer, RowBitmap> index;
   /**
    * as things change, we lose certainty of where items exist and have a grab-all bucket; this is an
    * optimization such that indexing happens between operations
@@ -36,10 +35,10 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
   public void add(final int at, final Ty item) {
     var set = index.get(at);
     if (set == null) {
-      set = new TreeSet<>();
+      set = new RowBitmap();
       index.put(at, set);
     }
-    set.add(item);
+    set.add(item.__tableKey());
   }
 
   /** remove the item from the unknowns */
@@ -47,75 +46,69 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
     unknowns.remove(item);
   }
 
-  /** get the index */
-  public TreeSet<Ty> of(final int at, IndexQuerySet.LookupMode mode) {
-    switch (mode) {
-      case LessThan: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() < at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        if (values.size() == 0) {
-          return null;
-        }
-        return values;
-      }
-      case LessThanOrEqual: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() <= at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        if (values.size() == 0) {
-          return null;
-        }
-        return values;
-      }
-      case GreaterThan: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.descendingMap().entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() > at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        if (values.size() == 0) {
-          return null;
-        }
-        return values;
+  /** get the table keys of the items matching the lookup; null if there are no matching items */
+  public RowBitmap of(final int at, IndexQuerySet.LookupMode mode) {
+    if (mode == IndexQuerySet.LookupMode.Equals) {
+      final var set = index.get(at);
+      if (set == null) {
+        return null;
       }
-      case GreaterThanOrEqual: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.descendingMap().entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() >= at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        if (values.size() == 0) {
-          return null;
-        }
-        return values;
+      return set.copy();
+    }
+    final var range = range(at, mode);
+    if (range.isEmpty()) {
+      return null;
+    }
+    final var values = new RowBitmap();
+    for (RowBitmap set : range.values()) {
+      values.or(set);
+    }
+    return values;
+  }
+
+  /** estimate how many items match the lookup without building the result (used to order predicates) */
+  public int estimate(final int at, IndexQuerySet.LookupMode mode) {
+    if (mode == IndexQuerySet.LookupMode.Equals) {
+      final var set = index.get(at);
+      return set == null ? 0 : set.cardinality();
+    }
+    int sum = 0;
+    for (RowBitmap set : range(at, mode).values()) {
+      sum += set.cardinality();
+    }
+    return sum;
+  }
+
+  /** narrow the given table keys to those matching the lookup */
+  public void intersect(final RowBitmap ids, final int at, IndexQuerySet.LookupMode mode) {
+    if (mode == IndexQuerySet.LookupMode.Equals) {
+      final var set = index.get(at);
+      if (set == null) {
+        ids.clear();
+      } else {
+        ids.and(set);
       }
+      return;
+    }
+    final var values = of(at, mode);
+    if (values == null) {
+      ids.clear();
+    } else {
+      ids.and(values);
+    }
+  }
+
+  /** internal: the buckets within the range of the (non-equality) lookup */
+  private NavigableMap<Integer, RowBitmap> range(final int at, IndexQuerySet.LookupMode mode) {
+    switch (mode) {
+      case LessThan:
+        return index.headMap(at, false);
+      case LessThanOrEqual:
+        return index.headMap(at, true);
+      case GreaterThan:
+        return index.tailMap(at, false);
       default:
-        return index.get(at);
+        return index.tailMap(at, true);
     }
   }
 
@@ -129,8 +122,8 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
   /** delete the item from the given index (via value `at`) */
   public boolean delete(final int at, final Ty item) {
     final var set = index.get(at);
-    final var result = set.remove(item);
-    if (set.size() == 0) {
+    final var result = set.remove(item.__tableKey());
+    if (set.isEmpty()) {
       index.remove(at);
     }
     return result;
@@ -139,8 +132,8 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
   /** (approx) how many bytes of memory does this index use */
   public long memory() {
     long sum = 64;
-    for (Map.Entry<Integer, TreeSet<Ty>> entry : index.entrySet()) {
-      sum += entry.getValue().size() * 20 + 20;
+    for (RowBitmap set : index.values()) {
+      sum += set.cardinality() * 20 + 20;
     }
     return sum;
   }
@@ -0,0 +1,501 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * a compressed bitmap of row ids (in the spirit of Roaring); ids are split into a 16-bit high key which selects a container and a
+ * 16-bit low value held by the container. Sparse containers are sorted arrays while dense containers are plain bitmaps.
+ */
+public class RowBitmap {
+  // a container switches from an array to a bitmap once it holds more than this many values
+  private static final int ARRAY_MAX = 4096;
+  private int[] keys;
+  private Container[] containers;
+  private int size;
+
+  public RowBitmap() {
+    this.keys = new int[4];
+    this.containers = new Container[4];
+    this.size = 0;
+  }
+
+  /** add the id; returns true if the id was not already present */
+  public boolean add(int id) {
+    int key = id >>> 16;
+    int at = Arrays.binarySearch(keys, 0, size, key);
+    if (at < 0) {
+      at = -(at + 1);
+      insertAt(at, key, new ArrayContainer());
+    }
+    int before = containers[at].cardinality();
+    containers[at] = containers[at].add((char) id);
+    return containers[at].cardinality() > before;
+  }
+
+  /** remove the id; returns true if the id was present */
+  public boolean remove(int id) {
+    int at = Arrays.binarySearch(keys, 0, size, id >>> 16);
+    if (at < 0) {
+      return false;
+    }
+    int before = containers[at].cardinality();
+    containers[at] = containers[at].remove((char) id);
+    boolean removed = containers[at].cardinality() < before;
+    if (containers[at].cardinality() == 0) {
+      removeAt(at);
+    }
+    return removed;
+  }
+
+  /** does the bitmap contain the id */
+  public boolean contains(int id) {
+    int at = Arrays.binarySearch(keys, 0, size, id >>> 16);
+    return at >= 0 && containers[at].contains((char) id);
+  }
+
+  /** how many ids are within the bitmap */
+  public int cardinality() {
+    int sum = 0;
+    for (int k = 0; k < size; k++) {
+      sum += containers[k].cardinality();
+    }
+    return sum;
+  }
+
+  /** is the bitmap empty */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** remove every id */
+  public void clear() {
+    Arrays.fill(containers, 0, size, null);
+    size = 0;
+  }
+
+  /** make an independent copy of this bitmap */
+  public RowBitmap copy() {
+    RowBitmap copy = new RowBitmap();
+    copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+    copy.containers = new Container[copy.keys.length];
+    for (int k = 0; k < size; k++) {
+      copy.containers[k] = containers[k].copy();
+    }
+    copy.size = size;
+    return copy;
+  }
+
+  /** keep only the ids which are also within the other bitmap */
+  public void and(RowBitmap other) {
+    int write = 0;
+    int a = 0;
+    int b = 0;
+    while (a < size && b < other.size) {
+      if (keys[a] < other.keys[b]) {
+        a++;
+      } else if (keys[a] > other.keys[b]) {
+        b++;
+      } else {
+        Container result = containers[a].and(other.containers[b]);
+        if (result.cardinality() > 0) {
+          keys[write] = keys[a];
+          containers[write] = result;
+          write++;
+        }
+        a++;
+        b++;
+      }
+    }
+    Arrays.fill(containers, write, size, null);
+    size = write;
+  }
+
+  /** add all the ids within the other bitmap */
+  public void or(RowBitmap other) {
+    int[] nextKeys = new int[Math.max(4, size + other.size)];
+    Container[] nextContainers = new Container[nextKeys.length];
+    int write = 0;
+    int a = 0;
+    int b = 0;
+    while (a < size || b < other.size) {
+      if (b >= other.size || (a < size && keys[a] < other.keys[b])) {
+        nextKeys[write] = keys[a];
+        nextContainers[write] = containers[a];
+        a++;
+      } else if (a >= size || keys[a] > other.keys[b]) {
+        nextKeys[write] = other.keys[b];
+        nextContainers[write] = other.containers[b].copy();
+        b++;
+      } else {
+        nextKeys[write] = keys[a];
+        nextContainers[write] = containers[a].or(other.containers[b]);
+        a++;
+        b++;
+      }
+      write++;
+    }
+    keys = nextKeys;
+    containers = nextContainers;
+    size = write;
+  }
+
+  /** iterate the ids in (unsigned) order */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int container = 0;
+      private int low = size > 0 ? containers[0].next(0) : -1;
+
+      private void advance() {
+        while (low < 0 && ++container < size) {
+          low = containers[container].next(0);
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        advance();
+        return container < size && low >= 0;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int id = (keys[container] << 16) | low;
+        low = low < 0xFFFF ? containers[container].next(low + 1) : -1;
+        return id;
+      }
+    };
+  }
+
+  /** (approx) how many bytes of memory does this bitmap use */
+  public long memory() {
+    long sum = 32 + keys.length * 12L;
+    for (int k = 0; k < size; k++) {
+      sum += containers[k].memory();
+    }
+    return sum;
+  }
+
+  /** internal: insert a new container */
+  private void insertAt(int at, int key, Container container) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      containers = Arrays.copyOf(containers, size * 2);
+    }
+    System.arraycopy(keys, at, keys, at + 1, size - at);
+    System.arraycopy(containers, at, containers, at + 1, size - at);
+    keys[at] = key;
+    containers[at] = container;
+    size++;
+  }
+
+  /** internal: remove an empty container */
+  private void removeAt(int at) {
+    System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+    System.arraycopy(containers, at + 1, containers, at, size - at - 1);
+    size--;
+    containers[size] = null;
+  }
+
+  /** the low 16 bits of ids sharing a high key */
+  private static abstract class Container {
+    abstract int cardinality();
+
+    abstract boolean contains(char low);
+
+    /** add the value, returning the container which holds the result */
+    abstract Container add(char low);
+
+    /** remove the value, returning the container which holds the result */
+    abstract Container remove(char low);
+
+    /** intersect into a new container */
+    abstract Container and(Container other);
+
+    /** union into a container which may be this one */
+    abstract Container or(Container other);
+
+    abstract Container copy();
+
+    /** the next value at or beyond the given value; -1 if there are no more */
+    abstract int next(int from);
+
+    abstract long memory();
+  }
+
+  /** a sparse container: the sorted values */
+  private static class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    private ArrayContainer() {
+      this.values = new char[4];
+      this.cardinality = 0;
+    }
+
+    private ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+    }
+
+    @Override
+    Container add(char low) {
+      int at = Arrays.binarySearch(values, 0, cardinality, low);
+      if (at >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_MAX) {
+        return toBitmap().add(low);
+      }
+      at = -(at + 1);
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+      }
+      System.arraycopy(values, at, values, at + 1, cardinality - at);
+      values[at] = low;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      int at = Arrays.binarySearch(values, 0, cardinality, low);
+      if (at >= 0) {
+        System.arraycopy(values, at + 1, values, at, cardinality - at - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    Container and(Container other) {
+      char[] result = new char[cardinality];
+      int count = 0;
+      if (other instanceof ArrayContainer) {
+        ArrayContainer array = (ArrayContainer) other;
+        int a = 0;
+        int b = 0;
+        while (a < cardinality && b < array.cardinality) {
+          if (values[a] < array.values[b]) {
+            a++;
+          } else if (values[a] > array.values[b]) {
+            b++;
+          } else {
+            result[count++] = values[a];
+            a++;
+            b++;
+          }
+        }
+      } else {
+        for (int k = 0; k < cardinality; k++) {
+          if (other.contains(values[k])) {
+            result[count++] = values[k];
+          }
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.copy().or(this);
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      char[] result = new char[cardinality + array.cardinality];
+      int count = 0;
+      int a = 0;
+      int b = 0;
+      while (a < cardinality || b < array.cardinality) {
+        if (b >= array.cardinality || (a < cardinality && values[a] < array.values[b])) {
+          result[count++] = values[a++];
+        } else if (a >= cardinality || values[a] > array.values[b]) {
+          result[count++] = array.values[b++];
+        } else {
+          result[count++] = values[a];
+          a++;
+          b++;
+        }
+      }
+      ArrayContainer merged = new ArrayContainer(result, count);
+      if (count > ARRAY_MAX) {
+        return merged.toBitmap();
+      }
+      return merged;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+    }
+
+    @Override
+    int next(int from) {
+      int at = Arrays.binarySearch(values, 0, cardinality, (char) from);
+      if (at < 0) {
+        at = -(at + 1);
+      }
+      return at < cardinality ? values[at] : -1;
+    }
+
+    @Override
+    long memory() {
+      return 24 + values.length * 2L;
+    }
+
+    private BitmapContainer toBitmap() {
+      BitmapContainer bitmap = new BitmapContainer();
+      for (int k = 0; k < cardinality; k++) {
+        bitmap.add(values[k]);
+      }
+      return bitmap;
+    }
+  }
+
+  /** a dense container: one bit per value */
+  private static class BitmapContainer extends Container {
+    private final long[] words;
+    private int cardinality;
+
+    private BitmapContainer() {
+      this.words = new long[1024];
+      this.cardinality = 0;
+    }
+
+    private BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    Container add(char low) {
+      long before = words[low >>> 6];
+      words[low >>> 6] |= 1L << low;
+      if (before != words[low >>> 6]) {
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      long before = words[low >>> 6];
+      words[low >>> 6] &= ~(1L << low);
+      if (before != words[low >>> 6]) {
+        cardinality--;
+        if (cardinality <= ARRAY_MAX) {
+          return toArray();
+        }
+      }
+      return this;
+    }
+
+    @Override
+    Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      BitmapContainer bitmap = (BitmapContainer) other;
+      long[] result = new long[1024];
+      int count = 0;
+      for (int k = 0; k < 1024; k++) {
+        result[k] = words[k] & bitmap.words[k];
+        count += Long.bitCount(result[k]);
+      }
+      BitmapContainer intersection = new BitmapContainer(result, count);
+      if (count <= ARRAY_MAX) {
+        return intersection.toArray();
+      }
+      return intersection;
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof ArrayContainer) {
+        ArrayContainer array = (ArrayContainer) other;
+        for (int k = 0; k < array.cardinality; k++) {
+          add(array.values[k]);
+        }
+        return this;
+      }
+      BitmapContainer bitmap = (BitmapContainer) other;
+      int count = 0;
+      for (int k = 0; k < 1024; k++) {
+        words[k] |= bitmap.words[k];
+        count += Long.bitCount(words[k]);
+      }
+      cardinality = count;
+      return this;
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(Arrays.copyOf(words, 1024), cardinality);
+    }
+
+    @Override
+    int next(int from) {
+      int word = from >>> 6;
+      if (word >= 1024) {
+        return -1;
+      }
+      long bits = words[word] & (-1L << from);
+      while (true) {
+        if (bits != 0) {
+          return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        if (++word == 1024) {
+          return -1;
+        }
+        bits = words[word];
+      }
+    }
+
+    @Override
+    long memory() {
+      return 24 + 8192;
+    }
+
+    private ArrayContainer toArray() {
+      char[] values = new char[Math.max(4, cardinality)];
+      int count = 0;
+      for (int low = next(0); low >= 0; low = low < 0xFFFF ? next(low + 1) : -1) {
+        values[count++] = (char) low;
+      }
+      return new ArrayContainer(values, count);
+    }
+  }
+}
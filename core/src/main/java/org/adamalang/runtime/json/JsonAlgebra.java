@@ -45,6 +45,30 @@ public class JsonAlgebra {
     return patchObject;
   }
 
+  /** RFC7396 for merging a patch into a target where the patch is streamed from the reader (rather than parsed into a tree) */
+  @SuppressWarnings("unchecked")
+  public static Object merge(final Object targetObject, final JsonStreamReader patch, boolean keepNulls) {
+    if (patch.startObject()) {
+      HashMap<String, Object> targetMap = targetObject instanceof HashMap ? (HashMap<String, Object>) targetObject : new HashMap<>();
+      while (patch.notEndOfObject()) {
+        String key = patch.fieldName();
+        if (!patch.testLackOfNull()) {
+          targetMap.remove(key);
+          if (keepNulls) {
+            targetMap.put(key, null);
+          }
+        } else {
+          Object result = merge(targetMap.get(key), patch, keepNulls);
+          if (result != null) {
+            targetMap.put(key, result);
+          }
+        }
+      }
+      return targetMap;
+    }
+    return patch.readJavaTree();
+  }
+
   /** an accumulator/fold version of merge */
   public static AutoMorphicAccumulator<String> mergeAccumulator() {
     return mergeAccumulator(true);
@@ -65,7 +89,7 @@ public class JsonAlgebra {
         if (state == null) {
           state = reader.readJavaTree();
         } else {
-          state = merge(state, reader.readJavaTree(), keepNulls);
+          state = merge(state, reader, keepNulls);
         }
       }
 
@@ -17,11 +17,17 @@ import org.adamalang.runtime.contracts.RxParent;
 public abstract class RxRecordBase<Ty extends RxRecordBase> extends RxBase implements Comparable<Ty>, RxParent, RxChild, RxKillable {
   protected boolean __isDying;
   private boolean __alive;
+  /** the order of insertion within the parent table such that dirty rows are committed in the same order as a scan */
+  long __tableOrder;
+  /** the key of the row within the parent table; the id field may be overwritten (i.e. a row copied via ingestion) */
+  int __tableKey;
 
   public RxRecordBase(final RxParent __owner) {
     super(__owner);
     this.__alive = true;
     this.__isDying = false;
+    this.__tableOrder = 0;
+    this.__tableKey = 0;
   }
 
   public abstract void __deindex();
@@ -33,7 +39,11 @@ public abstract class RxRecordBase<Ty extends RxRecordBase> extends RxBase imple
 
   @Override
   public void __raiseDirty() {
+    boolean wasClean = !__isDirty();
     super.__raiseDirty();
+    if (wasClean && __parent != null) {
+      __parent.__raiseDirtyChild(this);
+    }
   }
 
   @Override
@@ -88,6 +98,10 @@ public abstract class RxRecordBase<Ty extends RxRecordBase> extends RxBase imple
 
   public abstract int __id();
 
+  public int __tableKey() {
+    return __tableKey;
+  }
+
   @Override
   public int hashCode() {
     return __id();
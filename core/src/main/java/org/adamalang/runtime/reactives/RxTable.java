@@ -9,10 +9,12 @@
  */
 package org.adamalang.runtime.reactives;
 
+import org.adamalang.runtime.contracts.IndexQuerySet;
 import org.adamalang.runtime.contracts.RxChild;
 import org.adamalang.runtime.contracts.RxParent;
 import org.adamalang.runtime.contracts.WhereClause;
 import org.adamalang.runtime.index.ReactiveIndex;
+import org.adamalang.runtime.index.RowBitmap;
 import org.adamalang.runtime.json.JsonStreamReader;
 import org.adamalang.runtime.json.JsonStreamWriter;
 import org.adamalang.runtime.natives.NtList;
@@ -20,7 +22,6 @@ import org.adamalang.runtime.natives.lists.SelectorRxObjectList;
 import org.adamalang.runtime.sys.LivingDocument;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /** a reactive table */
@@ -32,6 +33,8 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
   private final ReactiveIndex<Ty>[] indices;
   private final LinkedHashMap<Integer, Ty> itemsByKey;
   private final TreeSet<Ty> unknowns;
+  private final TreeMap<Long, Ty> dirtyRows;
+  private long nextOrder;
 
   @SuppressWarnings("unchecked")
   public RxTable(final LivingDocument document, final RxParent owner, final String className, final Function<RxParent, Ty> maker, final int indicies) {
@@ -52,6 +55,8 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
     // check if we have rows; make sure we link into the JSON tree
     this.itemsByKey = new LinkedHashMap<>();
     this.createdObjects = new LinkedHashMap<>();
+    this.dirtyRows = new TreeMap<>();
+    this.nextOrder = 0;
   }
 
   @Override
@@ -70,30 +75,38 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
       reverseDelta.writeObjectFieldIntro(name);
       reverseDelta.beginObject();
       final var keysToKill = new ArrayList<Integer>();
-      for (final Map.Entry<Integer, Ty> entry : itemsByKey.entrySet()) {
-        final int key = entry.getKey();
+      // visit the dirty rows in the order of itemsByKey; a row which becomes dirty behind the cursor waits for the next commit
+      var entry = dirtyRows.firstEntry();
+      while (entry != null) {
+        final long order = entry.getKey();
         final var row = entry.getValue();
-        if (row.__isDying()) {
-          if (!createdObjects.containsKey(key)) {
-            forwardDelta.writeObjectFieldIntro(key);
-            forwardDelta.writeNull();
-            reverseDelta.writeObjectFieldIntro(key);
-            row.__dump(reverseDelta);
-          }
-          row.__kill();
-          keysToKill.add(key);
-        } else if (row.__isDirty()) {
-          if (createdObjects.containsKey(key)) {
-            forwardDelta.writeObjectFieldIntro(key);
-            row.__dump(forwardDelta);
-            reverseDelta.writeObjectFieldIntro(key);
-            reverseDelta.writeNull();
-            JsonStreamWriter redundantWrite = new JsonStreamWriter();
-            row.__commit(key + "", redundantWrite, redundantWrite);
-          } else {
-            row.__commit(key + "", forwardDelta, reverseDelta);
+        final int key = row.__tableKey;
+        dirtyRows.remove(order);
+        // skip rows which were removed without a commit (i.e. via __insert)
+        if (itemsByKey.get(key) == row) {
+          if (row.__isDying()) {
+            if (!createdObjects.containsKey(key)) {
+              forwardDelta.writeObjectFieldIntro(key);
+              forwardDelta.writeNull();
+              reverseDelta.writeObjectFieldIntro(key);
+              row.__dump(reverseDelta);
+            }
+            row.__kill();
+            keysToKill.add(key);
+          } else if (row.__isDirty()) {
+            if (createdObjects.containsKey(key)) {
+              forwardDelta.writeObjectFieldIntro(key);
+              row.__dump(forwardDelta);
+              reverseDelta.writeObjectFieldIntro(key);
+              reverseDelta.writeNull();
+              JsonStreamWriter redundantWrite = new JsonStreamWriter();
+              row.__commit(key + "", redundantWrite, redundantWrite);
+            } else {
+              row.__commit(key + "", forwardDelta, reverseDelta);
+            }
           }
         }
+        entry = dirtyRows.higherEntry(order);
       }
       forwardDelta.endObject();
       reverseDelta.endObject();
@@ -132,6 +145,8 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
           final var tyPrior = itemsByKey.get(key);
           if (tyPrior == null) {
             final var tyObj = maker.apply(this);
+            tyObj.__tableOrder = nextOrder++;
+            tyObj.__tableKey = key;
             tyObj.__setId(key, true);
             tyObj.__insert(reader);
             itemsByKey.put(key, tyObj);
@@ -193,9 +208,12 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
         }
       }
       createdObjects.clear();
-      for (final Map.Entry<Integer, Ty> entry : itemsByKey.entrySet()) {
-        entry.getValue().__revert();
+      for (final Ty row : dirtyRows.values()) {
+        if (itemsByKey.get(row.__tableKey) == row) {
+          row.__revert();
+        }
       }
+      dirtyRows.clear();
       __lowerDirtyRevert();
     }
   }
@@ -214,11 +232,14 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
     if (unknowns != null) {
       sum += unknowns.size() * 8;
     }
+    sum += dirtyRows.size() * 8;
     return sum;
   }
 
   public Ty make(int key) {
     final var result = maker.apply(this);
+    result.__tableOrder = nextOrder++;
+    result.__tableKey = key;
     result.__setId(key, false);
     result.__subscribe(this);
     result.__raiseDirty();
@@ -231,6 +252,15 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
     return result;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public void __raiseDirtyChild(RxChild child) {
+    if (child instanceof RxRecordBase) {
+      final var row = (Ty) child;
+      dirtyRows.put(row.__tableOrder, row);
+    }
+  }
+
   @Override
   public boolean __raiseInvalid() {
     __raiseDirty();
@@ -259,34 +289,67 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
     if (filter == null) {
       return this;
     }
-    final var prior = new AtomicReference<TreeSet<Ty>>(null);
-    filter.scopeByIndicies((column, value, mode) -> {
-      final var specific = indices[column].of(value, mode);
-      if (specific == null) { // no index available
-        prior.set(new TreeSet<>());
-        return;
-      }
-      if (prior.get() == null) {
-        // just use the index
-        prior.set(specific);
-      } else {
-        final var common = new TreeSet<Ty>();
-        if (specific != null) {
-          for (final Ty item : specific) {
-            if (prior.get().contains(item)) {
-              common.add(item);
-            }
+    // gather the predicates such that the most selective one (by bucket cardinality) builds the result
+    final var predicates = new ArrayList<IndexPredicate>();
+    filter.scopeByIndicies((column, value, mode) -> predicates.add(new IndexPredicate(column, value, mode, indices[column].estimate(value, mode))));
+    if (predicates.size() == 0) {
+      return this;
+    }
+    predicates.sort(Comparator.comparingInt((IndexPredicate predicate) -> predicate.estimate));
+    final var first = predicates.get(0);
+    var ids = first.estimate == 0 ? null : indices[first.column].of(first.value, first.mode);
+    if (ids == null) { // no index available
+      ids = new RowBitmap();
+    }
+    for (int k = 1; k < predicates.size() && !ids.isEmpty(); k++) {
+      final var predicate = predicates.get(k);
+      indices[predicate.column].intersect(ids, predicate.value, predicate.mode);
+    }
+    for (final Ty unknown : unknowns) {
+      ids.add(unknown.__tableKey);
+    }
+    final var result = ids;
+    return () -> new Iterator<>() {
+      private final PrimitiveIterator.OfInt it = result.iterator();
+      private Ty next = advance();
+
+      private Ty advance() {
+        while (it.hasNext()) {
+          final var item = itemsByKey.get(it.nextInt());
+          if (item != null) {
+            return item;
           }
         }
-        prior.set(common);
+        return null;
       }
-    });
-    if (prior.get() == null) {
-      return this;
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Ty next() {
+        final var item = next;
+        next = advance();
+        return item;
+      }
+    };
+  }
+
+  /** a predicate against an index along with how many rows it is expected to match */
+  private static class IndexPredicate {
+    private final int column;
+    private final int value;
+    private final IndexQuerySet.LookupMode mode;
+    private final int estimate;
+
+    private IndexPredicate(int column, int value, IndexQuerySet.LookupMode mode, int estimate) {
+      this.column = column;
+      this.value = value;
+      this.mode = mode;
+      this.estimate = estimate;
     }
-    final var clone = new TreeSet<>(prior.get());
-    clone.addAll(unknowns);
-    return clone;
   }
 
   public int size() {
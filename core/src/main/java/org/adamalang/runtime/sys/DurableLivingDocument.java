@@ -97,16 +97,8 @@ public class DurableLivingDocument {
 
   private void construct(final NtClient who, final String arg, final String entropy, Callback<Integer> callback) {
     try {
-      final var writer = forge("construct", who);
-      writer.writeObjectFieldIntro("arg");
-      writer.injectJson(arg);
-      if (entropy != null) {
-        writer.writeObjectFieldIntro("entropy");
-        writer.writeFastString(entropy);
-      }
-      writer.endObject();
-      final var init = document.__transact(writer.toString(), currentFactory);
-      final var invalidate = document.__transact(forgeInvalidate(), currentFactory);
+      final var init = document.__transact(LivingDocumentRequest.construct(activity(), who, arg, entropy), currentFactory);
+      final var invalidate = document.__transact(LivingDocumentRequest.invalidate(activity()), currentFactory);
       final var setup = RemoteDocumentUpdate.compact(new RemoteDocumentUpdate[]{init.update, invalidate.update})[0];
       size.set(1);
       base.service.initialize(key, setup, Callback.handoff(callback, ErrorCodes.DURABLE_LIVING_DOCUMENT_STAGE_CONSTRUCT_PERSIST, () -> {
@@ -123,10 +115,11 @@ public class DurableLivingDocument {
     return forge(command, who, true);
   }
 
-  private String forgeInvalidate() {
-    final var request = forge("invalidate", null);
-    request.endObject();
-    return request.toString();
+  /** note activity on the document, and return the current time for the request */
+  private long activity() {
+    long now = base.time.nowMilliseconds();
+    this.lastActivityMS = now;
+    return now;
   }
 
   public JsonStreamWriter forge(final String command, final NtClient who, boolean activity) {
@@ -411,7 +404,7 @@ public class DurableLivingDocument {
       while (last.update.requiresFutureInvalidation && last.update.whenToInvalidateMilliseconds == 0) {
         // inject an invalidation
         try {
-          last = document.__transact(forgeInvalidate(), currentFactory);
+          last = document.__transact(LivingDocumentRequest.invalidate(activity()), currentFactory);
           changes.add(last);
         } catch (ErrorCodeException ex) {
           triggerFailure.accept(ex);
@@ -471,7 +464,7 @@ public class DurableLivingDocument {
                       public void execute() throws Exception {
                         document.__insert(new JsonStreamReader(value.patch));
                         IngestRequest[] requestsAfterCatchUp = new IngestRequest[requests.length + 1];
-                        requestsAfterCatchUp[0] = new IngestRequest(NtClient.NO_ONE, forgeInvalidate(), DONT_CARE_CHANGE, false);
+                        requestsAfterCatchUp[0] = new IngestRequest(NtClient.NO_ONE, LivingDocumentRequest.invalidate(activity()), DONT_CARE_CHANGE, false);
                         for (int j = 0; j < requests.length; j++) {
                           requestsAfterCatchUp[j + 1] = requests[j];
                         }
@@ -501,11 +494,8 @@ public class DurableLivingDocument {
             @Override
             public void execute() throws Exception {
               revert.run();
-              final var writer = forge("apply", requestToActOn.who);
-              writer.writeObjectFieldIntro("patch");
-              writer.injectJson(value.patch);
-              writer.endObject();
-              executeNow(new IngestRequest[]{new IngestRequest(requestToActOn.who, writer.toString(), requestToActOn.callback, false)});
+              LivingDocumentRequest apply = LivingDocumentRequest.apply(activity(), requestToActOn.who, value.patch);
+              executeNow(new IngestRequest[]{new IngestRequest(requestToActOn.who, apply, requestToActOn.callback, false)});
             }
           });
         }
@@ -554,8 +544,8 @@ public class DurableLivingDocument {
     }
   }
 
-  private void ingest(NtClient who, String requestJson, Callback<LivingDocumentChange> callback, boolean cleanupTest, boolean forceIntoQueue) {
-    IngestRequest request = new IngestRequest(who, requestJson, callback, cleanupTest);
+  private void ingest(NtClient who, LivingDocumentRequest typedRequest, Callback<LivingDocumentChange> callback, boolean cleanupTest, boolean forceIntoQueue) {
+    IngestRequest request = new IngestRequest(who, typedRequest, callback, cleanupTest);
     if (catastrophicFailureOccurred) {
       request.callback.failure(new ErrorCodeException(ErrorCodes.CATASTROPHIC_DOCUMENT_FAILURE_EXCEPTION));
       return;
@@ -583,7 +573,7 @@ public class DurableLivingDocument {
   }
 
   public void invalidate(Callback<Integer> callback) {
-    ingest(NtClient.NO_ONE, forgeInvalidate(), JUST_SEQ(base.metrics.document_invalidate.wrap(callback)), false, true);
+    ingest(NtClient.NO_ONE, LivingDocumentRequest.invalidate(activity()), JUST_SEQ(base.metrics.document_invalidate.wrap(callback)), false, true);
   }
 
   public int getCodeCost() {
@@ -603,11 +593,7 @@ public class DurableLivingDocument {
   }
 
   public void expire(long limit, Callback<Integer> callback) {
-    final var request = forge("expire", null, false);
-    request.writeObjectFieldIntro("limit");
-    request.writeLong(limit);
-    request.endObject();
-    ingest(NtClient.NO_ONE, request.toString(), JUST_SEQ(base.metrics.document_expire.wrap(callback)), true, false);
+    ingest(NtClient.NO_ONE, LivingDocumentRequest.expire(base.time.nowMilliseconds(), limit), JUST_SEQ(base.metrics.document_expire.wrap(callback)), true, false);
   }
 
   public void registerActivity() {
@@ -615,9 +601,7 @@ public class DurableLivingDocument {
   }
 
   public void connect(final NtClient who, Callback<Integer> callback) {
-    final var request = forge("connect", who);
-    request.endObject();
-    ingest(who, request.toString(), JUST_SEQ(base.metrics.document_connect.wrap(callback)), false, false);
+    ingest(who, LivingDocumentRequest.connect(activity(), who), JUST_SEQ(base.metrics.document_connect.wrap(callback)), false, false);
   }
 
   public boolean isConnected(final NtClient who) {
@@ -651,31 +635,15 @@ public class DurableLivingDocument {
   }
 
   public void disconnect(final NtClient who, Callback<Integer> callback) {
-    final var request = forge("disconnect", who);
-    request.endObject();
-    ingest(who, request.toString(), JUST_SEQ(base.metrics.document_disconnect.wrap(callback)), true, false);
+    ingest(who, LivingDocumentRequest.disconnect(activity(), who), JUST_SEQ(base.metrics.document_disconnect.wrap(callback)), true, false);
   }
 
   public void send(final CoreRequestContext context, final String marker, final String channel, final String message, Callback<Integer> callback) {
-    final var writer = forgeWithContext("send", context);
-    writer.writeObjectFieldIntro("channel");
-    writer.writeFastString(channel);
-    if (marker != null) {
-      writer.writeObjectFieldIntro("marker");
-      writer.writeString(marker);
-    }
-    writer.writeObjectFieldIntro("message");
-    writer.injectJson(message);
-    writer.endObject();
-    ingest(context.who, writer.toString(), JUST_SEQ(base.metrics.document_send.wrap(callback)), false, false);
+    ingest(context.who, LivingDocumentRequest.send(base.time.nowMilliseconds(), context, marker, channel, message), JUST_SEQ(base.metrics.document_send.wrap(callback)), false, false);
   }
 
   public void apply(NtClient who, String patch, Callback<Integer> callback) {
-    final var writer = forge("apply", who);
-    writer.writeObjectFieldIntro("patch");
-    writer.injectJson(patch);
-    writer.endObject();
-    ingest(who, writer.toString(), JUST_SEQ(base.metrics.document_apply.wrap(callback)), false, false);
+    ingest(who, LivingDocumentRequest.apply(activity(), who, patch), JUST_SEQ(base.metrics.document_apply.wrap(callback)), false, false);
   }
 
   public boolean canAttach(NtClient who) {
@@ -684,28 +652,15 @@ public class DurableLivingDocument {
   }
 
   public void attach(NtClient who, NtAsset asset, Callback<Integer> callback) {
-    final var writer = forge("attach", who);
-    writer.writeObjectFieldIntro("asset");
-    writer.writeNtAsset(asset);
-    writer.endObject();
-    ingest(who, writer.toString(), JUST_SEQ(base.metrics.document_attach.wrap(callback)), false, false);
+    ingest(who, LivingDocumentRequest.attach(activity(), who, asset), JUST_SEQ(base.metrics.document_attach.wrap(callback)), false, false);
   }
 
   public void deliver(NtClient who, int deliveryId, RemoteResult result, Callback<Integer> callback) {
-    var writer = forge("deliver", who);
-    writer.writeObjectFieldIntro("delivery_id");
-    writer.writeInteger(deliveryId);
-    writer.writeObjectFieldIntro("result");
-    result.write(writer);
-    writer.endObject();
-    ingest(who, writer.toString(), JUST_SEQ(base.metrics.document_attach.wrap(callback)), false, false);
+    ingest(who, LivingDocumentRequest.deliver(activity(), who, deliveryId, result), JUST_SEQ(base.metrics.document_attach.wrap(callback)), false, false);
   }
 
   public void webPut(NtClient who, WebPutRaw put, Callback<WebResponse> callback) {
-    final var writer = forge("web_put", who);
-    put.writeBody(writer);
-    writer.endObject();
-    ingest(who, writer.toString(), base.metrics.document_web_put.wrap(new Callback<LivingDocumentChange>() {
+    ingest(who, LivingDocumentRequest.webPut(activity(), who, put), base.metrics.document_web_put.wrap(new Callback<LivingDocumentChange>() {
       @Override
       public void success(LivingDocumentChange value) {
         if (value.response != null) {
@@ -740,12 +695,12 @@ public class DurableLivingDocument {
   private static class IngestRequest {
     public final boolean cleanupTest;
     private final NtClient who;
-    private final String request;
+    private final LivingDocumentRequest request;
     private final Callback<LivingDocumentChange> callback;
     private int attempts;
     private LivingDocumentChange change;
 
-    private IngestRequest(NtClient who, String request, Callback<LivingDocumentChange> callback, boolean cleanup) {
+    private IngestRequest(NtClient who, LivingDocumentRequest request, Callback<LivingDocumentChange> callback, boolean cleanup) {
       this.who = who;
       this.request = request;
       this.callback = callback;
@@ -61,6 +61,9 @@ public abstract class LivingDocument implements RxParent, Caller {
   protected final RxCache __cache;
   private final TreeMap<NtClient, Integer> __clients;
   private final HashMap<NtClient, ArrayList<PrivateView>> __trackedViews;
+  private final HashMap<PrivateView, SharedView> __sharedViews;
+  private final HashMap<NtClient, ArrayList<SharedView>> __sharedViewGroups;
+  private long __sharedViewRound;
   private final HashMap<String, Long> __dedupe;
   private final TreeMap<Integer, RxCache> __routing;
   protected int __assertionFailures = 0;
@@ -95,6 +98,9 @@ public abstract class LivingDocument implements RxParent, Caller {
     __queue = new ArrayList<>();
     __futures = new OutstandingFutureTracker(__auto_future_id);
     __trackedViews = new HashMap<>();
+    __sharedViews = new HashMap<>();
+    __sharedViewGroups = new HashMap<>();
+    __sharedViewRound = 0;
     __cache = new RxCache(this, this);
     __code_cost = 0;
     __trace = new ArrayList<>();
@@ -193,7 +199,7 @@ public abstract class LivingDocument implements RxParent, Caller {
     __auto_gen.__commit("__auto_gen", forward, reverse);
   }
 
-  private LivingDocumentChange __invalidate_trailer(NtClient who, final String request) {
+  private LivingDocumentChange __invalidate_trailer(NtClient who, final LivingDocumentRequest request) {
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
     forward.beginObject();
@@ -213,11 +219,11 @@ public abstract class LivingDocument implements RxParent, Caller {
     forward.endObject();
     reverse.endObject();
     List<LivingDocumentChange.Broadcast> broadcasts = __buildBroadcastList();
-    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.Invalidate);
+    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.Invalidate);
     return new LivingDocumentChange(update, broadcasts, null);
   }
 
-  private LivingDocumentChange __simple_commit(NtClient who, final String request, Object response) {
+  private LivingDocumentChange __simple_commit(NtClient who, final LivingDocumentRequest request, Object response) {
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
     forward.beginObject();
@@ -227,7 +233,7 @@ public abstract class LivingDocument implements RxParent, Caller {
     forward.endObject();
     reverse.endObject();
     List<LivingDocumentChange.Broadcast> broadcasts = __buildBroadcastList();
-    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.AddUserData);
+    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.AddUserData);
     return new LivingDocumentChange(update, broadcasts, response);
   }
 
@@ -268,54 +274,165 @@ public abstract class LivingDocument implements RxParent, Caller {
   /** code generated: create a private view for the given person */
   public abstract PrivateView __createPrivateView(NtClient __who, Perspective __perspective, AssetIdEncoder __encoder);
 
+  /** code generated: does the privacy of the document (conservatively) depend on who is viewing */
+  public abstract boolean __privacyReadsWho();
+
   /** build broadcast for a viewer */
   public LivingDocumentChange.Broadcast __buildBroadcast(NtClient who, PrivateView pv) {
+    return new LivingDocumentChange.Broadcast(pv, __assembleBroadcast(__computeViewData(pv), __futuresFor(who, pv)));
+  }
+
+  /** compute the data delta for the given view (which advances the view's delta state) */
+  private static String __computeViewData(PrivateView pv) {
+    JsonStreamWriter data = new JsonStreamWriter();
+    pv.update(data);
+    return data.toString();
+  }
+
+  /** compute the futures for the given view, and return null if the view has already seen them */
+  private String __futuresFor(NtClient who, PrivateView pv) {
+    JsonStreamWriter futures = new JsonStreamWriter();
+    __futures.dump(futures, who);
+    String futuresStr = futures.toString();
+    if (pv.futures(futuresStr)) {
+      return futuresStr;
+    }
+    return null;
+  }
+
+  /** assemble the message to a viewer from the data change and the futures (if they changed) */
+  private String __assembleBroadcast(String dataStr, String futuresStr) {
     final var writer = new JsonStreamWriter();
     writer.beginObject();
     boolean wroteData = false;
-    { // write out the data if there are changes
-      JsonStreamWriter data = new JsonStreamWriter();
-      pv.update(data);
-      String dataStr = data.toString();
-      if (!"{}".equals(dataStr)) {
-        writer.writeObjectFieldIntro("data");
-        writer.inline(dataStr);
-        writer.force_comma_introduction();
-        wroteData = true;
-      }
+    if (!"{}".equals(dataStr)) { // write out the data if there are changes
+      writer.writeObjectFieldIntro("data");
+      writer.inline(dataStr);
+      writer.force_comma_introduction();
+      wroteData = true;
     }
-    { // write out the outstanding and blockers arrays if they have changed for the view
-      JsonStreamWriter futures = new JsonStreamWriter();
-      __futures.dump(futures, who);
-      String futuresStr = futures.toString();
-      if (pv.futures(futuresStr)) {
-        if (wroteData) {
-          writer.force_comma();
-        }
-        writer.inline(futuresStr);
-        writer.force_comma_introduction();
+    if (futuresStr != null) { // write out the outstanding and blockers arrays if they have changed for the view
+      if (wroteData) {
+        writer.force_comma();
       }
+      writer.inline(futuresStr);
+      writer.force_comma_introduction();
     }
     writer.writeObjectFieldIntro("seq");
     writer.writeInteger(__seq.get());
     writer.endObject();
-    return new LivingDocumentChange.Broadcast(pv, writer.toString());
+    return writer.toString();
   }
 
-  /** internal: we compute per client */
+  /** a view has received its first update in this round, so join a group of equivalent views whose leader also computed in this round */
+  private void __joinSharedView(PrivateView pv) {
+    NtClient principal = __privacyReadsWho() ? pv.who : NtClient.NO_ONE;
+    ArrayList<SharedView> groups = __sharedViewGroups.get(principal);
+    if (groups == null) {
+      groups = new ArrayList<>();
+      __sharedViewGroups.put(principal, groups);
+    }
+    SharedView group = null;
+    for (SharedView existing : groups) {
+      if (existing.accepts(pv, __sharedViewRound)) {
+        group = existing;
+        break;
+      }
+    }
+    if (group == null) {
+      group = new SharedView(principal, pv, __sharedViewRound);
+      groups.add(group);
+    }
+    group.join();
+    __sharedViews.put(pv, group);
+  }
+
+  /** the view is gone, so remove it from its group */
+  private void __leaveSharedView(PrivateView pv) {
+    SharedView group = __sharedViews.remove(pv);
+    if (group != null && group.leave()) {
+      ArrayList<SharedView> groups = __sharedViewGroups.get(group.principal);
+      if (groups != null) {
+        groups.remove(group);
+        if (groups.size() == 0) {
+          __sharedViewGroups.remove(group.principal);
+        }
+      }
+    }
+  }
+
+  /** groups whose leader didn't compute in this round have no live members, and their leaders are now stale; so drop them */
+  private void __dropStaleSharedViews() {
+    final var itGroups = __sharedViewGroups.values().iterator();
+    while (itGroups.hasNext()) {
+      final var groups = itGroups.next();
+      groups.removeIf((group) -> !group.computedIn(__sharedViewRound));
+      if (groups.size() == 0) {
+        itGroups.remove();
+      }
+    }
+  }
+
+  /**
+   * internal: we compute per distinct view. Views that are provably equivalent share a group, and each group's delta is
+   * computed once and fanned out; a view computes alone until its first update lands.
+   */
   private ArrayList<LivingDocumentChange.Broadcast> __buildBroadcastList() {
+    __sharedViewRound++;
     ArrayList<LivingDocumentChange.Broadcast> broadcasts = new ArrayList<>(__trackedViews.size());
+    ArrayList<PrivateView> joining = null;
+    HashMap<SharedView, String> dataByGroup = null;
+    HashMap<SharedView, String> broadcastByGroup = null;
     final var itTrackedViews = __trackedViews.entrySet().iterator();
     while (itTrackedViews.hasNext()) {
       final var entryTrackedView = itTrackedViews.next();
+      final var who = entryTrackedView.getKey();
       final var itView = entryTrackedView.getValue().iterator();
       while (itView.hasNext()) {
         final var pv = itView.next();
         if (pv.isAlive()) {
-          broadcasts.add(__buildBroadcast(entryTrackedView.getKey(), pv));
+          SharedView group = __sharedViews.get(pv);
+          if (group == null) {
+            broadcasts.add(__buildBroadcast(who, pv));
+            if (SharedView.canShare(pv)) {
+              if (joining == null) {
+                joining = new ArrayList<>();
+              }
+              joining.add(pv);
+            }
+            continue;
+          }
+          if (dataByGroup == null) {
+            dataByGroup = new HashMap<>();
+            broadcastByGroup = new HashMap<>();
+          }
+          String dataStr = dataByGroup.get(group);
+          if (dataStr == null) {
+            dataStr = __computeViewData(group.leader);
+            dataByGroup.put(group, dataStr);
+            group.computed(__sharedViewRound);
+          }
+          String futuresStr = __futuresFor(who, pv);
+          if (futuresStr != null) {
+            broadcasts.add(new LivingDocumentChange.Broadcast(pv, __assembleBroadcast(dataStr, futuresStr)));
+          } else {
+            String shared = broadcastByGroup.get(group);
+            if (shared == null) {
+              shared = __assembleBroadcast(dataStr, null);
+              broadcastByGroup.put(group, shared);
+            }
+            broadcasts.add(new LivingDocumentChange.Broadcast(pv, shared));
+          }
         }
       }
     }
+    __dropStaleSharedViews();
+    // join after every leader has computed for this round such that a joiner never lands in a group with a stale leader
+    if (joining != null) {
+      for (PrivateView pv : joining) {
+        __joinSharedView(pv);
+      }
+    }
     return broadcasts;
   }
 
@@ -365,10 +482,12 @@ public abstract class LivingDocument implements RxParent, Caller {
     if (views != null) {
       final var it = views.iterator();
       while (it.hasNext()) {
-        if (it.next().isAlive()) {
+        PrivateView view = it.next();
+        if (view.isAlive()) {
           count++;
         } else {
           it.remove();
+          __leaveSharedView(view);
         }
       }
       if (count == 0) {
@@ -388,6 +507,8 @@ public abstract class LivingDocument implements RxParent, Caller {
       entry.getValue().clear();
     }
     __trackedViews.clear();
+    __sharedViews.clear();
+    __sharedViewGroups.clear();
   }
 
   /** can we remove this document from memory */
@@ -827,99 +948,123 @@ public abstract class LivingDocument implements RxParent, Caller {
       if (timestamp == null) {
         throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_TIMESTAMP);
       }
-      __time.set(timestamp);
+      return __transact_dispatch(new LivingDocumentRequest(requestJson, command, timestamp, who, origin, ip, key, marker, channel, null, limit, entropy, null, patch, delivery_id, result, asset, put), message, arg, factory);
+    } catch (GoodwillExhaustedException gee) {
+      throw new ErrorCodeException(ErrorCodes.API_GOODWILL_EXCEPTION, gee);
+    }
+  }
 
-      switch (command) {
-        case "invalidate":
-          if (__monitor != null) {
-            return __transaction_invalidate_monitored(who, requestJson);
-          } else {
-            return __transaction_invalidate_body(who, requestJson);
-          }
-        case "construct":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (__constructed.get()) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_ALREADY_CONSTRUCTED);
-          }
-          if (arg == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CONSTRUCTOR_ARG);
-          }
-          return __transaction_construct(requestJson, who, arg, entropy);
-        case "connect":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          return __transaction_connect(requestJson, who);
-        case "disconnect":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          return __transaction_disconnect(requestJson, who);
-        case "attach":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (asset == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_ASSET);
-          }
-          return __transaction_attach(requestJson, who, asset);
-        case "send":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (channel == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_CHANNEL);
-          }
-          if (message == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_MESSAGE);
-          }
-          if (key == null || origin == null || ip == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_CONTEXT);
-          }
-          CoreRequestContext context = new CoreRequestContext(who, origin, ip, key);
-          return __transaction_send(context, requestJson, who, marker, channel, timestamp, message, factory);
-        case "deliver":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (delivery_id == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_DELIVERY_ID);
-          }
-          if (result == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_RESULT);
-          }
-          return __transaction_deliver(requestJson, who, delivery_id, result);
-        case "expire":
-          if (limit == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_LIMIT);
-          }
-          return __transaction_expire(requestJson, limit);
-        case "web_put":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (put == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_PUT);
-          }
-          return __transaction_web_put(requestJson, new WebPut(who, put));
-        case "apply":
-          if (who == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
-          }
-          if (patch == null) {
-            throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_PATCH);
-          }
-          return __transaction_apply_patch(requestJson, who, patch);
+  /** transaction: the typed version of the core API which avoids the JSON round trip for requests within the process */
+  public LivingDocumentChange __transact(final LivingDocumentRequest request, LivingDocumentFactory factory) throws ErrorCodeException {
+    try {
+      Object message = null;
+      if (request.message != null) {
+        message = __parse_message(request.channel, new JsonStreamReader(request.message));
       }
-      throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_VALID_COMMAND_FOUND);
+      NtMessageBase arg = null;
+      if (request.arg != null) {
+        arg = __parse_construct_arg(new JsonStreamReader(request.arg));
+      }
+      return __transact_dispatch(request, message, arg, factory);
     } catch (GoodwillExhaustedException gee) {
       throw new ErrorCodeException(ErrorCodes.API_GOODWILL_EXCEPTION, gee);
     }
   }
 
-  private LivingDocumentChange __transaction_deliver(final String request, NtClient who, int deliveryId, RemoteResult result) throws ErrorCodeException {
+  /** validate the request and route it to the appropriate transaction */
+  private LivingDocumentChange __transact_dispatch(final LivingDocumentRequest request, final Object message, final NtMessageBase arg, LivingDocumentFactory factory) throws ErrorCodeException {
+    final NtClient who = request.who;
+    final long timestamp = request.timestamp;
+    __time.set(timestamp);
+
+    switch (request.command) {
+      case "invalidate":
+        if (__monitor != null) {
+          return __transaction_invalidate_monitored(who, request);
+        } else {
+          return __transaction_invalidate_body(who, request);
+        }
+      case "construct":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (__constructed.get()) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_ALREADY_CONSTRUCTED);
+        }
+        if (arg == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CONSTRUCTOR_ARG);
+        }
+        return __transaction_construct(request, who, arg, request.entropy);
+      case "connect":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        return __transaction_connect(request, who);
+      case "disconnect":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        return __transaction_disconnect(request, who);
+      case "attach":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (request.asset == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_ASSET);
+        }
+        return __transaction_attach(request, who, request.asset);
+      case "send":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (request.channel == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_CHANNEL);
+        }
+        if (message == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_MESSAGE);
+        }
+        if (request.key == null || request.origin == null || request.ip == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_CONTEXT);
+        }
+        CoreRequestContext context = new CoreRequestContext(who, request.origin, request.ip, request.key);
+        return __transaction_send(context, request, who, request.marker, request.channel, timestamp, message, factory);
+      case "deliver":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (request.deliveryId == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_DELIVERY_ID);
+        }
+        if (request.result == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_RESULT);
+        }
+        return __transaction_deliver(request, who, request.deliveryId, request.result);
+      case "expire":
+        if (request.limit == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_LIMIT);
+        }
+        return __transaction_expire(request, request.limit);
+      case "web_put":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (request.put == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_PUT);
+        }
+        return __transaction_web_put(request, new WebPut(who, request.put));
+      case "apply":
+        if (who == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
+        }
+        if (request.patch == null) {
+          throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_PATCH);
+        }
+        return __transaction_apply_patch(request, who, request.patch);
+    }
+    throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_VALID_COMMAND_FOUND);
+  }
+
+  private LivingDocumentChange __transaction_deliver(final LivingDocumentRequest request, NtClient who, int deliveryId, RemoteResult result) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     boolean exception = true;
     if (__monitor != null) {
@@ -942,7 +1087,7 @@ public abstract class LivingDocument implements RxParent, Caller {
       __internalCommit(forward, reverse);
       forward.endObject();
       reverse.endObject();
-      RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+      RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
       return new LivingDocumentChange(update, null, null);
     } finally {
       if (exception) {
@@ -954,7 +1099,7 @@ public abstract class LivingDocument implements RxParent, Caller {
     }
   }
 
-  private LivingDocumentChange __transaction_web_put(final String request, final WebPut put) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_web_put(final LivingDocumentRequest request, final WebPut put) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     boolean exception = true;
     if (__monitor != null) {
@@ -987,7 +1132,7 @@ public abstract class LivingDocument implements RxParent, Caller {
   }
 
   /** transaction: a person connects to document */
-  private LivingDocumentChange __transaction_attach(final String request, final NtClient who, final NtAsset asset) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_attach(final LivingDocumentRequest request, final NtClient who, final NtAsset asset) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1014,7 +1159,7 @@ public abstract class LivingDocument implements RxParent, Caller {
   }
 
   /** transaction: a person connects to document */
-  private LivingDocumentChange __transaction_connect(final String request, final NtClient who) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_connect(final LivingDocumentRequest request, final NtClient who) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1051,7 +1196,7 @@ public abstract class LivingDocument implements RxParent, Caller {
         reverse.writeNull();
         reverse.endObject();
         reverse.endObject();
-        final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+        final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
         exception = false;
         return new LivingDocumentChange(result, null, null);
       } else {
@@ -1068,7 +1213,7 @@ public abstract class LivingDocument implements RxParent, Caller {
   }
 
   /** transaction: construct the document */
-  private LivingDocumentChange __transaction_construct(final String request, final NtClient who, final NtMessageBase arg, final String entropy) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_construct(final LivingDocumentRequest request, final NtClient who, final NtMessageBase arg, final String entropy) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1088,7 +1233,7 @@ public abstract class LivingDocument implements RxParent, Caller {
       __commit(null, forward, reverse);
       forward.endObject();
       reverse.endObject();
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
       exception = false;
       return new LivingDocumentChange(result, null, null);
     } finally {
@@ -1099,7 +1244,7 @@ public abstract class LivingDocument implements RxParent, Caller {
   }
 
   /** transaction: a person disconnects from the document */
-  private LivingDocumentChange __transaction_disconnect(final String request, final NtClient who) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_disconnect(final LivingDocumentRequest request, final NtClient who) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1132,7 +1277,7 @@ public abstract class LivingDocument implements RxParent, Caller {
       reverse.writeNtClient(who);
       reverse.endObject();
       reverse.endObject();
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
       exception = false;
       return new LivingDocumentChange(result, null, null);
     } finally {
@@ -1146,14 +1291,14 @@ public abstract class LivingDocument implements RxParent, Caller {
   }
 
   /** transaction: apply a data patch to the document */
-  private LivingDocumentChange __transaction_apply_patch(final String request, final NtClient who, String patch) {
+  private LivingDocumentChange __transaction_apply_patch(final LivingDocumentRequest request, final NtClient who, String patch) {
     __patch(new JsonStreamReader(patch));
     __seq.bumpUpPre();
     return __simple_commit(who, request, null);
   }
 
   /** transaction: an invalidation is happening on the document (no monitor) */
-  private LivingDocumentChange __transaction_invalidate_body(NtClient who, final String request) {
+  private LivingDocumentChange __transaction_invalidate_body(NtClient who, final LivingDocumentRequest request) {
     __preemptedStateOnNextComputeBlocked = null;
     final var seedUsed = Long.parseLong(__entropy.get());
     try {
@@ -1199,7 +1344,7 @@ public abstract class LivingDocument implements RxParent, Caller {
         __commit(null, forward, reverse);
         forward.endObject();
         reverse.endObject();
-        return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), false, 0, 0L, UpdateType.Internal), broadcasts, null);
+        return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), false, 0, 0L, UpdateType.Internal), broadcasts, null);
       }
     } catch (final RetryProgressException rpe) {
       __futures.restore();
@@ -1224,12 +1369,12 @@ public abstract class LivingDocument implements RxParent, Caller {
       __commit(null, forward, reverse);
       forward.endObject();
       reverse.endObject();
-      return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal), null, null);
+      return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal), null, null);
     }
   }
 
   /** transaction: an invalidation is happening on the document (use monitor) */
-  private LivingDocumentChange __transaction_invalidate_monitored(final NtClient who, final String request) {
+  private LivingDocumentChange __transaction_invalidate_monitored(final NtClient who, final LivingDocumentRequest request) {
     var exception = true;
     final var startedTime = System.nanoTime();
     __monitor.push("TransactionInvalidate");
@@ -1243,7 +1388,7 @@ public abstract class LivingDocument implements RxParent, Caller {
     }
   }
 
-  private LivingDocumentChange __transaction_expire(final String request, final long limit) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_expire(final LivingDocumentRequest request, final long limit) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1288,7 +1433,7 @@ public abstract class LivingDocument implements RxParent, Caller {
       forward.endObject();
       reverse.endObject();
 
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), NtClient.NO_ONE, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal);
+      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), NtClient.NO_ONE, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal);
       exception = false;
       return new LivingDocumentChange(result, null, null);
     } finally {
@@ -1298,7 +1443,7 @@ public abstract class LivingDocument implements RxParent, Caller {
     }
   }
 
-  private LivingDocumentChange __transaction_send_commit(final String request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send_commit(final LivingDocumentRequest request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
     forward.beginObject();
@@ -1316,11 +1461,11 @@ public abstract class LivingDocument implements RxParent, Caller {
     forward.endObject();
     reverse.endObject();
     List<LivingDocumentChange.Broadcast> broadcasts = __buildBroadcastList();
-    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), __state.has(), (int) Math.max(0, __next_time.get() - __time.get()), 0L, UpdateType.DirectMessageExecute);
+    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), __state.has(), (int) Math.max(0, __next_time.get() - __time.get()), 0L, UpdateType.DirectMessageExecute);
     return new LivingDocumentChange(update, broadcasts, null);
   }
 
-  private LivingDocumentChange __transaction_send_enqueue(final String request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send_enqueue(final LivingDocumentRequest request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     // create the delta
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
@@ -1361,12 +1506,12 @@ public abstract class LivingDocument implements RxParent, Caller {
     __commit(null, forward, reverse);
     forward.endObject();
     reverse.endObject();
-    final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+    final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request.json(), forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
     return new LivingDocumentChange(result, null, null);
   }
 
   /** transaction: a person is sending the document a message */
-  private LivingDocumentChange __transaction_send(CoreRequestContext context, final String request, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send(CoreRequestContext context, final LivingDocumentRequest request, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -0,0 +1,181 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.adamalang.runtime.natives.NtAsset;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.remote.RemoteResult;
+import org.adamalang.runtime.sys.web.WebPutRaw;
+
+/**
+ * A typed request to transact against a LivingDocument. Requests from within the process use this
+ * to skip forging JSON only to have the document parse it back; the JSON form of the request is
+ * only produced when the change is destined for the request log (i.e. the transaction succeeded).
+ */
+public class LivingDocumentRequest {
+  public final String command;
+  public final long timestamp;
+  public final NtClient who;
+  public final String origin;
+  public final String ip;
+  public final String key;
+  public final String marker;
+  public final String channel;
+  public final String message;
+  public final Long limit;
+  public final String entropy;
+  public final String arg;
+  public final String patch;
+  public final Integer deliveryId;
+  public final RemoteResult result;
+  public final NtAsset asset;
+  public final WebPutRaw put;
+  private String json;
+
+  LivingDocumentRequest(String json, String command, long timestamp, NtClient who, String origin, String ip, String key, String marker, String channel, String message, Long limit, String entropy, String arg, String patch, Integer deliveryId, RemoteResult result, NtAsset asset, WebPutRaw put) {
+    this.json = json;
+    this.command = command;
+    this.timestamp = timestamp;
+    this.who = who;
+    this.origin = origin;
+    this.ip = ip;
+    this.key = key;
+    this.marker = marker;
+    this.channel = channel;
+    this.message = message;
+    this.limit = limit;
+    this.entropy = entropy;
+    this.arg = arg;
+    this.patch = patch;
+    this.deliveryId = deliveryId;
+    this.result = result;
+    this.asset = asset;
+    this.put = put;
+  }
+
+  private static LivingDocumentRequest of(String command, long timestamp, NtClient who) {
+    return new LivingDocumentRequest(null, command, timestamp, who, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+  }
+
+  public static LivingDocumentRequest construct(long timestamp, NtClient who, String arg, String entropy) {
+    return new LivingDocumentRequest(null, "construct", timestamp, who, null, null, null, null, null, null, null, entropy, arg, null, null, null, null, null);
+  }
+
+  public static LivingDocumentRequest invalidate(long timestamp) {
+    return of("invalidate", timestamp, null);
+  }
+
+  public static LivingDocumentRequest connect(long timestamp, NtClient who) {
+    return of("connect", timestamp, who);
+  }
+
+  public static LivingDocumentRequest disconnect(long timestamp, NtClient who) {
+    return of("disconnect", timestamp, who);
+  }
+
+  public static LivingDocumentRequest expire(long timestamp, long limit) {
+    return new LivingDocumentRequest(null, "expire", timestamp, null, null, null, null, null, null, null, limit, null, null, null, null, null, null, null);
+  }
+
+  public static LivingDocumentRequest send(long timestamp, CoreRequestContext context, String marker, String channel, String message) {
+    return new LivingDocumentRequest(null, "send", timestamp, context.who, context.origin, context.ip, context.key, marker, channel, message, null, null, null, null, null, null, null, null);
+  }
+
+  public static LivingDocumentRequest apply(long timestamp, NtClient who, String patch) {
+    return new LivingDocumentRequest(null, "apply", timestamp, who, null, null, null, null, null, null, null, null, null, patch, null, null, null, null);
+  }
+
+  public static LivingDocumentRequest attach(long timestamp, NtClient who, NtAsset asset) {
+    return new LivingDocumentRequest(null, "attach", timestamp, who, null, null, null, null, null, null, null, null, null, null, null, null, asset, null);
+  }
+
+  public static LivingDocumentRequest deliver(long timestamp, NtClient who, int deliveryId, RemoteResult result) {
+    return new LivingDocumentRequest(null, "deliver", timestamp, who, null, null, null, null, null, null, null, null, null, null, deliveryId, result, null, null);
+  }
+
+  public static LivingDocumentRequest webPut(long timestamp, NtClient who, WebPutRaw put) {
+    return new LivingDocumentRequest(null, "web_put", timestamp, who, null, null, null, null, null, null, null, null, null, null, null, null, null, put);
+  }
+
+  /** the JSON form of the request (as is written to the request log); this is computed at most once */
+  public String json() {
+    if (json == null) {
+      json = write();
+    }
+    return json;
+  }
+
+  private String write() {
+    JsonStreamWriter writer = new JsonStreamWriter();
+    writer.beginObject();
+    writer.writeObjectFieldIntro("command");
+    writer.writeFastString(command);
+    writer.writeObjectFieldIntro("timestamp");
+    writer.writeLong(timestamp);
+    if (who != null) {
+      writer.writeObjectFieldIntro("who");
+      writer.writeNtClient(who);
+    }
+    if (key != null) {
+      writer.writeObjectFieldIntro("key");
+      writer.writeString(key);
+      writer.writeObjectFieldIntro("origin");
+      writer.writeString(origin);
+      writer.writeObjectFieldIntro("ip");
+      writer.writeString(ip);
+    }
+    if (channel != null) {
+      writer.writeObjectFieldIntro("channel");
+      writer.writeFastString(channel);
+    }
+    if (marker != null) {
+      writer.writeObjectFieldIntro("marker");
+      writer.writeString(marker);
+    }
+    if (message != null) {
+      writer.writeObjectFieldIntro("message");
+      writer.injectJson(message);
+    }
+    if (arg != null) {
+      writer.writeObjectFieldIntro("arg");
+      writer.injectJson(arg);
+    }
+    if (entropy != null) {
+      writer.writeObjectFieldIntro("entropy");
+      writer.writeFastString(entropy);
+    }
+    if (limit != null) {
+      writer.writeObjectFieldIntro("limit");
+      writer.writeLong(limit);
+    }
+    if (patch != null) {
+      writer.writeObjectFieldIntro("patch");
+      writer.injectJson(patch);
+    }
+    if (asset != null) {
+      writer.writeObjectFieldIntro("asset");
+      writer.writeNtAsset(asset);
+    }
+    if (deliveryId != null) {
+      writer.writeObjectFieldIntro("delivery_id");
+      writer.writeInteger(deliveryId);
+    }
+    if (result != null) {
+      writer.writeObjectFieldIntro("result");
+      result.write(writer);
+    }
+    if (put != null) {
+      put.writeBody(writer);
+    }
+    writer.endObject();
+    return writer.toString();
+  }
+}
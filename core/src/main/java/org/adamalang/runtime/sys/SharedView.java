@@ -0,0 +1,79 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.delta.secure.AssetIdEncoder;
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.adamalang.runtime.json.PrivateView;
+import org.adamalang.runtime.natives.NtClient;
+
+import java.util.Objects;
+
+/**
+ * a group of private views which are provably equivalent: the same principal class, no viewer state, and the same asset
+ * encoding. Once a view has received its first (full) update, its delta state is a function of the visible document alone;
+ * thus, every member of the group would compute the same delta and the group's leader can compute it once for everyone. The
+ * principal class is the client when the document's privacy reads @who, and a single class (NtClient.NO_ONE) otherwise.
+ */
+public class SharedView {
+  public final NtClient principal;
+  public final AssetIdEncoder encoder;
+  /** the view whose delta state computes the update for the entire group; this may outlive the leader's connection */
+  public final PrivateView leader;
+  private int members;
+  /** the broadcast round when the leader last computed; a leader which missed a round is stale and nobody may join it */
+  private long round;
+
+  public SharedView(NtClient principal, PrivateView leader, long round) {
+    this.principal = principal;
+    this.encoder = leader.assetIdEncoder;
+    this.leader = leader;
+    this.members = 0;
+    this.round = round;
+  }
+
+  /** can the given view (of the same principal class) be shared with this group in the given round */
+  public boolean accepts(PrivateView view, long round) {
+    return this.round == round && Objects.equals(encoder, view.assetIdEncoder);
+  }
+
+  /** can the view participate in sharing; views with viewer state can diverge at any moment, so they must compute alone */
+  public static boolean canShare(PrivateView view) {
+    JsonStreamWriter writer = new JsonStreamWriter();
+    view.dumpViewer(writer);
+    return "{}".equals(writer.toString());
+  }
+
+  /** the leader computed within the given round */
+  public void computed(long round) {
+    this.round = round;
+  }
+
+  /** did the leader compute within the given round */
+  public boolean computedIn(long round) {
+    return this.round == round;
+  }
+
+  /** a view joined the group */
+  public void join() {
+    members++;
+  }
+
+  /** a view left the group; returns true if the group is empty */
+  public boolean leave() {
+    members--;
+    return members <= 0;
+  }
+
+  /** how many views are in the group */
+  public int size() {
+    return members;
+  }
+}
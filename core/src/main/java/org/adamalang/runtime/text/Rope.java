@@ -0,0 +1,238 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.text;
+
+import org.adamalang.runtime.json.JsonStreamReader;
+
+/**
+ * an immutable rope (a height balanced tree of string chunks) such that an edit to a large text costs O(log n) rather than a copy of
+ * the text. Since it is immutable, a rope can be shared between a backup and a value.
+ */
+public abstract class Rope {
+  /** chunks at or under this size are merged into one when concatenated */
+  private static final int CHUNK = 512;
+  public static final Rope EMPTY = new Leaf("");
+
+  /** how long is the string */
+  public abstract int length();
+
+  /** internal: the height of the tree (leaves are 0) */
+  abstract int height();
+
+  /** internal: write the string to the builder */
+  abstract void appendTo(StringBuilder sb);
+
+  /** the rope for the range [at, at + length) where the range is clamped to this rope */
+  public Rope slice(int at, int length) {
+    int from = Math.max(0, Math.min(at, length()));
+    int to = Math.max(from, Math.min(from + length, length()));
+    if (from == 0 && to == length()) {
+      return this;
+    }
+    if (from == to) {
+      return EMPTY;
+    }
+    return sliceUnchecked(from, to);
+  }
+
+  /** internal: slice without checking the bounds */
+  abstract Rope sliceUnchecked(int from, int to);
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(length());
+    appendTo(sb);
+    return sb.toString();
+  }
+
+  /** make a balanced rope of the string */
+  public static Rope of(String str) {
+    if (str.length() <= CHUNK) {
+      return str.length() == 0 ? EMPTY : new Leaf(str);
+    }
+    return build(str, 0, str.length());
+  }
+
+  /** internal: build a balanced tree of the [from, to) range of the string */
+  private static Rope build(String str, int from, int to) {
+    if (to - from <= CHUNK) {
+      return new Leaf(str.substring(from, to));
+    }
+    int mid = (from + to) >>> 1;
+    return new Node(build(str, from, mid), build(str, mid, to));
+  }
+
+  /** join two ropes into one while retaining the balance */
+  public static Rope concat(Rope a, Rope b) {
+    if (a.length() == 0) {
+      return b;
+    }
+    if (b.length() == 0) {
+      return a;
+    }
+    if (a.length() + b.length() <= CHUNK) {
+      // small pieces (i.e. keystrokes) are merged such that the number of chunks doesn't grow with each edit
+      StringBuilder sb = new StringBuilder(a.length() + b.length());
+      a.appendTo(sb);
+      b.appendTo(sb);
+      return new Leaf(sb.toString());
+    }
+    int ha = a.height();
+    int hb = b.height();
+    if (ha > hb + 1) {
+      Node n = (Node) a;
+      return balance(n.left, concat(n.right, b));
+    }
+    if (hb > ha + 1) {
+      Node n = (Node) b;
+      return balance(concat(a, n.left), n.right);
+    }
+    return new Node(a, b);
+  }
+
+  /** internal: make a node of two ropes which differ in height by at most two by rotating */
+  private static Rope balance(Rope l, Rope r) {
+    int hl = l.height();
+    int hr = r.height();
+    if (hl > hr + 1) {
+      Node ln = (Node) l;
+      if (ln.left.height() >= ln.right.height()) {
+        return new Node(ln.left, new Node(ln.right, r));
+      }
+      Node lrn = (Node) ln.right;
+      return new Node(new Node(ln.left, lrn.left), new Node(lrn.right, r));
+    }
+    if (hr > hl + 1) {
+      Node rn = (Node) r;
+      if (rn.right.height() >= rn.left.height()) {
+        return new Node(new Node(l, rn.left), rn.right);
+      }
+      Node rln = (Node) rn.left;
+      return new Node(new Node(l, rln.left), new Node(rln.right, rn.right));
+    }
+    return new Node(l, r);
+  }
+
+  /** apply an OT (json encoded changes) to the rope; this mirrors Operand.apply without assembling the string */
+  public static Rope apply(Rope start, String changes) {
+    Rope result = start;
+    JsonStreamReader reader = new JsonStreamReader(changes);
+    if (reader.startObject()) {
+      while (reader.notEndOfObject()) {
+        switch (reader.fieldName()) {
+          case "changes": {
+            if (reader.startArray()) {
+              Rope next = EMPTY;
+              int at = 0;
+              while (reader.notEndOfArray()) {
+                if (reader.startArray()) {
+                  at += reader.readInteger();
+                  StringBuilder inserted = new StringBuilder();
+                  boolean notFirst = false;
+                  while (reader.notEndOfArray()) {
+                    if (notFirst) {
+                      inserted.append("\n");
+                    }
+                    inserted.append(reader.readString());
+                    notFirst = true;
+                  }
+                  next = concat(next, of(inserted.toString()));
+                } else {
+                  int copy = reader.readInteger();
+                  next = concat(next, result.slice(at, copy));
+                  at += copy;
+                }
+              }
+              result = next;
+            }
+          }
+          break;
+          default:
+            reader.skipValue();
+        }
+      }
+    } else {
+      reader.skipValue();
+    }
+    return result;
+  }
+
+  /** a chunk of the string */
+  private static class Leaf extends Rope {
+    private final String str;
+
+    private Leaf(String str) {
+      this.str = str;
+    }
+
+    @Override
+    public int length() {
+      return str.length();
+    }
+
+    @Override
+    int height() {
+      return 0;
+    }
+
+    @Override
+    void appendTo(StringBuilder sb) {
+      sb.append(str);
+    }
+
+    @Override
+    Rope sliceUnchecked(int from, int to) {
+      return new Leaf(str.substring(from, to));
+    }
+  }
+
+  /** the concatenation of two ropes */
+  private static class Node extends Rope {
+    private final Rope left;
+    private final Rope right;
+    private final int length;
+    private final int height;
+
+    private Node(Rope left, Rope right) {
+      this.left = left;
+      this.right = right;
+      this.length = left.length() + right.length();
+      this.height = Math.max(left.height(), right.height()) + 1;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    int height() {
+      return height;
+    }
+
+    @Override
+    void appendTo(StringBuilder sb) {
+      left.appendTo(sb);
+      right.appendTo(sb);
+    }
+
+    @Override
+    Rope sliceUnchecked(int from, int to) {
+      int split = left.length();
+      if (to <= split) {
+        return left.slice(from, to - from);
+      }
+      if (from >= split) {
+        return right.slice(from - split, to - from);
+      }
+      return concat(left.slice(from, split - from), right.slice(0, to - split));
+    }
+  }
+}
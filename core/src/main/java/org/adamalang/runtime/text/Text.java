@@ -12,14 +12,15 @@ package org.adamalang.runtime.text;
 import org.adamalang.common.HashKey;
 import org.adamalang.runtime.json.JsonStreamReader;
 import org.adamalang.runtime.json.JsonStreamWriter;
-import org.adamalang.runtime.text.ot.Operand;
-import org.adamalang.runtime.text.ot.Raw;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
 
-/** the core Text class for representing large text which can undergo OT transformations */
+/**
+ * the core Text class for representing large text which can undergo OT transformations. The value is held as a rope (once known)
+ * such that each change applies incrementally rather than re-assembling the string; the string is assembled only when read.
+ */
 public class Text {
   public final HashMap<String, String> fragments;
   public final HashMap<Integer, String> order;
@@ -28,6 +29,8 @@ public class Text {
   public int seq;
   public int gen;
   public boolean upgraded;
+  private Rope rope;
+  private int ropeSeq;
   private SeqString copy;
 
   /** fresh Text */
@@ -39,6 +42,8 @@ public class Text {
     this.seq = 0;
     this.gen = gen;
     this.upgraded = false;
+    this.rope = null;
+    this.ropeSeq = 0;
     this.copy = null;
   }
 
@@ -51,7 +56,10 @@ public class Text {
     this.seq = other.seq;
     this.upgraded = other.upgraded;
     this.gen = other.gen;
-    this.copy = null;
+    // the rope is immutable, so it is shared
+    this.rope = other.rope;
+    this.ropeSeq = other.ropeSeq;
+    this.copy = other.copy;
   }
 
   /** read from JSON */
@@ -62,11 +70,14 @@ public class Text {
     this.uncommitedChanges = new HashMap<>();
     this.seq = 0;
     this.upgraded = false;
+    this.rope = null;
+    this.ropeSeq = 0;
     patch(reader, gen);
   }
 
   /** execute a patch and integrate data */
   public void patch(JsonStreamReader reader, int gen) {
+    this.rope = null;
     this.copy = null;
     this.gen = gen;
     if (reader.startObject()) {
@@ -132,6 +143,8 @@ public class Text {
     uncommitedChanges.clear();
     this.seq = 0;
     this.gen = gen;
+    this.rope = Rope.of(str);
+    this.ropeSeq = seq;
     this.copy = new SeqString(seq, str);
   }
 
@@ -159,6 +172,11 @@ public class Text {
   /** treat this Text as a backup, create a new value with the uncommitted changes and nuke the uncommited changes in this version */
   public Text forkValue() {
     Text newValue = new Text(this);
+    if (uncommitedChanges.size() > 0) {
+      // the value (if known) includes the uncommitted changes, so this must be rebuilt without them
+      rope = null;
+      copy = null;
+    }
     uncommitedChanges.clear();
     return newValue;
   }
@@ -212,28 +230,30 @@ public class Text {
     JsonStreamReader reader = new JsonStreamReader(change);
     if (reader.startArray()) {
       int off = 0;
-      Operand operand = copy != null ? new Raw(copy.value) : null;
       while (reader.notEndOfArray()) {
         String elementChange = reader.skipValueIntoJson();
         uncommitedChanges.put(seq + off, elementChange);
-        if (operand != null) {
-          operand = Operand.apply(operand, elementChange);
-        }
+        applyToRope(seq + off, elementChange);
         off++;
       }
-      if (operand != null) {
-        copy = new SeqString(seq + off, operand.get());
-      }
     } else {
       uncommitedChanges.put(seq, change);
-      if (copy != null) {
-        copy = new SeqString(seq + 1, Operand.apply(new Raw(copy.value), change).get());
-      }
+      applyToRope(seq, change);
     }
     return true;
   }
 
-  public void compact(double ratio) {
+  /** internal: if the value is known, then apply the change to it incrementally */
+  private void applyToRope(int seqOfChange, String change) {
+    if (rope != null) {
+      rope = Rope.apply(rope, change);
+      ropeSeq = seqOfChange + 1;
+      copy = null;
+    }
+  }
+
+  /** internal: the rope of the base formed by the fragments and order */
+  private Rope base() {
     StringBuilder sb = new StringBuilder();
     for (int k = 0; k < order.size(); k++) {
       if (k > 0) {
@@ -241,7 +261,11 @@ public class Text {
       }
       sb.append(fragments.get(order.get(k)));
     }
-    Operand result = new Raw(sb.toString());
+    return Rope.of(sb.toString());
+  }
+
+  public void compact(double ratio) {
+    Rope result = base();
     int toDo = (int) (ratio * (changes.size() + uncommitedChanges.size()));
     while (toDo-- > 0) {
       String change = changes.remove(seq);
@@ -249,42 +273,42 @@ public class Text {
         change = uncommitedChanges.remove(seq);
       }
       if (change != null) {
-        result = Operand.apply(result, change);
+        result = Rope.apply(result, change);
         seq++;
       } else {
         toDo = 0;
       }
     }
-    setBase(result.get());
+    setBase(result.toString());
   }
 
   public SeqString get() {
     if (copy == null) {
-      StringBuilder sb = new StringBuilder();
-      for (int k = 0; k < order.size(); k++) {
-        if (k > 0) {
-          sb.append("\n");
+      if (rope == null) {
+        int at = seq;
+        Rope result = base();
+        String change;
+        while ((change = changes.get(at)) != null) {
+          result = Rope.apply(result, change);
+          at++;
         }
-        sb.append(fragments.get(order.get(k)));
-      }
-      int at = seq;
-      Operand result = new Raw(sb.toString());
-      String change;
-      while ((change = changes.get(at)) != null) {
-        result = Operand.apply(result, change);
-        at++;
-      }
-      while ((change = uncommitedChanges.get(at)) != null) {
-        result = Operand.apply(result, change);
-        at++;
+        while ((change = uncommitedChanges.get(at)) != null) {
+          result = Rope.apply(result, change);
+          at++;
+        }
+        rope = result;
+        ropeSeq = at;
       }
-      copy = new SeqString(at, result.get());
+      copy = new SeqString(ropeSeq, rope.toString());
     }
     return copy;
   }
 
   public long memory() {
     long mem = 40;
+    if (rope != null) {
+      mem += 40 + rope.length();
+    }
     if (copy != null) {
       mem += 40 + copy.value.length();
     }
@@ -528,5 +528,9 @@ public class CodeGenRecords {
     sb.append("}").tabDown().writeNewline();
     sb.append("};").tabDown().writeNewline();
     sb.append("}").writeNewline();
+    sb.append("@Override").writeNewline();
+    sb.append("public boolean __privacyReadsWho() {").tabUp().writeNewline();
+    sb.append("return ").append(environment.document.privacyReadsWho() ? "true" : "false").append(";").tabDown().writeNewline();
+    sb.append("}").writeNewline();
   }
 }
@@ -0,0 +1,75 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.translator.jvm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** the output of the java compiler (along with the reflection) such that a LivingDocumentFactory can be built without invoking javac */
+public class CachedByteCode {
+  private static final int MAGIC = 0xADA0B001;
+  public final String className;
+  public final String reflection;
+  public final Map<String, byte[]> classBytes;
+
+  public CachedByteCode(String className, String reflection, Map<String, byte[]> classBytes) {
+    this.className = className;
+    this.reflection = reflection;
+    this.classBytes = classBytes;
+  }
+
+  /** write the byte code out to the given stream */
+  public void write(DataOutputStream output) throws IOException {
+    output.writeInt(MAGIC);
+    writeString(output, className);
+    writeString(output, reflection);
+    output.writeInt(classBytes.size());
+    for (Map.Entry<String, byte[]> entry : classBytes.entrySet()) {
+      writeString(output, entry.getKey());
+      output.writeInt(entry.getValue().length);
+      output.write(entry.getValue());
+    }
+  }
+
+  /** read the byte code from the given stream */
+  public static CachedByteCode read(DataInputStream input) throws IOException {
+    if (input.readInt() != MAGIC) {
+      throw new IOException("bad-magic");
+    }
+    String className = readString(input);
+    String reflection = readString(input);
+    int count = input.readInt();
+    TreeMap<String, byte[]> classBytes = new TreeMap<>();
+    for (int k = 0; k < count; k++) {
+      String name = readString(input);
+      byte[] bytes = new byte[input.readInt()];
+      input.readFully(bytes);
+      classBytes.put(name, bytes);
+    }
+    return new CachedByteCode(className, reflection, classBytes);
+  }
+
+  /** the reflection can exceed the 64KB limit of writeUTF, so we do it by hand */
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
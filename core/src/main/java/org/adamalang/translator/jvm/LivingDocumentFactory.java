@@ -26,9 +26,11 @@ import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.TreeMap;
 
 /** responsible for compiling java code into a LivingDocumentFactory */
 public class LivingDocumentFactory {
@@ -44,6 +46,11 @@ public class LivingDocumentFactory {
   public final Deliverer deliverer;
 
   public LivingDocumentFactory(final String className, final String javaSource, String reflection, Deliverer deliverer) throws ErrorCodeException {
+    this(compile(className, javaSource, reflection), deliverer);
+  }
+
+  /** run the java compiler against the given source to produce byte code */
+  public static CachedByteCode compile(final String className, final String javaSource, String reflection) throws ErrorCodeException {
     final var compiler = ToolProvider.getSystemJavaCompiler();
     final var diagnostics = new DiagnosticCollector<JavaFileObject>();
     final var fileManager = new ByteArrayJavaFileManager(compiler.getStandardFileManager(null, null, null));
@@ -55,11 +62,23 @@ public class LivingDocumentFactory {
       }
       throw new ErrorCodeException(ErrorCodes.FACTORY_CANT_COMPILE_JAVA_CODE, report.toString());
     }
+    final var classBytes = new TreeMap<>(fileManager.getClasses());
     try {
-      this.deliverer = deliverer;
-      final var classBytes = fileManager.getClasses();
       fileManager.close();
-      final var loader = new ByteArrayClassLoader(classBytes);
+    } catch (IOException ex) {
+      throw new ErrorCodeException(ErrorCodes.FACTORY_CANT_COMPILE_JAVA_CODE, ex);
+    }
+    return new CachedByteCode(className, reflection, classBytes);
+  }
+
+  /** bind a factory to byte code that has already been compiled (i.e. from a cache) */
+  public LivingDocumentFactory(final CachedByteCode code, Deliverer deliverer) throws ErrorCodeException {
+    final String className = code.className;
+    final String reflection = code.reflection;
+    try {
+      this.deliverer = deliverer;
+      // the loader consumes the map, so give it a copy such that the code may be cached
+      final var loader = new ByteArrayClassLoader(new TreeMap<>(code.classBytes));
       final Class<?> clazz = Class.forName(className, true, loader);
       constructor = clazz.getConstructor(DocumentMonitor.class);
       creationPolicyMethod = clazz.getMethod("__onCanCreate", CoreRequestContext.class);
@@ -537,6 +537,19 @@ public class Document implements TopLevelDocumentHandler {
     return !hasErrors();
   }
 
+  /** does the privacy of any record (conservatively) depend on who is viewing; if not, then views are the same for every principal */
+  public boolean privacyReadsWho() {
+    if (root.storage.privacyReadsWho()) {
+      return true;
+    }
+    for (final TyType type : types.values()) {
+      if (type instanceof TyReactiveRecord && ((TyReactiveRecord) type).storage.privacyReadsWho()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /** does the document have errors */
   public boolean hasErrors() {
     return errorLists.size() > 0;
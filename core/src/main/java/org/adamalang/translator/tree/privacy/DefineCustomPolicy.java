@@ -20,6 +20,7 @@ import org.adamalang.translator.tree.types.TypeBehavior;
 import org.adamalang.translator.tree.types.natives.TyNativeBoolean;
 import org.adamalang.translator.tree.types.natives.TyNativeClient;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /** used within a record to define a custom policy */
@@ -72,6 +73,17 @@ public class DefineCustomPolicy extends DocumentPosition {
     return env;
   }
 
+  /** does the policy (conservatively) depend on who is viewing; i.e. does it mention @who or the client variable */
+  public boolean readsWho() {
+    AtomicBoolean reads = new AtomicBoolean(false);
+    code.emit((token) -> {
+      if ("@who".equals(token.text) || clientVar != null && clientVar.text.equals(token.text)) {
+        reads.set(true);
+      }
+    });
+    return reads.get();
+  }
+
   public void typeCheck(final Environment environment) {
     final var flow = code.typing(scope(environment, null));
     if (flow == ControlFlow.Open) {
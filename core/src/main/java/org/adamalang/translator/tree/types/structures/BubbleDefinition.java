@@ -19,6 +19,7 @@ import org.adamalang.translator.tree.types.TypeBehavior;
 import org.adamalang.translator.tree.types.natives.TyNativeClient;
 
 import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 public class BubbleDefinition extends StructureComponent {
@@ -73,6 +74,17 @@ public class BubbleDefinition extends StructureComponent {
     yielder.accept(semicolonToken);
   }
 
+  /** does the bubble (conservatively) depend on who is viewing; i.e. does it mention @who or the client variable */
+  public boolean readsWho() {
+    AtomicBoolean reads = new AtomicBoolean(false);
+    expression.emit((token) -> {
+      if ("@who".equals(token.text) || clientVar != null && clientVar.text.equals(token.text)) {
+        reads.set(true);
+      }
+    });
+    return reads.get();
+  }
+
   public void typing(final Environment environment) {
     expressionType = environment.rules.Resolve(expression.typing(next(environment), null), false);
   }
@@ -15,6 +15,7 @@ import org.adamalang.translator.parser.token.Token;
 import org.adamalang.translator.tree.common.DocumentPosition;
 import org.adamalang.translator.tree.privacy.DefineCustomPolicy;
 import org.adamalang.translator.tree.privacy.PrivatePolicy;
+import org.adamalang.translator.tree.privacy.ViewerIsPolicy;
 import org.adamalang.translator.tree.types.TyType;
 import org.adamalang.translator.tree.types.natives.TyNativeFunctional;
 import org.adamalang.translator.tree.types.natives.TyNativeGlobalObject;
@@ -218,6 +219,26 @@ public class StructureStorage extends DocumentPosition {
     });
   }
 
+  /** does the privacy of the structure (conservatively) depend on who is viewing */
+  public boolean privacyReadsWho() {
+    for (final FieldDefinition fd : fieldsByOrder) {
+      if (fd.policy instanceof ViewerIsPolicy) {
+        return true;
+      }
+    }
+    for (final DefineCustomPolicy policy : policies.values()) {
+      if (policy.readsWho()) {
+        return true;
+      }
+    }
+    for (final BubbleDefinition bubble : bubbles.values()) {
+      if (bubble.readsWho()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public void emit(final Consumer<Token> yielder) {
     yielder.accept(openBraceToken);
     for (final Consumer<Consumer<Token>> c : emissions) {
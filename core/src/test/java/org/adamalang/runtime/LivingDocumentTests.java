@@ -117,6 +117,113 @@ public class LivingDocumentTests {
     }
   }
 
+  private static Perspective collect(ArrayList<String> list) {
+    return new Perspective() {
+      @Override
+      public void data(String data) {
+        list.add(data);
+      }
+
+      @Override
+      public void disconnect() {}
+    };
+  }
+
+  @Test
+  public void shared_views() throws Exception {
+    RealDocumentSetup setup = new RealDocumentSetup("@connected { return true; } public int x; policy p { return x % 2 == 1; } use_policy<p> int y; @construct { x = 1; y = 42; } message N {} channel foo(N n) { x++; }", null);
+    ArrayList<String> first = new ArrayList<>();
+    ArrayList<String> second = new ArrayList<>();
+    ArrayList<String> third = new ArrayList<>();
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    setup.document.createPrivateView(A, collect(first), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.createPrivateView(A, collect(second), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(6));
+    setup.document.createPrivateView(A, collect(third), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(8));
+    Assert.assertEquals(5, first.size());
+    Assert.assertEquals("{\"data\":{\"x\":1,\"y\":42},\"seq\":4}", first.get(0));
+    Assert.assertEquals("{\"seq\":5}", first.get(1));
+    Assert.assertEquals("{\"data\":{\"x\":2,\"y\":null},\"seq\":6}", first.get(2));
+    Assert.assertEquals("{\"seq\":7}", first.get(3));
+    Assert.assertEquals("{\"data\":{\"x\":3,\"y\":42},\"seq\":8}", first.get(4));
+    Assert.assertEquals(4, second.size());
+    Assert.assertEquals("{\"data\":{\"x\":1,\"y\":42},\"seq\":5}", second.get(0));
+    Assert.assertSame(first.get(2), second.get(1));
+    Assert.assertSame(first.get(3), second.get(2));
+    Assert.assertSame(first.get(4), second.get(3));
+    Assert.assertEquals(2, third.size());
+    Assert.assertEquals("{\"data\":{\"x\":2},\"seq\":7}", third.get(0));
+    Assert.assertSame(first.get(4), third.get(1));
+  }
+
+  @Test
+  public void shared_views_never_join_a_stale_leader() throws Exception {
+    RealDocumentSetup setup = new RealDocumentSetup("@connected { return true; } public int x; policy p { return x % 2 == 1; } use_policy<p> int y; @construct { x = 1; y = 42; } message N {} channel foo(N n) { x++; }", null);
+    ArrayList<String> first = new ArrayList<>();
+    ArrayList<String> second = new ArrayList<>();
+    ArrayList<String> third = new ArrayList<>();
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    RealDocumentSetup.GotView firstView = new RealDocumentSetup.GotView();
+    RealDocumentSetup.GotView secondView = new RealDocumentSetup.GotView();
+    setup.document.createPrivateView(A, collect(first), new JsonStreamReader("{}"), null, firstView);
+    setup.document.createPrivateView(A, collect(second), new JsonStreamReader("{}"), null, secondView);
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(6));
+    // every member of the group is gone, so the leader stops computing and goes stale
+    firstView.view.kill();
+    secondView.view.kill();
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(7));
+    setup.document.createPrivateView(A, collect(third), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(9));
+    Assert.assertEquals(2, third.size());
+    Assert.assertEquals("{\"data\":{\"x\":3,\"y\":42},\"seq\":8}", third.get(0));
+    Assert.assertEquals("{\"data\":{\"x\":4,\"y\":null},\"seq\":9}", third.get(1));
+  }
+
+  @Test
+  public void shared_views_span_principals_when_privacy_ignores_who() throws Exception {
+    RealDocumentSetup setup = new RealDocumentSetup("@connected { return true; } public int x; policy p { return x % 2 == 1; } use_policy<p> int y; @construct { x = 1; y = 42; } message N {} channel foo(N n) { x++; }", null);
+    ArrayList<String> first = new ArrayList<>();
+    ArrayList<String> second = new ArrayList<>();
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    setup.document.connect(B, new RealDocumentSetup.AssertInt(4));
+    setup.document.createPrivateView(A, collect(first), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.createPrivateView(B, collect(second), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(8));
+    setup.document.send(ContextSupport.WRAP(B), null, "foo", "{}", new RealDocumentSetup.AssertInt(9));
+    Assert.assertEquals("{\"data\":{\"x\":3,\"y\":42},\"seq\":9}", first.get(first.size() - 1));
+    Assert.assertSame(first.get(first.size() - 1), second.get(second.size() - 1));
+  }
+
+  @Test
+  public void shared_views_stay_per_principal_when_privacy_reads_who() throws Exception {
+    RealDocumentSetup setup = new RealDocumentSetup("@connected { return true; } public int x; policy p { return @who != @no_one && x % 2 == 1; } use_policy<p> int y; @construct { x = 1; y = 42; } message N {} channel foo(N n) { x++; }", null);
+    ArrayList<String> first = new ArrayList<>();
+    ArrayList<String> second = new ArrayList<>();
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    setup.document.connect(B, new RealDocumentSetup.AssertInt(4));
+    setup.document.createPrivateView(A, collect(first), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.createPrivateView(B, collect(second), new JsonStreamReader("{}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(8));
+    setup.document.send(ContextSupport.WRAP(B), null, "foo", "{}", new RealDocumentSetup.AssertInt(9));
+    Assert.assertEquals("{\"data\":{\"x\":3,\"y\":42},\"seq\":9}", first.get(first.size() - 1));
+    Assert.assertEquals(first.get(first.size() - 1), second.get(second.size() - 1));
+    Assert.assertNotSame(first.get(first.size() - 1), second.get(second.size() - 1));
+  }
+
+  @Test
+  public void views_with_viewer_state_are_not_shared() throws Exception {
+    RealDocumentSetup setup = new RealDocumentSetup("@connected { return true; } view int z; public int x; bubble<who, viewer> w = x + viewer.z; @construct { x = 1; } message N {} channel foo(N n) { x++; }", null);
+    ArrayList<String> first = new ArrayList<>();
+    ArrayList<String> second = new ArrayList<>();
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    setup.document.createPrivateView(A, collect(first), new JsonStreamReader("{\"z\":10}"), null, new RealDocumentSetup.GotView());
+    setup.document.createPrivateView(A, collect(second), new JsonStreamReader("{\"z\":100}"), null, new RealDocumentSetup.GotView());
+    setup.document.send(ContextSupport.WRAP(A), null, "foo", "{}", new RealDocumentSetup.AssertInt(6));
+    Assert.assertEquals("{\"data\":{\"x\":2,\"w\":12},\"seq\":6}", first.get(2));
+    Assert.assertEquals("{\"data\":{\"x\":2,\"w\":102},\"seq\":6}", second.get(1));
+  }
+
   @Test
   public void text() throws Exception {
     try {
@@ -1501,4 +1608,42 @@ public class LivingDocumentTests {
     setup.assertCompare();
     Assert.assertEquals(0, setup.document.getCodeCost());
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void indexed_where_on_ingested_copy() throws Exception {
+    final var setup = new RealDocumentSetup("record R { public int x; index x; } table<R> x1; table<R> x2; @construct { x1 <- {x:1}; x1 <- {x:2}; x1 <- {x:3}; x2 <- iterate x1; } @connected { return true; } message M {} channel bump(M m) { (iterate x2 where x == 2).x = 20; }");
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    setup.document.send(ContextSupport.WRAP(A), null, "bump", "{}", new RealDocumentSetup.AssertInt(4));
+    final var tree = (HashMap<String, Object>) new JsonStreamReader(setup.document.json()).readJavaTree();
+    // the copies are keyed 4, 5, and 6 while their id fields are 1, 2, and 3
+    final var x2 = (HashMap<String, Object>) tree.get("x2");
+    Assert.assertEquals(20, ((HashMap<String, Object>) x2.get("5")).get("x"));
+    Assert.assertEquals(1, ((HashMap<String, Object>) x2.get("4")).get("x"));
+    Assert.assertEquals(3, ((HashMap<String, Object>) x2.get("6")).get("x"));
+    final var x1 = (HashMap<String, Object>) tree.get("x1");
+    Assert.assertEquals(2, ((HashMap<String, Object>) x1.get("2")).get("x"));
+    setup.assertCompare();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void ingested_copy_commits_by_table_key() throws Exception {
+    final var setup = new RealDocumentSetup("record R { public int x; } table<R> x1; table<R> x2; @construct { x1 <- {x:1}; x1 <- {x:2}; x2 <- iterate x1; } @connected { return true; } message M {} channel bump(M m) { foreach (r in iterate x2 where x == 2) { r.x = 20; } }");
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(2));
+    final var writer = setup.document.forgeWithContext("send", ContextSupport.WRAP(A));
+    writer.writeObjectFieldIntro("channel");
+    writer.writeFastString("bump");
+    writer.writeObjectFieldIntro("message");
+    writer.injectJson("{}");
+    writer.endObject();
+    final var change = setup.document.document().__transact(writer.toString(), setup.factory);
+    // the copy of the row with id 2 is keyed 4 within x2
+    final var redo = (HashMap<String, Object>) new JsonStreamReader(change.update.redo).readJavaTree();
+    final var undo = (HashMap<String, Object>) new JsonStreamReader(change.update.undo).readJavaTree();
+    Assert.assertEquals("{4={x=20}}", redo.get("x2").toString());
+    Assert.assertEquals("{4={x=2}}", undo.get("x2").toString());
+    Assert.assertNull(redo.get("x1"));
+    Assert.assertNull(undo.get("x1"));
+  }
 }
@@ -55,11 +55,15 @@ public class ManagedDataServiceTests {
     public final ManagedDataService managed;
 
     public Setup() throws Exception {
+      this(250, 250);
+    }
+
+    public Setup(int archiveTime, int closeArchiveTime) throws Exception {
       this.finder = new MockFinderService();
       this.executor = SimpleExecutor.create("setup");
       this.data = new MockInstantDataService();
       this.archive = new MockArchiveDataSource(data);
-      this.base = new Base(finder, archive, "test-region", "test-machine", executor, 250);
+      this.base = new Base(finder, archive, "test-region", "test-machine", executor, archiveTime, closeArchiveTime);
       this.managed = new ManagedDataService(base);
     }
 
@@ -69,6 +73,41 @@ public class ManagedDataServiceTests {
     }
   }
 
+  @Test
+  public void close_archives_sooner() throws Exception {
+    // the archive timer is a minute out, but a close (i.e. a shed) archives within 50ms
+    try (Setup setup = new Setup(60000, 50)) {
+      Runnable backup = setup.archive.latchLogAt(1);
+      Runnable backupExec = setup.archive.latchLogAt(2);
+      Runnable waitForDelete = setup.data.latchLogAt(4);
+      {
+        SimpleVoidCallback cb_Init = new SimpleVoidCallback();
+        setup.managed.initialize(KEY1, UPDATE_1, cb_Init);
+        cb_Init.assertSuccess();
+      }
+      {
+        SimpleVoidCallback cb_Patch = new SimpleVoidCallback();
+        setup.managed.patch(KEY1, new RemoteDocumentUpdate[] { UPDATE_2 }, cb_Patch);
+        cb_Patch.assertSuccess();
+      }
+      {
+        SimpleVoidCallback cb_Close = new SimpleVoidCallback();
+        setup.managed.close(KEY1, cb_Close);
+        cb_Close.assertSuccess();
+      }
+      backup.run();
+      setup.archive.driveBackup();
+      backupExec.run();
+      waitForDelete.run();
+      setup.archive.assertLogAt(0, "BACKUP:space/123");
+      setup.archive.assertLogAt(1, "BACKUP-EXEC:space/123");
+      setup.data.assertLogAt(0, "INIT:space/123:1->{\"x\":1,\"y\":4}");
+      setup.data.assertLogAt(1, "PATCH:space/123:2-2->{\"x\":2}");
+      setup.data.assertLogAt(2, "LOAD:space/123");
+      setup.data.assertLogAt(3, "DELETE:space/123");
+    }
+  }
+
   @Test
   public void flow() throws Exception {
     try (Setup setup = new Setup()) {
@@ -16,6 +16,10 @@ import org.adamalang.translator.jvm.LivingDocumentFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class DeploymentFactoryBaseTests {
   @Test
   public void notFound() {
@@ -36,4 +40,36 @@ public class DeploymentFactoryBaseTests {
     Assert.assertEquals(0, base.spacesAvailable().size());
     Assert.assertNull(base.hashOf("space"));
   }
+
+  @Test
+  public void deployAll() throws Exception {
+    DeploymentFactoryBase base = new DeploymentFactoryBase();
+    HashMap<String, DeploymentPlan> plans = new HashMap<>();
+    plans.put("a", new DeploymentPlan("{\"versions\":{\"x\":\"public int x = 1;\"},\"default\":\"x\"}", (t, ec) -> {}));
+    plans.put("b", new DeploymentPlan("{\"versions\":{\"x\":\"public int x = 2;\"},\"default\":\"x\"}", (t, ec) -> {}));
+    plans.put("c", new DeploymentPlan("{\"versions\":{\"x\":\"public int x = true;\"},\"default\":\"x\"}", (t, ec) -> {}));
+    ConcurrentHashMap<String, Boolean> ready = new ConcurrentHashMap<>();
+    Map<String, ErrorCodeException> failures = base.deployAll(plans, 2, (space) -> ready.put(space, true));
+    Assert.assertEquals(1, failures.size());
+    Assert.assertEquals(132157, failures.get("c").code);
+    Assert.assertEquals(2, ready.size());
+    Assert.assertTrue(ready.containsKey("a"));
+    Assert.assertTrue(ready.containsKey("b"));
+    Assert.assertEquals(2, base.spacesAvailable().size());
+    Assert.assertNotNull(base.hashOf("a"));
+    Assert.assertNotNull(base.hashOf("b"));
+    Assert.assertNull(base.hashOf("c"));
+    Assert.assertEquals(0, base.deployAll(new HashMap<>(), 4, (space) -> Assert.fail()).size());
+  }
+
+  @Test
+  public void undeploy() throws Exception {
+    DeploymentFactoryBase base = new DeploymentFactoryBase();
+    base.deploy("a", new DeploymentPlan("{\"versions\":{\"x\":\"public int x = 1;\"},\"default\":\"x\"}", (t, ec) -> {}));
+    Assert.assertNotNull(base.hashOf("a"));
+    base.undeploy("a");
+    Assert.assertNull(base.hashOf("a"));
+    Assert.assertEquals(0, base.spacesAvailable().size());
+    base.undeploy("a");
+  }
 }
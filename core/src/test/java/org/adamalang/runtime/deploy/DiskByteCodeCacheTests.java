@@ -0,0 +1,78 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.runtime.remote.Deliverer;
+import org.adamalang.translator.jvm.CachedByteCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DiskByteCodeCacheTests {
+  private static final String PLAN = "{\"versions\":{\"x\":\"public int x = 123;\"},\"default\":\"x\"}";
+
+  private static File temp() throws Exception {
+    return Files.createTempDirectory("ADAMATEST_").toFile();
+  }
+
+  @Test
+  public void miss_then_hit() throws Exception {
+    File root = temp();
+    try {
+      DiskByteCodeCache cache = new DiskByteCodeCache(root, "test");
+      DeploymentPlan plan = new DeploymentPlan(PLAN, (t, ec) -> {});
+      DeployedVersion version = plan.versions.get("x");
+      Assert.assertNull(cache.get("space", version));
+      new DeploymentFactory("space", "Space_", new AtomicInteger(0), null, plan, Deliverer.FAILURE, cache, new DeploymentMetrics(new NoOpMetricsFactory()));
+      CachedByteCode code = cache.get("space", version);
+      Assert.assertNotNull(code);
+      Assert.assertEquals("Space_0", code.className);
+      Assert.assertTrue(code.classBytes.size() > 0);
+      AtomicInteger ids = new AtomicInteger(100);
+      DeploymentFactory fromCache = new DeploymentFactory("space", "Space_", ids, null, plan, Deliverer.FAILURE, cache, DeploymentMetrics.NOOP);
+      Assert.assertEquals(100, ids.get());
+      Assert.assertEquals(1, fromCache.spacesAvailable().size());
+      Assert.assertNull(cache.get("other-space", version));
+      Assert.assertNull(new DiskByteCodeCache(root, "new-compiler").get("space", version));
+    } finally {
+      for (File file : root.listFiles()) {
+        file.delete();
+      }
+      root.delete();
+    }
+  }
+
+  @Test
+  public void corrupt() throws Exception {
+    File root = temp();
+    try {
+      DiskByteCodeCache cache = new DiskByteCodeCache(root, "test");
+      DeployedVersion version = new DeploymentPlan(PLAN, (t, ec) -> {}).versions.get("x");
+      File file = new File(root, cache.keyOf("space", version) + ".adama.class");
+      Files.writeString(file.toPath(), "junk");
+      Assert.assertNull(cache.get("space", version));
+      Assert.assertFalse(file.exists());
+    } finally {
+      for (File file : root.listFiles()) {
+        file.delete();
+      }
+      root.delete();
+    }
+  }
+
+  @Test
+  public void fingerprint() {
+    Assert.assertTrue(DiskByteCodeCache.fingerprintOfRuntime().startsWith(Runtime.version().toString()));
+  }
+}
@@ -33,14 +33,14 @@ public class ReactiveIndexTests {
     final var index = new ReactiveIndex<>(unknowns);
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.Equals));
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(1, index.of(42, IndexQuerySet.LookupMode.Equals).size());
+    Assert.assertEquals(1, index.of(42, IndexQuerySet.LookupMode.Equals).cardinality());
     index.add(42, MockRecord.make(12));
-    Assert.assertEquals(2, index.of(42, IndexQuerySet.LookupMode.Equals).size());
+    Assert.assertEquals(2, index.of(42, IndexQuerySet.LookupMode.Equals).cardinality());
     Assert.assertFalse(unknowns.contains(MockRecord.make(12)));
     Assert.assertFalse(unknowns.contains(MockRecord.make(1)));
     index.remove(42, MockRecord.make(12));
     Assert.assertTrue(unknowns.contains(MockRecord.make(12)));
-    Assert.assertEquals(1, index.of(42, IndexQuerySet.LookupMode.Equals).size());
+    Assert.assertEquals(1, index.of(42, IndexQuerySet.LookupMode.Equals).cardinality());
     index.remove(42, MockRecord.make(1));
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.Equals));
     Assert.assertTrue(unknowns.contains(MockRecord.make(1)));
@@ -52,7 +52,7 @@ public class ReactiveIndexTests {
     final var index = new ReactiveIndex<>(unknowns);
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.LessThan));
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(1, index.of(44, IndexQuerySet.LookupMode.LessThan).size());
+    Assert.assertEquals(1, index.of(44, IndexQuerySet.LookupMode.LessThan).cardinality());
     Assert.assertNull(index.of(40, IndexQuerySet.LookupMode.LessThan));
   }
 
@@ -63,7 +63,7 @@ public class ReactiveIndexTests {
 
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.LessThanOrEqual));
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(1, index.of(44, IndexQuerySet.LookupMode.LessThanOrEqual).size());
+    Assert.assertEquals(1, index.of(44, IndexQuerySet.LookupMode.LessThanOrEqual).cardinality());
     Assert.assertNull(index.of(40, IndexQuerySet.LookupMode.LessThanOrEqual));
   }
 
@@ -73,7 +73,7 @@ public class ReactiveIndexTests {
     final var index = new ReactiveIndex<>(unknowns);
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.GreaterThan));
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(1, index.of(40, IndexQuerySet.LookupMode.GreaterThan).size());
+    Assert.assertEquals(1, index.of(40, IndexQuerySet.LookupMode.GreaterThan).cardinality());
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.GreaterThan));
   }
 
@@ -83,10 +83,53 @@ public class ReactiveIndexTests {
     final var index = new ReactiveIndex<>(unknowns);
     Assert.assertNull(index.of(42, IndexQuerySet.LookupMode.GreaterThanOrEqual));
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(1, index.of(40, IndexQuerySet.LookupMode.GreaterThanOrEqual).size());
+    Assert.assertEquals(1, index.of(40, IndexQuerySet.LookupMode.GreaterThanOrEqual).cardinality());
     Assert.assertNull(index.of(44, IndexQuerySet.LookupMode.GreaterThanOrEqual));
   }
 
+  @Test
+  public void ranges_union_buckets() {
+    final var unknowns = new TreeSet<MockRecord>();
+    final var index = new ReactiveIndex<>(unknowns);
+    for (int k = 0; k < 10; k++) {
+      index.add(k, MockRecord.make(100 + k));
+      index.add(k, MockRecord.make(200 + k));
+    }
+    Assert.assertEquals(10, index.of(5, IndexQuerySet.LookupMode.LessThan).cardinality());
+    Assert.assertEquals(12, index.of(5, IndexQuerySet.LookupMode.LessThanOrEqual).cardinality());
+    Assert.assertEquals(8, index.of(5, IndexQuerySet.LookupMode.GreaterThan).cardinality());
+    Assert.assertEquals(10, index.of(5, IndexQuerySet.LookupMode.GreaterThanOrEqual).cardinality());
+    final var it = index.of(8, IndexQuerySet.LookupMode.GreaterThanOrEqual).iterator();
+    Assert.assertEquals(108, it.nextInt());
+    Assert.assertEquals(109, it.nextInt());
+    Assert.assertEquals(208, it.nextInt());
+    Assert.assertEquals(209, it.nextInt());
+    Assert.assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void estimate_and_intersect() {
+    final var unknowns = new TreeSet<MockRecord>();
+    final var index = new ReactiveIndex<>(unknowns);
+    for (int k = 0; k < 100; k++) {
+      index.add(k % 10, MockRecord.make(k));
+    }
+    Assert.assertEquals(10, index.estimate(3, IndexQuerySet.LookupMode.Equals));
+    Assert.assertEquals(0, index.estimate(42, IndexQuerySet.LookupMode.Equals));
+    Assert.assertEquals(30, index.estimate(3, IndexQuerySet.LookupMode.LessThan));
+    Assert.assertEquals(70, index.estimate(3, IndexQuerySet.LookupMode.GreaterThanOrEqual));
+    final var ids = index.of(5, IndexQuerySet.LookupMode.GreaterThan);
+    index.intersect(ids, 7, IndexQuerySet.LookupMode.LessThanOrEqual);
+    Assert.assertEquals(20, ids.cardinality());
+    Assert.assertTrue(ids.contains(16));
+    Assert.assertTrue(ids.contains(97));
+    Assert.assertFalse(ids.contains(98));
+    index.intersect(ids, 6, IndexQuerySet.LookupMode.Equals);
+    Assert.assertEquals(10, ids.cardinality());
+    index.intersect(ids, 42, IndexQuerySet.LookupMode.Equals);
+    Assert.assertTrue(ids.isEmpty());
+  }
+
   @Test
   public void memory() {
     final var unknowns = new TreeSet<MockRecord>();
@@ -0,0 +1,116 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+
+public class RowBitmapTests {
+  private static void assertSame(TreeSet<Integer> expected, RowBitmap bitmap) {
+    Assert.assertEquals(expected.size(), bitmap.cardinality());
+    PrimitiveIterator.OfInt it = bitmap.iterator();
+    for (int id : expected) {
+      Assert.assertTrue(it.hasNext());
+      Assert.assertEquals(id, it.nextInt());
+    }
+    Assert.assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void flow() {
+    RowBitmap bitmap = new RowBitmap();
+    Assert.assertTrue(bitmap.isEmpty());
+    Assert.assertTrue(bitmap.add(50));
+    Assert.assertTrue(bitmap.add(10));
+    Assert.assertTrue(bitmap.add(70000));
+    Assert.assertFalse(bitmap.add(10));
+    Assert.assertEquals(3, bitmap.cardinality());
+    Assert.assertTrue(bitmap.contains(70000));
+    Assert.assertFalse(bitmap.contains(20));
+    Assert.assertTrue(bitmap.remove(70000));
+    Assert.assertFalse(bitmap.remove(70000));
+    Assert.assertFalse(bitmap.remove(1000000));
+    Assert.assertEquals(2, bitmap.cardinality());
+    PrimitiveIterator.OfInt it = bitmap.iterator();
+    Assert.assertEquals(10, it.nextInt());
+    Assert.assertEquals(50, it.nextInt());
+    Assert.assertFalse(it.hasNext());
+    bitmap.clear();
+    Assert.assertTrue(bitmap.isEmpty());
+    Assert.assertFalse(bitmap.iterator().hasNext());
+  }
+
+  @Test
+  public void dense_and_sparse() {
+    RowBitmap bitmap = new RowBitmap();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int k = 0; k < 20000; k += 2) {
+      bitmap.add(k);
+      expected.add(k);
+    }
+    for (int k = 100000; k < 100100; k++) {
+      bitmap.add(k);
+      expected.add(k);
+    }
+    assertSame(expected, bitmap);
+    // removing enough values flips the dense container back to an array
+    for (int k = 0; k < 20000; k += 4) {
+      Assert.assertTrue(bitmap.remove(k));
+      expected.remove(k);
+    }
+    assertSame(expected, bitmap);
+    Assert.assertTrue(bitmap.memory() > 0);
+  }
+
+  @Test
+  public void and_or() {
+    RowBitmap evens = new RowBitmap();
+    RowBitmap threes = new RowBitmap();
+    TreeSet<Integer> both = new TreeSet<>();
+    TreeSet<Integer> either = new TreeSet<>();
+    for (int k = 0; k < 200000; k++) {
+      if (k % 2 == 0) {
+        evens.add(k);
+      }
+      if (k % 3 == 0 && k < 150000) {
+        threes.add(k);
+      }
+      if (k % 2 == 0 && k % 3 == 0 && k < 150000) {
+        both.add(k);
+      }
+      if (k % 2 == 0 || (k % 3 == 0 && k < 150000)) {
+        either.add(k);
+      }
+    }
+    RowBitmap and = evens.copy();
+    and.and(threes);
+    assertSame(both, and);
+    RowBitmap or = evens.copy();
+    or.or(threes);
+    assertSame(either, or);
+    // the inputs are not changed
+    Assert.assertEquals(100000, evens.cardinality());
+    Assert.assertEquals(50000, threes.cardinality());
+    RowBitmap sparse = new RowBitmap();
+    sparse.add(6);
+    sparse.add(7);
+    sparse.add(300000);
+    RowBitmap sparseOr = sparse.copy();
+    sparseOr.or(evens);
+    Assert.assertEquals(100002, sparseOr.cardinality());
+    sparse.and(evens);
+    Assert.assertEquals(1, sparse.cardinality());
+    Assert.assertTrue(sparse.contains(6));
+    Assert.assertEquals(100000, evens.cardinality());
+  }
+}
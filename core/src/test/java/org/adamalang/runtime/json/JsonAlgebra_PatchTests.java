@@ -70,4 +70,23 @@ public class JsonAlgebra_PatchTests {
     Object result = JsonAlgebra.merge(target, patch, false);
     is("{\"x\":{}}", result);
   }
+
+  @Test
+  public void streamed_matches_tree() {
+    String[][] cases = new String[][] { //
+        {"{}", "{}"}, //
+        {"{\"x\":123}", "{\"x\":null}"}, //
+        {"{\"x\":123}", "{\"x\":{\"y\":null,\"z\":1}}"}, //
+        {"{\"x\":{\"y\":1,\"w\":[1,2]}}", "{\"x\":{\"y\":null,\"w\":[3]}}"}, //
+        {"[1,2]", "{\"x\":true}"}, //
+        {"{\"x\":1}", "[1,{\"z\":null}]"}, //
+        {"{\"x\":1}", "\"str\""}};
+    for (boolean keepNulls : new boolean[] {false, true}) {
+      for (String[] c : cases) {
+        JsonStreamWriter expected = new JsonStreamWriter();
+        expected.writeTree(JsonAlgebra.merge(of(c[0]), of(c[1]), keepNulls));
+        is(expected.toString(), JsonAlgebra.merge(of(c[0]), new JsonStreamReader(c[1]), keepNulls));
+      }
+    }
+  }
 }
@@ -77,6 +77,11 @@ public class MockLivingDocument extends LivingDocument {
     return null;
   }
 
+  @Override
+  public boolean __privacyReadsWho() {
+    return true;
+  }
+
   @Override
   public WebResponse __get(WebGet __get) {
     return null;
@@ -156,4 +156,10 @@ public class MockRecord extends RxRecordBase<MockRecord> {
   public int __id() {
     return id;
   }
+
+  @Override
+  public int __tableKey() {
+    // a mock made outside of a table is keyed by its id
+    return __parent == null ? id : super.__tableKey();
+  }
 }
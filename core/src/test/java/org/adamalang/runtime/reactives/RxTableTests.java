@@ -106,7 +106,7 @@ public class RxTableTests {
     Assert.assertEquals(4, table.getById(4).__id());
     Assert.assertNull(table.getById(500));
     Assert.assertEquals(3, table.size());
-    Assert.assertEquals(2, table.getIndex((short) 0).of(13, IndexQuerySet.LookupMode.Equals).size());
+    Assert.assertEquals(2, table.getIndex((short) 0).of(13, IndexQuerySet.LookupMode.Equals).cardinality());
   }
 
   @Test
@@ -148,7 +148,7 @@ public class RxTableTests {
     Assert.assertEquals("\"t\":{\"4\":null,\"5\":null,\"6\":null}", reverse.toString());
     Assert.assertEquals(4, table.getById(4).__id());
     Assert.assertNull(table.getById(500));
-    Assert.assertEquals(3, table.getIndex((short) 0).of(13, IndexQuerySet.LookupMode.Equals).size());
+    Assert.assertEquals(3, table.getIndex((short) 0).of(13, IndexQuerySet.LookupMode.Equals).cardinality());
     Assert.assertEquals(3, table.size());
   }
 
@@ -441,4 +441,79 @@ public class RxTableTests {
     common.__raiseInvalid();
     Assert.assertEquals(0, common.__getSubscriberCount());
   }
+
+  @Test
+  public void commit_visits_dirty_rows_in_table_order() {
+    final var document = doc(7);
+    final var table = new RxTable<>(document, document, "name", MockRecord::new, 1);
+    table.make(50);
+    table.make(20);
+    table.make(90);
+    table.__commit("t", new JsonStreamWriter(), new JsonStreamWriter());
+    table.getById(90).data.set("x");
+    table.getById(50).data.set("y");
+    {
+      final var writer = new JsonStreamWriter();
+      final var reverse = new JsonStreamWriter();
+      table.__commit("t", writer, reverse);
+      Assert.assertEquals("\"t\":{\"50\":{\"data\":\"y\"},\"90\":{\"data\":\"x\"}}", writer.toString());
+      Assert.assertEquals("\"t\":{\"50\":{\"data\":\"\"},\"90\":{\"data\":\"\"}}", reverse.toString());
+    }
+    table.getById(20).data.set("z");
+    table.__revert();
+    Assert.assertEquals("", table.getById(20).data.get());
+    {
+      final var writer = new JsonStreamWriter();
+      final var reverse = new JsonStreamWriter();
+      table.getById(20).data.set("w");
+      // a row removed via insert prior to the commit doesn't emit
+      table.__insert(new JsonStreamReader("{\"90\":null}"));
+      table.getById(50).__delete();
+      table.__commit("t", writer, reverse);
+      Assert.assertEquals("\"t\":{\"50\":null,\"20\":{\"data\":\"w\"}}", writer.toString());
+    }
+  }
+
+  @Test
+  public void scanning_rows_whose_id_differs_from_their_key() {
+    final var document = doc(7);
+    final var table = new RxTable<>(document, document, "name", MockRecord::new, 1);
+    final var a = table.make(50);
+    final var b = table.make(60);
+    a.index.set(13);
+    b.index.set(13);
+    // rows copied via ingestion carry the id of their source row
+    a.id = 3;
+    b.id = 4;
+    table.__commit("t", new JsonStreamWriter(), new JsonStreamWriter());
+    final var records = new ArrayList<MockRecord>();
+    for (final MockRecord mr :
+        table.scan(
+            new WhereClause<MockRecord>() {
+              @Override
+              public int[] getIndices() {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public Integer getPrimaryKey() {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public void scopeByIndicies(final IndexQuerySet __set) {
+                __set.intersect(0, 13, IndexQuerySet.LookupMode.Equals);
+              }
+
+              @Override
+              public boolean test(final MockRecord item) {
+                return false;
+              }
+            })) {
+      records.add(mr);
+    }
+    Assert.assertEquals(2, records.size());
+    Assert.assertSame(a, records.get(0));
+    Assert.assertSame(b, records.get(1));
+  }
 }
@@ -0,0 +1,47 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.natives.NtAsset;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.natives.NtDynamic;
+import org.adamalang.runtime.remote.RemoteResult;
+import org.adamalang.runtime.sys.web.WebPutRaw;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.TreeMap;
+
+public class LivingDocumentRequestTests {
+  private static final NtClient WHO = new NtClient("agent", "authority");
+
+  @Test
+  public void json() {
+    Assert.assertEquals("{\"command\":\"construct\",\"timestamp\":\"1\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"arg\":{\"x\":1},\"entropy\":\"42\"}", LivingDocumentRequest.construct(1, WHO, "{\"x\":1}", "42").json());
+    Assert.assertEquals("{\"command\":\"construct\",\"timestamp\":\"1\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"arg\":{}}", LivingDocumentRequest.construct(1, WHO, "{}", null).json());
+    Assert.assertEquals("{\"command\":\"invalidate\",\"timestamp\":\"2\"}", LivingDocumentRequest.invalidate(2).json());
+    Assert.assertEquals("{\"command\":\"connect\",\"timestamp\":\"3\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"}}", LivingDocumentRequest.connect(3, WHO).json());
+    Assert.assertEquals("{\"command\":\"disconnect\",\"timestamp\":\"4\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"}}", LivingDocumentRequest.disconnect(4, WHO).json());
+    Assert.assertEquals("{\"command\":\"expire\",\"timestamp\":\"5\",\"limit\":\"1000\"}", LivingDocumentRequest.expire(5, 1000).json());
+    CoreRequestContext context = new CoreRequestContext(WHO, "origin", "ip", "key");
+    Assert.assertEquals("{\"command\":\"send\",\"timestamp\":\"6\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"key\":\"key\",\"origin\":\"origin\",\"ip\":\"ip\",\"channel\":\"chan\",\"marker\":\"m\",\"message\":{\"y\":2}}", LivingDocumentRequest.send(6, context, "m", "chan", "{\"y\":2}").json());
+    Assert.assertEquals("{\"command\":\"send\",\"timestamp\":\"6\",\"key\":\"key\",\"origin\":\"origin\",\"ip\":\"ip\",\"channel\":\"chan\",\"message\":{}}", LivingDocumentRequest.send(6, new CoreRequestContext(null, "origin", "ip", "key"), null, "chan", "{}").json());
+    Assert.assertEquals("{\"command\":\"apply\",\"timestamp\":\"7\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"patch\":{\"z\":3}}", LivingDocumentRequest.apply(7, WHO, "{\"z\":3}").json());
+    Assert.assertEquals("{\"command\":\"attach\",\"timestamp\":\"8\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"asset\":{\"id\":\"123\",\"size\":\"42\",\"name\":\"name\",\"type\":\"png\",\"md5\":\"hash\",\"sha384\":\"sheesh\"}}", LivingDocumentRequest.attach(8, WHO, new NtAsset("123", "name", "png", 42, "hash", "sheesh")).json());
+    Assert.assertEquals("{\"command\":\"deliver\",\"timestamp\":\"9\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"delivery_id\":10,\"result\":{\"result\":{},\"failure\":null,\"failure_code\":null}}", LivingDocumentRequest.deliver(9, WHO, 10, new RemoteResult("{}", null, null)).json());
+    Assert.assertEquals("{\"command\":\"web_put\",\"timestamp\":\"11\",\"who\":{\"agent\":\"agent\",\"authority\":\"authority\"},\"put\":{\"uri\":\"/\",\"headers\":{},\"parameters\":{},\"bodyJson\":{}}}", LivingDocumentRequest.webPut(11, WHO, new WebPutRaw("/", new TreeMap<>(), new NtDynamic("{}"), "{}")).json());
+  }
+
+  @Test
+  public void memoized() {
+    LivingDocumentRequest request = LivingDocumentRequest.connect(1, WHO);
+    Assert.assertSame(request.json(), request.json());
+  }
+}
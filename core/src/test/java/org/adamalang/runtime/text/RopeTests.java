@@ -0,0 +1,81 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.text;
+
+import org.adamalang.runtime.text.ot.Operand;
+import org.adamalang.runtime.text.ot.Raw;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class RopeTests {
+  @Test
+  public void flow() {
+    Rope flow = Rope.of("/* adama */");
+    flow = Rope.apply(flow, "{\"clientID\":\"dzg02a\",\"changes\":[11,[0,\"x\"]]}");
+    Assert.assertEquals("/* adama */x", flow.toString());
+    flow = Rope.apply(flow, "{\"clientID\":\"dzg02a\",\"changes\":[[0,\"z\"],12]}");
+    Assert.assertEquals("z/* adama */x", flow.toString());
+    flow = Rope.apply(flow, "{\"clientID\":\"dzg02a\",\"changes\":[9,[0,\" adama\"],4]}");
+    Assert.assertEquals("z/* adama adama */x", flow.toString());
+    flow = Rope.apply(flow, "{\"clientID\":\"dzg02a\",\"changes\":[4,[11],4]}");
+    Assert.assertEquals("z/*  */x", flow.toString());
+    flow = Rope.apply(flow, "null");
+    Assert.assertEquals("z/*  */x", flow.toString());
+  }
+
+  @Test
+  public void lines() {
+    Rope flow = Rope.of("hello world");
+    flow = Rope.apply(flow, "{\"clientID\":\"9ajsif\",\"changes\":[6,[0,\"X\",\"Y\",\"Z\"],5]}");
+    Assert.assertEquals("hello X\nY\nZworld", flow.toString());
+    Assert.assertEquals(16, flow.length());
+    flow = Rope.apply(flow, "{\"clientID\":\"9ajsif\",\"changes\":[14,[0,\"\",\" \"],3]}");
+    Assert.assertEquals("hello X\nY\nZwor\n ld", flow.toString());
+  }
+
+  @Test
+  public void slices() {
+    StringBuilder sb = new StringBuilder();
+    for (int k = 0; k < 5000; k++) {
+      sb.append((char) ('a' + (k % 26)));
+    }
+    String str = sb.toString();
+    Rope rope = Rope.of(str);
+    Assert.assertEquals(str, rope.toString());
+    Assert.assertEquals(str.substring(100, 4000), rope.slice(100, 3900).toString());
+    Assert.assertEquals(str.substring(4990), rope.slice(4990, 100).toString());
+    Assert.assertEquals("", rope.slice(6000, 10).toString());
+    Assert.assertEquals(str, Rope.concat(rope.slice(0, 2500), rope.slice(2500, 2500)).toString());
+  }
+
+  @Test
+  public void matches_operand() {
+    Random rng = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int k = 0; k < 3000; k++) {
+      sb.append(k % 80 == 79 ? '\n' : (char) ('a' + rng.nextInt(26)));
+    }
+    Rope rope = Rope.of(sb.toString());
+    Operand operand = new Raw(sb.toString());
+    for (int k = 0; k < 2000; k++) {
+      int length = rope.length();
+      int at = rng.nextInt(length + 1);
+      int remove = Math.min(length - at, rng.nextInt(4) == 0 ? rng.nextInt(40) : 0);
+      String change = "{\"changes\":[" + at + ",[" + remove + ",\"" + (char) ('A' + rng.nextInt(26)) + "\"]," + (length - at - remove) + "]}";
+      rope = Rope.apply(rope, change);
+      operand = new Raw(Operand.apply(operand, change).get());
+      Assert.assertEquals(operand.length(), rope.length());
+      Assert.assertTrue(rope.height() < 16);
+    }
+    Assert.assertEquals(operand.get(), rope.toString());
+  }
+}
@@ -212,7 +212,7 @@ public class RxTextTests {
     text.__dump(c);
     Assert.assertEquals("{\"fragments\":{\"2\":\"z/* adama adama */x\"},\"order\":{\"0\":\"2\"},\"changes\":{\"4\":{\"clientID\":\"dzg02a\",\"changes\":[4,[11],4]}},\"seq\":4}", c.toString());
     Assert.assertEquals("z/*  */x", text.get());
-    Assert.assertEquals(311, text.__memory());
+    Assert.assertEquals(359, text.__memory());
   }
 
   @Test
@@ -370,6 +370,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -1101,6 +1105,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -1827,6 +1835,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -2729,6 +2741,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -3525,6 +3541,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -4204,6 +4224,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
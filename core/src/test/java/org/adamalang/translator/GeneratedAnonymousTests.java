@@ -370,6 +370,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -1366,6 +1370,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -2572,6 +2580,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
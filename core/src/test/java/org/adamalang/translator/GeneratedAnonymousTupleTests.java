@@ -357,6 +357,10 @@ public class GeneratedAnonymousTupleTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
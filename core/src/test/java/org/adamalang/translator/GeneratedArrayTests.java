@@ -376,6 +376,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -930,6 +934,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
@@ -1792,6 +1800,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n      }");
     gold.append("\n    };");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __privacyReadsWho() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  private static class RTx__ViewerType implements NtMessageBase {");
     gold.append("\n    public void __hash(HashBuilder __hash) {");
     gold.append("\n      __hash.hashString(\"anonymous\");");
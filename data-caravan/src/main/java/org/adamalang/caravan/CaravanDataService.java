@@ -18,13 +18,13 @@ import org.adamalang.caravan.contracts.KeyToIdService;
 import org.adamalang.caravan.data.DurableListStore;
 import org.adamalang.caravan.events.*;
 import org.adamalang.common.*;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.adamalang.runtime.data.*;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
@@ -34,14 +34,22 @@ public class CaravanDataService implements ArchivingDataService {
   private final KeyToIdService keyToIdService;
   private final DurableListStore store;
   private final SimpleExecutor executor;
-  private final HashMap<Long, LocalCache> cache;
+  private final LocalCacheMap cache;
 
   public CaravanDataService(Cloud cloud, KeyToIdService keyToIdService, DurableListStore store, SimpleExecutor executor) {
+    this(new CaravanMetrics(new NoOpMetricsFactory()), cloud, keyToIdService, store, executor, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param cacheBudgetBytes the memory budget for documents cached in memory; the least recently used documents are evicted and
+   *                         rebuilt from the store when needed
+   */
+  public CaravanDataService(CaravanMetrics metrics, Cloud cloud, KeyToIdService keyToIdService, DurableListStore store, SimpleExecutor executor, long cacheBudgetBytes) {
     this.cloud = cloud;
     this.keyToIdService = keyToIdService;
     this.store = store;
     this.executor = executor;
-    this.cache = new HashMap();
+    this.cache = new LocalCacheMap(metrics, cacheBudgetBytes);
   }
 
   @Override
@@ -141,6 +149,16 @@ public class CaravanDataService implements ArchivingDataService {
             output.write(value);
           }
 
+          @Override
+          public void next(int appendIndex, ByteBuf value, int seq, long assetBytes) throws Exception {
+            int length = value.readableBytes();
+            deltaBytesSum.addAndGet(length);
+            assetBytesSum.addAndGet(assetBytes);
+            output.writeBoolean(true);
+            output.writeInt(length);
+            value.readBytes(output, length);
+          }
+
           @Override
           public void finished() throws Exception {
             output.writeBoolean(false);
@@ -250,6 +268,7 @@ public class CaravanDataService implements ArchivingDataService {
           for (byte[] write : filtered) {
             EventCodec.route(Unpooled.wrappedBuffer(write), cached);
           }
+          cache.weigh(id, cached);
           callback.success(null);
         }
       });
@@ -339,6 +358,7 @@ public class CaravanDataService implements ArchivingDataService {
           public void execute() throws Exception {
             cached.handle(batch);
             cached.bump();
+            cache.weigh(id, cached);
             callback.success(null);
           }
         });
@@ -405,6 +425,7 @@ public class CaravanDataService implements ArchivingDataService {
       } else {
         cached.handle(snap);
         cached.bump();
+        cache.weigh(id, cached);
         int toTrim = Math.min(size - 1, cached.reset()) - snapshot.history;
         if (toTrim > 0) {
           store.trim(id, toTrim, () -> {
@@ -417,9 +438,7 @@ public class CaravanDataService implements ArchivingDataService {
   @Override
   public void close(Key key, Callback<Void> callback) {
     execute("close", key, false, callback, (id, cached) -> {
-      if (cached != null) {
-        cache.remove(id);
-      }
+      cache.remove(id);
       keyToIdService.forget(key);
       callback.success(null);
     });
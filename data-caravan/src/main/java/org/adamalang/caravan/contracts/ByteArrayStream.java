@@ -9,12 +9,21 @@
  */
 package org.adamalang.caravan.contracts;
 
+import io.netty.buffer.ByteBuf;
+
 /** for reading a list of byte[] */
 public interface ByteArrayStream {
 
   // a new append was discovered
   void next(int appendIndex, byte[] value, int seq, long assetBytes) throws Exception;
 
+  // a new append was discovered as a view of the storage; the buffer is only valid during the call, so consumers that want to hold onto it must copy
+  default void next(int appendIndex, ByteBuf value, int seq, long assetBytes) throws Exception {
+    byte[] copy = new byte[value.readableBytes()];
+    value.readBytes(copy);
+    next(appendIndex, copy, seq, assetBytes);
+  }
+
   // no more appends were found
   void finished() throws Exception;
 }
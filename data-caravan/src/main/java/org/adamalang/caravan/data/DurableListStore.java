@@ -13,6 +13,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.caravan.entries.Append;
+import org.adamalang.caravan.entries.Checkpoint;
 import org.adamalang.caravan.entries.Delete;
 import org.adamalang.caravan.entries.OrganizationSnapshot;
 import org.adamalang.caravan.entries.Trim;
@@ -21,21 +22,52 @@ import org.adamalang.caravan.events.RestoreWalker;
 import org.adamalang.caravan.index.AnnotatedRegion;
 import org.adamalang.caravan.index.Heap;
 import org.adamalang.caravan.index.Index;
+import org.adamalang.caravan.index.LongIntMap;
 import org.adamalang.caravan.index.Region;
 import org.adamalang.caravan.index.heaps.IndexedHeap;
 import org.adamalang.caravan.index.heaps.LimitHeap;
 import org.adamalang.caravan.index.heaps.SequenceHeap;
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.metrics.RequestResponseMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DurableListStore {
   private static final Logger LOGGER = LoggerFactory.getLogger(DurableListStore.class);
+  // the index is checkpointed in pages such that a cut over only writes the pages which changed since the prior checkpoint
+  private static final int CHECKPOINT_PAGES = 1024;
+  // a checkpoint file lives until none of its pages are current, so the pages of the oldest files are rewritten to bound the files
+  private static final int MAX_CHECKPOINT_FILES = 8;
+  // recovery decodes the log and writes to storage on multiple threads
+  private static final int RECOVERY_THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+  // recovery maps the log in windows of this size
+  private static final long RECOVERY_WINDOW = 256 * 1024 * 1024;
+  // how many writes each task writes to storage during recovery
+  private static final int RECOVERY_WRITE_BATCH = 1024;
+  // how many pages of the log may be decoded ahead of the pages being applied during recovery
+  private static final int RECOVERY_DECODE_AHEAD = RECOVERY_THREADS * 4;
+  // how many bytes of writes are held during recovery before they are written to storage
+  private static final long RECOVERY_FLUSH_BYTES = 64 * 1024 * 1024;
   // the data structures to manage the giant linear space
   private final DurableListStoreMetrics metrics;
   private final Index index;
@@ -47,7 +79,7 @@ public class DurableListStore {
   // the directory containing the write-ahead log; since we use Files.move, we create temporary files to cut over
   private final File walRoot;
 
-  // We use a netty buffer for writing data; TODO: use a different construction since we have minimal overhead
+  // We use a netty buffer for writing data which is handed directly to the log as a gathering write
   private final ByteBuf buffer;
   // how many bytes until we introduce a flush
   private final int flushCutOffBytes;
@@ -55,10 +87,27 @@ public class DurableListStore {
   private final long maxLogSize;
   // notifications when the requested action was committed
   private final ArrayList<Runnable> notifications;
-  private byte[] pageBuffer;
-  // the write ahead log stream
-  private DataOutputStream output;
+  // the executor the store is used within; this is used to bound how long a commit waits for a flush
+  private final SimpleExecutor executor;
+  // the maximum time (in nanoseconds) a commit waits for a flush; zero means flushes are driven externally
+  private final long maxCommitLatencyNanos;
+  // the write ahead log
+  private FileChannel output;
   private long bytesWrittenToLog;
+  // the scheduled latency bound flush (if any)
+  private Runnable cancelScheduledFlush;
+  // measure the time from the first commit of a batch until the notification
+  private RequestResponseMonitor.RequestResponseMonitorInstance pendingBatch;
+  // which pages of the index have changed since the last checkpoint (marked as writes happen)
+  private final boolean[] dirty;
+  // the generation of the checkpoint file holding each page of the index (-1 means the page is empty)
+  private final long[] manifest;
+  // the offset of each page within its checkpoint file
+  private final long[] offsets;
+  // the generation of the last checkpoint
+  private long generation;
+  // checkpoint files which no page references after the checkpoint being prepared; these are deleted once the new log is in place
+  private final ArrayList<File> garbage;
 
   /**
    * Construct the durable list store!
@@ -71,8 +120,28 @@ public class DurableListStore {
    * @throws IOException
    */
   public DurableListStore(DurableListStoreMetrics metrics, File storeFile, File walRoot, long size, int flushCutOffBytes, long maxLogSize) throws IOException {
+    this(metrics, storeFile, walRoot, size, flushCutOffBytes, maxLogSize, SimpleExecutor.NOW, 0);
+  }
+
+  /**
+   * Construct the durable list store with group commit: commits are batched into a single write and fsync, and a batch will
+   * wait no longer than maxCommitLatencyNanos for a flush
+   * @param executor the executor which all access to the store runs within
+   * @param maxCommitLatencyNanos - the maximum time a commit may wait for a flush (zero to disable the timer)
+   */
+  public DurableListStore(DurableListStoreMetrics metrics, File storeFile, File walRoot, long size, int flushCutOffBytes, long maxLogSize, SimpleExecutor executor, long maxCommitLatencyNanos) throws IOException {
     this.metrics = metrics;
-    this.index = new Index();
+    this.executor = executor;
+    this.maxCommitLatencyNanos = maxCommitLatencyNanos;
+    this.cancelScheduledFlush = null;
+    this.pendingBatch = null;
+    this.index = new Index(CHECKPOINT_PAGES);
+    this.dirty = new boolean[CHECKPOINT_PAGES];
+    this.manifest = new long[CHECKPOINT_PAGES];
+    this.offsets = new long[CHECKPOINT_PAGES];
+    Arrays.fill(manifest, -1);
+    this.generation = 0;
+    this.garbage = new ArrayList<>();
     DurableListStoreSizing sizing = new DurableListStoreSizing(size, storeFile);
     this.heap = sizing.heap;
     this.storage = sizing.storage;
@@ -83,111 +152,436 @@ public class DurableListStore {
     this.buffer = Unpooled.buffer(flushCutOffBytes * 5 / 4);
     this.output = null;
     this.flushCutOffBytes = flushCutOffBytes;
-    this.pageBuffer = new byte[flushCutOffBytes];
     File walFile = new File(walRoot, "WAL");
     if (walFile.exists()) {
+      RequestResponseMonitor.RequestResponseMonitorInstance recovery = metrics.recovery.start();
+      long started = System.nanoTime();
+      long walBytes = walFile.length();
       try {
         load(walFile);
       } catch (IOException ioe) {
         LOGGER.error("wal-truncated-exception:", ioe);
         Files.copy(walFile.toPath(), new File(walRoot, "BAD-WAL-" + System.currentTimeMillis()).toPath());
       }
-      Files.move(prepare().toPath(), walFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      long replayed = System.nanoTime();
+      int megabytesPerSecond = (int) ((walBytes / (1024.0 * 1024.0)) / Math.max(1E-9, (replayed - started) / 1E9));
+      metrics.recovery_mb_per_second.set(megabytesPerSecond);
+      install(prepare());
+      garbage.clear();
+      sweep();
+      recovery.success();
+      LOGGER.info("dls-recovered-ms:" + (System.nanoTime() - started) / 1000000 + " wal-bytes:" + walBytes + " replay-mb-per-second:" + megabytesPerSecond);
     }
     this.maxLogSize = maxLogSize;
     this.bytesWrittenToLog = 0;
     openLogForWriting();
   }
 
-  /** internal: load and commit the data from the write-ahead log */
+  /**
+   * internal: load and commit the data from the write-ahead log. The log is memory mapped and split into pages which are decoded
+   * in parallel (a bounded number of pages ahead) while the index and heap mutations are applied in order on this thread. Storage
+   * writes are deferred such that writes to regions which were freed later in the log are dropped; the surviving writes are
+   * disjoint, so they are applied in parallel once enough bytes are pending (or a checkpoint resets the heap).
+   */
   private void load(File walFile) throws IOException {
-    DataInputStream input = new DataInputStream(new FileInputStream(walFile));
-    try {
-      int pageSize;
-      while ((pageSize = input.readInt()) > 0) {
-        byte[] chunk = new byte[pageSize];
-        input.readFully(chunk);
-        ByteBuf buf = Unpooled.wrappedBuffer(chunk);
-        while (buf.isReadable()) {
-          byte code = buf.readByte();
-          switch (code) {
-            case 0x42: // append
-            {
-              Append append = Append.readAfterTypeId(buf);
-              Region region = heap.ask(append.bytes.length);
-              if (region.position != append.position) {
-                throw new IOException("heap corruption!");
-              }
-              index.append(append.id, new AnnotatedRegion(region.position, region.size, append.seq, append.assetBytes));
-              storage.write(region, append.bytes);
+    ExecutorService decoders = Executors.newFixedThreadPool(RECOVERY_THREADS);
+    ArrayList<Append> writes = new ArrayList<>();
+    LongIntMap writesByPosition = new LongIntMap();
+    try (FileChannel input = FileChannel.open(walFile.toPath(), StandardOpenOption.READ)) {
+      ArrayList<ByteBuf> pages = new ArrayList<>();
+      EOFException truncated = null;
+      try {
+        mapPages(input, pages);
+      } catch (EOFException eof) {
+        // apply the pages that were read before the truncation
+        truncated = eof;
+      }
+      ArrayDeque<Future<ArrayList<Object>>> decoded = new ArrayDeque<>();
+      int submitted = 0;
+      long pendingBytes = 0;
+      try {
+        while (submitted < pages.size() || !decoded.isEmpty()) {
+          while (submitted < pages.size() && decoded.size() < RECOVERY_DECODE_AHEAD) {
+            ByteBuf page = pages.get(submitted++);
+            decoded.add(decoders.submit(() -> decode(page)));
+          }
+          for (Object entry : await(decoded.removeFirst())) {
+            if (entry instanceof Checkpoint || entry instanceof ByteBuf) {
+              // the heap is about to be replaced, so the pending writes can't be tracked by position beyond this point
+              flush(decoders, writes, writesByPosition);
+              pendingBytes = 0;
             }
-            break;
-            case 0x66: // delete
-              for (Region region : index.delete(Delete.readAfterTypeId(buf).id)) {
-                heap.free(region);
+            apply(entry, writes, writesByPosition);
+            if (entry instanceof Append) {
+              pendingBytes += ((Append) entry).bytes.length;
+              if (pendingBytes >= RECOVERY_FLUSH_BYTES) {
+                flush(decoders, writes, writesByPosition);
+                pendingBytes = 0;
               }
-              break;
-            case 0x55: // snapshot
-              OrganizationSnapshot.populateAfterTypeId(buf, heap, index);
-              break;
-            case 0x13: // trim
-              Trim trim = Trim.readAfterTypeId(buf);
-              for (Region region : index.trim(trim.id, trim.count)) {
-                heap.free(region);
-              }
-              break;
-            default:
-              throw new IOException("unrecogized code:" + code);
+            }
           }
         }
+      } finally {
+        for (Future<ArrayList<Object>> abandoned : decoded) {
+          abandoned.cancel(false);
+        }
+        flush(decoders, writes, writesByPosition);
+      }
+      if (truncated != null) {
+        throw truncated;
       }
     } finally {
-      input.close();
+      decoders.shutdown();
+    }
+  }
+
+  /** internal: split the log into pages without copying; an EOFException is thrown if the log ends without the end marker */
+  private static void mapPages(FileChannel input, ArrayList<ByteBuf> pages) throws IOException {
+    long length = input.size();
+    long windowStart = 0;
+    MappedByteBuffer window = null;
+    long at = 0;
+    while (true) {
+      if (at + 4 > length) {
+        throw new EOFException();
+      }
+      if (window == null || at + 4 > windowStart + window.capacity()) {
+        windowStart = at;
+        window = input.map(FileChannel.MapMode.READ_ONLY, at, Math.min(length - at, RECOVERY_WINDOW));
+      }
+      int pageSize = window.getInt((int) (at - windowStart));
+      if (pageSize <= 0) {
+        return;
+      }
+      if (at + 4 + pageSize > length) {
+        throw new EOFException();
+      }
+      if (at + 4 + pageSize > windowStart + window.capacity()) {
+        // the page straddles the window, so move the window to start at this page
+        windowStart = at;
+        window = input.map(FileChannel.MapMode.READ_ONLY, at, Math.min(length - at, Math.max(RECOVERY_WINDOW, 4L + pageSize)));
+      }
+      ByteBuffer page = window.duplicate();
+      page.position((int) (at - windowStart + 4));
+      page.limit((int) (at - windowStart + 4 + pageSize));
+      pages.add(Unpooled.wrappedBuffer(page.slice()));
+      at += 4 + pageSize;
     }
   }
 
-  /** internal: prepare a new write-ahead file */
+  /** internal: decode a page of the log into entries; this happens in parallel */
+  private static ArrayList<Object> decode(ByteBuf buf) throws IOException {
+    ArrayList<Object> entries = new ArrayList<>();
+    while (buf.isReadable()) {
+      byte code = buf.readByte();
+      switch (code) {
+        case 0x42: // append
+          entries.add(Append.readAfterTypeId(buf));
+          break;
+        case 0x66: // delete
+          entries.add(Delete.readAfterTypeId(buf));
+          break;
+        case 0x55: // snapshot (prior to incremental checkpoints); the snapshot is always the only entry within its page
+          entries.add(buf.slice());
+          return entries;
+        case 0x77: // checkpoint
+          entries.add(Checkpoint.readAfterTypeId(buf));
+          break;
+        case 0x13: // trim
+          entries.add(Trim.readAfterTypeId(buf));
+          break;
+        default:
+          throw new IOException("unrecogized code:" + code);
+      }
+    }
+    return entries;
+  }
+
+  /** internal: wait for a decoded page */
+  private static ArrayList<Object> await(Future<ArrayList<Object>> page) throws IOException {
+    try {
+      return page.get();
+    } catch (ExecutionException ee) {
+      if (ee.getCause() instanceof IOException) {
+        throw (IOException) ee.getCause();
+      }
+      throw new IOException(ee.getCause());
+    } catch (InterruptedException ie) {
+      throw new IOException(ie);
+    }
+  }
+
+  /** internal: apply a decoded entry to the index and heap (in log order); appends are remembered until their region is freed */
+  private void apply(Object entry, ArrayList<Append> writes, LongIntMap writesByPosition) throws IOException {
+    if (entry instanceof Append) {
+      Append append = (Append) entry;
+      Region region = heap.ask(append.bytes.length);
+      if (region.position != append.position) {
+        throw new IOException("heap corruption!");
+      }
+      index.append(append.id, new AnnotatedRegion(region.position, region.size, append.seq, append.assetBytes));
+      if (region.size > 0) {
+        writesByPosition.put(region.position, writes.size());
+        writes.add(append);
+      }
+      dirty(append.id);
+    } else if (entry instanceof Delete) {
+      Delete delete = (Delete) entry;
+      for (Region region : index.delete(delete.id)) {
+        free(region, writes, writesByPosition);
+      }
+      dirty(delete.id);
+    } else if (entry instanceof Trim) {
+      Trim trim = (Trim) entry;
+      for (Region region : index.trim(trim.id, trim.count)) {
+        free(region, writes, writesByPosition);
+      }
+      dirty(trim.id);
+    } else if (entry instanceof Checkpoint) {
+      loadCheckpoint((Checkpoint) entry);
+    } else {
+      OrganizationSnapshot.populateAfterTypeId((ByteBuf) entry, heap, index);
+      Arrays.fill(dirty, true);
+    }
+  }
+
+  /** internal: free a region during recovery which drops the pending write (if any) */
+  private void free(Region region, ArrayList<Append> writes, LongIntMap writesByPosition) {
+    int write = writesByPosition.remove(region.position);
+    if (write >= 0) {
+      writes.set(write, null);
+    }
+    heap.free(region);
+  }
+
+  /** internal: write the pending appends to storage and forget them */
+  private void flush(ExecutorService decoders, ArrayList<Append> writes, LongIntMap writesByPosition) throws IOException {
+    writeInParallel(decoders, writes);
+    writes.clear();
+    writesByPosition.clear();
+  }
+
+  /** internal: write the surviving appends to storage across the decoders */
+  private void writeInParallel(ExecutorService decoders, ArrayList<Append> writes) throws IOException {
+    ArrayList<Future<?>> batches = new ArrayList<>();
+    for (int start = 0; start < writes.size(); start += RECOVERY_WRITE_BATCH) {
+      final int from = start;
+      final int to = Math.min(writes.size(), start + RECOVERY_WRITE_BATCH);
+      batches.add(decoders.submit(() -> {
+        for (int k = from; k < to; k++) {
+          Append append = writes.get(k);
+          if (append != null) {
+            storage.write(new Region(append.position, append.bytes.length), append.bytes);
+          }
+        }
+      }));
+    }
+    for (Future<?> batch : batches) {
+      try {
+        batch.get();
+      } catch (ExecutionException | InterruptedException ex) {
+        throw new IOException(ex);
+      }
+    }
+  }
+
+  /** internal: load the pages of the index referenced by the checkpoint, and then rebuild the heap from the index */
+  private void loadCheckpoint(Checkpoint checkpoint) throws IOException {
+    if (checkpoint.pages.length != CHECKPOINT_PAGES) {
+      throw new IOException("checkpoint-page-count-mismatch:" + checkpoint.pages.length);
+    }
+    HashMap<Long, ByteBuf> files = new HashMap<>();
+    for (int page = 0; page < CHECKPOINT_PAGES; page++) {
+      manifest[page] = checkpoint.pages[page];
+      offsets[page] = checkpoint.offsets[page];
+      if (manifest[page] >= 0) {
+        ByteBuf file = files.get(manifest[page]);
+        if (file == null) {
+          file = Unpooled.wrappedBuffer(Files.readAllBytes(checkpointFile(manifest[page]).toPath()));
+          files.put(manifest[page], file);
+        }
+        index.loadPage(file.slice((int) offsets[page], file.capacity() - (int) offsets[page]));
+      }
+    }
+    generation = checkpoint.generation;
+    index.rebuild(heap);
+  }
+
+  /** internal: the checkpoint file of the given generation */
+  private File checkpointFile(long generation) {
+    return new File(walRoot, "CHECKPOINT-" + generation);
+  }
+
+  /** internal: mark the page holding the id as changed */
+  private void dirty(long id) {
+    dirty[Index.pageOf(id, CHECKPOINT_PAGES)] = true;
+  }
+
+  /** internal: if there are too many checkpoint files, then mark the pages held by the oldest files as dirty such that they get rewritten */
+  private void foldOldestCheckpoints() {
+    TreeSet<Long> live = new TreeSet<>();
+    for (int page = 0; page < CHECKPOINT_PAGES; page++) {
+      if (!dirty[page] && manifest[page] >= 0) {
+        live.add(manifest[page]);
+      }
+    }
+    // the checkpoint being prepared will be one more file
+    while (live.size() + 1 > MAX_CHECKPOINT_FILES) {
+      long oldest = live.pollFirst();
+      for (int page = 0; page < CHECKPOINT_PAGES; page++) {
+        if (manifest[page] == oldest) {
+          dirty[page] = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * internal: prepare a new write-ahead file which starts with a checkpoint. Only the pages which changed are written, and they
+   * are all written to a single checkpoint file such that a checkpoint costs one file and one fsync
+   */
   private File prepare() throws IOException {
+    RequestResponseMonitor.RequestResponseMonitorInstance checkpoint = metrics.checkpoint.start();
+    generation++;
+    foldOldestCheckpoints();
+    HashSet<Long> priorFiles = new HashSet<>();
+    for (long prior : manifest) {
+      if (prior >= 0) {
+        priorFiles.add(prior);
+      }
+    }
+    ByteBuf pages = Unpooled.buffer();
+    int written = 0;
+    for (int page = 0; page < CHECKPOINT_PAGES; page++) {
+      if (dirty[page]) {
+        int start = pages.writerIndex();
+        index.snapshotPage(page, pages);
+        // a page with only the terminator is empty, so it doesn't need to be written
+        if (pages.writerIndex() - start > 1) {
+          manifest[page] = generation;
+          offsets[page] = start;
+          written++;
+        } else {
+          pages.writerIndex(start);
+          manifest[page] = -1;
+          offsets[page] = 0;
+        }
+        dirty[page] = false;
+      }
+    }
+    if (written > 0) {
+      try (FileChannel pageOutput = FileChannel.open(checkpointFile(generation).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer bytes = pages.nioBuffer();
+        while (bytes.hasRemaining()) {
+          pageOutput.write(bytes);
+        }
+        pageOutput.force(false);
+      }
+    }
+    for (long current : manifest) {
+      priorFiles.remove(current);
+    }
+    for (long unreferenced : priorFiles) {
+      garbage.add(checkpointFile(unreferenced));
+    }
+    metrics.checkpoint_pages.set(written);
     File newWalFile = new File(walRoot, "WAL.NEW-" + System.currentTimeMillis());
-    DataOutputStream newOutput = new DataOutputStream(new FileOutputStream(newWalFile));
-    ByteBuf first = Unpooled.buffer();
-    new OrganizationSnapshot(heap, index).write(first);
-    writePage(newOutput, first);
-    newOutput.flush();
-    newOutput.close();
+    try (FileChannel newOutput = FileChannel.open(newWalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuf first = Unpooled.buffer();
+      new Checkpoint(generation, manifest, offsets).write(first);
+      writePage(newOutput, first);
+      newOutput.force(false);
+    }
+    checkpoint.success();
     return newWalFile;
   }
 
+  /** internal: move the prepared write-ahead file in place of the log; the directory is synced such that the checkpoint file exists before the new log does */
+  private void install(File newWalFile) throws IOException {
+    syncWalRoot();
+    Files.move(newWalFile.toPath(), new File(walRoot, "WAL").toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    syncWalRoot();
+  }
+
+  /** internal: fsync the directory holding the log such that created (and renamed) files are durable */
+  private void syncWalRoot() throws IOException {
+    FileChannel directory;
+    try {
+      directory = FileChannel.open(walRoot.toPath(), StandardOpenOption.READ);
+    } catch (IOException notSupported) {
+      // some platforms (i.e. windows) can't open a directory, and they make the rename durable on their own terms
+      return;
+    }
+    try {
+      directory.force(true);
+    } finally {
+      directory.close();
+    }
+  }
+
+  /** internal: delete any checkpoint files which the current checkpoint doesn't reference */
+  private void sweep() {
+    File[] files = walRoot.listFiles();
+    if (files == null) {
+      return;
+    }
+    HashSet<Long> live = new HashSet<>();
+    for (long current : manifest) {
+      live.add(current);
+    }
+    for (File file : files) {
+      String[] parts = file.getName().split("-");
+      if (parts.length == 2 && "CHECKPOINT".equals(parts[0])) {
+        try {
+          if (!live.contains(Long.parseLong(parts[1]))) {
+            file.delete();
+          }
+        } catch (NumberFormatException nfe) {
+          // not a checkpoint file
+        }
+      }
+    }
+  }
+
   /** internal: open the log for writing */
   private void openLogForWriting() throws IOException {
-    this.output = new DataOutputStream(new FileOutputStream(new File(walRoot, "WAL"), true));
+    this.output = FileChannel.open(new File(walRoot, "WAL").toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
     this.bytesWrittenToLog = 0;
   }
 
-  /** internal: write a page to the log */
-  private boolean writePage(DataOutputStream dos, ByteBuf page) throws IOException {
-    if (page.writerIndex() == 0) {
+  /** internal: write a page to the log as a gathering write of the page's size and the page itself */
+  private boolean writePage(FileChannel channel, ByteBuf page) throws IOException {
+    int size = page.readableBytes();
+    if (size == 0) {
       return false;
     }
-    dos.writeInt(page.writerIndex());
-    bytesWrittenToLog += page.writerIndex();
+    ByteBuffer header = ByteBuffer.allocate(4);
+    header.putInt(size);
+    header.flip();
+    ByteBuffer[] writes = new ByteBuffer[] {header, page.nioBuffer(page.readerIndex(), size)};
+    while (writes[1].hasRemaining()) {
+      channel.write(writes);
+    }
+    bytesWrittenToLog += size;
+    return true;
+  }
 
-    // TODO: we are using too many buffers, we should simply use an arraylist of writes then build it up directly
-    // maybe, it's ok to use DataOutputstream directly? maybe with BufferedOutputStream?
-    if (page.hasArray() && page.writerIndex() < page.array().length) {
-      dos.write(page.array(), 0, page.writerIndex());
-    } else {
-      // TODO: this can be optimized a bunch
-      while (page.isReadable()) {
-        int toRead = page.readableBytes();
-        if (toRead >= pageBuffer.length) {
-          pageBuffer = new byte[toRead + flushCutOffBytes];
-        }
-        page.readBytes(pageBuffer, 0, toRead);
-        dos.write(pageBuffer, 0, toRead);
+  /** internal: the requested action will be notified once committed */
+  private void pending(Runnable notification) {
+    if (notifications.size() == 0) {
+      pendingBatch = metrics.commit_to_notify.start();
+      if (maxCommitLatencyNanos > 0 && cancelScheduledFlush == null) {
+        cancelScheduledFlush = executor.scheduleNano(new NamedRunnable("dls-commit") {
+          @Override
+          public void execute() throws Exception {
+            cancelScheduledFlush = null;
+            metrics.flush_by_latency.run();
+            flush(false);
+          }
+        }, maxCommitLatencyNanos);
       }
     }
-    return true;
+    notifications.add(notification);
   }
 
   /** how many bytes are available to allocate */
@@ -213,7 +607,7 @@ public class DurableListStore {
     }
 
     // track the final notification
-    this.notifications.add(notification);
+    pending(notification);
 
     // walk the regions allocated and the bytes
     Iterator<Region> whereIt = wheres.iterator();
@@ -226,6 +620,7 @@ public class DurableListStore {
       EventCodec.route(Unpooled.wrappedBuffer(bytes), walker);
       storage.write(where, bytes);
       lastSize = index.append(id, new AnnotatedRegion(where.position, where.size, walker.seq, walker.assetBytes));
+      dirty(id);
       new Append(id, where.position, bytes, seq, assetBytes).write(buffer);
     }
 
@@ -239,8 +634,16 @@ public class DurableListStore {
   public void flush(boolean forceCutOver) {
     try {
       metrics.flush.run();
+      if (cancelScheduledFlush != null) {
+        cancelScheduledFlush.run();
+        cancelScheduledFlush = null;
+      }
+      metrics.batch_size.set(notifications.size());
+      metrics.batch_bytes.set(buffer.readableBytes());
       if (writePage(output, buffer)) {
-        output.flush();
+        RequestResponseMonitor.RequestResponseMonitorInstance fsync = metrics.fsync.start();
+        output.force(false);
+        fsync.success();
       }
       buffer.resetReaderIndex();
       buffer.resetWriterIndex();
@@ -254,9 +657,14 @@ public class DurableListStore {
         ArrayList<Runnable> notificationClone = new ArrayList<>(notifications);
         notifications.clear();
 
+        RequestResponseMonitor.RequestResponseMonitorInstance batch = pendingBatch;
+        pendingBatch = null;
         for (Runnable notification : notificationClone) {
           notification.run();
         }
+        if (batch != null) {
+          batch.success();
+        }
       }
     } catch (IOException ex) {
       LOGGER.error("critical-exception:", ex);
@@ -264,12 +672,15 @@ public class DurableListStore {
     }
   }
 
-  /** internal: force everything to flush, prepare a new file, the move the new file in place, and open it */
+  /** internal: force everything to flush, prepare a new file (with a checkpoint), the move the new file in place, and open it */
   private void cutOver() throws IOException {
     storage.flush();
     output.close();
-    File newFile = prepare();
-    Files.move(newFile.toPath(), new File(walRoot, "WAL").toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    install(prepare());
+    for (File replaced : garbage) {
+      replaced.delete();
+    }
+    garbage.clear();
     openLogForWriting();
   }
 
@@ -279,9 +690,10 @@ public class DurableListStore {
       // we are out of space
       return null;
     }
-    this.notifications.add(notification);
+    pending(notification);
     storage.write(where, bytes);
     int size = index.append(id, new AnnotatedRegion(where.position, where.size, seq, assetBytes));
+    dirty(id);
     new Append(id, where.position, bytes, seq, assetBytes).write(buffer);
     if (buffer.writerIndex() > flushCutOffBytes) {
       // the buffer is full, so flush it
@@ -296,8 +708,7 @@ public class DurableListStore {
     int at = 0;
     while (it.hasNext()) {
       AnnotatedRegion region = it.next();
-      byte[] mem = storage.read(region);
-      streamback.next(at, mem, region.seq, region.assetBytes);
+      streamback.next(at, storage.slice(region), region.seq, region.assetBytes);
       at++;
     }
     streamback.finished();
@@ -307,8 +718,9 @@ public class DurableListStore {
   public boolean trim(long id, int count, Runnable notification) {
     ArrayList<AnnotatedRegion> regions = index.trim(id, count);
     if (regions != null && regions.size() > 0) {
-      this.notifications.add(notification);
+      pending(notification);
       new Trim(id, regions.size()).write(buffer);
+      dirty(id);
       for (Region region : regions) {
         heap.free(region);
       }
@@ -328,7 +740,8 @@ public class DurableListStore {
         heap.free(region);
       }
       new Delete(id).write(buffer);
-      this.notifications.add(notification);
+      dirty(id);
+      pending(notification);
       if (buffer.writerIndex() > flushCutOffBytes) {
         flush(false);
       }
@@ -344,8 +757,17 @@ public class DurableListStore {
   }
 
   public void shutdown() throws IOException {
-    output.writeInt(0);
-    output.flush();
+    if (cancelScheduledFlush != null) {
+      cancelScheduledFlush.run();
+      cancelScheduledFlush = null;
+    }
+    ByteBuffer end = ByteBuffer.allocate(4);
+    end.putInt(0);
+    end.flip();
+    while (end.hasRemaining()) {
+      output.write(end);
+    }
+    output.force(false);
     output.close();
     storage.flush();
     storage.close();
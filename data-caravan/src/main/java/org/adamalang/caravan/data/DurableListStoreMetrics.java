@@ -9,12 +9,32 @@
  */
 package org.adamalang.caravan.data;
 
+import org.adamalang.common.metrics.Inflight;
 import org.adamalang.common.metrics.MetricsFactory;
+import org.adamalang.common.metrics.RequestResponseMonitor;
 
 public class DurableListStoreMetrics {
   public final Runnable flush;
+  public final Runnable flush_by_latency;
+  public final Inflight batch_size;
+  public final Inflight batch_bytes;
+  public final RequestResponseMonitor fsync;
+  public final RequestResponseMonitor commit_to_notify;
+  public final RequestResponseMonitor checkpoint;
+  public final Inflight checkpoint_pages;
+  public final RequestResponseMonitor recovery;
+  public final Inflight recovery_mb_per_second;
 
   public DurableListStoreMetrics(MetricsFactory factory) {
     this.flush = factory.counter("dls_flush");
+    this.flush_by_latency = factory.counter("dls_flush_by_latency");
+    this.batch_size = factory.inflight("dls_batch_size");
+    this.batch_bytes = factory.inflight("dls_batch_bytes");
+    this.fsync = factory.makeRequestResponseMonitor("dls_fsync");
+    this.commit_to_notify = factory.makeRequestResponseMonitor("dls_commit_to_notify");
+    this.checkpoint = factory.makeRequestResponseMonitor("dls_checkpoint");
+    this.checkpoint_pages = factory.inflight("dls_checkpoint_pages");
+    this.recovery = factory.makeRequestResponseMonitor("dls_recovery");
+    this.recovery_mb_per_second = factory.inflight("dls_recovery_mb_per_second");
   }
 }
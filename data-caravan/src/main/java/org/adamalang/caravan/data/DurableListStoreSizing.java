@@ -18,7 +18,10 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 
-/** Setup the heap and storage for very large data durable list store */
+/**
+ * Setup the heap and storage for very large data durable list store. The storage is a single file mapped in 1GB segments; however,
+ * stores created before segmented storage (which are a sequence of files each mapped once) continue to use the prior layout.
+ */
 public class DurableListStoreSizing {
   private static final long SIZE_CUT_OFF = 1024 * 1024 * 1024;
   public final Heap heap;
@@ -27,13 +30,16 @@ public class DurableListStoreSizing {
   public DurableListStoreSizing(long totalSize, File base) throws IOException {
     ArrayList<Heap> heaps = new ArrayList<>();
     ArrayList<Storage> storages = new ArrayList<>();
+    boolean legacy = legacyFileOf(base, "PRIME").exists() || legacyFileOf(base, "0").exists();
 
     long size = totalSize;
     if (size >= SIZE_CUT_OFF) {
       heaps.add(new LimitHeap(new IndexedHeap(SIZE_CUT_OFF / 4), 8196));
       heaps.add(new LimitHeap(new IndexedHeap(SIZE_CUT_OFF / 4), 4 * 8196));
       heaps.add(new IndexedHeap(SIZE_CUT_OFF / 2));
-      storages.add(new MemoryMappedFileStorage(new File(base.getParentFile(), base.getName() + "-PRIME"), SIZE_CUT_OFF));
+      if (legacy) {
+        storages.add(new MemoryMappedFileStorage(legacyFileOf(base, "PRIME"), SIZE_CUT_OFF));
+      }
       size -= SIZE_CUT_OFF;
     }
     int k = 0;
@@ -44,11 +50,23 @@ public class DurableListStoreSizing {
       }
       size -= sizeToUse;
       heaps.add(new IndexedHeap(sizeToUse));
-      storages.add(new MemoryMappedFileStorage(new File(base.getParentFile(), base.getName() + "-" + k), sizeToUse));
+      if (legacy) {
+        storages.add(new MemoryMappedFileStorage(legacyFileOf(base, "" + k), sizeToUse));
+      }
       k++;
     }
 
     this.heap = new SequenceHeap(heaps.toArray(new Heap[heaps.size()]));
-    this.storage = new SequenceStorage(storages.toArray(new Storage[storages.size()]));
+    if (legacy) {
+      this.storage = new SequenceStorage(storages.toArray(new Storage[storages.size()]));
+    } else {
+      // the heaps never straddle a segment since they are cut at the same boundaries
+      this.storage = new SegmentedMemoryMappedFileStorage(base, totalSize, SIZE_CUT_OFF);
+    }
+  }
+
+  /** internal: the files used by the sequence of independently mapped storages */
+  private static File legacyFileOf(File base, String suffix) {
+    return new File(base.getParentFile(), base.getName() + "-" + suffix);
   }
 }
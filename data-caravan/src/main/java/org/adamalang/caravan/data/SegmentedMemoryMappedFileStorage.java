@@ -0,0 +1,130 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.data;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.adamalang.caravan.index.Region;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** implementation of a Storage using a memory mapped file which is mapped in segments (stripes) such that the file can exceed 2GB */
+public class SegmentedMemoryMappedFileStorage implements Storage {
+  public static final long DEFAULT_SEGMENT_SIZE = 1024L * 1024L * 1024L;
+  private final RandomAccessFile storage;
+  private final MappedByteBuffer[] segments;
+  private final long segmentSize;
+  private final long size;
+  private final boolean[] dirty;
+
+  public SegmentedMemoryMappedFileStorage(File storeFile, long size) throws IOException {
+    this(storeFile, size, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public SegmentedMemoryMappedFileStorage(File storeFile, long size, long segmentSize) throws IOException {
+    if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+      throw new IOException("segment size must be within (0, 2GB)");
+    }
+    this.storage = new RandomAccessFile(storeFile, "rw");
+    storage.setLength(size);
+    this.size = size;
+    this.segmentSize = segmentSize;
+    int count = (int) ((size + segmentSize - 1) / segmentSize);
+    this.segments = new MappedByteBuffer[count];
+    this.dirty = new boolean[count];
+    FileChannel channel = storage.getChannel();
+    for (int k = 0; k < count; k++) {
+      long start = k * segmentSize;
+      segments[k] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(segmentSize, size - start));
+    }
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  /** how many segments are mapped */
+  public int segments() {
+    return segments.length;
+  }
+
+  /** internal: a view of the given segment covering [offset, offset + length) */
+  private ByteBuffer view(int segment, int offset, int length) {
+    ByteBuffer view = segments[segment].duplicate();
+    view.position(offset);
+    view.limit(offset + length);
+    return view;
+  }
+
+  @Override
+  public void write(Region region, byte[] mem) {
+    long at = region.position;
+    int written = 0;
+    while (written < mem.length) {
+      int segment = (int) (at / segmentSize);
+      int offset = (int) (at % segmentSize);
+      int length = Math.min(mem.length - written, segments[segment].capacity() - offset);
+      view(segment, offset, length).put(mem, written, length);
+      dirty[segment] = true;
+      written += length;
+      at += length;
+    }
+  }
+
+  @Override
+  public byte[] read(Region region) {
+    byte[] mem = new byte[region.size];
+    slice(region).readBytes(mem);
+    return mem;
+  }
+
+  @Override
+  public ByteBuf slice(Region region) {
+    int segment = (int) (region.position / segmentSize);
+    int offset = (int) (region.position % segmentSize);
+    if (offset + region.size <= segments[segment].capacity()) {
+      return Unpooled.wrappedBuffer(view(segment, offset, region.size));
+    }
+    // the region straddles a segment boundary, so we stitch the views together without copying
+    ByteBuffer[] parts = new ByteBuffer[(int) ((offset + (long) region.size + segmentSize - 1) / segmentSize)];
+    long at = region.position;
+    int remaining = region.size;
+    for (int k = 0; k < parts.length; k++) {
+      int s = (int) (at / segmentSize);
+      int o = (int) (at % segmentSize);
+      int length = Math.min(remaining, segments[s].capacity() - o);
+      parts[k] = view(s, o, length);
+      remaining -= length;
+      at += length;
+    }
+    return Unpooled.wrappedBuffer(parts);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    for (int k = 0; k < segments.length; k++) {
+      if (dirty[k]) {
+        segments[k].force();
+        dirty[k] = false;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    storage.close();
+  }
+}
@@ -9,6 +9,7 @@
  */
 package org.adamalang.caravan.data;
 
+import io.netty.buffer.ByteBuf;
 import org.adamalang.caravan.index.Region;
 
 import java.io.IOException;
@@ -56,6 +57,18 @@ public class SequenceStorage implements Storage {
     return null;
   }
 
+  @Override
+  public ByteBuf slice(Region region) {
+    long at = region.position;
+    for (Storage storage : storages) {
+      if (at < storage.size()) {
+        return storage.slice(new Region(at, region.size));
+      }
+      at -= storage.size();
+    }
+    return null;
+  }
+
   @Override
   public void flush() throws IOException {
     for (Storage storage : storages) {
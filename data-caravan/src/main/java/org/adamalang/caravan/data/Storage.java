@@ -9,6 +9,8 @@
  */
 package org.adamalang.caravan.data;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.index.Region;
 
 import java.io.IOException;
@@ -25,6 +27,11 @@ public interface Storage {
   /** read a byte array from the given region */
   byte[] read(Region region);
 
+  /** read the given region as a buffer; implementations may hand out a view of the storage (without copying) which is only valid until the region is written again */
+  default ByteBuf slice(Region region) {
+    return Unpooled.wrappedBuffer(read(region));
+  }
+
   /** flush all writes to disk */
   void flush() throws IOException;
 
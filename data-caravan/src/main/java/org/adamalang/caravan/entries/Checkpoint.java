@@ -0,0 +1,66 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.contracts.WALEntry;
+
+import java.util.Arrays;
+
+/**
+ * the manifest of an incremental checkpoint: for each page of the index, the generation of the checkpoint file holding the page
+ * (-1 for an empty page) and the offset of the page within that file
+ */
+public class Checkpoint implements WALEntry {
+  public final long generation;
+  public final long[] pages;
+  public final long[] offsets;
+
+  public Checkpoint(long generation, long[] pages, long[] offsets) {
+    this.generation = generation;
+    this.pages = pages;
+    this.offsets = offsets;
+  }
+
+  public static Checkpoint readAfterTypeId(ByteBuf buf) {
+    long generation = buf.readLongLE();
+    int count = buf.readIntLE();
+    long[] pages = new long[count];
+    long[] offsets = new long[count];
+    Arrays.fill(pages, -1);
+    int live = buf.readIntLE();
+    for (int k = 0; k < live; k++) {
+      int page = buf.readIntLE();
+      pages[page] = buf.readLongLE();
+      offsets[page] = buf.readLongLE();
+    }
+    return new Checkpoint(generation, pages, offsets);
+  }
+
+  public void write(ByteBuf buf) {
+    buf.writeByte(0x77);
+    buf.writeLongLE(generation);
+    buf.writeIntLE(pages.length);
+    int live = 0;
+    for (long page : pages) {
+      if (page >= 0) {
+        live++;
+      }
+    }
+    buf.writeIntLE(live);
+    for (int page = 0; page < pages.length; page++) {
+      if (pages[page] >= 0) {
+        buf.writeIntLE(page);
+        buf.writeLongLE(pages[page]);
+        buf.writeLongLE(offsets[page]);
+      }
+    }
+  }
+}
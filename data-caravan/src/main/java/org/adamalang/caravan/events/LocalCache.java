@@ -9,6 +9,7 @@
  */
 package org.adamalang.caravan.events;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
@@ -27,12 +28,20 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
   public SeqString document;
   private int itemsInRemote;
   private int seq;
+  private long memory;
+
   public LocalCache() {
     this.document = null;
     this.redos = new ArrayList<>();
     this.undos = new ArrayDeque<>();
     this.seq = 0;
     this.itemsInRemote = 0;
+    this.memory = 0;
+  }
+
+  /** estimate the memory held by the document and its history */
+  public long memory() {
+    return memory;
   }
 
   public int seq() {
@@ -41,8 +50,13 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
 
   @Override
   public void next(int appendIndex, byte[] value, int seq, long assetBytes) throws Exception {
+    next(appendIndex, Unpooled.wrappedBuffer(value), seq, assetBytes);
+  }
+
+  @Override
+  public void next(int appendIndex, ByteBuf value, int seq, long assetBytes) throws Exception {
     this.currentAppendIndex = appendIndex;
-    EventCodec.route(Unpooled.wrappedBuffer(value), this);
+    EventCodec.route(value, this);
     this.itemsInRemote++;
   }
 
@@ -58,15 +72,21 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
 
   @Override
   public void handle(Events.Snapshot payload) {
+    if (document != null) {
+      memory -= document.memory();
+    }
     document = new SeqString(payload.seq, payload.document);
+    memory += document.memory();
     Iterator<SeqString> it = redos.iterator();
     while (it.hasNext()) {
-      if (it.next().seq + payload.history <= payload.seq) {
+      SeqString redo = it.next();
+      if (redo.seq + payload.history <= payload.seq) {
         it.remove();
+        memory -= redo.memory();
       }
     }
     while (undos.size() > payload.history) {
-      undos.removeLast();
+      memory -= undos.removeLast().memory();
     }
   }
 
@@ -79,8 +99,11 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
 
   @Override
   public void handle(Events.Change change) {
-    redos.add(new SeqString(change.seq_end, change.redo));
-    undos.addFirst(new SeqString(change.seq_begin, change.undo));
+    SeqString redo = new SeqString(change.seq_end, change.redo);
+    SeqString undo = new SeqString(change.seq_begin, change.undo);
+    redos.add(redo);
+    undos.addFirst(undo);
+    memory += redo.memory() + undo.memory();
     seq = change.seq_end;
   }
 
@@ -183,5 +206,9 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
       this.seq = seq;
       this.data = data;
     }
+
+    private long memory() {
+      return 40 + (data != null ? data.length() * 2L : 0);
+    }
   }
 }
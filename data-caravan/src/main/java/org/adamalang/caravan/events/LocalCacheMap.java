@@ -0,0 +1,114 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.events;
+
+import org.adamalang.caravan.CaravanMetrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a map of document id to LocalCache which is bounded by a memory budget; the least recently used documents are evicted once
+ * the budget is exceeded. Since the durable list store holds everything, an evicted document is simply rebuilt on the next load.
+ * This is not thread safe, and it is meant to be used within the caravan's executor.
+ */
+public class LocalCacheMap {
+  private final CaravanMetrics metrics;
+  private final long budget;
+  private final LinkedHashMap<Long, Entry> map;
+  private long bytes;
+
+  public LocalCacheMap(CaravanMetrics metrics, long budget) {
+    this.metrics = metrics;
+    this.budget = budget;
+    this.map = new LinkedHashMap<>(64, 0.75f, true);
+    this.bytes = 0;
+  }
+
+  /** get the cache for the given id (and mark it as recently used) */
+  public LocalCache get(long id) {
+    Entry entry = map.get(id);
+    if (entry == null) {
+      metrics.cache_miss.run();
+      return null;
+    }
+    metrics.cache_hit.run();
+    return entry.cache;
+  }
+
+  /** put the cache into the map */
+  public void put(long id, LocalCache cache) {
+    Entry entry = new Entry(cache);
+    Entry prior = map.put(id, entry);
+    if (prior != null) {
+      bytes -= prior.weight;
+    }
+    bytes += entry.weight;
+    evict();
+  }
+
+  /** remove the cache for the given id */
+  public void remove(long id) {
+    Entry prior = map.remove(id);
+    if (prior != null) {
+      bytes -= prior.weight;
+      publish();
+    }
+  }
+
+  /** the cache for the given id may have changed size, so weigh it again */
+  public void weigh(long id, LocalCache cache) {
+    Entry entry = map.get(id);
+    if (entry != null && entry.cache == cache) {
+      long weight = cache.memory();
+      bytes += weight - entry.weight;
+      entry.weight = weight;
+      evict();
+    }
+  }
+
+  /** how many documents are cached */
+  public int size() {
+    return map.size();
+  }
+
+  /** how many bytes are held by the cache */
+  public long bytes() {
+    return bytes;
+  }
+
+  /** internal: evict the least recently used documents until we are within budget; the most recent document is always kept */
+  private void evict() {
+    Iterator<Map.Entry<Long, Entry>> it = map.entrySet().iterator();
+    while (bytes > budget && map.size() > 1 && it.hasNext()) {
+      Entry eldest = it.next().getValue();
+      it.remove();
+      bytes -= eldest.weight;
+      metrics.cache_evict.run();
+    }
+    publish();
+  }
+
+  private void publish() {
+    metrics.cache_bytes.set((int) Math.min(Integer.MAX_VALUE, bytes));
+    metrics.cache_documents.set(map.size());
+  }
+
+  private static class Entry {
+    private final LocalCache cache;
+    private long weight;
+
+    private Entry(LocalCache cache) {
+      this.cache = cache;
+      this.weight = cache.memory();
+    }
+  }
+}
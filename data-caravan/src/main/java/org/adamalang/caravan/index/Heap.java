@@ -30,4 +30,7 @@ public interface Heap {
 
   /** load the heap state from the given byte buffer */
   void load(ByteBuf buf);
+
+  /** reset the heap such that all space is allocated (i.e. nothing is available); free is then used to rebuild the heap */
+  void exhaust();
 }
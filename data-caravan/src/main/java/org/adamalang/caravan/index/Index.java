@@ -13,104 +13,386 @@ import io.netty.buffer.ByteBuf;
 
 import java.util.*;
 
-/** maps longs to lists of regions */
+/**
+ * maps longs to lists of regions. The index is split into a power of two number of pages (by a hash of the id) where each page
+ * is an open-addressed table (linear probing) keyed by primitive longs; each id's regions are packed into a long[] with three
+ * longs per region (position, size and seq, asset bytes) and regions are only materialized as objects when handed out. Pages
+ * allow a snapshot of a single page without scanning the others.
+ */
 public class Index {
-  private final HashMap<Long, ArrayList<AnnotatedRegion>> index;
+  private static final int LONGS_PER_REGION = 3;
+  private final Table[] tables;
 
   public Index() {
-    this.index = new HashMap<>();
+    this(1);
+  }
+
+  /** create an index with the given (power of two) number of pages */
+  public Index(int pages) {
+    this.tables = new Table[pages];
+    for (int page = 0; page < pages; page++) {
+      tables[page] = new Table();
+    }
+  }
+
+  /** a page of the index: an open-addressed table */
+  private static class Table {
+    private long[] keys;
+    private long[][] packed;
+    private int[] heads;
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    private Table() {
+      allocate(16);
+    }
+
+    private void allocate(int capacity) {
+      this.keys = new long[capacity];
+      this.packed = new long[capacity][];
+      this.heads = new int[capacity];
+      this.counts = new int[capacity];
+      this.mask = capacity - 1;
+      this.size = 0;
+    }
+
+    /** find the slot of the given id, or -1 */
+    private int find(long id) {
+      int slot = LongIntMap.hash(id) & mask;
+      while (packed[slot] != null) {
+        if (keys[slot] == id) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    /** find or create the slot for the given id */
+    private int findOrCreate(long id) {
+      int slot = LongIntMap.hash(id) & mask;
+      while (packed[slot] != null) {
+        if (keys[slot] == id) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      if ((size + 1) * 4 >= packed.length * 3) {
+        resize();
+        return findOrCreate(id);
+      }
+      keys[slot] = id;
+      packed[slot] = new long[LONGS_PER_REGION];
+      heads[slot] = 0;
+      counts[slot] = 0;
+      size++;
+      return slot;
+    }
+
+    private void resize() {
+      long[] oldKeys = keys;
+      long[][] oldPacked = packed;
+      int[] oldHeads = heads;
+      int[] oldCounts = counts;
+      allocate(oldPacked.length * 2);
+      for (int k = 0; k < oldPacked.length; k++) {
+        if (oldPacked[k] != null) {
+          int slot = LongIntMap.hash(oldKeys[k]) & mask;
+          while (packed[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[k];
+          packed[slot] = oldPacked[k];
+          heads[slot] = oldHeads[k];
+          counts[slot] = oldCounts[k];
+          size++;
+        }
+      }
+    }
+
+    /** remove the slot by shifting back any entries which probed past it */
+    private void removeSlot(int hole) {
+      int slot = hole;
+      while (true) {
+        slot = (slot + 1) & mask;
+        if (packed[slot] == null) {
+          break;
+        }
+        int home = LongIntMap.hash(keys[slot]) & mask;
+        if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+          keys[hole] = keys[slot];
+          packed[hole] = packed[slot];
+          heads[hole] = heads[slot];
+          counts[hole] = counts[slot];
+          hole = slot;
+        }
+      }
+      packed[hole] = null;
+      size--;
+    }
+
+    /** write the id and regions held by every slot */
+    private void writeAll(ByteBuf buf) {
+      for (int slot = 0; slot < packed.length; slot++) {
+        if (packed[slot] != null) {
+          writeSlot(buf, slot);
+        }
+      }
+    }
+
+    /** write the id and regions held by the slot */
+    private void writeSlot(ByteBuf buf, int slot) {
+      long[] regions = packed[slot];
+      buf.writeBoolean(true);
+      buf.writeLongLE(keys[slot]);
+      int count = counts[slot];
+      buf.writeIntLE(count);
+      int offset = heads[slot] * LONGS_PER_REGION;
+      for (int k = 0; k < count; k++) {
+        long sizeAndSeq = regions[offset + 1];
+        buf.writeLongLE(regions[offset]);
+        buf.writeIntLE((int) (sizeAndSeq >>> 32));
+        buf.writeIntLE((int) sizeAndSeq);
+        buf.writeLongLE(regions[offset + 2]);
+        offset += LONGS_PER_REGION;
+      }
+    }
+  }
+
+  private static AnnotatedRegion regionAt(long[] regions, int at) {
+    int offset = at * LONGS_PER_REGION;
+    long sizeAndSeq = regions[offset + 1];
+    return new AnnotatedRegion(regions[offset], (int) (sizeAndSeq >>> 32), (int) sizeAndSeq, regions[offset + 2]);
+  }
+
+  /** internal: the page holding the id */
+  private Table tableOf(long id) {
+    return tables[pageOf(id, tables.length)];
   }
 
   /** append a region to an id */
   public int append(long id, AnnotatedRegion region) {
-    ArrayList<AnnotatedRegion> regions = index.get(id);
-    if (regions == null) {
-      regions = new ArrayList<>();
-      index.put(id, regions);
+    Table table = tableOf(id);
+    int slot = table.findOrCreate(id);
+    long[] regions = table.packed[slot];
+    int head = table.heads[slot];
+    int count = table.counts[slot];
+    if ((head + count + 1) * LONGS_PER_REGION > regions.length) {
+      // compact the trimmed head away in place if at least half of the array is wasted, otherwise double
+      long[] next = head >= count ? regions : new long[(count + 1) * LONGS_PER_REGION * 2];
+      System.arraycopy(regions, head * LONGS_PER_REGION, next, 0, count * LONGS_PER_REGION);
+      regions = next;
+      table.packed[slot] = regions;
+      head = 0;
+      table.heads[slot] = 0;
     }
-    regions.add(region);
-    return regions.size();
+    int offset = (head + count) * LONGS_PER_REGION;
+    regions[offset] = region.position;
+    regions[offset + 1] = ((long) region.size << 32) | (region.seq & 0xFFFFFFFFL);
+    regions[offset + 2] = region.assetBytes;
+    table.counts[slot] = count + 1;
+    return count + 1;
   }
 
   /** return the regions bound to an object */
   public Iterator<AnnotatedRegion> get(long id) {
-    List<AnnotatedRegion> regions = index.get(id);
-    if (regions == null) {
-      regions = Collections.emptyList();
+    Table table = tableOf(id);
+    int slot = table.find(id);
+    if (slot < 0) {
+      return Collections.emptyIterator();
     }
-    return regions.iterator();
+    final long[] regions = table.packed[slot];
+    final int head = table.heads[slot];
+    final int end = head + table.counts[slot];
+    return new Iterator<>() {
+      int at = head;
+
+      @Override
+      public boolean hasNext() {
+        return at < end;
+      }
+
+      @Override
+      public AnnotatedRegion next() {
+        if (at >= end) {
+          throw new NoSuchElementException();
+        }
+        return regionAt(regions, at++);
+      }
+    };
   }
 
   /** does the index contain the given id */
   public boolean exists(long id) {
-    return index.containsKey(id);
+    return tableOf(id).find(id) >= 0;
   }
 
   /** delete an object by id; return the regions allocated to it */
   public ArrayList<AnnotatedRegion> delete(long id) {
-    return index.remove(id);
+    Table table = tableOf(id);
+    int slot = table.find(id);
+    if (slot < 0) {
+      return null;
+    }
+    long[] regions = table.packed[slot];
+    int head = table.heads[slot];
+    int count = table.counts[slot];
+    ArrayList<AnnotatedRegion> result = new ArrayList<>(count);
+    for (int k = 0; k < count; k++) {
+      result.add(regionAt(regions, head + k));
+    }
+    table.removeSlot(slot);
+    return result;
   }
 
   /** trim the head of an object (by id) the given count; returned the returned regions */
   public ArrayList<AnnotatedRegion> trim(long id, int count) {
-    ArrayList<AnnotatedRegion> regions = index.get(id);
-    if (regions != null) {
-      ArrayList<AnnotatedRegion> trimmed = new ArrayList<>();
-      Iterator<AnnotatedRegion> it = regions.iterator();
-      int k = 0;
-      while (k < count && it.hasNext()) {
-        AnnotatedRegion region = it.next();
-        trimmed.add(region);
-        it.remove();
-        k++;
-      }
-      return trimmed;
+    Table table = tableOf(id);
+    int slot = table.find(id);
+    if (slot < 0) {
+      return null;
     }
-    return null;
+    long[] regions = table.packed[slot];
+    int head = table.heads[slot];
+    int toTrim = Math.max(0, Math.min(count, table.counts[slot]));
+    ArrayList<AnnotatedRegion> trimmed = new ArrayList<>(toTrim);
+    for (int k = 0; k < toTrim; k++) {
+      trimmed.add(regionAt(regions, head + k));
+    }
+    table.counts[slot] -= toTrim;
+    table.heads[slot] = table.counts[slot] == 0 ? 0 : head + toTrim;
+    return trimmed;
   }
 
   /** take a snapshot of the index */
   public void snapshot(ByteBuf buf) {
-    for (Map.Entry<Long, ArrayList<AnnotatedRegion>> entry : index.entrySet()) {
-      buf.writeBoolean(true);
-      buf.writeLongLE(entry.getKey());
-      buf.writeIntLE(entry.getValue().size());
-      for (AnnotatedRegion region : entry.getValue()) {
-        buf.writeLongLE(region.position);
-        buf.writeIntLE(region.size);
-        buf.writeIntLE(region.seq);
-        buf.writeLongLE(region.assetBytes);
-      }
+    for (Table table : tables) {
+      table.writeAll(buf);
     }
     buf.writeBoolean(false);
   }
 
   /** load an index from a snapshot */
   public void load(ByteBuf buf) {
-    index.clear();
+    for (Table table : tables) {
+      table.allocate(16);
+    }
+    loadPage(buf);
+  }
+
+  /** load a snapshot (or a page of a snapshot) into the index without clearing it */
+  public void loadPage(ByteBuf buf) {
     while (buf.readBoolean()) {
       long id = buf.readLongLE();
       int count = buf.readIntLE();
-      ArrayList<AnnotatedRegion> regions = new ArrayList<>(count);
+      Table table = tableOf(id);
+      int slot = table.findOrCreate(id);
+      long[] regions = new long[Math.max(1, count) * LONGS_PER_REGION];
       for (int k = 0; k < count; k++) {
-        long start = buf.readLongLE();
+        int offset = k * LONGS_PER_REGION;
+        regions[offset] = buf.readLongLE();
         int size = buf.readIntLE();
         int seq = buf.readIntLE();
-        long assetBytes = buf.readLongLE();
-        AnnotatedRegion region = new AnnotatedRegion(start, size, seq, assetBytes);
-        regions.add(region);
+        regions[offset + 1] = ((long) size << 32) | (seq & 0xFFFFFFFFL);
+        regions[offset + 2] = buf.readLongLE();
+      }
+      table.packed[slot] = regions;
+      table.heads[slot] = 0;
+      table.counts[slot] = count;
+    }
+  }
+
+  /** which page (of a power of two number of pages) the id belongs to; this uses the top bits of the hash since the tables use the bottom bits */
+  public static int pageOf(long id, int pages) {
+    if (pages == 1) {
+      return 0;
+    }
+    return LongIntMap.hash(id) >>> (32 - Integer.numberOfTrailingZeros(pages));
+  }
+
+  /** how many pages the index is split into */
+  public int pages() {
+    return tables.length;
+  }
+
+  /** take a snapshot of a single page; this only scans the ids within the page and the snapshot is loadable via loadPage */
+  public void snapshotPage(int page, ByteBuf buf) {
+    tables[page].writeAll(buf);
+    buf.writeBoolean(false);
+  }
+
+  /** rebuild the heap such that the free space is exactly the space not held by a region within the index */
+  public void rebuild(Heap heap) {
+    int total = 0;
+    for (Table table : tables) {
+      for (int slot = 0; slot < table.packed.length; slot++) {
+        if (table.packed[slot] != null) {
+          total += table.counts[slot];
+        }
       }
-      index.put(id, regions);
+    }
+    long[] positions = new long[total];
+    LongIntMap sizes = new LongIntMap(total);
+    int at = 0;
+    for (Table table : tables) {
+      for (int slot = 0; slot < table.packed.length; slot++) {
+        long[] regions = table.packed[slot];
+        if (regions != null) {
+          int offset = table.heads[slot] * LONGS_PER_REGION;
+          for (int k = 0; k < table.counts[slot]; k++) {
+            positions[at++] = regions[offset];
+            // empty regions may share a position with another region, so keep the largest
+            int size = (int) (regions[offset + 1] >>> 32);
+            if (size > sizes.get(regions[offset])) {
+              sizes.put(regions[offset], size);
+            }
+            offset += LONGS_PER_REGION;
+          }
+        }
+      }
+    }
+    Arrays.sort(positions);
+    heap.exhaust();
+    long cursor = 0;
+    for (long position : positions) {
+      freeGap(heap, cursor, position);
+      cursor = Math.max(cursor, position + Math.max(0, sizes.get(position)));
+    }
+    freeGap(heap, cursor, heap.max());
+  }
+
+  /** internal: free the gap [start, end) in chunks which fit a region */
+  private static void freeGap(Heap heap, long start, long end) {
+    while (start < end) {
+      int size = (int) Math.min(end - start, Integer.MAX_VALUE);
+      heap.free(new Region(start, size));
+      start += size;
     }
   }
 
   @Override
   public String toString() {
+    int size = 0;
+    for (Table table : tables) {
+      size += table.size;
+    }
+    long[] ids = new long[size];
+    int at = 0;
+    for (Table table : tables) {
+      for (int slot = 0; slot < table.packed.length; slot++) {
+        if (table.packed[slot] != null) {
+          ids[at++] = table.keys[slot];
+        }
+      }
+    }
+    Arrays.sort(ids);
     StringBuilder sb = new StringBuilder();
-    for (Map.Entry<Long, ArrayList<AnnotatedRegion>> entry : index.entrySet()) {
-      sb.append(entry.getKey()).append("=");
-      for (AnnotatedRegion region : entry.getValue()) {
-        sb.append(region.toString());
+    for (long id : ids) {
+      sb.append(id).append("=");
+      Iterator<AnnotatedRegion> it = get(id);
+      while (it.hasNext()) {
+        sb.append(it.next().toString());
       }
       sb.append(";");
     }
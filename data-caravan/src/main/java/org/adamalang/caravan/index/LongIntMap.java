@@ -0,0 +1,137 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.index;
+
+import java.util.Arrays;
+
+/** an open-addressed (linear probing) map of long to non-negative int without boxing */
+public class LongIntMap {
+  private static final int EMPTY = -1;
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+
+  public LongIntMap() {
+    this(16);
+  }
+
+  public LongIntMap(int initialCapacity) {
+    int capacity = 16;
+    while (capacity < initialCapacity * 2) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(values, EMPTY);
+    this.mask = capacity - 1;
+    this.size = 0;
+  }
+
+  /** mix the bits of the key (the murmur3 finalizer) */
+  public static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  /** get the value for the key, or -1 if the key is not present */
+  public int get(long key) {
+    int slot = hash(key) & mask;
+    while (values[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return EMPTY;
+  }
+
+  /** put the value (which must be non-negative) for the key; returns the prior value or -1 */
+  public int put(long key, int value) {
+    int slot = hash(key) & mask;
+    while (values[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        int prior = values[slot];
+        values[slot] = value;
+        return prior;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (size * 4 >= values.length * 3) {
+      resize();
+    }
+    return EMPTY;
+  }
+
+  /** remove the key; returns the prior value or -1 */
+  public int remove(long key) {
+    int slot = hash(key) & mask;
+    while (values[slot] != EMPTY) {
+      if (keys[slot] == key) {
+        int prior = values[slot];
+        shiftBack(slot);
+        size--;
+        return prior;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return EMPTY;
+  }
+
+  /** internal: delete the slot by shifting back any entries which probed past it */
+  private void shiftBack(int hole) {
+    int slot = hole;
+    while (true) {
+      slot = (slot + 1) & mask;
+      if (values[slot] == EMPTY) {
+        break;
+      }
+      int home = hash(keys[slot]) & mask;
+      // can the entry at slot move into the hole (i.e. is the hole between its home and the slot)
+      if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+        keys[hole] = keys[slot];
+        values[hole] = values[slot];
+        hole = slot;
+      }
+    }
+    values[hole] = EMPTY;
+  }
+
+  private void resize() {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(oldValues.length * 2);
+    for (int k = 0; k < oldValues.length; k++) {
+      if (oldValues[k] != EMPTY) {
+        put(oldKeys[k], oldValues[k]);
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(values, EMPTY);
+    size = 0;
+  }
+}
@@ -11,47 +11,182 @@ package org.adamalang.caravan.index.heaps;
 
 import io.netty.buffer.ByteBuf;
 import org.adamalang.caravan.index.Heap;
+import org.adamalang.caravan.index.LongIntMap;
 import org.adamalang.caravan.index.Region;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Comparator;
 
+/**
+ * a best fit heap where free spaces live in primitive slots; the slots are indexed by their start (left), their end (right), and
+ * by (size, start) within an array backed treap such that asking for space is a ceiling query without boxing
+ */
 public class IndexedHeap implements Heap {
+  private static final int NIL = -1;
   public final long maximumSize;
-
-  private final HashMap<Long, FreeSpace> left;
-  private final HashMap<Long, FreeSpace> right;
-  private final TreeMap<Long, TreeMap<Long, FreeSpace>> sized;
+  private final LongIntMap left;
+  private final LongIntMap right;
+  private long[] starts;
+  private long[] sizes;
+  private int[] priorities;
+  private int[] lower;
+  private int[] higher;
+  private int[] unused;
+  private int unusedCount;
+  private int allocated;
+  private int root;
+  private long available;
+  private int seed;
 
   /** construct the heap as empty with the given maximum size available */
   public IndexedHeap(long maximumSize) {
     this.maximumSize = maximumSize;
-    this.left = new HashMap<>();
-    this.right = new HashMap<>();
-    this.sized = new TreeMap<>();
-    FreeSpace head = new FreeSpace();
-    head.start = 0;
-    head.size = maximumSize;
-    add(head);
+    this.left = new LongIntMap();
+    this.right = new LongIntMap();
+    this.seed = 0x2545F491;
+    reset();
+    add(0, maximumSize);
+  }
+
+  private void reset() {
+    this.starts = new long[16];
+    this.sizes = new long[16];
+    this.priorities = new int[16];
+    this.lower = new int[16];
+    this.higher = new int[16];
+    this.unused = new int[16];
+    this.unusedCount = 0;
+    this.allocated = 0;
+    this.root = NIL;
+    this.available = 0;
+    left.clear();
+    right.clear();
+  }
+
+  /** internal: grab a slot for a new free space */
+  private int slot() {
+    if (unusedCount > 0) {
+      return unused[--unusedCount];
+    }
+    if (allocated == starts.length) {
+      int capacity = allocated * 2;
+      starts = Arrays.copyOf(starts, capacity);
+      sizes = Arrays.copyOf(sizes, capacity);
+      priorities = Arrays.copyOf(priorities, capacity);
+      lower = Arrays.copyOf(lower, capacity);
+      higher = Arrays.copyOf(higher, capacity);
+      unused = Arrays.copyOf(unused, capacity);
+    }
+    return allocated++;
+  }
+
+  private int nextPriority() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 17;
+    seed ^= seed << 5;
+    return seed;
   }
 
-  private void add(FreeSpace space) {
-    left.put(space.start, space);
-    right.put(space.start + space.size, space);
-    TreeMap<Long, FreeSpace> bucket = sized.get(space.size);
-    if (bucket == null) {
-      bucket = new TreeMap<>();
-      sized.put(space.size, bucket);
+  /** internal: order slots by (size, start, slot) */
+  private int compare(int a, int b) {
+    int result = Long.compare(sizes[a], sizes[b]);
+    if (result == 0) {
+      result = Long.compare(starts[a], starts[b]);
+      if (result == 0) {
+        result = Integer.compare(a, b);
+      }
     }
-    bucket.put(space.start, space);
+    return result;
+  }
+
+  private int insert(int node, int slot) {
+    if (node == NIL) {
+      return slot;
+    }
+    if (compare(slot, node) < 0) {
+      lower[node] = insert(lower[node], slot);
+      if (priorities[lower[node]] > priorities[node]) {
+        int pivot = lower[node];
+        lower[node] = higher[pivot];
+        higher[pivot] = node;
+        return pivot;
+      }
+    } else {
+      higher[node] = insert(higher[node], slot);
+      if (priorities[higher[node]] > priorities[node]) {
+        int pivot = higher[node];
+        higher[node] = lower[pivot];
+        lower[pivot] = node;
+        return pivot;
+      }
+    }
+    return node;
+  }
+
+  private int delete(int node, int slot) {
+    if (node == slot) {
+      return merge(lower[node], higher[node]);
+    }
+    if (compare(slot, node) < 0) {
+      lower[node] = delete(lower[node], slot);
+    } else {
+      higher[node] = delete(higher[node], slot);
+    }
+    return node;
+  }
+
+  private int merge(int a, int b) {
+    if (a == NIL) {
+      return b;
+    }
+    if (b == NIL) {
+      return a;
+    }
+    if (priorities[a] > priorities[b]) {
+      higher[a] = merge(higher[a], b);
+      return a;
+    } else {
+      lower[b] = merge(a, lower[b]);
+      return b;
+    }
+  }
+
+  private void add(long start, long size) {
+    int slot = slot();
+    starts[slot] = start;
+    sizes[slot] = size;
+    priorities[slot] = nextPriority();
+    lower[slot] = NIL;
+    higher[slot] = NIL;
+    index(slot);
+  }
+
+  /** internal: make the slot findable */
+  private void index(int slot) {
+    left.put(starts[slot], slot);
+    right.put(starts[slot] + sizes[slot], slot);
+    lower[slot] = NIL;
+    higher[slot] = NIL;
+    root = insert(root, slot);
+    available += sizes[slot];
+  }
+
+  /** internal: make the slot unfindable (but keep the slot alive) */
+  private void unindex(int slot) {
+    left.remove(starts[slot]);
+    right.remove(starts[slot] + sizes[slot]);
+    root = delete(root, slot);
+    available -= sizes[slot];
+  }
+
+  private void release(int slot) {
+    unindex(slot);
+    unused[unusedCount++] = slot;
   }
 
   @Override
   public long available() {
-    long avail = 0;
-    for (FreeSpace free : left.values()) {
-      avail += free.size;
-    }
-    return avail;
+    return available;
   }
 
   @Override
@@ -61,124 +196,110 @@ public class IndexedHeap implements Heap {
 
   @Override
   public Region ask(int size) {
-    Map.Entry<Long, TreeMap<Long, FreeSpace>> bucket = sized.ceilingEntry((long) size);
-    if (bucket == null) {
+    // find the smallest (size, start) where the size is at least what was asked
+    int best = NIL;
+    int node = root;
+    while (node != NIL) {
+      if (sizes[node] >= size) {
+        best = node;
+        node = lower[node];
+      } else {
+        node = higher[node];
+      }
+    }
+    if (best == NIL) {
       return null;
     }
-    Map.Entry<Long, FreeSpace> first = bucket.getValue().firstEntry();
-    FreeSpace space = first.getValue();
-    remove(space);
-
-    Region region = new Region(space.start, size);
-    space.start += size;
-    space.size -= size;
-    add(space);
+    unindex(best);
+    Region region = new Region(starts[best], size);
+    starts[best] += size;
+    sizes[best] -= size;
+    index(best);
     return region;
   }
 
-  private void remove(FreeSpace space) {
-    left.remove(space.start);
-    right.remove(space.start + space.size);
-    TreeMap<Long, FreeSpace> bucket = sized.get(space.size);
-    bucket.remove(space.start);
-    if (bucket.size() == 0) {
-      sized.remove(space.size);
-    }
-  }
-
   @Override
   public void free(Region region) {
-    FreeSpace byLeft = left.get(region.position + region.size);
-    if (byLeft != null) {
-      remove(byLeft);
+    int byLeft = left.get(region.position + region.size);
+    if (byLeft >= 0) {
+      unindex(byLeft);
     }
-    FreeSpace byRight = right.get(region.position);
-    if (byRight != null) {
-      remove(byRight);
+    int byRight = right.get(region.position);
+    if (byRight >= 0) {
+      unindex(byRight);
     }
-    if (byLeft != null && byRight != null) {
+    if (byLeft >= 0 && byRight >= 0) {
       // ByRight + Region + ByLeft
-      FreeSpace newOne = new FreeSpace();
-      newOne.start = byRight.start;
-      newOne.size = byRight.size + region.size + byLeft.size;
-      add(newOne);
-    } else if (byLeft != null && byRight == null) {
+      sizes[byRight] += region.size + sizes[byLeft];
+      unused[unusedCount++] = byLeft;
+      index(byRight);
+    } else if (byLeft >= 0) {
       // __ + Region + ByLeft
-      byLeft.size += region.size;
-      byLeft.start -= region.size;
-      add(byLeft);
-    } else if (byLeft == null && byRight != null) {
+      sizes[byLeft] += region.size;
+      starts[byLeft] -= region.size;
+      index(byLeft);
+    } else if (byRight >= 0) {
       // ByRight + Region + __
-      byRight.size += region.size;
-      add(byRight);
+      sizes[byRight] += region.size;
+      index(byRight);
     } else {
       // __ + Region + __
-      FreeSpace newOne = new FreeSpace();
-      newOne.start = region.position;
-      newOne.size = region.size;
-      add(newOne);
+      add(region.position, region.size);
+    }
+  }
+
+  /** internal: the live slots ordered by their start */
+  private Integer[] liveByStart() {
+    boolean[] dead = new boolean[allocated];
+    for (int k = 0; k < unusedCount; k++) {
+      dead[unused[k]] = true;
+    }
+    Integer[] order = new Integer[allocated - unusedCount];
+    int at = 0;
+    for (int k = 0; k < allocated; k++) {
+      if (!dead[k]) {
+        order[at++] = k;
+      }
     }
+    Arrays.sort(order, Comparator.comparingLong((slot) -> starts[slot]));
+    return order;
   }
 
   @Override
   public void snapshot(ByteBuf buf) {
-    for (FreeSpace current : left.values()) {
+    for (int slot : liveByStart()) {
       buf.writeBoolean(true);
-      buf.writeLongLE(current.start);
-      buf.writeLongLE(current.size);
+      buf.writeLongLE(starts[slot]);
+      buf.writeLongLE(sizes[slot]);
     }
     buf.writeBoolean(false);
   }
 
   @Override
   public void load(ByteBuf buf) {
-    left.clear();
-    right.clear();
-    sized.clear();
+    reset();
     while (buf.readBoolean()) {
-      FreeSpace current = new FreeSpace();
-      current.start = buf.readLongLE();
-      current.size = buf.readLongLE();
-      add(current);
+      long start = buf.readLongLE();
+      long size = buf.readLongLE();
+      add(start, size);
     }
   }
 
+  @Override
+  public void exhaust() {
+    reset();
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
-    TreeSet<FreeSpace> items = new TreeSet<>(left.values());
-    for (FreeSpace current : items) {
-      sb.append(current.toString());
+    long last = Long.MIN_VALUE;
+    for (int slot : liveByStart()) {
+      if (starts[slot] != last) {
+        sb.append("[").append(starts[slot]).append(",").append(starts[slot] + sizes[slot]).append(")");
+      }
+      last = starts[slot];
     }
     return sb.toString();
   }
-
-  /** a mapping of free space */
-  private class FreeSpace implements Comparable<FreeSpace> {
-    private long start;
-    private long size;
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(start, size);
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
-      FreeSpace freeSpace = (FreeSpace) o;
-      return start == freeSpace.start && size == freeSpace.size;// && Objects.equals(prior, freeSpace.prior) && Objects.equals(next, freeSpace.next);
-    }
-
-    @Override
-    public String toString() {
-      return "[" + start + "," + (start + size) + ")";
-    }
-
-    @Override
-    public int compareTo(FreeSpace o) {
-      return Long.compare(start, o.start);
-    }
-  }
 }
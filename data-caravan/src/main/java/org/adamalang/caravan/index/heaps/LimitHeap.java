@@ -57,6 +57,11 @@ public class LimitHeap implements Heap {
     parent.load(buf);
   }
 
+  @Override
+  public void exhaust() {
+    parent.exhaust();
+  }
+
   @Override
   public String toString() {
     return parent.toString();
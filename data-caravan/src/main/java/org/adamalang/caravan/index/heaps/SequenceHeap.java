@@ -61,10 +61,17 @@ public class SequenceHeap implements Heap {
   @Override
   public void free(Region region) {
     long withinOffset = region.position;
+    long remaining = region.size;
     for (Heap heap : heaps) {
       if (withinOffset < heap.max()) {
-        heap.free(new Region(withinOffset, region.size));
-        return;
+        // a region may only straddle children when rebuilding, so split it at the boundary
+        long size = Math.min(remaining, heap.max() - withinOffset);
+        heap.free(new Region(withinOffset, (int) size));
+        remaining -= size;
+        if (remaining == 0) {
+          return;
+        }
+        withinOffset = 0;
       } else {
         withinOffset -= heap.max();
       }
@@ -85,6 +92,13 @@ public class SequenceHeap implements Heap {
     }
   }
 
+  @Override
+  public void exhaust() {
+    for (Heap heap : heaps) {
+      heap.exhaust();
+    }
+  }
+
   @Override
   public String toString() {
     return "Seq{" + Arrays.toString(heaps) + "}";
@@ -50,6 +50,10 @@ public class CaravanDataServiceTests {
     private final MockCloud cloud;
 
     public Setup() throws Exception {
+      this(Long.MAX_VALUE);
+    }
+
+    public Setup(long cacheBudget) throws Exception {
       this.executor = SimpleExecutor.create("executor");
       this.root = new File(File.createTempFile("ADAMATEST_", "yyy").getParentFile(), "base-" + System.currentTimeMillis());
       root.delete();
@@ -66,7 +70,7 @@ public class CaravanDataServiceTests {
         }
       };
       this.cloud = new MockCloud();
-      this.service = new CaravanDataService(cloud, keyToIdService, store, executor);
+      this.service = new CaravanDataService(new CaravanMetrics(new NoOpMetricsFactory()), cloud, keyToIdService, store, executor, cacheBudget);
       this.flusher = new Thread(new Runnable() {
         @Override
         public void run() {
@@ -92,7 +96,11 @@ public class CaravanDataServiceTests {
   }
 
   private void flow(BadConsumer<Setup> test) throws Exception {
-    Setup setup = new Setup();
+    flow(test, Long.MAX_VALUE);
+  }
+
+  private void flow(BadConsumer<Setup> test, long cacheBudget) throws Exception {
+    Setup setup = new Setup(cacheBudget);
     try {
       test.accept(setup);
     } finally {
@@ -100,6 +108,38 @@ public class CaravanDataServiceTests {
     }
   }
 
+  @Test
+  public void evicted_documents_are_rebuilt() throws Exception {
+    flow((setup) -> {
+      SimpleMockCallback cb_Init1 = new SimpleMockCallback();
+      setup.service.initialize(KEY1, UPDATE_1, cb_Init1);
+      cb_Init1.assertSuccess();
+      SimpleMockCallback cb_Init2 = new SimpleMockCallback();
+      setup.service.initialize(KEY2, UPDATE_1, cb_Init2);
+      cb_Init2.assertSuccess();
+      // the budget is tiny, so only the most recent document is held
+      SimpleMockCallback cb_Patch = new SimpleMockCallback();
+      setup.service.patch(KEY1, new RemoteDocumentUpdate[] { UPDATE_2 }, cb_Patch);
+      cb_Patch.assertSuccess();
+      SimpleDataCallback cb_Get2 = new SimpleDataCallback();
+      setup.service.get(KEY2, cb_Get2);
+      cb_Get2.assertSuccess();
+      Assert.assertEquals("{\"x\":1,\"y\":4}", cb_Get2.value);
+      SimpleMockCallback cb_PatchAgain = new SimpleMockCallback();
+      setup.service.patch(KEY1, new RemoteDocumentUpdate[] { UPDATE_3 }, cb_PatchAgain);
+      cb_PatchAgain.assertSuccess();
+      SimpleDataCallback cb_Get1 = new SimpleDataCallback();
+      setup.service.get(KEY1, cb_Get1);
+      cb_Get1.assertSuccess();
+      Assert.assertEquals("{\"x\":3,\"y\":4}", cb_Get1.value);
+      Assert.assertEquals(3, cb_Get1.reads);
+      SimpleDataCallback cb_Rewind = new SimpleDataCallback();
+      setup.service.compute(KEY1, ComputeMethod.Rewind, 2, cb_Rewind);
+      cb_Rewind.assertSuccess();
+      Assert.assertEquals("{\"x\":1,\"z\":42}", cb_Rewind.value);
+    }, 1);
+  }
+
   @Test
   public void flow() throws Exception {
     flow((setup) -> {
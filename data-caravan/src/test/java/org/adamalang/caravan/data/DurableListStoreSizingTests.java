@@ -9,6 +9,7 @@
  */
 package org.adamalang.caravan.data;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
@@ -19,6 +20,8 @@ public class DurableListStoreSizingTests {
   public void large() throws Exception {
     File f = File.createTempFile("ADAMATEST", "XYZ");
     DurableListStoreSizing sz = new DurableListStoreSizing(10L * 1024 * 1024 * 1024L, f);
+    Assert.assertTrue(sz.storage instanceof SegmentedMemoryMappedFileStorage);
+    Assert.assertEquals(10L * 1024 * 1024 * 1024L, sz.storage.size());
     sz.storage.close();
     for (File x : f.getParentFile().listFiles()) {
       if (x.getName().startsWith("ADAMA")) {
@@ -26,4 +29,23 @@ public class DurableListStoreSizingTests {
       }
     }
   }
+
+  @Test
+  public void legacy() throws Exception {
+    File f = File.createTempFile("ADAMATEST", "LEGACY");
+    File prime = new File(f.getParentFile(), f.getName() + "-PRIME");
+    prime.createNewFile();
+    try {
+      DurableListStoreSizing sz = new DurableListStoreSizing(2L * 1024 * 1024 * 1024L, f);
+      Assert.assertTrue(sz.storage instanceof SequenceStorage);
+      Assert.assertEquals(2L * 1024 * 1024 * 1024L, sz.storage.size());
+      sz.storage.close();
+    } finally {
+      for (File x : f.getParentFile().listFiles()) {
+        if (x.getName().startsWith(f.getName())) {
+          x.delete();
+        }
+      }
+    }
+  }
 }
@@ -15,13 +15,18 @@ import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.caravan.events.EventCodec;
 import org.adamalang.caravan.events.Events;
 import org.adamalang.caravan.mocks.MockByteArrayStream;
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
 import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DurableListStoreTests {
@@ -95,6 +100,48 @@ public class DurableListStoreTests {
     }
   }
 
+  @Test
+  public void commit_latency_bounded() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_latency");
+    testRoot.delete();
+    testRoot.mkdirs();
+    SimpleExecutor executor = SimpleExecutor.create("dls-test");
+    try {
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 1024 * 1024, executor, 2000000);
+      CountDownLatch committed = new CountDownLatch(3);
+      executor.execute(new NamedRunnable("append") {
+        @Override
+        public void execute() throws Exception {
+          store.append(1, "A".getBytes(StandardCharsets.UTF_8), 1, 0, committed::countDown);
+          store.append(1, "B".getBytes(StandardCharsets.UTF_8), 2, 0, committed::countDown);
+          store.append(2, "C".getBytes(StandardCharsets.UTF_8), 1, 0, committed::countDown);
+        }
+      });
+      // nothing calls flush, so the commits are bounded by the latency
+      Assert.assertTrue(committed.await(5000, TimeUnit.MILLISECONDS));
+      CountDownLatch shutdown = new CountDownLatch(1);
+      executor.execute(new NamedRunnable("shutdown") {
+        @Override
+        public void execute() throws Exception {
+          store.shutdown();
+          shutdown.countDown();
+        }
+      });
+      Assert.assertTrue(shutdown.await(5000, TimeUnit.MILLISECONDS));
+      DurableListStore reloaded = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 1024 * 1024);
+      MockByteArrayStream stream = new MockByteArrayStream();
+      reloaded.read(1, stream);
+      stream.assertIs("[0=A/1][1=B/2]FINISHED");
+      reloaded.shutdown();
+    } finally {
+      executor.shutdown();
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
   private byte[] encode(String xyz) {
     Events.Change change = new Events.Change();
     change.redo = xyz;
@@ -281,4 +328,165 @@ public class DurableListStoreTests {
       testRoot.delete();
     }
   }
+
+  private static int countCheckpoints(File root) {
+    int checkpoints = 0;
+    for (File file : root.listFiles()) {
+      if (file.getName().startsWith("CHECKPOINT-")) {
+        checkpoints++;
+      }
+    }
+    return checkpoints;
+  }
+
+  @Test
+  public void incremental_checkpoint() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_checkpoint");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      Runnable event = () -> {};
+      {
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 1024 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        for (int k = 0; k < 2000; k++) {
+          store.append(k, ("K:" + k).getBytes(StandardCharsets.UTF_8), 1, 0, event);
+        }
+        store.flush(true);
+        // every dirty page is written to one file
+        Assert.assertEquals(1, countCheckpoints(testRoot));
+        long firstBytes = new File(testRoot, "CHECKPOINT-1").length();
+        // touching a single document only writes a single page, and the prior file still holds the other pages
+        store.append(42, "again".getBytes(StandardCharsets.UTF_8), 2, 0, event);
+        store.flush(true);
+        Assert.assertEquals(2, countCheckpoints(testRoot));
+        Assert.assertTrue(new File(testRoot, "CHECKPOINT-2").length() * 100 < firstBytes);
+        // deleting every document rewrites every page, so the prior files are no longer referenced and get deleted
+        for (int k = 0; k < 2000; k++) {
+          store.delete(k, event);
+        }
+        for (int k = 0; k < 100; k++) {
+          store.append(k, ("K:" + k).getBytes(StandardCharsets.UTF_8), 1, 0, event);
+        }
+        store.trim(7, 1, event);
+        store.flush(true);
+        Assert.assertEquals(1, countCheckpoints(testRoot));
+        Assert.assertTrue(new File(testRoot, "CHECKPOINT-3").exists());
+        // small checkpoints pile up until the oldest files are folded into the newest
+        for (int k = 0; k < 20; k++) {
+          store.append(3000 + k, ("F:" + k).getBytes(StandardCharsets.UTF_8), 1, 0, event);
+          store.flush(true);
+          Assert.assertTrue(countCheckpoints(testRoot) <= 8);
+        }
+        store.append(1000, "after".getBytes(StandardCharsets.UTF_8), 1, 0, event);
+        store.flush(false);
+        store.shutdown();
+      }
+      for (int reload = 0; reload < 2; reload++) {
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 1024 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        Assert.assertTrue(store.exists(7));
+        Assert.assertFalse(store.exists(1500));
+        {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(7, stream);
+          stream.assertIs("FINISHED");
+        }
+        if (reload == 0) {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(42, stream);
+          stream.assertIs("[0=K:42/1]FINISHED");
+        } else {
+          Assert.assertFalse(store.exists(42));
+        }
+        {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(1000, stream);
+          stream.assertIs("[0=after/1]FINISHED");
+        }
+        // the heap rebuilt from the checkpoint must allocate exactly like the heap which wrote the log
+        store.append(5000 + reload, ("R:" + reload).getBytes(StandardCharsets.UTF_8), 1, 0, event);
+        if (reload == 0) {
+          store.delete(42, event);
+        }
+        store.flush(false);
+        store.shutdown();
+      }
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 1024 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+      for (int reload = 0; reload < 2; reload++) {
+        MockByteArrayStream stream = new MockByteArrayStream();
+        store.read(5000 + reload, stream);
+        stream.assertIs("[0=R:" + reload + "/1]FINISHED");
+      }
+      Assert.assertFalse(store.exists(42));
+      store.shutdown();
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void replay_reuses_regions_and_survives_truncation() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_replay");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      Runnable event = () -> {};
+      String expected;
+      {
+        // a tiny flush cut off yields many pages, and trimming means later appends reuse the regions of earlier appends
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 64, 32 * 1024 * 1024);
+        for (int k = 0; k < 500; k++) {
+          store.append(k % 5, ("V:" + k).getBytes(StandardCharsets.UTF_8), k, 0, event);
+          if (k % 3 == 2) {
+            store.trim(k % 5, 1, event);
+          }
+        }
+        store.delete(4, event);
+        store.flush(false);
+        MockByteArrayStream stream = new MockByteArrayStream();
+        store.read(3, stream);
+        expected = stream.toString();
+        Assert.assertTrue(expected.endsWith("=V:498/498]FINISHED"));
+        store.shutdown();
+      }
+      {
+        // replay into new storage such that only the log provides the bytes
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage-replay"), testRoot, 64 * 1024, 64, 32 * 1024 * 1024);
+        MockByteArrayStream stream = new MockByteArrayStream();
+        store.read(3, stream);
+        Assert.assertEquals(expected, stream.toString());
+        Assert.assertFalse(store.exists(4));
+        store.append(7, "tail".getBytes(StandardCharsets.UTF_8), 1, 0, event);
+        store.flush(false);
+        store.shutdown();
+      }
+      {
+        // chop the end marker off; the store still recovers every complete page
+        File wal = new File(testRoot, "WAL");
+        try (RandomAccessFile file = new RandomAccessFile(wal, "rw")) {
+          file.setLength(file.length() - 2);
+        }
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage-replay"), testRoot, 64 * 1024, 64, 32 * 1024 * 1024);
+        MockByteArrayStream stream = new MockByteArrayStream();
+        store.read(3, stream);
+        Assert.assertEquals(expected, stream.toString());
+        MockByteArrayStream tail = new MockByteArrayStream();
+        store.read(7, tail);
+        tail.assertIs("[0=tail/1]FINISHED");
+        store.shutdown();
+      }
+      boolean foundBadWal = false;
+      for (File file : testRoot.listFiles()) {
+        foundBadWal |= file.getName().startsWith("BAD-WAL-");
+      }
+      Assert.assertTrue(foundBadWal);
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.data;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.index.Region;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+public class SegmentedMemoryMappedFileStorageTests {
+
+  @Test
+  public void flow() throws Exception {
+    File fileToUse = File.createTempFile("adama_", "storage");
+    SegmentedMemoryMappedFileStorage storage = new SegmentedMemoryMappedFileStorage(fileToUse, 100, 16);
+    Assert.assertEquals(100, storage.size());
+    Assert.assertEquals(7, storage.segments());
+    storage.write(new Region(8, 2), "Hi".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("Hi", new String(storage.read(new Region(8, 2)), StandardCharsets.UTF_8));
+    // straddle multiple segments
+    storage.write(new Region(10, 40), "0123456789abcdefghijklmnopqrstuvwxyzABCD".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("0123456789abcdefghijklmnopqrstuvwxyzABCD", new String(storage.read(new Region(10, 40)), StandardCharsets.UTF_8));
+    ByteBuf slice = storage.slice(new Region(14, 8));
+    Assert.assertEquals(8, slice.readableBytes());
+    Assert.assertEquals("456789ab", slice.toString(StandardCharsets.UTF_8));
+    // the tail segment is smaller than the rest
+    storage.write(new Region(95, 5), "WORLD".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("WORLD", storage.slice(new Region(95, 5)).toString(StandardCharsets.UTF_8));
+    storage.flush();
+    storage.flush();
+    storage.close();
+    SegmentedMemoryMappedFileStorage reopened = new SegmentedMemoryMappedFileStorage(fileToUse, 100, 16);
+    Assert.assertEquals("Hi", new String(reopened.read(new Region(8, 2)), StandardCharsets.UTF_8));
+    Assert.assertEquals("WORLD", new String(reopened.read(new Region(95, 5)), StandardCharsets.UTF_8));
+    reopened.close();
+    fileToUse.delete();
+  }
+
+  @Test
+  public void beyond_two_gigabytes() throws Exception {
+    File fileToUse = File.createTempFile("adama_", "storage");
+    long size = 3L * 1024 * 1024 * 1024;
+    SegmentedMemoryMappedFileStorage storage = new SegmentedMemoryMappedFileStorage(fileToUse, size);
+    try {
+      Assert.assertEquals(3, storage.segments());
+      long position = 2L * 1024 * 1024 * 1024 + 1024 * 1024 * 512;
+      storage.write(new Region(position, 5), "Large".getBytes(StandardCharsets.UTF_8));
+      Assert.assertEquals("Large", storage.slice(new Region(position, 5)).toString(StandardCharsets.UTF_8));
+      storage.flush();
+    } finally {
+      storage.close();
+      fileToUse.delete();
+    }
+  }
+
+  @Test
+  public void bad_segment_size() throws Exception {
+    File fileToUse = File.createTempFile("adama_", "storage");
+    try {
+      new SegmentedMemoryMappedFileStorage(fileToUse, 100, 0);
+      Assert.fail();
+    } catch (Exception ex) {
+    } finally {
+      fileToUse.delete();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CheckpointTests {
+  @Test
+  public void flow() {
+    Checkpoint checkpoint = new Checkpoint(42, new long[] {-1, 7, -1, 42}, new long[] {0, 100, 0, 5000000000L});
+    ByteBuf buf = Unpooled.buffer();
+    checkpoint.write(buf);
+    Assert.assertEquals(0x77, buf.readByte());
+    Checkpoint checkpoint2 = Checkpoint.readAfterTypeId(buf);
+    Assert.assertEquals(42L, checkpoint2.generation);
+    Assert.assertEquals(4, checkpoint2.pages.length);
+    Assert.assertEquals(-1L, checkpoint2.pages[0]);
+    Assert.assertEquals(7L, checkpoint2.pages[1]);
+    Assert.assertEquals(-1L, checkpoint2.pages[2]);
+    Assert.assertEquals(42L, checkpoint2.pages[3]);
+    Assert.assertEquals(100L, checkpoint2.offsets[1]);
+    Assert.assertEquals(5000000000L, checkpoint2.offsets[3]);
+    Assert.assertFalse(buf.isReadable());
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.events;
+
+import org.adamalang.caravan.CaravanMetrics;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocalCacheMapTests {
+  private static LocalCache make(int seq, String redo) {
+    LocalCache cache = new LocalCache() {
+      @Override
+      public void finished() {
+      }
+    };
+    Events.Change change = new Events.Change();
+    change.seq_begin = seq;
+    change.seq_end = seq;
+    change.redo = redo;
+    change.undo = "{}";
+    cache.handle(change);
+    return cache;
+  }
+
+  @Test
+  public void lru() {
+    LocalCacheMap map = new LocalCacheMap(new CaravanMetrics(new NoOpMetricsFactory()), 500);
+    LocalCache a = make(1, "{\"x\":1}");
+    Assert.assertEquals(98, a.memory());
+    map.put(1, a);
+    map.put(2, make(1, "{\"x\":2}"));
+    map.put(3, make(1, "{\"x\":3}"));
+    map.put(4, make(1, "{\"x\":4}"));
+    map.put(5, make(1, "{\"x\":5}"));
+    Assert.assertEquals(5, map.size());
+    Assert.assertEquals(490, map.bytes());
+    // touch 1 so that 2 is the eldest
+    Assert.assertTrue(a == map.get(1));
+    map.put(6, make(1, "{\"x\":6}"));
+    Assert.assertEquals(5, map.size());
+    Assert.assertNull(map.get(2));
+    Assert.assertNotNull(map.get(1));
+    map.remove(1);
+    Assert.assertEquals(4, map.size());
+    Assert.assertEquals(392, map.bytes());
+  }
+
+  @Test
+  public void weigh() {
+    LocalCacheMap map = new LocalCacheMap(new CaravanMetrics(new NoOpMetricsFactory()), 300);
+    LocalCache a = make(1, "{}");
+    LocalCache b = make(1, "{}");
+    map.put(1, a);
+    map.put(2, b);
+    Assert.assertEquals(2, map.size());
+    // grow b past the budget, this evicts a but never the most recent
+    Events.Change change = new Events.Change();
+    change.seq_begin = 2;
+    change.seq_end = 2;
+    change.redo = "{\"y\":\"0123456789012345678901234567890123456789\"}";
+    change.undo = "{}";
+    b.handle(change);
+    map.weigh(2, b);
+    Assert.assertEquals(1, map.size());
+    Assert.assertNull(map.get(1));
+    Assert.assertTrue(b == map.get(2));
+    // weighing a stranger is ignored
+    map.weigh(2, a);
+    map.weigh(3, a);
+    Assert.assertEquals(b.memory(), map.bytes());
+  }
+
+  @Test
+  public void snapshot_releases_memory() {
+    LocalCache a = make(1, "{\"x\":1}");
+    Events.Change change = new Events.Change();
+    change.seq_begin = 2;
+    change.seq_end = 2;
+    change.redo = "{\"x\":2}";
+    change.undo = "{\"x\":1}";
+    a.handle(change);
+    Assert.assertEquals(206, a.memory());
+    Events.Snapshot snapshot = new Events.Snapshot();
+    snapshot.seq = 2;
+    snapshot.document = "{\"x\":2}";
+    snapshot.history = 0;
+    a.handle(snapshot);
+    Assert.assertEquals(54, a.memory());
+  }
+}
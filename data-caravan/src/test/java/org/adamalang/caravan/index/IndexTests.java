@@ -12,9 +12,12 @@ package org.adamalang.caravan.index;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.index.heaps.IndexedHeap;
+import org.adamalang.caravan.index.heaps.LimitHeap;
+import org.adamalang.caravan.index.heaps.SequenceHeap;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class IndexTests {
@@ -79,4 +82,88 @@ public class IndexTests {
     Assert.assertEquals("[0,1024)", heap.toString());
     Assert.assertNull(index.trim(500, 1));
   }
+
+  @Test
+  public void churn() {
+    Index index = new Index();
+    for (long id = 0; id < 1000; id++) {
+      for (int k = 0; k < 3; k++) {
+        index.append(id, new AnnotatedRegion(id * 100 + k, 1, k, 0L));
+      }
+    }
+    for (long id = 0; id < 1000; id += 2) {
+      Assert.assertEquals(3, index.delete(id).size());
+    }
+    for (long id = 0; id < 1000; id++) {
+      Assert.assertEquals(id % 2 == 1, index.exists(id));
+    }
+    for (int round = 0; round < 10; round++) {
+      index.append(1L, new AnnotatedRegion(1000 + round, 1, 3 + round, 0L));
+      Assert.assertEquals(1, index.trim(1L, 1).size());
+    }
+    Assert.assertEquals(1007, index.get(1L).next().position);
+    Assert.assertEquals(3, index.trim(3L, 100).size());
+    Assert.assertEquals(0, index.trim(3L, 1).size());
+    Assert.assertFalse(index.get(3L).hasNext());
+    Assert.assertNull(index.trim(2L, 1));
+    Assert.assertNull(index.delete(2L));
+  }
+
+  @Test
+  public void rebuild_matches_heap() {
+    Random rng = new Random(42);
+    Index index = new Index();
+    Heap heap = new SequenceHeap(new LimitHeap(new IndexedHeap(4096), 64), new IndexedHeap(8192));
+    for (int k = 0; k < 5000; k++) {
+      long id = rng.nextInt(50);
+      switch (rng.nextInt(4)) {
+        case 0:
+          if (index.exists(id)) {
+            for (Region region : index.delete(id)) {
+              heap.free(region);
+            }
+          }
+          break;
+        case 1:
+          if (index.exists(id)) {
+            for (Region region : index.trim(id, 1 + rng.nextInt(3))) {
+              heap.free(region);
+            }
+          }
+          break;
+        default:
+          Region region = heap.ask(1 + rng.nextInt(100));
+          if (region != null) {
+            index.append(id, new AnnotatedRegion(region.position, region.size, k, 0L));
+          }
+      }
+    }
+    Heap rebuilt = new SequenceHeap(new LimitHeap(new IndexedHeap(4096), 64), new IndexedHeap(8192));
+    index.rebuild(rebuilt);
+    // the live heap may retain empty free spaces which never influence an allocation
+    Assert.assertEquals(heap.toString().replaceAll("\\[(\\d+),\\1\\)", ""), rebuilt.toString());
+    Assert.assertEquals(heap.available(), rebuilt.available());
+    for (int k = 0; k < 100; k++) {
+      int size = 1 + rng.nextInt(100);
+      Assert.assertEquals(String.valueOf(heap.ask(size)), String.valueOf(rebuilt.ask(size)));
+    }
+    // the pages of an index are transparent
+    ByteBuf all = Unpooled.buffer();
+    index.snapshot(all);
+    Index paged = new Index(4);
+    paged.load(all);
+    Assert.assertEquals(4, paged.pages());
+    Assert.assertEquals(index.toString(), paged.toString());
+    ByteBuf page1 = Unpooled.buffer();
+    ByteBuf page3 = Unpooled.buffer();
+    paged.snapshotPage(1, page1);
+    paged.snapshotPage(3, page3);
+    Index partial = new Index();
+    partial.loadPage(page1);
+    partial.loadPage(page3);
+    for (long id = 0; id < 50; id++) {
+      int page = Index.pageOf(id, 4);
+      Assert.assertEquals(index.exists(id) && (page == 1 || page == 3), partial.exists(id));
+    }
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntMapTests {
+  @Test
+  public void flow() {
+    LongIntMap map = new LongIntMap();
+    Assert.assertEquals(-1, map.get(42));
+    Assert.assertEquals(-1, map.put(42, 1));
+    Assert.assertEquals(1, map.put(42, 2));
+    Assert.assertEquals(2, map.get(42));
+    Assert.assertEquals(1, map.size());
+    Assert.assertEquals(2, map.remove(42));
+    Assert.assertEquals(-1, map.remove(42));
+    Assert.assertEquals(0, map.size());
+    map.put(-7, 3);
+    map.clear();
+    Assert.assertEquals(-1, map.get(-7));
+  }
+
+  @Test
+  public void random() {
+    Random rng = new Random(42);
+    LongIntMap map = new LongIntMap(4);
+    HashMap<Long, Integer> reference = new HashMap<>();
+    for (int k = 0; k < 100000; k++) {
+      long key = rng.nextInt(5000);
+      if (rng.nextInt(3) == 0) {
+        Integer prior = reference.remove(key);
+        Assert.assertEquals(prior == null ? -1 : prior, map.remove(key));
+      } else {
+        int value = rng.nextInt(1000);
+        Integer prior = reference.put(key, value);
+        Assert.assertEquals(prior == null ? -1 : prior, map.put(key, value));
+      }
+    }
+    Assert.assertEquals(reference.size(), map.size());
+    for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+      Assert.assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+    }
+  }
+}
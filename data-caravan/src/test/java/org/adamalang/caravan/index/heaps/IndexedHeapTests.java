@@ -16,6 +16,9 @@ import org.adamalang.caravan.index.Region;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 public class IndexedHeapTests {
 
   private void assetEqualsAfterSnapshot(String expected, IndexedHeap heap) {
@@ -118,4 +121,30 @@ public class IndexedHeapTests {
     Assert.assertNull(heap.ask(2048));
     assetEqualsAfterSnapshot("[0,1024)", heap);
   }
+
+  @Test
+  public void random() {
+    Random rng = new Random(42);
+    IndexedHeap heap = new IndexedHeap(1 << 20);
+    ArrayList<Region> live = new ArrayList<>();
+    long used = 0;
+    for (int k = 0; k < 20000; k++) {
+      if (live.size() > 0 && rng.nextBoolean()) {
+        Region region = live.remove(rng.nextInt(live.size()));
+        heap.free(region);
+        used -= region.size;
+      } else {
+        Region region = heap.ask(1 + rng.nextInt(500));
+        if (region != null) {
+          live.add(region);
+          used += region.size;
+        }
+      }
+      Assert.assertEquals(heap.maximumSize - used, heap.available());
+    }
+    for (Region region : live) {
+      heap.free(region);
+    }
+    assetEqualsAfterSnapshot("[0,1048576)", heap);
+  }
 }
@@ -36,6 +36,11 @@ public class MockByteArrayStream implements ByteArrayStream {
     latch.countDown();
   }
 
+  @Override
+  public String toString() {
+    return sb.toString();
+  }
+
   public void assertIs(String expected) throws Exception {
     Assert.assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
     Assert.assertEquals(expected, sb.toString());
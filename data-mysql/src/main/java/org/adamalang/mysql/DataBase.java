@@ -10,9 +10,11 @@
 package org.adamalang.mysql;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
+import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
 import org.adamalang.common.ExceptionLogger;
+import org.adamalang.common.NamedThreadFactory;
 import org.adamalang.common.metrics.RequestResponseMonitor;
 import org.adamalang.mysql.contracts.SQLConsumer;
 import org.adamalang.mysql.contracts.SQLTransact;
@@ -21,19 +23,37 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.text.SimpleDateFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** the connection pool and helpers for interacting with MySQL */
+/**
+ * the connection pool and helpers for interacting with MySQL. Transactions run on a dedicated (bounded) pool of threads such that
+ * a slow database never blocks the caller's thread.
+ */
 public class DataBase implements AutoCloseable {
   private static Logger LOG = LoggerFactory.getLogger(DataBase.class);
   private static final ExceptionLogger LOGGER = ExceptionLogger.FOR(DataBase.class);
   public final ComboPooledDataSource pool;
   public final String databaseName;
   public final DataBaseMetrics metrics;
+  private final ScheduledThreadPoolExecutor executor;
+  private final AtomicInteger queued;
+  private final int queueLimit;
+  private final Set<Attempt<?>> pending;
 
   public DataBase(DataBaseConfig config, DataBaseMetrics metrics) throws Exception {
     this.pool = config.createComboPooledDataSource();
     this.databaseName = config.databaseName;
     this.metrics = metrics;
+    this.executor = new ScheduledThreadPoolExecutor(Math.max(1, config.transactionThreads), new NamedThreadFactory("database-" + config.databaseName));
+    this.queued = new AtomicInteger(0);
+    this.queueLimit = config.transactionQueueLimit;
+    this.pending = ConcurrentHashMap.newKeySet();
   }
 
   public static String dateTimeOf(long time) {
@@ -74,24 +94,74 @@ public class DataBase implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
+    // let the transactions in flight (and their retries) finish before the connections go away
+    executor.shutdown();
+    if (!executor.awaitTermination(5000, TimeUnit.MILLISECONDS)) {
+      // the stragglers would run against a closed pool, so stop them and fail their callbacks rather than leave them hanging
+      executor.shutdownNow();
+      int abandoned = 0;
+      for (Attempt<?> attempt : pending) {
+        if (attempt.abandon()) {
+          abandoned++;
+        }
+      }
+      LOG.error("database-closed-with-pending-transactions:" + abandoned);
+    }
     pool.close();
   }
 
-  public <R> void transact(SQLTransact<R> transaction, Callback<R> callback, int failureReason) {
-    int backoff = (int) (25 + Math.random() * 25);
-    while(true) {
+  /**
+   * execute the transaction on the database's threads; the name is the statement for metrics. The callback is invoked on a
+   * database thread, and the transaction fails fast if too many transactions are already queued.
+   */
+  public <R> void transact(String name, SQLTransact<R> transaction, Callback<R> callback, int failureReason) {
+    if (queued.incrementAndGet() > queueLimit) {
+      queued.decrementAndGet();
+      metrics.transaction_rejected.run();
+      callback.failure(new ErrorCodeException(ErrorCodes.MYSQL_TRANSACT_QUEUE_FULL));
+      return;
+    }
+    metrics.transaction_queue.up();
+    Attempt<R> attempt = new Attempt<>(metrics.statement(name), transaction, callback, failureReason);
+    pending.add(attempt);
+    try {
+      executor.execute(attempt);
+    } catch (RejectedExecutionException ree) {
+      attempt.abandon();
+    }
+  }
+
+  /** a transaction which is attempted until it succeeds or gives up; a retry is scheduled rather than slept upon */
+  private class Attempt<R> implements Runnable {
+    private final RequestResponseMonitor statement;
+    private final SQLTransact<R> transaction;
+    private final Callback<R> callback;
+    private final int failureReason;
+    private final AtomicBoolean finished;
+    private int backoff;
+
+    private Attempt(RequestResponseMonitor statement, SQLTransact<R> transaction, Callback<R> callback, int failureReason) {
+      this.statement = statement;
+      this.transaction = transaction;
+      this.callback = callback;
+      this.failureReason = failureReason;
+      this.finished = new AtomicBoolean(false);
+      this.backoff = (int) (25 + Math.random() * 25);
+    }
+
+    @Override
+    public void run() {
       RequestResponseMonitor.RequestResponseMonitorInstance instance = metrics.transaction.start();
+      RequestResponseMonitor.RequestResponseMonitorInstance statementInstance = statement.start();
+      R result;
       try {
         Connection connection = pool.getConnection();
         boolean commit = false;
         try {
           connection.setAutoCommit(false);
-          R result = transaction.execute(connection);
+          result = transaction.execute(connection);
           commit = true;
           connection.commit();
-          callback.success(result);
-          instance.success();
-          return;
         } finally {
           if (!commit) {
             connection.rollback();
@@ -100,8 +170,13 @@ public class DataBase implements AutoCloseable {
         }
       } catch (Throwable ex) {
         if (ex instanceof ErrorCodeException) {
+          if (!finish()) {
+            abandoned(instance, statementInstance);
+            return;
+          }
           callback.failure((ErrorCodeException) ex);
           instance.failure(((ErrorCodeException) ex).code);
+          statementInstance.failure(((ErrorCodeException) ex).code);
           return;
         }
         boolean validException = ex instanceof java.sql.SQLIntegrityConstraintViolationException;
@@ -109,18 +184,59 @@ public class DataBase implements AutoCloseable {
           LOG.error("database-exception", ex);
         }
         if (backoff < 500 && !validException) {
+          int delay = backoff;
+          backoff += (int) (Math.random() * backoff);
           try {
-            Thread.sleep(backoff);
-            backoff += (int) (Math.random() * backoff);
-          } catch (InterruptedException ie) {
+            executor.schedule(this, delay, TimeUnit.MILLISECONDS);
+            metrics.transaction_retry.run();
+            return;
+          } catch (RejectedExecutionException ree) {
+            // we are shutting down, so give up now
           }
-        } else {
-          ErrorCodeException ece = ErrorCodeException.detectOrWrap(failureReason, ex, LOGGER);
-          callback.failure(ece);
-          instance.failure(ece.code);
+        }
+        if (!finish()) {
+          abandoned(instance, statementInstance);
           return;
         }
+        ErrorCodeException ece = ErrorCodeException.detectOrWrap(failureReason, ex, LOGGER);
+        callback.failure(ece);
+        instance.failure(ece.code);
+        statementInstance.failure(ece.code);
+        return;
+      }
+      if (!finish()) {
+        abandoned(instance, statementInstance);
+        return;
+      }
+      callback.success(result);
+      instance.success();
+      statementInstance.success();
+    }
+
+    /** the transaction is no longer queued; only the first caller gets true and may invoke the callback */
+    private boolean finish() {
+      if (finished.compareAndSet(false, true)) {
+        pending.remove(this);
+        queued.decrementAndGet();
+        metrics.transaction_queue.down();
+        return true;
+      }
+      return false;
+    }
+
+    /** the callback was already failed by close, so just account for the attempt which outlived it */
+    private void abandoned(RequestResponseMonitor.RequestResponseMonitorInstance instance, RequestResponseMonitor.RequestResponseMonitorInstance statementInstance) {
+      instance.failure(ErrorCodes.MYSQL_TRANSACT_SHUTDOWN);
+      statementInstance.failure(ErrorCodes.MYSQL_TRANSACT_SHUTDOWN);
+    }
+
+    /** fail the transaction because the database is shutting down (unless it already finished) */
+    private boolean abandon() {
+      if (finish()) {
+        callback.failure(new ErrorCodeException(ErrorCodes.MYSQL_TRANSACT_SHUTDOWN));
+        return true;
       }
+      return false;
     }
   }
 }
@@ -23,6 +23,8 @@ public class DataBaseConfig {
   public final int maxPoolSize;
   public final int minPoolSize;
   public final int initialPoolSize;
+  public final int transactionThreads;
+  public final int transactionQueueLimit;
 
   public DataBaseConfig(ConfigObject config, String role) {
     ConfigObject roleConfig = config.childSearchMustExist("role was not found", role, "any");
@@ -35,6 +37,8 @@ public class DataBaseConfig {
     this.maxPoolSize = roleConfig.intOf("max_pool_size", 4);
     this.minPoolSize = roleConfig.intOf("min_pool_size", 2);
     this.initialPoolSize = roleConfig.intOf("initial_pool_size", 2);
+    this.transactionThreads = roleConfig.intOf("transaction_threads", maxPoolSize);
+    this.transactionQueueLimit = roleConfig.intOf("transaction_queue_limit", 2500);
   }
 
   public ComboPooledDataSource createComboPooledDataSource() throws Exception {
@@ -13,10 +13,29 @@ import org.adamalang.common.metrics.Inflight;
 import org.adamalang.common.metrics.MetricsFactory;
 import org.adamalang.common.metrics.RequestResponseMonitor;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 public class DataBaseMetrics {
+  private final MetricsFactory factory;
+  private final String role;
+  private final ConcurrentHashMap<String, RequestResponseMonitor> statements;
   public RequestResponseMonitor transaction;
+  public final Inflight transaction_queue;
+  public final Runnable transaction_rejected;
+  public final Runnable transaction_retry;
 
   public DataBaseMetrics(MetricsFactory factory, String role) {
+    this.factory = factory;
+    this.role = role;
+    this.statements = new ConcurrentHashMap<>();
     transaction = factory.makeRequestResponseMonitor("database_" + role + "_transaction");
+    transaction_queue = factory.inflight("database_" + role + "_transaction_queue");
+    transaction_rejected = factory.counter("database_" + role + "_transaction_rejected");
+    transaction_retry = factory.counter("database_" + role + "_transaction_retry");
+  }
+
+  /** the monitor for the named statement (i.e. "finder_find"); these are made once per statement */
+  public RequestResponseMonitor statement(String name) {
+    return statements.computeIfAbsent(name, (n) -> factory.makeRequestResponseMonitor("database_" + role + "_statement_" + n));
   }
 }
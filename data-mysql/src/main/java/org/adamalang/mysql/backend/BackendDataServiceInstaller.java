@@ -60,11 +60,22 @@ public class BackendDataServiceInstaller {
         .append(" DEFAULT CHARACTER SET = utf8mb4;") //
         .toString();
 
+    String createSnapshotsTableSQL = new StringBuilder() //
+        .append("CREATE TABLE IF NOT EXISTS `").append(dataBase.databaseName).append("`.`snapshots` (") //
+        .append("  `parent` INT(4) UNSIGNED NOT NULL,") //
+        .append("  `seq` INT(4) UNSIGNED NOT NULL,") //
+        .append("  `json` LONGTEXT NOT NULL,") //
+        .append("  PRIMARY KEY (`parent`))") //
+        .append(" ENGINE = InnoDB") //
+        .append(" DEFAULT CHARACTER SET = utf8mb4;") //
+        .toString();
+
     Connection connection = dataBase.pool.getConnection();
     try {
       DataBase.execute(connection, createDatabaseSQL);
       DataBase.execute(connection, createIndexTableSQL);
       DataBase.execute(connection, createDeltasTableSQL);
+      DataBase.execute(connection, createSnapshotsTableSQL);
     } finally {
       connection.close();
     }
@@ -73,6 +84,7 @@ public class BackendDataServiceInstaller {
   public void uninstall() throws Exception {
     Connection connection = dataBase.pool.getConnection();
     try {
+      DataBase.execute(connection, new StringBuilder("DROP TABLE IF EXISTS `").append(dataBase.databaseName).append("`.`snapshots`;").toString());
       DataBase.execute(connection, new StringBuilder("DROP TABLE IF EXISTS `").append(dataBase.databaseName).append("`.`deltas`;").toString());
       DataBase.execute(connection, new StringBuilder("DROP TABLE IF EXISTS `").append(dataBase.databaseName).append("`.`index`;").toString());
       DataBase.execute(connection, new StringBuilder("DROP DATABASE IF EXISTS `").append(dataBase.databaseName).append("`;").toString());
@@ -19,9 +19,12 @@ public class BackendMetrics {
   public final Runnable read_head_patch;
   public final Runnable read_rewind;
   public final Runnable read_compact;
+  public final Runnable read_snapshot;
+  public final Runnable snapshot_straddled;
   public final Runnable write_init;
   public final Runnable write_patch;
   public final Runnable write_compact;
+  public final Runnable write_snapshot;
   private final Runnable read;
   private final Runnable write;
 
@@ -58,6 +61,13 @@ public class BackendMetrics {
       read.run();
     };
 
+    Runnable _read_snapshot = factory.counter("mysql_read_snapshot");
+    this.read_snapshot = () -> {
+      _read_snapshot.run();
+      read.run();
+    };
+    this.snapshot_straddled = factory.counter("mysql_snapshot_straddled");
+
     Runnable _write_init = factory.counter("mysql_write_init");
     this.write_init = () -> {
       _write_init.run();
@@ -75,5 +85,11 @@ public class BackendMetrics {
       _write_compact.run();
       write.run();
     };
+
+    Runnable _write_snapshot = factory.counter("mysql_write_snapshot");
+    this.write_snapshot = () -> {
+      _write_snapshot.run();
+      write.run();
+    };
   }
 }
@@ -22,6 +22,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -39,12 +40,39 @@ public class BlockingDataService implements DataService {
 
   @Override
   public void get(Key key, Callback<LocalDocumentChange> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_get", (connection) -> {
       // look up the index to get the id
       LookupResult lookup = lookup(connection, key);
+      AtomicInteger reads = new AtomicInteger(0);
+      // start from the materialized snapshot (if any) such that only the deltas after it need merging
+      SnapshotResult snapshot = readSnapshot(connection, lookup);
+      if (snapshot != null) {
+        AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator();
+        merge.next(snapshot.json);
+        reads.incrementAndGet();
+        metrics.read_snapshot.run();
+        String walkTailSQL = new StringBuilder("SELECT `seq_begin`, `redo` FROM `").append(dataBase.databaseName).append("`.`deltas` WHERE `parent`=").append(lookup.id) //
+            .append(" AND `seq_end` > ").append(snapshot.seq).append(" ORDER BY `seq_begin`").toString();
+        AtomicBoolean straddled = new AtomicBoolean(false);
+        DataBase.walk(connection, (rs) -> {
+          if (rs.getInt(1) <= snapshot.seq) {
+            straddled.set(true);
+          }
+          if (!straddled.get()) {
+            metrics.read_get.run();
+            reads.incrementAndGet();
+            merge.next(rs.getString(2));
+          }
+        }, walkTailSQL);
+        if (!straddled.get()) {
+          return new LocalDocumentChange(merge.finish(), reads.get(), -1);
+        }
+        // a compaction merged deltas from both sides of the snapshot, so the snapshot can't be used
+        metrics.snapshot_straddled.run();
+        reads.set(0);
+      }
       String walkRedoSQL = new StringBuilder("SELECT `redo` FROM `").append(dataBase.databaseName).append("`.`deltas` WHERE `parent`=").append(lookup.id).append(" ORDER BY `seq_begin`").toString();
       AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator();
-      AtomicInteger reads = new AtomicInteger(0);
       DataBase.walk(connection, (rs) -> {
         metrics.read_get.run();
         reads.incrementAndGet();
@@ -54,6 +82,22 @@ public class BlockingDataService implements DataService {
     }, callback, ErrorCodes.GET_FAILURE);
   }
 
+  /** internal: read the materialized snapshot of the document; null if there isn't one (or it is ahead of the index) */
+  private SnapshotResult readSnapshot(Connection connection, LookupResult lookup) throws SQLException {
+    String selectSnapshotSQL = new StringBuilder("SELECT `seq`, `json` FROM `").append(dataBase.databaseName).append("`.`snapshots` WHERE `parent`=").append(lookup.id).append(" LIMIT 1").toString();
+    try (Statement statement = connection.createStatement()) {
+      try (ResultSet rs = statement.executeQuery(selectSnapshotSQL)) {
+        if (rs.next()) {
+          int seq = rs.getInt(1);
+          if (seq <= lookup.head_seq) {
+            return new SnapshotResult(seq, rs.getString(2));
+          }
+        }
+        return null;
+      }
+    }
+  }
+
   public LookupResult lookup(Connection connection, Key key) throws SQLException, ErrorCodeException {
     metrics.lookup.run();
     PreparedStatement statement = connection.prepareStatement(new StringBuilder("SELECT `id`, `head_seq` FROM `").append(dataBase.databaseName).append("`.`index` WHERE `space`=? AND `key`=? LIMIT 1").toString());
@@ -79,7 +123,7 @@ public class BlockingDataService implements DataService {
 
   @Override
   public void initialize(Key key, RemoteDocumentUpdate patch, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_initialize", (connection) -> {
       // build the sql into insert
       String insertIndexSQL = new StringBuilder() //
           .append("INSERT INTO `").append(dataBase.databaseName).append("`.`index` (") //
@@ -153,7 +197,7 @@ public class BlockingDataService implements DataService {
 
   @Override
   public void patch(Key key, RemoteDocumentUpdate[] patches, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_patch", (connection) -> {
       RemoteDocumentUpdate first = patches[0];
       RemoteDocumentUpdate last = patches[patches.length - 1];
 
@@ -190,7 +234,7 @@ public class BlockingDataService implements DataService {
 
   @Override
   public void compute(Key key, ComputeMethod method, int seq, Callback<LocalDocumentChange> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_compute", (connection) -> {
       // look up the index to get the id
       LookupResult lookup = lookup(connection, key);
 
@@ -236,7 +280,7 @@ public class BlockingDataService implements DataService {
 
   @Override
   public void delete(Key key, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_delete", (connection) -> {
       // read the index
       metrics.delete.run();
       LookupResult lookup = lookup(connection, key);
@@ -250,13 +294,17 @@ public class BlockingDataService implements DataService {
           .append("DELETE FROM `").append(dataBase.databaseName).append("`.`deltas` ") //
           .append("WHERE `parent`=").append(lookup.id).toString();
       DataBase.execute(connection, deleteDeltasSQL);
+      String deleteSnapshotSQL = new StringBuilder() //
+          .append("DELETE FROM `").append(dataBase.databaseName).append("`.`snapshots` ") //
+          .append("WHERE `parent`=").append(lookup.id).toString();
+      DataBase.execute(connection, deleteSnapshotSQL);
       return null;
     }, callback, ErrorCodes.DELETE_FAILURE);
   }
 
   @Override
   public void snapshot(Key key, DocumentSnapshot snapshot, Callback<Integer> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("backend_snapshot", (connection) -> {
       // look up the index to get the id
       LookupResult lookup = lookup(connection, key);
 
@@ -317,6 +365,22 @@ public class BlockingDataService implements DataService {
         // account for the one we insert
         count.decrementAndGet();
       }
+      if (snapshot.seq <= lookup.head_seq) {
+        // materialize the snapshot such that a get only merges the deltas after it; an older snapshot never replaces a newer one
+        String upsertSnapshotSQL = new StringBuilder() //
+            .append("INSERT INTO `").append(dataBase.databaseName).append("`.`snapshots` (`parent`, `seq`, `json`) VALUES (") //
+            .append(lookup.id).append(", ").append(snapshot.seq).append(", ?) ON DUPLICATE KEY UPDATE ") //
+            .append("`json`=IF(VALUES(`seq`) >= `seq`, VALUES(`json`), `json`), `seq`=GREATEST(`seq`, VALUES(`seq`))") //
+            .toString();
+        PreparedStatement statement = connection.prepareStatement(upsertSnapshotSQL);
+        try {
+          statement.setString(1, snapshot.json);
+          statement.execute();
+        } finally {
+          statement.close();
+        }
+        metrics.write_snapshot.run();
+      }
       return count.get();
     }, callback, ErrorCodes.COMPUTE_FAILURE);
   }
@@ -326,6 +390,17 @@ public class BlockingDataService implements DataService {
     callback.success(null);
   }
 
+  /** a materialized snapshot of a document */
+  private static class SnapshotResult {
+    private final int seq;
+    private final String json;
+
+    private SnapshotResult(int seq, String json) {
+      this.seq = seq;
+      this.json = json;
+    }
+  }
+
   public static class LookupResult {
     public final int id;
     public final int head_seq;
@@ -0,0 +1,239 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.mysql.finder;
+
+import org.adamalang.ErrorCodes;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.TimeSource;
+import org.adamalang.runtime.data.BackupResult;
+import org.adamalang.runtime.data.FinderService;
+import org.adamalang.runtime.data.Key;
+
+import java.util.*;
+
+/**
+ * a FinderService which caches results (bounded by count and age) and coalesces concurrent lookups into batched queries. A key's
+ * cached result is invalidated by any change made via this finder (bind, free, backup, delete); changes made by other machines are
+ * visible once the cached result ages out.
+ */
+public class CachingFinder implements FinderService {
+  private final Finder finder;
+  private final FinderMetrics metrics;
+  private final TimeSource time;
+  private final long ttlMilliseconds;
+  private final int maxBatchSize;
+  private final int maxInflightBatches;
+  private final LinkedHashMap<Key, Cached> cache;
+  private final LinkedHashMap<Key, ArrayList<Callback<Result>>> queued;
+  private final HashMap<Key, ArrayList<Callback<Result>>> inflight;
+  private final HashSet<Key> dirty;
+  private int inflightBatches;
+
+  public CachingFinder(Finder finder, FinderMetrics metrics, TimeSource time, int maxCached, long ttlMilliseconds, int maxBatchSize, int maxInflightBatches) {
+    this.finder = finder;
+    this.metrics = metrics;
+    this.time = time;
+    this.ttlMilliseconds = ttlMilliseconds;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.maxInflightBatches = Math.max(1, maxInflightBatches);
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+        return size() > maxCached;
+      }
+    };
+    this.queued = new LinkedHashMap<>();
+    this.inflight = new HashMap<>();
+    this.dirty = new HashSet<>();
+    this.inflightBatches = 0;
+  }
+
+  @Override
+  public void find(Key key, Callback<Result> callback) {
+    Result hit = null;
+    ArrayList<ArrayList<Key>> batches;
+    synchronized (this) {
+      Cached cached = cache.get(key);
+      if (cached != null && cached.expires > time.nowMilliseconds()) {
+        hit = cached.result;
+      } else {
+        if (cached != null) {
+          cache.remove(key);
+        }
+        metrics.cache_miss.run();
+        // join a lookup which is in flight (unless it was invalidated), or a lookup which is waiting for a batch
+        ArrayList<Callback<Result>> waiting = dirty.contains(key) ? null : inflight.get(key);
+        if (waiting == null) {
+          waiting = queued.get(key);
+        }
+        if (waiting != null) {
+          waiting.add(callback);
+          metrics.find_coalesced.run();
+        } else {
+          waiting = new ArrayList<>();
+          waiting.add(callback);
+          queued.put(key, waiting);
+          metrics.find_pending.up();
+        }
+      }
+      batches = takeBatches();
+    }
+    if (hit != null) {
+      metrics.cache_hit.run();
+      callback.success(hit);
+      return;
+    }
+    execute(batches);
+  }
+
+  /** internal: take as many batches from the queue as are allowed to be in flight */
+  private ArrayList<ArrayList<Key>> takeBatches() {
+    ArrayList<ArrayList<Key>> batches = new ArrayList<>();
+    while (inflightBatches < maxInflightBatches && !queued.isEmpty()) {
+      ArrayList<Key> batch = new ArrayList<>();
+      Iterator<Map.Entry<Key, ArrayList<Callback<Result>>>> it = queued.entrySet().iterator();
+      while (it.hasNext() && batch.size() < maxBatchSize) {
+        Map.Entry<Key, ArrayList<Callback<Result>>> entry = it.next();
+        if (inflight.containsKey(entry.getKey())) {
+          // an invalidated lookup for this key is still in flight, so wait for it to finish
+          continue;
+        }
+        inflight.put(entry.getKey(), entry.getValue());
+        batch.add(entry.getKey());
+        it.remove();
+      }
+      if (batch.isEmpty()) {
+        break;
+      }
+      inflightBatches++;
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  /** internal: execute the batches against the database */
+  private void execute(ArrayList<ArrayList<Key>> batches) {
+    for (ArrayList<Key> batch : batches) {
+      metrics.batch.run();
+      for (int k = 0; k < batch.size(); k++) {
+        metrics.batch_keys.run();
+      }
+      finder.findMany(batch, new Callback<>() {
+        @Override
+        public void success(HashMap<Key, Result> results) {
+          complete(batch, results, null);
+        }
+
+        @Override
+        public void failure(ErrorCodeException ex) {
+          complete(batch, null, ex);
+        }
+      });
+    }
+  }
+
+  /** internal: a batch finished, so deliver the results, cache them, and start the next batch */
+  private void complete(ArrayList<Key> batch, HashMap<Key, Result> results, ErrorCodeException ex) {
+    ArrayList<Runnable> deliveries = new ArrayList<>();
+    ArrayList<ArrayList<Key>> batches;
+    synchronized (this) {
+      inflightBatches--;
+      long expires = time.nowMilliseconds() + ttlMilliseconds;
+      for (Key key : batch) {
+        ArrayList<Callback<Result>> callbacks = inflight.remove(key);
+        boolean invalidated = dirty.remove(key);
+        metrics.find_pending.down();
+        Result result = results != null ? results.get(key) : null;
+        if (result != null && !invalidated) {
+          cache.put(key, new Cached(result, expires));
+        }
+        for (Callback<Result> callback : callbacks) {
+          if (ex != null) {
+            deliveries.add(() -> callback.failure(ex));
+          } else if (result == null) {
+            deliveries.add(() -> callback.failure(new ErrorCodeException(ErrorCodes.UNIVERSAL_LOOKUP_FAILED)));
+          } else {
+            deliveries.add(() -> callback.success(result));
+          }
+        }
+      }
+      batches = takeBatches();
+    }
+    for (Runnable delivery : deliveries) {
+      delivery.run();
+    }
+    execute(batches);
+  }
+
+  /** forget the cached result for the key */
+  public synchronized void invalidate(Key key) {
+    metrics.cache_invalidate.run();
+    cache.remove(key);
+    if (inflight.containsKey(key)) {
+      // the lookup in flight may have read the value prior to the change, so it must not be cached
+      dirty.add(key);
+    }
+  }
+
+  /** internal: invalidate the key once the change completes (in either direction) */
+  private <T> Callback<T> invalidateAfter(Key key, Callback<T> callback) {
+    invalidate(key);
+    return new Callback<T>() {
+      @Override
+      public void success(T value) {
+        invalidate(key);
+        callback.success(value);
+      }
+
+      @Override
+      public void failure(ErrorCodeException ex) {
+        invalidate(key);
+        callback.failure(ex);
+      }
+    };
+  }
+
+  @Override
+  public void bind(Key key, String machine, Callback<Void> callback) {
+    finder.bind(key, machine, invalidateAfter(key, callback));
+  }
+
+  @Override
+  public void free(Key key, String machineOn, Callback<Void> callback) {
+    finder.free(key, machineOn, invalidateAfter(key, callback));
+  }
+
+  @Override
+  public void backup(Key key, BackupResult result, String machineOn, Callback<Void> callback) {
+    finder.backup(key, result, machineOn, invalidateAfter(key, callback));
+  }
+
+  @Override
+  public void delete(Key key, String machineOn, Callback<Void> callback) {
+    finder.delete(key, machineOn, invalidateAfter(key, callback));
+  }
+
+  @Override
+  public void list(String machine, Callback<List<Key>> callback) {
+    finder.list(machine, callback);
+  }
+
+  /** a cached result */
+  private static class Cached {
+    private final Result result;
+    private final long expires;
+
+    private Cached(Result result, long expires) {
+      this.result = result;
+      this.expires = expires;
+    }
+  }
+}
@@ -20,6 +20,8 @@ import org.adamalang.runtime.data.Key;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 
 public class Finder implements FinderService {
@@ -33,7 +35,7 @@ public class Finder implements FinderService {
 
   @Override
   public void find(Key key, Callback<Result> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_find", (connection) -> {
       String selectSQL = new StringBuilder() //
           .append("SELECT `id`, `type`, `region`, `machine`, `archive` FROM `").append(dataBase.databaseName) //
           .append("`.`directory` WHERE `space`=? AND `key`=?") //
@@ -59,9 +61,53 @@ public class Finder implements FinderService {
     }, callback, ErrorCodes.FINDER_SERVICE_MYSQL_FIND_EXCEPTION);
   }
 
+  /**
+   * find the locations of many keys with a single query; keys which aren't found are absent from the result. Each row is mapped back
+   * to the requested key rather than built from the stored columns since the directory's collation may match a stored key which is
+   * spelled differently (i.e. by case or accent), and the result must agree with find
+   */
+  public void findMany(Collection<Key> keys, Callback<HashMap<Key, Result>> callback) {
+    if (keys.isEmpty()) {
+      callback.success(new HashMap<>());
+      return;
+    }
+    ArrayList<Key> requested = new ArrayList<>(keys);
+    dataBase.transact("finder_find_many", (connection) -> {
+      StringBuilder selectSQL = new StringBuilder() //
+          .append("SELECT `requested`.`at`, `directory`.`id`, `directory`.`type`, `directory`.`region`, `directory`.`machine`, `directory`.`archive` FROM (");
+      for (int k = 0; k < requested.size(); k++) {
+        if (k == 0) {
+          selectSQL.append("SELECT ? AS `space`, ? AS `key`, 0 AS `at`");
+        } else {
+          selectSQL.append(" UNION ALL SELECT ?, ?, ").append(k);
+        }
+      }
+      selectSQL.append(") AS `requested` JOIN `").append(dataBase.databaseName) //
+          .append("`.`directory` ON `directory`.`space`=`requested`.`space` AND `directory`.`key`=`requested`.`key`");
+      HashMap<Key, Result> results = new HashMap<>();
+      try (PreparedStatement statement = connection.prepareStatement(selectSQL.toString())) {
+        int offset = 1;
+        for (Key key : requested) {
+          statement.setString(offset, key.space);
+          statement.setString(offset + 1, key.key);
+          offset += 2;
+        }
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            Location location = Location.fromType(rs.getInt(3));
+            if (location != null) {
+              results.put(requested.get(rs.getInt(1)), new Result(rs.getLong(2), location, rs.getString(4), rs.getString(5), rs.getString(6)));
+            }
+          }
+        }
+      }
+      return results;
+    }, callback, ErrorCodes.FINDER_SERVICE_MYSQL_FIND_EXCEPTION);
+  }
+
   @Override
   public void bind(Key key, String machine, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_bind", (connection) -> {
       String updateIndexSQL = new StringBuilder() //
           .append("UPDATE `").append(dataBase.databaseName).append("`.`directory` ") //
           .append("SET `type`=").append(Location.Machine.type) //
@@ -96,7 +142,7 @@ public class Finder implements FinderService {
 
   @Override
   public void backup(Key key, BackupResult result, String machineOn, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_backup", (connection) -> {
       String backupSQL = new StringBuilder() //
           .append("UPDATE `").append(dataBase.databaseName).append("`.`directory` ") //
           .append("SET `archive`=?")
@@ -120,7 +166,7 @@ public class Finder implements FinderService {
 
   @Override
   public void free(Key key, String machineOn, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_free", (connection) -> {
       String freeSQL = new StringBuilder() //
           .append("UPDATE `").append(dataBase.databaseName).append("`.`directory` ") //
           .append("SET `type`=").append(Location.Archive.type) //
@@ -140,7 +186,7 @@ public class Finder implements FinderService {
 
   @Override
   public void delete(Key key, String machineOn, Callback<Void> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_delete", (connection) -> {
       String deleteSQL = new StringBuilder() //
           .append("DELETE FROM `").append(dataBase.databaseName).append("`.`directory` ") //
           .append(" WHERE `space`=? AND `key`=? AND `machine`=? AND `region`=? AND `type`=").append(Location.Machine.type).toString();
@@ -159,7 +205,7 @@ public class Finder implements FinderService {
 
   @Override
   public void list(String machine, Callback<List<Key>> callback) {
-    dataBase.transact((connection) -> {
+    dataBase.transact("finder_list", (connection) -> {
       String selectSQL = new StringBuilder() //
           .append("SELECT `space`, `key` FROM `").append(dataBase.databaseName) //
           .append("`.`directory` WHERE `region`=? AND `machine`=? AND `type`=") //
@@ -0,0 +1,33 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.mysql.finder;
+
+import org.adamalang.common.metrics.Inflight;
+import org.adamalang.common.metrics.MetricsFactory;
+
+public class FinderMetrics {
+  public final Runnable cache_hit;
+  public final Runnable cache_miss;
+  public final Runnable cache_invalidate;
+  public final Runnable find_coalesced;
+  public final Runnable batch;
+  public final Runnable batch_keys;
+  public final Inflight find_pending;
+
+  public FinderMetrics(MetricsFactory factory) {
+    cache_hit = factory.counter("finder_cache_hit");
+    cache_miss = factory.counter("finder_cache_miss");
+    cache_invalidate = factory.counter("finder_cache_invalidate");
+    find_coalesced = factory.counter("finder_find_coalesced");
+    batch = factory.counter("finder_batch");
+    batch_keys = factory.counter("finder_batch_keys");
+    find_pending = factory.inflight("finder_find_pending");
+  }
+}
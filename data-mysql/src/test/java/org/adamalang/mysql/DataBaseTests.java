@@ -9,12 +9,21 @@
  */
 package org.adamalang.mysql;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.adamalang.ErrorCodes;
+import org.adamalang.common.ConfigObject;
+import org.adamalang.common.Json;
 import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.mysql.mocks.SimpleIntCallback;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class DataBaseTests {
   @Test
@@ -31,4 +40,35 @@ public class DataBaseTests {
       }
     }
   }
+
+  @Test
+  public void queue_limit_fails_fast() throws Exception {
+    ObjectNode node = Json.parseJsonObject(Files.readString(new File("test.mysql.json").toPath()));
+    node.with("any").put("transaction_threads", 1);
+    node.with("any").put("transaction_queue_limit", 1);
+    DataBaseConfig dataBaseConfig = new DataBaseConfig(new ConfigObject(node), "any");
+    try (DataBase dataBase = new DataBase(dataBaseConfig, new DataBaseMetrics(new NoOpMetricsFactory(), "noop"))) {
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      SimpleIntCallback first = new SimpleIntCallback();
+      dataBase.transact("block", (connection) -> {
+        started.countDown();
+        try {
+          release.await(5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+          throw new SQLException(ie);
+        }
+        return 42;
+      }, first, 0);
+      Assert.assertTrue(started.await(5000, TimeUnit.MILLISECONDS));
+      SimpleIntCallback second = new SimpleIntCallback();
+      dataBase.transact("rejected", (connection) -> 100, second, 0);
+      second.assertFailure(ErrorCodes.MYSQL_TRANSACT_QUEUE_FULL);
+      release.countDown();
+      first.assertSuccess(42);
+      SimpleIntCallback third = new SimpleIntCallback();
+      dataBase.transact("after", (connection) -> 123, third, 0);
+      third.assertSuccess(123);
+    }
+  }
 }
@@ -39,6 +39,9 @@ public class BlockingDataServiceTests {
   private static final RemoteDocumentUpdate UPDATE_4 =
       new RemoteDocumentUpdate(
           4, 4, null, "REQUEST", "{\"x\":4}", "{\"x\":3,\"z\":42}", true, 0, 100, UpdateType.AddUserData);
+  private static final RemoteDocumentUpdate UPDATE_5 =
+      new RemoteDocumentUpdate(
+          5, 5, null, "REQUEST", "{\"x\":5}", "{\"x\":4}", true, 0, 100, UpdateType.AddUserData);
 
   @Test
   public void flow_1() throws Exception {
@@ -173,12 +176,13 @@ public class BlockingDataServiceTests {
 
           SimpleDataCallback s_cb2 = new SimpleDataCallback();
           service.compute(KEY_2, ComputeMethod.Rewind, 0, s_cb2);
+          s_cb2.assertSuccess();
           Assert.assertEquals("{\"x\":0,\"z\":42,\"y\":0}", s_cb2.value);
           Assert.assertEquals(4, s_cb2.reads);
         }
 
         SimpleIntCallback cb5 = new SimpleIntCallback();
-        service.snapshot(KEY_2, new DocumentSnapshot(1, "{}", 10000, 1234L), cb5);
+        service.snapshot(KEY_2, new DocumentSnapshot(1, "{\"x\":1,\"y\":4}", 10000, 1234L), cb5);
         cb5.assertSuccess(0);
 
         {
@@ -190,12 +194,13 @@ public class BlockingDataServiceTests {
 
           SimpleDataCallback s_cb2 = new SimpleDataCallback();
           service.compute(KEY_2, ComputeMethod.Rewind, 0, s_cb2);
+          s_cb2.assertSuccess();
           Assert.assertEquals("{\"x\":0,\"z\":42,\"y\":0}", s_cb2.value);
           Assert.assertEquals(4, s_cb2.reads);
         }
 
         SimpleIntCallback cb6 = new SimpleIntCallback();
-        service.snapshot(KEY_2, new DocumentSnapshot(1, "{}", 2, 1234L), cb6);
+        service.snapshot(KEY_2, new DocumentSnapshot(1, "{\"x\":1,\"y\":4}", 2, 1234L), cb6);
         cb6.assertSuccess(1);
 
         {
@@ -207,12 +212,13 @@ public class BlockingDataServiceTests {
 
           SimpleDataCallback s_cb2 = new SimpleDataCallback();
           service.compute(KEY_2, ComputeMethod.Rewind, 0, s_cb2);
+          s_cb2.assertSuccess();
           Assert.assertEquals("{\"x\":0,\"z\":42,\"y\":0}", s_cb2.value);
           Assert.assertEquals(3, s_cb2.reads);
         }
 
         SimpleIntCallback cb7 = new SimpleIntCallback();
-        service.snapshot(KEY_2, new DocumentSnapshot(1, "{}", 0, 1234L), cb7);
+        service.snapshot(KEY_2, new DocumentSnapshot(1, "{\"x\":1,\"y\":4}", 0, 1234L), cb7);
         cb7.assertSuccess(2);
 
         {
@@ -224,9 +230,43 @@ public class BlockingDataServiceTests {
 
           SimpleDataCallback s_cb2 = new SimpleDataCallback();
           service.compute(KEY_2, ComputeMethod.Rewind, 0, s_cb2);
+          s_cb2.assertSuccess();
           Assert.assertEquals("{\"x\":0,\"z\":42,\"y\":0}", s_cb2.value);
           Assert.assertEquals(1, s_cb2.reads);
         }
+
+        // a snapshot at the head is loaded as is, and only the deltas after it are merged
+        SimpleIntCallback cb8 = new SimpleIntCallback();
+        service.snapshot(KEY_2, new DocumentSnapshot(4, "{\"x\":4,\"y\":4,\"w\":1}", 100, 1234L), cb8);
+        cb8.assertSuccess(0);
+        {
+          SimpleDataCallback s_cb1 = new SimpleDataCallback();
+          service.get(KEY_2, s_cb1);
+          s_cb1.assertSuccess();
+          Assert.assertEquals("{\"x\":4,\"y\":4,\"w\":1}", s_cb1.value);
+          Assert.assertEquals(1, s_cb1.reads);
+        }
+        SimpleMockCallback cb9 = new SimpleMockCallback();
+        service.patch(KEY_2, new RemoteDocumentUpdate[]{UPDATE_5}, cb9);
+        cb9.assertSuccess();
+        {
+          SimpleDataCallback s_cb1 = new SimpleDataCallback();
+          service.get(KEY_2, s_cb1);
+          s_cb1.assertSuccess();
+          Assert.assertEquals("{\"x\":5,\"y\":4,\"w\":1}", s_cb1.value);
+          Assert.assertEquals(2, s_cb1.reads);
+        }
+
+        // an older snapshot doesn't replace a newer one
+        SimpleIntCallback cb10 = new SimpleIntCallback();
+        service.snapshot(KEY_2, new DocumentSnapshot(1, "{}", 100, 1234L), cb10);
+        cb10.assertSuccess(0);
+        {
+          SimpleDataCallback s_cb1 = new SimpleDataCallback();
+          service.get(KEY_2, s_cb1);
+          s_cb1.assertSuccess();
+          Assert.assertEquals("{\"x\":5,\"y\":4,\"w\":1}", s_cb1.value);
+        }
       } finally {
         installer.uninstall();
       }
@@ -0,0 +1,187 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.mysql.finder;
+
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.mysql.DataBase;
+import org.adamalang.mysql.DataBaseConfig;
+import org.adamalang.mysql.DataBaseConfigTests;
+import org.adamalang.mysql.DataBaseMetrics;
+import org.adamalang.mysql.mocks.SimpleFinderCallback;
+import org.adamalang.mysql.mocks.SimpleMockCallback;
+import org.adamalang.runtime.data.FinderService;
+import org.adamalang.runtime.data.Key;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CachingFinderTests {
+  private final Key KEY1 = new Key("space-1", "key-1");
+
+  @Test
+  public void flow() throws Exception {
+    DataBaseConfig dataBaseConfig = DataBaseConfigTests.getLocalIntegrationConfig();
+    try (DataBase dataBase = new DataBase(dataBaseConfig, new DataBaseMetrics(new NoOpMetricsFactory(), "noop"))) {
+      FinderInstaller installer = new FinderInstaller(dataBase);
+      try {
+        installer.install();
+        AtomicLong now = new AtomicLong(0);
+        Finder raw = new Finder(dataBase, "region");
+        CachingFinder machine = new CachingFinder(raw, new FinderMetrics(new NoOpMetricsFactory()), now::get, 100, 1000, 4, 2);
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertFailure(625676);
+        }
+        {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          machine.bind(KEY1, "machineA:123", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertSuccess(FinderService.Location.Machine, "machineA:123", "");
+        }
+        {
+          // another machine takes the document without telling this finder, so the cache is stale until it ages out
+          SimpleMockCallback callback = new SimpleMockCallback();
+          raw.free(KEY1, "machineA:123", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          raw.bind(KEY1, "machineB:456", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertSuccess(FinderService.Location.Machine, "machineA:123", "");
+        }
+        now.set(1001);
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertSuccess(FinderService.Location.Machine, "machineB:456", "");
+        }
+        {
+          // changes via the caching finder invalidate right away
+          SimpleMockCallback callback = new SimpleMockCallback();
+          machine.free(KEY1, "machineB:456", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertSuccess(FinderService.Location.Archive, "", "");
+        }
+        {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          machine.bind(KEY1, "machineC:789", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertSuccess(FinderService.Location.Machine, "machineC:789", "");
+        }
+        {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          machine.delete(KEY1, "machineC:789", callback);
+          callback.assertSuccess();
+        }
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(KEY1, cb);
+          cb.assertFailure(625676);
+        }
+      } finally {
+        installer.uninstall();
+      }
+    }
+  }
+
+  @Test
+  public void batching() throws Exception {
+    DataBaseConfig dataBaseConfig = DataBaseConfigTests.getLocalIntegrationConfig();
+    try (DataBase dataBase = new DataBase(dataBaseConfig, new DataBaseMetrics(new NoOpMetricsFactory(), "noop"))) {
+      FinderInstaller installer = new FinderInstaller(dataBase);
+      try {
+        installer.install();
+        Finder raw = new Finder(dataBase, "region");
+        CachingFinder machine = new CachingFinder(raw, new FinderMetrics(new NoOpMetricsFactory()), () -> 0, 100, 1000, 4, 2);
+        for (int k = 0; k < 20; k += 2) {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          machine.bind(new Key("space", "key-" + k), "machine-" + k, callback);
+          callback.assertSuccess();
+        }
+        // many finds (with duplicates) are spread over a limited number of batches
+        ArrayList<SimpleFinderCallback> callbacks = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+          for (int k = 0; k < 20; k++) {
+            SimpleFinderCallback cb = new SimpleFinderCallback();
+            machine.find(new Key("space", "key-" + k), cb);
+            callbacks.add(cb);
+          }
+        }
+        for (int j = 0; j < 3; j++) {
+          for (int k = 0; k < 20; k++) {
+            SimpleFinderCallback cb = callbacks.get(j * 20 + k);
+            if (k % 2 == 0) {
+              cb.assertSuccess(FinderService.Location.Machine, "machine-" + k, "");
+            } else {
+              cb.assertFailure(625676);
+            }
+          }
+        }
+      } finally {
+        installer.uninstall();
+      }
+    }
+  }
+
+  @Test
+  public void case_variants_resolve_like_find() throws Exception {
+    DataBaseConfig dataBaseConfig = DataBaseConfigTests.getLocalIntegrationConfig();
+    try (DataBase dataBase = new DataBase(dataBaseConfig, new DataBaseMetrics(new NoOpMetricsFactory(), "noop"))) {
+      FinderInstaller installer = new FinderInstaller(dataBase);
+      try {
+        installer.install();
+        Finder raw = new Finder(dataBase, "region");
+        CachingFinder machine = new CachingFinder(raw, new FinderMetrics(new NoOpMetricsFactory()), () -> 0, 100, 1000, 4, 2);
+        {
+          SimpleMockCallback callback = new SimpleMockCallback();
+          raw.bind(new Key("space", "Key-Case"), "machine", callback);
+          callback.assertSuccess();
+        }
+        // the directory's collation ignores case, so find resolves a variant of the stored key
+        {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          raw.find(new Key("space", "key-case"), cb);
+          cb.assertSuccess(FinderService.Location.Machine, "machine", "");
+        }
+        // and so must the batched lookup, including when both spellings are in the same batch
+        ArrayList<SimpleFinderCallback> callbacks = new ArrayList<>();
+        for (String variant : new String[] {"key-case", "KEY-CASE", "Key-Case"}) {
+          SimpleFinderCallback cb = new SimpleFinderCallback();
+          machine.find(new Key("space", variant), cb);
+          callbacks.add(cb);
+        }
+        for (SimpleFinderCallback cb : callbacks) {
+          cb.assertSuccess(FinderService.Location.Machine, "machine", "");
+        }
+      } finally {
+        installer.uninstall();
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.mysql.mocks;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.junit.Assert;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/** the shared bookkeeping of the simple callbacks; the database completes transactions on its own threads, so the assertions wait for the callback */
+public abstract class SimpleCallback<T> implements Callback<T> {
+  private final CountDownLatch done;
+  private boolean success;
+  private int count;
+  private int reason;
+
+  public SimpleCallback() {
+    this.done = new CountDownLatch(1);
+    this.success = false;
+    this.count = 0;
+    this.reason = -1;
+  }
+
+  /** hold onto the value of a success for the assertions */
+  protected abstract void capture(T value);
+
+  @Override
+  public void success(T value) {
+    capture(value);
+    this.success = true;
+    this.count++;
+    done.countDown();
+  }
+
+  @Override
+  public void failure(ErrorCodeException ex) {
+    this.reason = ex.code;
+    this.success = false;
+    this.count++;
+    done.countDown();
+  }
+
+  /** wait for the callback and assert it succeeded exactly once */
+  protected void assertSuccessOnce() {
+    await();
+    Assert.assertEquals(1, count);
+    Assert.assertTrue(success);
+  }
+
+  public void assertFailure(int code) {
+    await();
+    Assert.assertEquals(1, count);
+    Assert.assertFalse(success);
+    Assert.assertEquals(code, this.reason);
+  }
+
+  private void await() {
+    try {
+      Assert.assertTrue(done.await(5000, TimeUnit.MILLISECONDS));
+    } catch (InterruptedException ie) {
+      Assert.fail();
+    }
+  }
+}
@@ -9,48 +9,24 @@
  */
 package org.adamalang.mysql.mocks;
 
-import org.adamalang.common.Callback;
-import org.adamalang.common.ErrorCodeException;
 import org.adamalang.runtime.data.LocalDocumentChange;
-import org.junit.Assert;
 
-public class SimpleDataCallback implements Callback<LocalDocumentChange> {
+public class SimpleDataCallback extends SimpleCallback<LocalDocumentChange> {
   public String value;
-  private boolean success;
-  private int count;
-  private int reason;
   public int reads;
 
   public SimpleDataCallback() {
-    this.success = false;
-    this.count = 0;
-    this.reason = 0;
+    this.value = null;
     this.reads = 0;
   }
 
   @Override
-  public void success(LocalDocumentChange value) {
+  protected void capture(LocalDocumentChange value) {
     this.value = value.patch;
-    count++;
-    success = true;
     this.reads = value.reads;
   }
 
-  @Override
-  public void failure(ErrorCodeException ex) {
-    count++;
-    success = false;
-    reason = ex.code;
-  }
-
   public void assertSuccess() {
-    Assert.assertEquals(1, count);
-    Assert.assertTrue(success);
-  }
-
-  public void assertFailure(int code) {
-    Assert.assertEquals(1, count);
-    Assert.assertFalse(success);
-    Assert.assertEquals(code, this.reason);
+    assertSuccessOnce();
   }
 }
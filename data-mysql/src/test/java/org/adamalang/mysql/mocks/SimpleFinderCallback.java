@@ -9,51 +9,25 @@
  */
 package org.adamalang.mysql.mocks;
 
-import org.adamalang.common.Callback;
-import org.adamalang.common.ErrorCodeException;
 import org.adamalang.runtime.data.FinderService;
-import org.adamalang.runtime.data.LocalDocumentChange;
 import org.junit.Assert;
 
-public class SimpleFinderCallback implements Callback<FinderService.Result> {
+public class SimpleFinderCallback extends SimpleCallback<FinderService.Result> {
   public FinderService.Result value;
-  private boolean success;
-  private int count;
-  private int reason;
-  public int reads;
 
   public SimpleFinderCallback() {
-    this.success = false;
-    this.count = 0;
-    this.reason = 0;
-    this.reads = 0;
+    this.value = null;
   }
 
   @Override
-  public void success(FinderService.Result value) {
+  protected void capture(FinderService.Result value) {
     this.value = value;
-    count++;
-    success = true;
-  }
-
-  @Override
-  public void failure(ErrorCodeException ex) {
-    count++;
-    success = false;
-    reason = ex.code;
   }
 
   public void assertSuccess(FinderService.Location location, String machine, String archiveKey) {
-    Assert.assertEquals(1, count);
-    Assert.assertTrue(success);
+    assertSuccessOnce();
     Assert.assertEquals(location, value.location);
     Assert.assertEquals(machine, value.machine);
     Assert.assertEquals(archiveKey, value.archiveKey);
   }
-
-  public void assertFailure(int code) {
-    Assert.assertEquals(1, count);
-    Assert.assertFalse(success);
-    Assert.assertEquals(code, this.reason);
-  }
 }
@@ -9,45 +9,22 @@
  */
 package org.adamalang.mysql.mocks;
 
-import org.adamalang.common.Callback;
-import org.adamalang.common.ErrorCodeException;
 import org.junit.Assert;
 
-public class SimpleIntCallback implements Callback<Integer> {
+public class SimpleIntCallback extends SimpleCallback<Integer> {
   public Integer value;
-  private boolean success;
-  private int count;
-  private int reason;
 
   public SimpleIntCallback() {
     this.value = null;
-    this.success = false;
-    this.count = 0;
-    this.reason = -1;
-  }
-  @Override
-  public void success(Integer value) {
-    this.value = value;
-    this.success = true;
-    this.count++;
   }
 
   @Override
-  public void failure(ErrorCodeException ex) {
-    this.reason = ex.code;
-    this.success = false;
-    this.count++;
+  protected void capture(Integer value) {
+    this.value = value;
   }
 
   public void assertSuccess(int value) {
-    Assert.assertEquals(1, count);
-    Assert.assertTrue(success);
+    assertSuccessOnce();
     Assert.assertEquals(value, (int) this.value);
   }
-
-  public void assertFailure(int code) {
-    Assert.assertEquals(1, count);
-    Assert.assertFalse(success);
-    Assert.assertEquals(code, this.reason);
-  }
 }
@@ -9,45 +9,22 @@
  */
 package org.adamalang.mysql.mocks;
 
-import org.adamalang.common.Callback;
-import org.adamalang.common.ErrorCodeException;
 import org.junit.Assert;
 
-public class SimpleLongCallback implements Callback<Long> {
+public class SimpleLongCallback extends SimpleCallback<Long> {
   public Long value;
-  private boolean success;
-  private int count;
-  private int reason;
 
   public SimpleLongCallback() {
     this.value = null;
-    this.success = false;
-    this.count = 0;
-    this.reason = -1;
-  }
-  @Override
-  public void success(Long value) {
-    this.value = value;
-    this.success = true;
-    this.count++;
   }
 
   @Override
-  public void failure(ErrorCodeException ex) {
-    this.reason = ex.code;
-    this.success = false;
-    this.count++;
+  protected void capture(Long value) {
+    this.value = value;
   }
 
   public void assertSuccess(long value) {
-    Assert.assertEquals(1, count);
-    Assert.assertTrue(success);
+    assertSuccessOnce();
     Assert.assertEquals(value, (long) this.value);
   }
-
-  public void assertFailure(int code) {
-    Assert.assertEquals(1, count);
-    Assert.assertFalse(success);
-    Assert.assertEquals(code, this.reason);
-  }
 }
@@ -448,6 +448,7 @@ public class ErrorCodes {
   public static final int NET_FINDER_GAVE_UP = 705583;
   public static final int NET_FINDER_ROUTER_REGION_NOT_EXPECTED = 724012;
   public static final int NET_FINDER_ROUTER_NULL_MACHINE = 783395;
+  public static final int NET_STREAM_FLOW_OVERFLOW = 722945;
 
   public static final int ADAMA_NET_PING_TIMEOUT = 773152;
   public static final int ADAMA_NET_PING_REJECTED = 786466;
@@ -513,8 +514,13 @@ public class ErrorCodes {
   public static final int MANAGED_STORAGE_READ_FAILED_CLOSED = 768112;
   public static final int MANAGED_STORAGE_CLOSED_BEFORE_FOUND = 791691;
 
+  public static final int DEPLOYMENT_BATCH_UNKNOWN_EXCEPTION = 716947;
+
+  public static final int MYSQL_TRANSACT_QUEUE_FULL = 798890;
+  public static final int MYSQL_TRANSACT_SHUTDOWN = 789668;
+
   /**
-   * 716947 798890 789668 786620 787645 793790 773309 703667 786615
+   * 786620 787645 793790 773309 703667 786615
    * 772272 770224 787632 790704 797872 793779 790732 752841 750799 787656 729294 775372 776396
    * 781507 752835 733378 785601 798918 778433 716993 784576 787655 725184 756928 740544 721095
    * 711876 704708 785604 723140 790748 736472 781535 789720 729311 722131 774354 787664 787692
@@ -26,6 +26,8 @@ import java.util.HashMap;
 
 public class DocumentExchange extends ServerCodec.StreamDocument implements Callback<ByteStream>, Remote {
   public static final int MAX_ATTEMPTS_TO_CREATE_OP = 1024;
+  /** how many bytes of stream data the server may have in flight to us; we grant more as we consume half of it */
+  public static final int STREAM_CREDIT = 256 * 1024;
   private final HashMap<Integer, Callback<?>> opHandlers;
   public ClientMessage.StreamConnect connectMessage;
   public Events events;
@@ -33,6 +35,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
   private int nextOp;
   private boolean dead;
   private boolean shouldSendDisconnect;
+  private int consumed;
 
   public DocumentExchange(ClientMessage.StreamConnect connectMessage, Events events) {
     this.connectMessage = connectMessage;
@@ -41,6 +44,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
     opHandlers = new HashMap<>();
     dead = false;
     shouldSendDisconnect = true;
+    consumed = 0;
   }
 
   @Override // From Callback<ByteStream> which happens when the stream is created on both sides
@@ -49,6 +53,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
     ByteBuf toWrite = upstream.create(connectMessage.agent.length() + connectMessage.authority.length() + connectMessage.viewerState.length() + connectMessage.key.length() + connectMessage.space.length() + connectMessage.origin.length() + 40);
     ClientCodec.write(toWrite, connectMessage);
     upstream.next(toWrite);
+    upstream.request(STREAM_CREDIT);
     connectMessage = null;
   }
 
@@ -132,6 +137,12 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
   @Override // From ServerCodec.StreamDocument
   public void handle(ServerMessage.StreamData payload) {
     events.delta(payload.delta);
+    // the delta was consumed, so return the credit (in batches)
+    consumed += payload.delta.length();
+    if (consumed >= STREAM_CREDIT / 2) {
+      upstream.request(consumed);
+      consumed = 0;
+    }
   }
 
   @Override // From ServerCodec.StreamDocument
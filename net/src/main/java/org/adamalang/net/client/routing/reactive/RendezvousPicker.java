@@ -0,0 +1,81 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client.routing.reactive;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * picks a target for a key via rendezvous (highest random weight) hashing over a fixed set of targets. Each target's seed is
+ * hashed once up front, so a pick is a 64-bit mix per target. A picker belongs to a single membership epoch (a change to the
+ * targets makes a new picker), so the bounded memo of recent picks never needs invalidation.
+ */
+public class RendezvousPicker {
+  private static final int MEMO_SIZE = 1024;
+  private final String[] targets;
+  private final long[] seeds;
+  private final LinkedHashMap<String, String> memo;
+
+  public RendezvousPicker(Collection<String> targets) {
+    this.targets = targets.toArray(new String[0]);
+    this.seeds = new long[this.targets.length];
+    for (int k = 0; k < seeds.length; k++) {
+      seeds[k] = hash(this.targets[k]);
+    }
+    this.memo = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > MEMO_SIZE;
+      }
+    };
+  }
+
+  /** pick the target for the given key; null if there are no targets */
+  public String pick(String key) {
+    String winner = memo.get(key);
+    if (winner != null) {
+      return winner;
+    }
+    long keyHash = hash(key);
+    long winningScore = 0;
+    for (int k = 0; k < targets.length; k++) {
+      long score = mix(seeds[k] ^ keyHash);
+      if (winner == null || Long.compareUnsigned(score, winningScore) > 0) {
+        winner = targets[k];
+        winningScore = score;
+      }
+    }
+    if (winner != null) {
+      memo.put(key, winner);
+    }
+    return winner;
+  }
+
+  /** a 64-bit FNV-1a hash of the string's characters finished with a mix */
+  public static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int k = 0; k < value.length(); k++) {
+      hash ^= value.charAt(k);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /** the 64-bit finalizer of MurmurHash3 which spreads every input bit across the output */
+  private static long mix(long x) {
+    x ^= x >>> 33;
+    x *= 0xff51afd7ed558ccdL;
+    x ^= x >>> 33;
+    x *= 0xc4ceb9fe1a85ec53L;
+    x ^= x >>> 33;
+    return x;
+  }
+}
@@ -9,10 +9,6 @@
  */
 package org.adamalang.net.client.routing.reactive;
 
-import org.adamalang.common.Hashing;
-
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -25,21 +21,27 @@ public class SpaceState {
   private final HashMap<String, HashMap<Long, TargetSubscriber>> subscribers;
   private long idgen;
   private boolean invalid;
+  private RendezvousPicker picker;
 
   public SpaceState() {
     this.targets = new TreeSet<>();
     this.subscribers = new HashMap<>();
     this.invalid = false;
     this.idgen = 0;
+    this.picker = null;
   }
 
   public void subtract(String target) {
-    targets.remove(target);
+    if (targets.remove(target)) {
+      picker = null;
+    }
     invalid = true;
   }
 
   public void add(String target) {
-    targets.add(target);
+    if (targets.add(target)) {
+      picker = null;
+    }
     invalid = true;
   }
 
@@ -66,20 +68,11 @@ public class SpaceState {
   }
 
   public String pick(String key) {
-    String winner = null;
-    String winningHash = "";
-    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-    for (String target : targets) {
-      MessageDigest digest = Hashing.md5();
-      digest.update(target.getBytes(StandardCharsets.UTF_8));
-      digest.update(keyBytes);
-      String targetHash = Hashing.finishAndEncode(digest);
-      if (targetHash.compareTo(winningHash) > 0) {
-        winner = target;
-        winningHash = targetHash;
-      }
+    if (picker == null) {
+      // the membership changed, so start a new epoch
+      picker = new RendezvousPicker(targets);
     }
-    return winner;
+    return picker.pick(key);
   }
 
   public Runnable subscribe(String key, Consumer<String> callback) {
@@ -42,12 +42,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Handler implements ByteStream, ClientCodec.HandlerServer, Streamback {
   private static final ServerMessage.CreateResponse SHARED_CREATE_RESPONSE_EMPTY = new ServerMessage.CreateResponse();
+  /** the most a slow receiver may have queued (beyond its credit) before the stream is failed */
+  private static final long MAX_QUEUED_BYTES = 4L * 1024 * 1024;
   private final ServerNexus nexus;
   private final ByteStream upstream;
   private final AtomicBoolean alive;
   private CoreStream stream;
   private ScheduledFuture<?> futureHeat;
   private StreamMonitor.StreamMonitorInstance monitorStreamback;
+  private final StreamFlow flow;
 
   public Handler(ServerNexus nexus, ByteStream upstream) {
     this.nexus = nexus;
@@ -56,14 +59,13 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
     this.alive = new AtomicBoolean(true);
     nexus.metrics.server_handlers_active.up();
     this.monitorStreamback = null;
+    this.flow = new StreamFlow(this::sendData, nexus.metrics.server_streams_stalled, MAX_QUEUED_BYTES);
   }
 
   @Override
   public void request(int bytes) {
-    // proxy to the appropriate thing; if stream, then send to the core stream
-    if (stream != null) {
-      // TODO: proxy flow control to the stream
-    }
+    // the receiver granted credit for stream data
+    flow.request(bytes);
   }
 
   // IGNORE
@@ -81,6 +83,7 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
   public void completed() {
     nexus.metrics.server_handlers_active.down();
     alive.set(false);
+    flow.kill();
     if (stream != null) {
       stream.disconnect();
       stream = null;
@@ -511,6 +514,15 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
   @Override
   public void next(String data) {
     monitorStreamback.progress();
+    if (!flow.next(data)) {
+      // the receiver is too slow, so fail the stream such that it reconnects with a fresh view rather than hold unbounded deltas
+      nexus.metrics.server_stream_flow_overflow.run();
+      failure(new ErrorCodeException(ErrorCodes.NET_STREAM_FLOW_OVERFLOW));
+    }
+  }
+
+  /** internal: write the data to the upstream */
+  private void sendData(String data) {
     ByteBuf buffer = upstream.create(16 + data.length());
     ServerMessage.StreamData dataToUse = new ServerMessage.StreamData();
     dataToUse.delta = data;
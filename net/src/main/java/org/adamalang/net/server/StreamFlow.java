@@ -0,0 +1,111 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.server;
+
+import org.adamalang.common.metrics.Inflight;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * credit based flow control for the deltas of a document stream. The receiver grants credit (in bytes) via request; until the
+ * first grant, the stream flows without bound (i.e. an older client). Once granted, deltas beyond the credit are queued in order
+ * rather than merged since list orderings and text changes are relative to the prior delta. A queue which grows beyond the bound
+ * overflows, and the stream should fail such that the client reconnects with a fresh view.
+ */
+public class StreamFlow {
+  private final Consumer<String> send;
+  private final Inflight stalled;
+  private final long maxQueuedBytes;
+  private final ArrayDeque<String> queue;
+  private boolean controlled;
+  private long credit;
+  private long queuedBytes;
+  private boolean isStalled;
+  private boolean dead;
+
+  public StreamFlow(Consumer<String> send, Inflight stalled, long maxQueuedBytes) {
+    this.send = send;
+    this.stalled = stalled;
+    this.maxQueuedBytes = maxQueuedBytes;
+    this.queue = new ArrayDeque<>();
+    this.controlled = false;
+    this.credit = 0;
+    this.queuedBytes = 0;
+    this.isStalled = false;
+    this.dead = false;
+  }
+
+  /** the receiver granted more credit */
+  public synchronized void request(int bytes) {
+    if (bytes <= 0 || dead) {
+      return;
+    }
+    controlled = true;
+    credit += bytes;
+    while (credit > 0 && !queue.isEmpty()) {
+      String data = queue.removeFirst();
+      queuedBytes -= data.length();
+      credit -= data.length();
+      send.accept(data);
+    }
+    if (queue.isEmpty()) {
+      unstall();
+    }
+  }
+
+  /** send (or queue) the data; returns false if the stream overflowed */
+  public synchronized boolean next(String data) {
+    if (dead) {
+      return true;
+    }
+    if (!controlled) {
+      send.accept(data);
+      return true;
+    }
+    // a single delta may overdraw the credit such that a large delta is never stuck
+    if (credit > 0 && queue.isEmpty()) {
+      credit -= data.length();
+      send.accept(data);
+      return true;
+    }
+    queue.addLast(data);
+    queuedBytes += data.length();
+    if (!isStalled) {
+      isStalled = true;
+      stalled.up();
+    }
+    if (queuedBytes > maxQueuedBytes) {
+      kill();
+      return false;
+    }
+    return true;
+  }
+
+  /** the stream is done, so drop anything queued */
+  public synchronized void kill() {
+    dead = true;
+    queue.clear();
+    queuedBytes = 0;
+    unstall();
+  }
+
+  /** how many bytes are waiting on credit */
+  public synchronized long queued() {
+    return queuedBytes;
+  }
+
+  private void unstall() {
+    if (isStalled) {
+      isStalled = false;
+      stalled.down();
+    }
+  }
+}
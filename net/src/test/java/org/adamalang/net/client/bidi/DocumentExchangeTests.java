@@ -14,8 +14,10 @@ import io.netty.buffer.Unpooled;
 import org.adamalang.common.ErrorCodeException;
 import org.adamalang.common.net.ByteStream;
 import org.adamalang.net.codec.ClientMessage;
+import org.adamalang.net.codec.ServerMessage;
 import org.adamalang.net.mocks.LatchedSeqCallback;
 import org.adamalang.net.mocks.MockEvents;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
@@ -97,4 +99,56 @@ public class DocumentExchangeTests {
       callback.assertFail(769085);
     }
   }
+
+  @Test
+  public void credit() throws Exception {
+    MockEvents proxy = new MockEvents();
+    ClientMessage.StreamConnect connect = new ClientMessage.StreamConnect();
+    connect.key = "key";
+    connect.space = "space";
+    connect.origin = "origin";
+    connect.viewerState = "{}";
+    connect.authority = "authority";
+    connect.agent = "agent";
+    DocumentExchange exchange = new DocumentExchange(connect, proxy);
+    ArrayList<Integer> requests = new ArrayList<>();
+    exchange.success(new ByteStream() {
+      @Override
+      public void request(int bytes) {
+        requests.add(bytes);
+      }
+
+      @Override
+      public ByteBuf create(int bestGuessForSize) {
+        return Unpooled.buffer(bestGuessForSize);
+      }
+
+      @Override
+      public void next(ByteBuf buf) {
+      }
+
+      @Override
+      public void completed() {
+      }
+
+      @Override
+      public void error(int errorCode) {
+      }
+    });
+    Assert.assertEquals(1, requests.size());
+    Assert.assertEquals(DocumentExchange.STREAM_CREDIT, (int) requests.get(0));
+    StringBuilder sb = new StringBuilder();
+    for (int k = 0; k < 1024; k++) {
+      sb.append("x");
+    }
+    ServerMessage.StreamData data = new ServerMessage.StreamData();
+    data.delta = sb.toString();
+    for (int k = 0; k < 127; k++) {
+      exchange.handle(data);
+    }
+    Assert.assertEquals(1, requests.size());
+    exchange.handle(data);
+    Assert.assertEquals(2, requests.size());
+    Assert.assertEquals(DocumentExchange.STREAM_CREDIT / 2, (int) requests.get(1));
+  }
 }
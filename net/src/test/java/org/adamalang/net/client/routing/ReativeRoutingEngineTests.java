@@ -38,7 +38,7 @@ public class ReativeRoutingEngineTests {
 
     AtomicReference<Runnable> cancelRunnable = new AtomicReference<>();
     CountDownLatch latchGotCancel = new CountDownLatch(1);
-    CountDownLatch becameZ = new CountDownLatch(1);
+    CountDownLatch becameE = new CountDownLatch(1);
     CountDownLatch becameW = new CountDownLatch(1);
     CountDownLatch becameWAgain = new CountDownLatch(2);
 
@@ -53,8 +53,8 @@ public class ReativeRoutingEngineTests {
         @Override
         public void onMachine(String machine) {
           System.err.println(machine);
-          if ("z".equals(machine)) {
-            becameZ.countDown();
+          if ("e".equals(machine)) {
+            becameE.countDown();
           }
           if ("w".equals(machine)) {
             becameW.countDown();
@@ -69,7 +69,7 @@ public class ReativeRoutingEngineTests {
     // NOTE: this list was built to be adversarial, so each one will trigger an immediate change
     // without the broadcast delay
     // you can play with this by increase the thread sleep to 200 and each thing will pop out
-    for (String inj : new String[] {"y", "3", "t", "4", "w", "2", "1", "x", "z"}) {
+    for (String inj : new String[] {"y", "5", "d", "7", "w", "v", "a", "h", "e"}) {
       if (inj.equals("y")) {
         CountDownLatch latch = new CountDownLatch(1);
         engine.random(
@@ -106,14 +106,14 @@ public class ReativeRoutingEngineTests {
           }
         });
       }
-      if ("2".equals(inj)) {
+      if ("v".equals(inj)) {
         CountDownLatch latch = new CountDownLatch(1);
         AtomicBoolean success = new AtomicBoolean(false);
         engine.list("space", new Consumer<TreeSet<String>>() {
           @Override
           public void accept(TreeSet<String> strings) {
             success.set(true);
-            for (String inj : new String[] {"y", "3", "t", "4", "w", "2"}) {
+            for (String inj : new String[] {"y", "5", "d", "7", "w", "v"}) {
               if (!strings.contains(inj)) {
                 success.set(false);
               }
@@ -147,8 +147,8 @@ public class ReativeRoutingEngineTests {
       }
       Thread.sleep(25);
     }
-    Assert.assertTrue(becameZ.await(10000, TimeUnit.MILLISECONDS));
-    for (String kill : new String[] {"2", "1", "x", "z"}) {
+    Assert.assertTrue(becameE.await(10000, TimeUnit.MILLISECONDS));
+    for (String kill : new String[] {"v", "a", "h", "e"}) {
       engine.remove(kill);
     }
     Assert.assertTrue(becameWAgain.await(10000, TimeUnit.MILLISECONDS));
@@ -0,0 +1,92 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client.routing;
+
+import org.adamalang.net.client.routing.reactive.RendezvousPicker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+public class RendezvousPickerTests {
+  private static TreeSet<String> targets(int n) {
+    TreeSet<String> targets = new TreeSet<>();
+    for (int k = 0; k < n; k++) {
+      targets.add("target-" + k);
+    }
+    return targets;
+  }
+
+  @Test
+  public void empty() {
+    RendezvousPicker picker = new RendezvousPicker(Collections.emptyList());
+    Assert.assertNull(picker.pick("key"));
+  }
+
+  @Test
+  public void stable_and_memoized() {
+    RendezvousPicker a = new RendezvousPicker(targets(10));
+    RendezvousPicker b = new RendezvousPicker(targets(10));
+    for (int k = 0; k < 5000; k++) {
+      String key = "key-" + k;
+      String picked = a.pick(key);
+      Assert.assertEquals(picked, b.pick(key));
+      Assert.assertEquals(picked, a.pick(key));
+    }
+  }
+
+  @Test
+  public void balanced() {
+    RendezvousPicker picker = new RendezvousPicker(targets(10));
+    HashMap<String, Integer> counts = new HashMap<>();
+    for (int k = 0; k < 10000; k++) {
+      counts.merge(picker.pick("key-" + k), 1, Integer::sum);
+    }
+    Assert.assertEquals(10, counts.size());
+    for (int count : counts.values()) {
+      Assert.assertTrue(count > 800 && count < 1200);
+    }
+  }
+
+  @Test
+  public void only_keys_on_the_lost_target_move() {
+    TreeSet<String> all = targets(10);
+    RendezvousPicker before = new RendezvousPicker(all);
+    all.remove("target-3");
+    RendezvousPicker after = new RendezvousPicker(all);
+    for (int k = 0; k < 5000; k++) {
+      String key = "key-" + k;
+      String prior = before.pick(key);
+      if (!"target-3".equals(prior)) {
+        Assert.assertEquals(prior, after.pick(key));
+      }
+    }
+  }
+
+  @Test
+  public void only_keys_for_the_new_target_move() {
+    TreeSet<String> all = targets(10);
+    RendezvousPicker before = new RendezvousPicker(all);
+    all.add("target-new");
+    RendezvousPicker after = new RendezvousPicker(all);
+    int moved = 0;
+    for (int k = 0; k < 5000; k++) {
+      String key = "key-" + k;
+      String next = after.pick(key);
+      if (!next.equals(before.pick(key))) {
+        Assert.assertEquals("target-new", next);
+        moved++;
+      }
+    }
+    Assert.assertTrue(moved > 300 && moved < 600);
+  }
+}
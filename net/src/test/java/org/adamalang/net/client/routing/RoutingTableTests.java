@@ -55,11 +55,11 @@ public class RoutingTableTests {
     table.integrate("t2", Collections.singleton("space"));
     table.integrate("t3", Collections.singleton("space"));
     Assert.assertEquals(3, table.targetsFor("space").size());
-    Assert.assertEquals("t3", table.get("space", "key"));
+    Assert.assertEquals("t2", table.get("space", "key"));
     table.broadcast();
     unsubscribe = table.subscribe(new Key("space", "key"), (x) -> decisions.add(x));
     Assert.assertEquals(3, decisions.size());
-    Assert.assertEquals("t3", decisions.get(2));
+    Assert.assertEquals("t2", decisions.get(2));
     table.integrate("t1", Collections.emptyList());
     table.integrate("t2", Collections.emptyList());
     table.integrate("t3", Collections.emptyList());
@@ -88,13 +88,13 @@ public class RoutingTableTests {
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
     Assert.assertEquals(1, decisions.size());
-    Assert.assertEquals("t3", decisions.get(0));
-    table.remove("t3");
+    Assert.assertEquals("t2", decisions.get(0));
+    table.remove("t2");
     Assert.assertEquals(1, decisions.size());
     table.broadcast();
     Assert.assertEquals(2, decisions.size());
-    Assert.assertEquals("t2", decisions.get(1));
-    events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
+    Assert.assertEquals("t3", decisions.get(1));
+    events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t3]");
   }
 
   @Test
@@ -130,15 +130,15 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(31, t1Count);
-      Assert.assertEquals(32, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(36, t1Count);
+      Assert.assertEquals(34, t2Count);
+      Assert.assertEquals(30, t3Count);
     }
     decisions.clear();
     table.remove("t3");
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(30, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -151,8 +151,8 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(19, t1Count);
-      Assert.assertEquals(18, t2Count);
+      Assert.assertEquals(14, t1Count);
+      Assert.assertEquals(16, t2Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
   }
@@ -190,15 +190,15 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(31, t1Count);
-      Assert.assertEquals(32, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(36, t1Count);
+      Assert.assertEquals(34, t2Count);
+      Assert.assertEquals(30, t3Count);
     }
     decisions.clear();
     table.integrate("t3", Collections.emptyList());
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(30, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -211,8 +211,8 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(19, t1Count);
-      Assert.assertEquals(18, t2Count);
+      Assert.assertEquals(14, t1Count);
+      Assert.assertEquals(16, t2Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
   }
@@ -253,7 +253,7 @@ public class RoutingTableTests {
     table.integrate("t3", Collections.singleton("space"));
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(30, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -271,7 +271,7 @@ public class RoutingTableTests {
       }
       Assert.assertEquals(0, t1Count);
       Assert.assertEquals(0, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(30, t3Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2][SHARE:space=t1,t2,t3]");
   }
@@ -46,24 +46,24 @@ public class SpaceStateTests {
     Assert.assertEquals(3, pub.size());
     Assert.assertNull(pub.get(0));
     Assert.assertEquals("x", pub.get(1));
-    Assert.assertEquals("z", pub.get(2));
-    state.subtract("y");
+    Assert.assertEquals("y", pub.get(2));
+    state.subtract("z");
     state.recompute(share);
-    Assert.assertEquals("/t/x/z", last.get());
+    Assert.assertEquals("/t/x/y", last.get());
     Assert.assertEquals(3, pub.size());
     state.recompute(share);
-    Assert.assertEquals("/t/x/z", last.get());
+    Assert.assertEquals("/t/x/y", last.get());
     Assert.assertEquals(3, pub.size());
     Assert.assertEquals(3, pub.size());
     unsubscribe.run();
     Assert.assertEquals(4, pub.size());
     Assert.assertEquals(null, pub.get(3));
-    state.subtract("z");
+    state.subtract("y");
     state.recompute(share);
     Assert.assertEquals("/t/x", last.get());
     Assert.assertEquals(4, pub.size());
     state.subscribe("key", pub::add);
     Assert.assertEquals(5, pub.size());
-    Assert.assertEquals("x", pub.get(4));
+    Assert.assertEquals("t", pub.get(4));
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.server;
+
+import org.adamalang.common.metrics.Inflight;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StreamFlowTests {
+  private static Inflight counter(AtomicInteger count) {
+    return new Inflight() {
+      @Override
+      public void up() {
+        count.incrementAndGet();
+      }
+
+      @Override
+      public void down() {
+        count.decrementAndGet();
+      }
+
+      @Override
+      public void set(int value) {
+        count.set(value);
+      }
+    };
+  }
+
+  @Test
+  public void unbounded_until_granted() {
+    ArrayList<String> sent = new ArrayList<>();
+    AtomicInteger stalled = new AtomicInteger(0);
+    StreamFlow flow = new StreamFlow(sent::add, counter(stalled), 10);
+    for (int k = 0; k < 100; k++) {
+      Assert.assertTrue(flow.next("0123456789"));
+    }
+    Assert.assertEquals(100, sent.size());
+    Assert.assertEquals(0, stalled.get());
+    flow.request(0);
+    flow.request(-1);
+    Assert.assertTrue(flow.next("x"));
+    Assert.assertEquals(101, sent.size());
+  }
+
+  @Test
+  public void credit() {
+    ArrayList<String> sent = new ArrayList<>();
+    AtomicInteger stalled = new AtomicInteger(0);
+    StreamFlow flow = new StreamFlow(sent::add, counter(stalled), 100);
+    flow.request(5);
+    // overdraw the credit by one delta
+    Assert.assertTrue(flow.next("abcdefgh"));
+    Assert.assertTrue(flow.next("ijk"));
+    Assert.assertTrue(flow.next("lmn"));
+    Assert.assertEquals(1, sent.size());
+    Assert.assertEquals(1, stalled.get());
+    Assert.assertEquals(6, flow.queued());
+    // pay off the debt, but not enough to send
+    flow.request(3);
+    Assert.assertEquals(1, sent.size());
+    // enough to send one, which drains in order
+    flow.request(1);
+    Assert.assertEquals(2, sent.size());
+    Assert.assertEquals("ijk", sent.get(1));
+    Assert.assertEquals(1, stalled.get());
+    flow.request(100);
+    Assert.assertEquals(3, sent.size());
+    Assert.assertEquals("lmn", sent.get(2));
+    Assert.assertEquals(0, stalled.get());
+    Assert.assertEquals(0, flow.queued());
+    // plenty of credit now
+    Assert.assertTrue(flow.next("opq"));
+    Assert.assertEquals(4, sent.size());
+  }
+
+  @Test
+  public void overflow() {
+    ArrayList<String> sent = new ArrayList<>();
+    AtomicInteger stalled = new AtomicInteger(0);
+    StreamFlow flow = new StreamFlow(sent::add, counter(stalled), 10);
+    flow.request(1);
+    Assert.assertTrue(flow.next("a"));
+    Assert.assertTrue(flow.next("bcdef"));
+    Assert.assertTrue(flow.next("ghijk"));
+    Assert.assertEquals(1, stalled.get());
+    Assert.assertFalse(flow.next("l"));
+    Assert.assertEquals(0, stalled.get());
+    Assert.assertEquals(0, flow.queued());
+    // dead, so nothing flows
+    flow.request(100);
+    Assert.assertTrue(flow.next("m"));
+    Assert.assertEquals(1, sent.size());
+  }
+
+  @Test
+  public void kill_while_stalled() {
+    ArrayList<String> sent = new ArrayList<>();
+    AtomicInteger stalled = new AtomicInteger(0);
+    StreamFlow flow = new StreamFlow(sent::add, counter(stalled), 100);
+    flow.request(1);
+    flow.next("ab");
+    flow.next("cd");
+    Assert.assertEquals(1, stalled.get());
+    flow.kill();
+    flow.kill();
+    Assert.assertEquals(0, stalled.get());
+  }
+}
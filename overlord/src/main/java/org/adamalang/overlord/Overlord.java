@@ -23,6 +23,7 @@ import org.adamalang.net.client.ClientMetrics;
 import org.adamalang.net.client.routing.ClientRouter;
 import org.adamalang.overlord.grpc.OverlordServer;
 import org.adamalang.overlord.heat.HeatTable;
+import org.adamalang.overlord.heat.SpaceHeat;
 import org.adamalang.overlord.html.ConcurrentCachedHttpHandler;
 import org.adamalang.overlord.roles.*;
 import org.adamalang.web.contracts.HttpHandler;
@@ -51,6 +52,9 @@ public class Overlord {
     // we will be monitoring the heat on each host within this table
     HeatTable heatTable = new HeatTable(handler);
 
+    // the metering tells us which spaces are responsible for the heat
+    SpaceHeat spaceHeat = new SpaceHeat();
+
     // setup the foundation
     NetBase netBase = new NetBase(identity, 1, 2);
 
@@ -64,10 +68,10 @@ public class Overlord {
     engine.subscribe(adamaRole, client.getTargetPublisher());
 
     // kick off capacity management will will add/remove capacity per space
-    CapacityManager.kickOffReturnHotTargetEvent(metrics, client, deploymentsDatabase, dataBaseFront, handler, heatTable);
+    CapacityManager.kickOffReturnHotTargetEvent(metrics, client, deploymentsDatabase, dataBaseFront, handler, heatTable, spaceHeat);
 
     // start aggregating bills from hosts and write them to database
-    MeteringAggregator.kickOff(metrics, client, dataBaseFront, handler);
+    MeteringAggregator.kickOff(metrics, client, dataBaseFront, handler, spaceHeat);
 
     // make a table of a dump of all gossip
     GossipDumper.kickOff(metrics, engine, handler);
@@ -40,6 +40,8 @@ public class OverlordMetrics {
   public final Runnable capacity_monitor_found_inconsistent_deployment;
   public final Runnable capacity_monitor_fixed_inconsistent_deployment;
   public final Runnable capacity_monitor_found_weak_space;
+  public final Runnable capacity_monitor_hot_target;
+  public final Runnable capacity_monitor_relieved_hot_target;
 
   public final Runnable metering_fetch_found;
   public final Runnable metering_fetch_saved;
@@ -79,6 +81,8 @@ public class OverlordMetrics {
     capacity_monitor_found_inconsistent_deployment = factory.counter("capacity_monitor_found_inconsistent_deployment");
     capacity_monitor_fixed_inconsistent_deployment = factory.counter("capacity_monitor_fixed_inconsistent_deployment");
     capacity_monitor_found_weak_space = factory.counter("capacity_monitor_found_weak_space");
+    capacity_monitor_hot_target = factory.counter("capacity_monitor_hot_target");
+    capacity_monitor_relieved_hot_target = factory.counter("capacity_monitor_relieved_hot_target");
 
     metering_fetch_found = factory.counter("metering_fetch_found");
     metering_fetch_saved = factory.counter("metering_fetch_saved");
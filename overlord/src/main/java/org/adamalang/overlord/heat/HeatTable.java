@@ -13,15 +13,27 @@ import org.adamalang.common.NamedRunnable;
 import org.adamalang.common.SimpleExecutor;
 import org.adamalang.overlord.html.ConcurrentCachedHttpHandler;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
 
 public class HeatTable {
+  /** an adama host at or above either of these is hot */
+  private static final double HOT_CPU = 0.8;
+  private static final double HOT_MEMORY = 0.9;
+  /** an adama host under both of these can take on more load */
+  private static final double COOL_CPU = 0.5;
+  private static final double COOL_MEMORY = 0.7;
+  /** samples older than this are not trusted to pick a cool host */
+  private static final long STALE_MS = 30000;
+  /** a hot host is only reported this often */
+  private static final long WARN_GAP_MS = 60000;
 
   private final SimpleExecutor executor;
   private final HashMap<String, HeatSample> samples;
-  private Consumer<String> targetHot;
+  private BiConsumer<String, ArrayList<String>> targetHot;
+
   public HeatTable(ConcurrentCachedHttpHandler handler) {
     this.executor = SimpleExecutor.create("heat-table");
     this.samples = new HashMap<>();
@@ -45,7 +57,8 @@ public class HeatTable {
     }, 250);
   }
 
-  public void setHeatWarning(Consumer<String> targetHot) {
+  /** when an adama target runs hot, tell the consumer the hot target along with the cool adama targets (coolest first) */
+  public void setHeatWarning(BiConsumer<String, ArrayList<String>> targetHot) {
     executor.execute(new NamedRunnable("set-heat-warning") {
       @Override
       public void execute() throws Exception {
@@ -62,23 +75,46 @@ public class HeatTable {
         if (sample != null) {
           sample.update(cpu, memory);
         } else {
-          samples.put(target, new HeatSample(role, cpu, memory));
+          sample = new HeatSample(role, cpu, memory);
+          samples.put(target, sample);
+        }
+        if ("adama".equals(role) && (cpu >= HOT_CPU || memory >= HOT_MEMORY) && targetHot != null && sample.time - sample.warned >= WARN_GAP_MS) {
+          sample.warned = sample.time;
+          targetHot.accept(target, coolWhileInExecutor(sample.time));
         }
       }
     });
   }
 
+  private ArrayList<String> coolWhileInExecutor(long now) {
+    ArrayList<Map.Entry<String, HeatSample>> cool = new ArrayList<>();
+    for (Map.Entry<String, HeatSample> entry : samples.entrySet()) {
+      HeatSample sample = entry.getValue();
+      if ("adama".equals(sample.role) && now - sample.time < STALE_MS && sample.cpu >= 0 && sample.cpu < COOL_CPU && sample.memory < COOL_MEMORY) {
+        cool.add(entry);
+      }
+    }
+    cool.sort((a, b) -> Double.compare(a.getValue().cpu, b.getValue().cpu));
+    ArrayList<String> targets = new ArrayList<>();
+    for (Map.Entry<String, HeatSample> entry : cool) {
+      targets.add(entry.getKey());
+    }
+    return targets;
+  }
+
   private class HeatSample {
     String role;
     double cpu;
     double memory;
     long time;
+    long warned;
 
     public HeatSample(String role, double cpu, double memory) {
       this.role = role;
       this.cpu = cpu;
       this.memory = memory;
       this.time = System.currentTimeMillis();
+      this.warned = 0;
     }
 
     public void update(double cpu, double memory) {
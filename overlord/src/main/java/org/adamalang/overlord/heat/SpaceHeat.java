@@ -0,0 +1,118 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.overlord.heat;
+
+import org.adamalang.runtime.json.JsonStreamReader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** the most recent metering batch per target broken down by space such that we can tell which spaces are making a target hot */
+public class SpaceHeat {
+  private final ConcurrentHashMap<String, HashMap<String, Sample>> targets;
+
+  public SpaceHeat() {
+    this.targets = new ConcurrentHashMap<>();
+  }
+
+  /** ingest a metering batch (as produced by the MeterReducer) from the given target; this replaces the prior batch */
+  public void ingest(String target, String batch) {
+    HashMap<String, Sample> spaces = new HashMap<>();
+    JsonStreamReader reader = new JsonStreamReader(batch);
+    if (reader.startObject()) {
+      while (reader.notEndOfObject()) {
+        if ("spaces".equals(reader.fieldName())) {
+          if (reader.startObject()) {
+            while (reader.notEndOfObject()) {
+              String space = reader.fieldName();
+              spaces.put(space, Sample.read(space, reader));
+            }
+          }
+        } else {
+          reader.skipValue();
+        }
+      }
+    }
+    targets.put(target, spaces);
+  }
+
+  /** forget everything about the target (i.e. it died) */
+  public void forget(String target) {
+    targets.remove(target);
+  }
+
+  /** the spaces on the target ordered from the hottest (by cpu, then messages) to the coolest */
+  public ArrayList<Sample> hottest(String target) {
+    ArrayList<Sample> result = new ArrayList<>();
+    HashMap<String, Sample> spaces = targets.get(target);
+    if (spaces != null) {
+      result.addAll(spaces.values());
+    }
+    result.sort((a, b) -> {
+      int delta = Long.compare(b.cpu, a.cpu);
+      if (delta == 0) {
+        delta = Long.compare(b.messages, a.messages);
+      }
+      if (delta == 0) {
+        delta = a.space.compareTo(b.space);
+      }
+      return delta;
+    });
+    return result;
+  }
+
+  /** the metering of a single space on a target */
+  public static class Sample {
+    public final String space;
+    public final long cpu;
+    public final long messages;
+    public final long memory;
+    public final long connections;
+
+    public Sample(String space, long cpu, long messages, long memory, long connections) {
+      this.space = space;
+      this.cpu = cpu;
+      this.messages = messages;
+      this.memory = memory;
+      this.connections = connections;
+    }
+
+    private static Sample read(String space, JsonStreamReader reader) {
+      long cpu = 0;
+      long messages = 0;
+      long memory = 0;
+      long connections = 0;
+      if (reader.startObject()) {
+        while (reader.notEndOfObject()) {
+          switch (reader.fieldName()) {
+            case "cpu":
+              cpu = reader.readLong();
+              break;
+            case "messages":
+              messages = reader.readLong();
+              break;
+            case "memory_p95":
+              memory = reader.readLong();
+              break;
+            case "connections_p95":
+              connections = reader.readLong();
+              break;
+            default:
+              reader.skipValue();
+          }
+        }
+      } else {
+        reader.skipValue();
+      }
+      return new Sample(space, cpu, messages, memory, connections);
+    }
+  }
+}
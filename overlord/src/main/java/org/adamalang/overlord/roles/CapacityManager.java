@@ -11,6 +11,7 @@ package org.adamalang.overlord.roles;
 
 import org.adamalang.common.NamedRunnable;
 import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.TimeSource;
 import org.adamalang.mysql.DataBase;
 import org.adamalang.mysql.deployments.Deployments;
 import org.adamalang.mysql.deployments.data.Deployment;
@@ -19,6 +20,7 @@ import org.adamalang.mysql.frontend.data.InternalDeploymentPlan;
 import org.adamalang.net.client.Client;
 import org.adamalang.overlord.OverlordMetrics;
 import org.adamalang.overlord.heat.HeatTable;
+import org.adamalang.overlord.heat.SpaceHeat;
 import org.adamalang.overlord.html.ConcurrentCachedHttpHandler;
 import org.adamalang.overlord.html.FixedHtmlStringLoggerTable;
 import org.slf4j.Logger;
@@ -26,19 +28,20 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 public class CapacityManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(CapacityManager.class);
 
-  public static void kickOffReturnHotTargetEvent(OverlordMetrics metrics, Client client, DataBase deploymentsDatabase, DataBase frontendDatabase, ConcurrentCachedHttpHandler handler, HeatTable heatTable) {
+  public static void kickOffReturnHotTargetEvent(OverlordMetrics metrics, Client client, DataBase deploymentsDatabase, DataBase frontendDatabase, ConcurrentCachedHttpHandler handler, HeatTable heatTable, SpaceHeat spaceHeat) {
     SimpleExecutor executor = SimpleExecutor.create("capacity-management");
-    CoreCapacityManagementTask task = new CoreCapacityManagementTask(executor, metrics, client, deploymentsDatabase, frontendDatabase, handler);
+    CoreCapacityManagementTask task = new CoreCapacityManagementTask(executor, metrics, client, deploymentsDatabase, frontendDatabase, handler, spaceHeat);
     executor.schedule(task, 1000);
-    heatTable.setHeatWarning((target) -> {
+    heatTable.setHeatWarning((target, cool) -> {
       executor.execute(new NamedRunnable("found-hot-target") {
         @Override
         public void execute() throws Exception {
-          task.warn(target);
+          task.warn(target, cool);
         }
       });
     });
@@ -52,8 +55,9 @@ public class CapacityManager {
     private final DataBase frontendDatabase;
     private final ConcurrentCachedHttpHandler handler;
     private final FixedHtmlStringLoggerTable tableLogger;
+    private final HotTargetRelief relief;
 
-    public CoreCapacityManagementTask(SimpleExecutor executor, OverlordMetrics metrics, Client client, DataBase deploymentsDatabase, DataBase frontendDatabase, ConcurrentCachedHttpHandler handler) {
+    public CoreCapacityManagementTask(SimpleExecutor executor, OverlordMetrics metrics, Client client, DataBase deploymentsDatabase, DataBase frontendDatabase, ConcurrentCachedHttpHandler handler, SpaceHeat spaceHeat) {
       super("capacity-management");
       this.executor = executor;
       this.metrics = metrics;
@@ -62,10 +66,37 @@ public class CapacityManager {
       this.frontendDatabase = frontendDatabase;
       this.handler = handler;
       this.tableLogger = new FixedHtmlStringLoggerTable(1024, "space", "act", "activity", "time");
-    }
+      // move at most one space a minute, leave the involved targets and space alone for ten minutes, and give the new target thirty seconds to pick up the space
+      this.relief = new HotTargetRelief(executor, TimeSource.REAL_TIME, spaceHeat, new HotTargetRelief.Actions() {
+        @Override
+        public List<String> targetsOf(String space) throws Exception {
+          ArrayList<String> targets = new ArrayList<>();
+          for (Deployment deployment : Deployments.listTargetsOnSpace(deploymentsDatabase, space)) {
+            targets.add(deployment.target);
+          }
+          return targets;
+        }
 
-    private void warn(String target) {
+        @Override
+        public void deploy(String space, String target) throws Exception {
+          InternalDeploymentPlan plan = Spaces.getPlanByNameForInternalDeployment(frontendDatabase, space);
+          Deployments.deploy(deploymentsDatabase, space, target, plan.hash, plan.plan);
+          client.notifyDeployment(target, space);
+        }
 
+        @Override
+        public void undeploy(String space, String target) throws Exception {
+          Deployments.undeploy(deploymentsDatabase, space, target);
+          client.notifyDeployment(target, space);
+        }
+      }, tableLogger, () -> handler.put("/capacity-manager", tableLogger.toHtml("Capacity Manager")), 60000, 10 * 60000, 30000);
+    }
+
+    private void warn(String target, ArrayList<String> cool) {
+      metrics.capacity_monitor_hot_target.run();
+      if (relief.relieve(target, cool) != null) {
+        metrics.capacity_monitor_relieved_hot_target.run();
+      }
     }
 
     private void simpleCapacityCheck(String space, boolean retryAvailable) {
@@ -0,0 +1,146 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.overlord.roles;
+
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.TimeSource;
+import org.adamalang.overlord.heat.SpaceHeat;
+import org.adamalang.overlord.html.FixedHtmlStringLoggerTable;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * when a target runs hot, move its hottest space onto a cool target. The move is a deploy to the cool target followed (after the
+ * cool target has had time to compile and advertise the space) by an undeploy from the hot target; the hot target then sheds the
+ * documents within the space which archive and load on the cool target. Moves are rate limited both globally and per target/space
+ * such that a hot fleet doesn't stampede.
+ */
+public class HotTargetRelief {
+  /** how relief acts on the world */
+  public interface Actions {
+    /** list the targets that the space is deployed to */
+    List<String> targetsOf(String space) throws Exception;
+
+    /** deploy the space onto the target (and tell the target) */
+    void deploy(String space, String target) throws Exception;
+
+    /** remove the space from the target (and tell the target such that it drains the space) */
+    void undeploy(String space, String target) throws Exception;
+  }
+
+  private final SimpleExecutor executor;
+  private final TimeSource time;
+  private final SpaceHeat heat;
+  private final Actions actions;
+  private final FixedHtmlStringLoggerTable log;
+  private final Runnable changed;
+  private final long moveGapMs;
+  private final long cooldownMs;
+  private final int drainDelayMs;
+  private final HashMap<String, Long> cooling;
+  private long lastMove;
+
+  public HotTargetRelief(SimpleExecutor executor, TimeSource time, SpaceHeat heat, Actions actions, FixedHtmlStringLoggerTable log, Runnable changed, long moveGapMs, long cooldownMs, int drainDelayMs) {
+    this.executor = executor;
+    this.time = time;
+    this.heat = heat;
+    this.actions = actions;
+    this.log = log;
+    this.changed = changed;
+    this.moveGapMs = moveGapMs;
+    this.cooldownMs = cooldownMs;
+    this.drainDelayMs = drainDelayMs;
+    this.cooling = new HashMap<>();
+    this.lastMove = Long.MIN_VALUE / 2;
+  }
+
+  /** the target is hot, so (maybe) move a space to one of the cool targets (ordered coolest first); returns the moved space (or null). This must run within the executor. */
+  public String relieve(String hot, ArrayList<String> cool) {
+    long now = time.nowMilliseconds();
+    try {
+      if (isCooling(hot, now)) {
+        log.row(hot, "relief-cooling", "recently relieved or received a space", new Date(now).toString());
+        return null;
+      }
+      if (now - lastMove < moveGapMs) {
+        log.row(hot, "relief-throttled", "moved a space " + (now - lastMove) + "ms ago", new Date(now).toString());
+        return null;
+      }
+      for (SpaceHeat.Sample sample : heat.hottest(hot)) {
+        if (isCooling(sample.space, now)) {
+          continue;
+        }
+        List<String> targets = actions.targetsOf(sample.space);
+        if (!targets.contains(hot)) {
+          // the metering is stale
+          continue;
+        }
+        String destination = null;
+        for (String candidate : cool) {
+          if (!targets.contains(candidate) && !isCooling(candidate, now)) {
+            destination = candidate;
+            break;
+          }
+        }
+        if (destination == null) {
+          continue;
+        }
+        move(sample, hot, destination, now);
+        return sample.space;
+      }
+      log.row(hot, "relief-none", "no space could be moved to " + cool, new Date(now).toString());
+      return null;
+    } catch (Exception ex) {
+      log.row(hot, "relief-exception", ex.getMessage(), new Date(now).toString());
+      return null;
+    } finally {
+      changed.run();
+    }
+  }
+
+  /** is the target (or space) cooling down from a prior move */
+  public boolean isCooling(String name, long now) {
+    Long until = cooling.get(name);
+    if (until == null) {
+      return false;
+    }
+    if (until <= now) {
+      cooling.remove(name);
+      return false;
+    }
+    return true;
+  }
+
+  private void move(SpaceHeat.Sample sample, String hot, String destination, long now) throws Exception {
+    lastMove = now;
+    cooling.put(hot, now + cooldownMs);
+    cooling.put(destination, now + cooldownMs);
+    cooling.put(sample.space, now + cooldownMs);
+    log.row(sample.space, "relief-deploy", hot + " -> " + destination + " [cpu=" + sample.cpu + ", messages=" + sample.messages + "]", new Date(now).toString());
+    actions.deploy(sample.space, destination);
+    executor.schedule(new NamedRunnable("relief-drain", sample.space) {
+      @Override
+      public void execute() throws Exception {
+        long at = time.nowMilliseconds();
+        try {
+          actions.undeploy(sample.space, hot);
+          log.row(sample.space, "relief-undeploy", hot, new Date(at).toString());
+        } catch (Exception ex) {
+          log.row(sample.space, "relief-undeploy-exception", ex.getMessage(), new Date(at).toString());
+        }
+        changed.run();
+      }
+    }, drainDelayMs);
+  }
+}
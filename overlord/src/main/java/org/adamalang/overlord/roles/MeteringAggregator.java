@@ -16,11 +16,12 @@ import org.adamalang.mysql.frontend.Metering;
 import org.adamalang.net.client.Client;
 import org.adamalang.net.client.contracts.MeteringStream;
 import org.adamalang.overlord.OverlordMetrics;
+import org.adamalang.overlord.heat.SpaceHeat;
 import org.adamalang.overlord.html.ConcurrentCachedHttpHandler;
 import org.adamalang.overlord.html.FixedHtmlStringLoggerTable;
 
 public class MeteringAggregator {
-  public static void kickOff(OverlordMetrics metrics, Client client, DataBase dataBaseFront, ConcurrentCachedHttpHandler handler) {
+  public static void kickOff(OverlordMetrics metrics, Client client, DataBase dataBaseFront, ConcurrentCachedHttpHandler handler, SpaceHeat spaceHeat) {
     SimpleExecutor executor = SimpleExecutor.create("metering-aggregator");
     FixedHtmlStringLoggerTable table = new FixedHtmlStringLoggerTable(32, "target", "batch", "time");
     executor.schedule(new NamedRunnable("metering-fetch") {
@@ -37,6 +38,8 @@ public class MeteringAggregator {
               @Override
               public void execute() throws Exception {
                 long now = System.currentTimeMillis();
+                // remember what each space costs the target such that hot targets can be relieved
+                spaceHeat.ingest(target, batch);
                 if (!batch.contains("\"spaces\":{}")) {
                   Metering.recordBatch(dataBaseFront, target, batch, now);
                   table.row(target, batch, Long.toString(now));
@@ -74,10 +77,5 @@ public class MeteringAggregator {
       }
     }, 1000 * 5);
 
-
-    // TODO: ROLE #3.B: when a hot host appears, use billing information to find hottest space, and then make a decision to act on it
-    // TODO: ROLE #3.C: adama should inform which spaces on a hot host are oversubscribed... this is an interesting challenge
-
-
   }
 }
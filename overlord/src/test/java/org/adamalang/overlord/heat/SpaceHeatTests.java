@@ -0,0 +1,40 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.overlord.heat;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class SpaceHeatTests {
+  @Test
+  public void flow() {
+    SpaceHeat heat = new SpaceHeat();
+    Assert.assertEquals(0, heat.hottest("t").size());
+    heat.ingest("t", "{\"time\":\"123\",\"spaces\":{\"a\":{\"cpu\":\"10\",\"messages\":\"5\",\"count_p95\":\"1\",\"memory_p95\":\"1000\",\"connections_p95\":\"3\"},\"b\":{\"cpu\":\"10\",\"messages\":\"50\"},\"c\":{\"cpu\":\"99\"},\"d\":null}}");
+    ArrayList<SpaceHeat.Sample> samples = heat.hottest("t");
+    Assert.assertEquals(4, samples.size());
+    Assert.assertEquals("c", samples.get(0).space);
+    Assert.assertEquals("b", samples.get(1).space);
+    Assert.assertEquals("a", samples.get(2).space);
+    Assert.assertEquals("d", samples.get(3).space);
+    Assert.assertEquals(1000, samples.get(2).memory);
+    Assert.assertEquals(3, samples.get(2).connections);
+    Assert.assertEquals(5, samples.get(2).messages);
+    // a new batch replaces the old
+    heat.ingest("t", "{\"spaces\":{}}");
+    Assert.assertEquals(0, heat.hottest("t").size());
+    heat.ingest("t", "{\"spaces\":{\"a\":{\"cpu\":\"1\"}}}");
+    Assert.assertEquals(1, heat.hottest("t").size());
+    heat.forget("t");
+    Assert.assertEquals(0, heat.hottest("t").size());
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.overlord.roles;
+
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.overlord.heat.SpaceHeat;
+import org.adamalang.overlord.html.FixedHtmlStringLoggerTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HotTargetReliefTests {
+
+  /** an in-memory deployment table */
+  private static class FakeActions implements HotTargetRelief.Actions {
+    private final HashMap<String, TreeSet<String>> deployed = new HashMap<>();
+    private final ArrayList<String> log = new ArrayList<>();
+
+    private void put(String space, String... targets) {
+      deployed.put(space, new TreeSet<>(Arrays.asList(targets)));
+    }
+
+    @Override
+    public List<String> targetsOf(String space) throws Exception {
+      if ("broken".equals(space)) {
+        throw new Exception("db-down");
+      }
+      return new ArrayList<>(deployed.getOrDefault(space, new TreeSet<>()));
+    }
+
+    @Override
+    public void deploy(String space, String target) {
+      log.add("DEPLOY:" + space + "@" + target);
+      deployed.computeIfAbsent(space, (x) -> new TreeSet<>()).add(target);
+    }
+
+    @Override
+    public void undeploy(String space, String target) {
+      log.add("UNDEPLOY:" + space + "@" + target);
+      deployed.get(space).remove(target);
+    }
+  }
+
+  /** an executor which runs now, but holds scheduled work until asked */
+  private static class ManualExecutor implements SimpleExecutor {
+    private final ArrayList<NamedRunnable> scheduled = new ArrayList<>();
+    private final ArrayList<Long> delays = new ArrayList<>();
+
+    @Override
+    public void execute(NamedRunnable command) {
+      command.run();
+    }
+
+    @Override
+    public Runnable schedule(NamedRunnable command, long milliseconds) {
+      scheduled.add(command);
+      delays.add(milliseconds);
+      return () -> scheduled.remove(command);
+    }
+
+    @Override
+    public Runnable scheduleNano(NamedRunnable command, long nanoseconds) {
+      return schedule(command, nanoseconds / 1000000);
+    }
+
+    @Override
+    public CountDownLatch shutdown() {
+      return new CountDownLatch(0);
+    }
+
+    private void runAll() {
+      ArrayList<NamedRunnable> copy = new ArrayList<>(scheduled);
+      scheduled.clear();
+      for (NamedRunnable runnable : copy) {
+        runnable.run();
+      }
+    }
+  }
+
+  private static ArrayList<String> list(String... targets) {
+    return new ArrayList<>(Arrays.asList(targets));
+  }
+
+  @Test
+  public void moves_hottest_space_to_coolest_target() {
+    AtomicLong time = new AtomicLong(1000000);
+    SpaceHeat heat = new SpaceHeat();
+    heat.ingest("hot", "{\"time\":\"1\",\"spaces\":{\"a\":{\"cpu\":\"100\",\"messages\":\"10\"},\"b\":{\"cpu\":\"5000\",\"messages\":\"1\"},\"c\":{\"cpu\":\"10\"}}}");
+    FakeActions actions = new FakeActions();
+    actions.put("a", "hot", "x");
+    actions.put("b", "hot", "cool-1");
+    actions.put("c", "hot");
+    ManualExecutor executor = new ManualExecutor();
+    AtomicInteger changed = new AtomicInteger(0);
+    FixedHtmlStringLoggerTable table = new FixedHtmlStringLoggerTable(16, "space", "act", "activity", "time");
+    HotTargetRelief relief = new HotTargetRelief(executor, time::get, heat, actions, table, changed::incrementAndGet, 1000, 5000, 250);
+    // b is the hottest, but cool-1 already has it; so cool-2 gets it
+    Assert.assertEquals("b", relief.relieve("hot", list("cool-1", "cool-2")));
+    Assert.assertEquals(1, actions.log.size());
+    Assert.assertEquals("DEPLOY:b@cool-2", actions.log.get(0));
+    Assert.assertEquals(1, executor.scheduled.size());
+    Assert.assertEquals(250L, (long) executor.delays.get(0));
+    executor.runAll();
+    Assert.assertEquals("UNDEPLOY:b@hot", actions.log.get(1));
+    Assert.assertEquals("[cool-1, cool-2]", actions.deployed.get("b").toString());
+    Assert.assertEquals(2, changed.get());
+    String html = table.toHtml("Capacity Manager");
+    Assert.assertTrue(html.contains("relief-deploy"));
+    Assert.assertTrue(html.contains("hot -> cool-2"));
+    Assert.assertTrue(html.contains("relief-undeploy"));
+
+    // the hot target is cooling down, so nothing happens
+    Assert.assertNull(relief.relieve("hot", list("cool-3")));
+    Assert.assertTrue(relief.isCooling("hot", time.get()));
+    Assert.assertTrue(relief.isCooling("cool-2", time.get()));
+    Assert.assertTrue(relief.isCooling("b", time.get()));
+
+    // another hot target is throttled by the global gap
+    heat.ingest("hot-2", "{\"spaces\":{\"c\":{\"cpu\":\"10\"}}}");
+    actions.put("c", "hot-2");
+    time.addAndGet(500);
+    Assert.assertNull(relief.relieve("hot-2", list("cool-3")));
+    Assert.assertTrue(table.toHtml("x").contains("relief-throttled"));
+
+    // after the gap, hot-2 is relieved but not onto the cooling target
+    time.addAndGet(600);
+    Assert.assertEquals("c", relief.relieve("hot-2", list("cool-2", "cool-3")));
+    Assert.assertEquals("DEPLOY:c@cool-3", actions.log.get(2));
+
+    // after the cool down, the first hot target can be relieved again
+    time.addAndGet(5000);
+    Assert.assertFalse(relief.isCooling("hot", time.get()));
+    Assert.assertEquals("a", relief.relieve("hot", list("x", "cool-1")));
+    Assert.assertEquals("DEPLOY:a@cool-1", actions.log.get(3));
+    executor.runAll();
+    Assert.assertEquals(6, actions.log.size());
+  }
+
+  @Test
+  public void nothing_to_move() {
+    AtomicLong time = new AtomicLong(1000000);
+    SpaceHeat heat = new SpaceHeat();
+    FakeActions actions = new FakeActions();
+    ManualExecutor executor = new ManualExecutor();
+    FixedHtmlStringLoggerTable table = new FixedHtmlStringLoggerTable(16, "space", "act", "activity", "time");
+    HotTargetRelief relief = new HotTargetRelief(executor, time::get, heat, actions, table, () -> {}, 1000, 5000, 250);
+    // no metering
+    Assert.assertNull(relief.relieve("hot", list("cool")));
+    // stale metering: the space isn't on the hot target
+    heat.ingest("hot", "{\"spaces\":{\"a\":{\"cpu\":\"100\"}}}");
+    actions.put("a", "elsewhere");
+    Assert.assertNull(relief.relieve("hot", list("cool")));
+    // no cool targets
+    actions.put("a", "hot");
+    Assert.assertNull(relief.relieve("hot", list()));
+    Assert.assertNull(relief.relieve("hot", list("hot")));
+    Assert.assertTrue(table.toHtml("x").contains("relief-none"));
+    // failures are logged
+    heat.ingest("hot", "{\"spaces\":{\"broken\":{\"cpu\":\"100\"}}}");
+    Assert.assertNull(relief.relieve("hot", list("cool")));
+    Assert.assertTrue(table.toHtml("x").contains("db-down"));
+    Assert.assertEquals(0, actions.log.size());
+    Assert.assertEquals(0, executor.scheduled.size());
+  }
+}
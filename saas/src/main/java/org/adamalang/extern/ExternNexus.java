@@ -10,10 +10,13 @@
 package org.adamalang.extern;
 
 import org.adamalang.api.ApiMetrics;
+import org.adamalang.common.TimeSource;
 import org.adamalang.common.metrics.MetricsFactory;
 import org.adamalang.frontend.FrontendConfig;
 import org.adamalang.mysql.DataBase;
 import org.adamalang.net.client.Client;
+import org.adamalang.transforms.AuthenticatorCache;
+import org.adamalang.transforms.AuthenticatorMetrics;
 import org.adamalang.web.contracts.AssetDownloader;
 import org.adamalang.web.io.JsonLogger;
 
@@ -31,6 +34,7 @@ public class ExternNexus {
   public final File attachmentRoot;
   public final JsonLogger accessLogger;
   public final AssetDownloader downloader;
+  public final AuthenticatorCache authenticatorCache;
 
   public ExternNexus(FrontendConfig config, Email email, AssetUploader uploader, AssetDownloader downloader, DataBase dataBaseManagement, DataBase dataBaseDeployments, DataBase dataBaseBackend, Client client, MetricsFactory metricsFactory, File attachmentRoot, JsonLogger accessLogger) {
     this.config = config;
@@ -44,6 +48,7 @@ public class ExternNexus {
     this.metrics = new ApiMetrics(metricsFactory);
     this.attachmentRoot = attachmentRoot;
     this.accessLogger = accessLogger;
+    this.authenticatorCache = new AuthenticatorCache(new AuthenticatorMetrics(metricsFactory), TimeSource.REAL_TIME, config.authenticatorCacheSize, config.authenticatorCacheTtlMilliseconds);
     attachmentRoot.mkdir();
   }
 
@@ -13,8 +13,12 @@ import org.adamalang.common.ConfigObject;
 
 public class FrontendConfig {
   public final int threads;
+  public final int authenticatorCacheSize;
+  public final int authenticatorCacheTtlMilliseconds;
 
   public FrontendConfig(ConfigObject co) {
     threads = co.intOf("threads", 8);
+    authenticatorCacheSize = co.intOf("authenticator_cache_size", 10000);
+    authenticatorCacheTtlMilliseconds = co.intOf("authenticator_cache_ttl_ms", 60000);
   }
 }
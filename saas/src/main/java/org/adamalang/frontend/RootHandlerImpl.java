@@ -94,6 +94,7 @@ public class RootHandlerImpl implements RootHandler {
         KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
         String publicKey = new String(Base64.getEncoder().encode(pair.getPublic().getEncoded()));
         Users.addKey(nexus.dataBaseManagement, request.userId, publicKey, System.currentTimeMillis() + 14 * 24 * 60 * 60000);
+        nexus.authenticatorCache.invalidateDeveloper(request.userId);
         responder.complete(Jwts.builder().setSubject("" + request.userId).setIssuer("adama").signWith(pair.getPrivate()).compact());
       } else {
         responder.error(new ErrorCodeException(ErrorCodes.API_SET_PASSWORD_INVALID));
@@ -127,6 +128,7 @@ public class RootHandlerImpl implements RootHandler {
             Users.removeAllKeys(nexus.dataBaseManagement, request.userId);
           }
           Users.addKey(nexus.dataBaseManagement, request.userId, publicKey, System.currentTimeMillis() + 14 * 24 * 60 * 60000);
+          nexus.authenticatorCache.invalidateDeveloper(request.userId);
           responder.complete(Jwts.builder().setSubject("" + request.userId).setIssuer("adama").signWith(pair.getPrivate()).compact());
           Users.validateUser(nexus.dataBaseManagement, request.userId);
           Users.deleteInitiationPairing(nexus.dataBaseManagement, idHash.id);
@@ -177,6 +179,7 @@ public class RootHandlerImpl implements RootHandler {
       if (request.who.source == AuthenticatedUser.Source.Adama) {
         // NOTE: setKeystore validates ownership
         Authorities.setKeystore(nexus.dataBaseManagement, request.who.id, request.authority, request.keyStore.toString());
+        nexus.authenticatorCache.invalidateAuthority(request.authority);
         responder.complete();
       } else {
         responder.error(new ErrorCodeException(ErrorCodes.API_SET_AUTHORITY_NO_PERMISSION_TO_EXECUTE));
@@ -222,6 +225,7 @@ public class RootHandlerImpl implements RootHandler {
       if (request.who.source == AuthenticatedUser.Source.Adama) {
         // NOTE: deleteAuthority validates ownership
         Authorities.deleteAuthority(nexus.dataBaseManagement, request.who.id, request.authority);
+        nexus.authenticatorCache.invalidateAuthority(request.authority);
         responder.complete();
       } else {
         responder.error(new ErrorCodeException(ErrorCodes.API_DELETE_AUTHORITY_NO_PERMISSION_TO_EXECUTE));
@@ -26,8 +26,11 @@ import org.adamalang.transforms.results.AuthenticatedUser;
 import org.adamalang.transforms.results.Keystore;
 
 import java.security.KeyFactory;
+import java.security.PublicKey;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.regex.Pattern;
 
 public class Authenticator {
@@ -52,41 +55,53 @@ public class Authenticator {
   }
 
   public void execute(Session session, String identity, Callback<AuthenticatedUser> callback) {
-    AuthenticatedUser cacheHit = session.identityCache.get(identity);
+    AuthenticatorCache cache = nexus.authenticatorCache;
+    String hash = AuthenticatorCache.hashOf(identity);
+    AuthenticatedUser cacheHit = cache.getToken(hash);
     if (cacheHit != null) {
       callback.success(cacheHit);
       return;
     }
     try {
+      long generation = cache.generation();
       // TODO: check for Google Prefix
       ParsedToken parsedToken = new ParsedToken(identity);
       if ("adama".equals(parsedToken.iss)) {
         int userId = Integer.parseInt(parsedToken.sub);
-        for (String publicKey64 : Users.listKeys(nexus.dataBaseManagement, userId)) {
-          byte[] publicKey = Base64.getDecoder().decode(publicKey64);
-          X509EncodedKeySpec spec = new X509EncodedKeySpec(publicKey);
-          KeyFactory kf = KeyFactory.getInstance("EC");
-          try {
-            Jwts.parserBuilder()
-                .setSigningKey(kf.generatePublic(spec))
-                .requireIssuer("adama")
-                .build()
-                .parseClaimsJws(identity);
-            AuthenticatedUser user = new AuthenticatedUser(AuthenticatedUser.Source.Adama, userId, new NtClient("" + userId, "adama"));
-            session.identityCache.put(identity, user);
-            callback.success(user);
-            return;
-          } catch (Exception ex) {
-            // move on
-          }
+        List<PublicKey> keys = cache.getDeveloperKeys(userId);
+        boolean cached = keys != null;
+        if (!cached) {
+          keys = listDeveloperKeys(generation, userId);
+        }
+        boolean valid = validateDeveloper(keys, identity);
+        if (!valid && cached) {
+          // the developer may have a key which is newer than the cache (i.e. from logging into another machine)
+          cache.staleReload();
+          valid = validateDeveloper(listDeveloperKeys(generation, userId), identity);
+        }
+        if (valid) {
+          AuthenticatedUser user = new AuthenticatedUser(AuthenticatedUser.Source.Adama, userId, new NtClient("" + userId, "adama"));
+          cache.putToken(generation, hash, user, parsedToken.expires);
+          callback.success(user);
+          return;
         }
         callback.failure(new ErrorCodeException(ErrorCodes.AUTH_FAILED_FINDING_DEVELOPER_KEY));
       } else {
-        String keystoreJson = Authorities.getKeystoreInternal(nexus.dataBaseManagement, parsedToken.iss);
-        Keystore keystore = Keystore.parse(keystoreJson);
-        NtClient who = keystore.validate(parsedToken.iss, identity);
+        Keystore keystore = cache.getKeystore(parsedToken.iss);
+        NtClient who;
+        if (keystore != null) {
+          try {
+            who = keystore.validate(parsedToken.iss, identity);
+          } catch (ErrorCodeException ex) {
+            // the authority may have a keystore which is newer than the cache (i.e. set via another machine)
+            cache.staleReload();
+            who = getKeystore(generation, parsedToken.iss).validate(parsedToken.iss, identity);
+          }
+        } else {
+          who = getKeystore(generation, parsedToken.iss).validate(parsedToken.iss, identity);
+        }
         AuthenticatedUser user = new AuthenticatedUser(AuthenticatedUser.Source.Authority, -1, who);
-        session.identityCache.put(identity, user);
+        cache.putToken(generation, hash, user, parsedToken.expires);
         callback.success(user);
       }
     } catch (Exception ex) {
@@ -94,10 +109,47 @@ public class Authenticator {
     }
   }
 
+  /** internal: read and parse the public keys of the developer, and cache them */
+  private List<PublicKey> listDeveloperKeys(long generation, int userId) throws Exception {
+    ArrayList<PublicKey> keys = new ArrayList<>();
+    KeyFactory kf = KeyFactory.getInstance("EC");
+    for (String publicKey64 : Users.listKeys(nexus.dataBaseManagement, userId)) {
+      byte[] publicKey = Base64.getDecoder().decode(publicKey64);
+      keys.add(kf.generatePublic(new X509EncodedKeySpec(publicKey)));
+    }
+    nexus.authenticatorCache.putDeveloperKeys(generation, userId, keys);
+    return keys;
+  }
+
+  /** internal: does any of the keys validate the token */
+  private static boolean validateDeveloper(List<PublicKey> keys, String identity) {
+    for (PublicKey key : keys) {
+      try {
+        Jwts.parserBuilder()
+            .setSigningKey(key)
+            .requireIssuer("adama")
+            .build()
+            .parseClaimsJws(identity);
+        return true;
+      } catch (Exception ex) {
+        // move on
+      }
+    }
+    return false;
+  }
+
+  /** internal: read and parse the keystore of the authority, and cache it */
+  private Keystore getKeystore(long generation, String authority) throws Exception {
+    Keystore keystore = Keystore.parse(Authorities.getKeystoreInternal(nexus.dataBaseManagement, authority));
+    nexus.authenticatorCache.putKeystore(generation, authority, keystore);
+    return keystore;
+  }
+
   /** a pre-validated parsed token; we parse to find which keys to look up */
   public static class ParsedToken {
     public final String iss;
     public final String sub;
+    public final long expires;
 
     public ParsedToken(String token) throws ErrorCodeException {
       String[] parts = token.split(Pattern.quote("."));
@@ -109,9 +161,12 @@ public class Authenticator {
           if (tree != null && tree.isObject()) {
             JsonNode _iss = tree.get("iss");
             JsonNode _sub = tree.get("sub");
+            JsonNode _exp = tree.get("exp");
             if (_iss != null && _iss.isTextual() && _sub != null && _sub.isTextual()) {
               this.iss = _iss.textValue();
               this.sub = _sub.textValue();
+              // exp is in seconds (and optional); verification rejects tokens which have expired
+              this.expires = _exp != null && _exp.isNumber() ? _exp.asLong() * 1000L : 0L;
               return;
             }
           }
@@ -0,0 +1,199 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.transforms;
+
+import org.adamalang.common.Hashing;
+import org.adamalang.common.TimeSource;
+import org.adamalang.transforms.results.AuthenticatedUser;
+import org.adamalang.transforms.results.Keystore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * a process-wide cache for the Authenticator such that many connections presenting the same tokens (i.e. a reconnect storm) don't
+ * each go to the database and parse keys. Verified tokens are keyed by the hash of the token and held until the token expires or
+ * the ttl passes (whichever is sooner) while the parsed public keys of developers and keystores of authorities are held for the
+ * ttl. Changes made on this machine invalidate right away; changes made by other machines are visible once the ttl passes.
+ */
+public class AuthenticatorCache {
+  private final AuthenticatorMetrics metrics;
+  private final TimeSource time;
+  private final long ttlMilliseconds;
+  private final Expiring<String, AuthenticatedUser> tokens;
+  private final Expiring<Integer, List<PublicKey>> developerKeys;
+  private final Expiring<String, Keystore> keystores;
+  private long generation;
+
+  public AuthenticatorCache(AuthenticatorMetrics metrics, TimeSource time, int maxEntries, long ttlMilliseconds) {
+    this.metrics = metrics;
+    this.time = time;
+    this.ttlMilliseconds = ttlMilliseconds;
+    this.tokens = new Expiring<>(maxEntries);
+    this.developerKeys = new Expiring<>(maxEntries);
+    this.keystores = new Expiring<>(maxEntries);
+    this.generation = 0;
+  }
+
+  /** the generation of the cache which changes with every invalidation; capture it prior to reading the database */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /** hash the token such that the cache doesn't hold onto the tokens */
+  public static String hashOf(String token) {
+    MessageDigest digest = Hashing.forKnownAlgorithm("SHA-256");
+    digest.update(token.getBytes(StandardCharsets.UTF_8));
+    return Hashing.finishAndEncode(digest);
+  }
+
+  /** get the user of a token which was verified (by hash) */
+  public synchronized AuthenticatedUser getToken(String hash) {
+    AuthenticatedUser user = tokens.get(hash, time.nowMilliseconds());
+    if (user != null) {
+      metrics.token_hit.run();
+    } else {
+      metrics.token_miss.run();
+    }
+    return user;
+  }
+
+  /** remember that the token (by hash) was verified for the user; expires is when the token expires (0 if never) */
+  public synchronized void putToken(long generationRead, String hash, AuthenticatedUser user, long expires) {
+    if (generationRead != generation) {
+      // keys changed while the token was being verified, so it may have been verified by a revoked key
+      return;
+    }
+    long now = time.nowMilliseconds();
+    long until = now + ttlMilliseconds;
+    if (expires > 0) {
+      until = Math.min(until, expires);
+    }
+    if (until > now) {
+      tokens.put(hash, user, until);
+    }
+  }
+
+  /** get the parsed public keys of the developer */
+  public synchronized List<PublicKey> getDeveloperKeys(int userId) {
+    List<PublicKey> keys = developerKeys.get(userId, time.nowMilliseconds());
+    if (keys != null) {
+      metrics.developer_keys_hit.run();
+    } else {
+      metrics.developer_keys_miss.run();
+    }
+    return keys;
+  }
+
+  public synchronized void putDeveloperKeys(long generationRead, int userId, List<PublicKey> keys) {
+    if (generationRead != generation) {
+      return;
+    }
+    developerKeys.put(userId, keys, time.nowMilliseconds() + ttlMilliseconds);
+  }
+
+  /** get the parsed keystore of the authority */
+  public synchronized Keystore getKeystore(String authority) {
+    Keystore keystore = keystores.get(authority, time.nowMilliseconds());
+    if (keystore != null) {
+      metrics.keystore_hit.run();
+    } else {
+      metrics.keystore_miss.run();
+    }
+    return keystore;
+  }
+
+  public synchronized void putKeystore(long generationRead, String authority, Keystore keystore) {
+    if (generationRead != generation) {
+      return;
+    }
+    keystores.put(authority, keystore, time.nowMilliseconds() + ttlMilliseconds);
+  }
+
+  /** note that a cached key (or keystore) failed to verify a token, so it was reloaded from the database */
+  public void staleReload() {
+    metrics.stale_reload.run();
+  }
+
+  /** the keys of the developer changed, so forget the keys and the tokens verified by them */
+  public synchronized void invalidateDeveloper(int userId) {
+    metrics.invalidate.run();
+    generation++;
+    developerKeys.remove(userId);
+    tokens.removeIf((user) -> user.source == AuthenticatedUser.Source.Adama && user.id == userId);
+  }
+
+  /** the keystore of the authority changed (or was deleted), so forget the keystore and the tokens verified by it */
+  public synchronized void invalidateAuthority(String authority) {
+    metrics.invalidate.run();
+    generation++;
+    keystores.remove(authority);
+    tokens.removeIf((user) -> user.source == AuthenticatedUser.Source.Authority && user.who != null && authority.equals(user.who.authority));
+  }
+
+  /** a bounded map (evicting the least recently used) where each item expires */
+  private static class Expiring<K, V> {
+    private final LinkedHashMap<K, Item<V>> items;
+
+    private Expiring(int maxEntries) {
+      this.items = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Item<V>> eldest) {
+          return size() > maxEntries;
+        }
+      };
+    }
+
+    private V get(K key, long now) {
+      Item<V> item = items.get(key);
+      if (item == null) {
+        return null;
+      }
+      if (item.expires <= now) {
+        items.remove(key);
+        return null;
+      }
+      return item.value;
+    }
+
+    private void put(K key, V value, long expires) {
+      items.put(key, new Item<>(value, expires));
+    }
+
+    private void remove(K key) {
+      items.remove(key);
+    }
+
+    private void removeIf(Predicate<V> test) {
+      Iterator<Item<V>> it = items.values().iterator();
+      while (it.hasNext()) {
+        if (test.test(it.next().value)) {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  private static class Item<V> {
+    private final V value;
+    private final long expires;
+
+    private Item(V value, long expires) {
+      this.value = value;
+      this.expires = expires;
+    }
+  }
+}
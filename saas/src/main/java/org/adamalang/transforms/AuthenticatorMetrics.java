@@ -0,0 +1,34 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.transforms;
+
+import org.adamalang.common.metrics.MetricsFactory;
+
+public class AuthenticatorMetrics {
+  public final Runnable token_hit;
+  public final Runnable token_miss;
+  public final Runnable developer_keys_hit;
+  public final Runnable developer_keys_miss;
+  public final Runnable keystore_hit;
+  public final Runnable keystore_miss;
+  public final Runnable stale_reload;
+  public final Runnable invalidate;
+
+  public AuthenticatorMetrics(MetricsFactory factory) {
+    token_hit = factory.counter("authenticator_token_hit");
+    token_miss = factory.counter("authenticator_token_miss");
+    developer_keys_hit = factory.counter("authenticator_developer_keys_hit");
+    developer_keys_miss = factory.counter("authenticator_developer_keys_miss");
+    keystore_hit = factory.counter("authenticator_keystore_hit");
+    keystore_miss = factory.counter("authenticator_keystore_miss");
+    stale_reload = factory.counter("authenticator_stale_reload");
+    invalidate = factory.counter("authenticator_invalidate");
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.transforms;
+
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.transforms.results.AuthenticatedUser;
+import org.adamalang.transforms.results.Keystore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AuthenticatorCacheTests {
+  private static final AuthenticatedUser DEV = new AuthenticatedUser(AuthenticatedUser.Source.Adama, 42, new NtClient("42", "adama"));
+  private static final AuthenticatedUser AGENT = new AuthenticatedUser(AuthenticatedUser.Source.Authority, -1, new NtClient("agent", "auth"));
+
+  @Test
+  public void tokens_expire() {
+    AtomicLong time = new AtomicLong(1000);
+    AuthenticatorCache cache = new AuthenticatorCache(new AuthenticatorMetrics(new NoOpMetricsFactory()), time::get, 100, 500);
+    String a = AuthenticatorCache.hashOf("token-a");
+    String b = AuthenticatorCache.hashOf("token-b");
+    Assert.assertNotEquals(a, b);
+    Assert.assertNull(cache.getToken(a));
+    cache.putToken(cache.generation(), a, DEV, 0);
+    // the token expires prior to the ttl
+    cache.putToken(cache.generation(), b, AGENT, 1200);
+    Assert.assertSame(DEV, cache.getToken(a));
+    Assert.assertSame(AGENT, cache.getToken(b));
+    time.set(1200);
+    Assert.assertSame(DEV, cache.getToken(a));
+    Assert.assertNull(cache.getToken(b));
+    time.set(1500);
+    Assert.assertNull(cache.getToken(a));
+    // an expired token isn't cached at all
+    cache.putToken(cache.generation(), b, AGENT, 1400);
+    Assert.assertNull(cache.getToken(b));
+  }
+
+  @Test
+  public void invalidation() throws Exception {
+    AuthenticatorCache cache = new AuthenticatorCache(new AuthenticatorMetrics(new NoOpMetricsFactory()), () -> 0, 100, 500);
+    String a = AuthenticatorCache.hashOf("token-a");
+    String b = AuthenticatorCache.hashOf("token-b");
+    Keystore keystore = Keystore.parse("{}");
+    long generation = cache.generation();
+    cache.putToken(generation, a, DEV, 0);
+    cache.putToken(generation, b, AGENT, 0);
+    cache.putDeveloperKeys(generation, 42, new ArrayList<>());
+    cache.putKeystore(generation, "auth", keystore);
+    Assert.assertNotNull(cache.getDeveloperKeys(42));
+    Assert.assertSame(keystore, cache.getKeystore("auth"));
+    cache.invalidateAuthority("nope");
+    cache.invalidateDeveloper(100);
+    Assert.assertSame(DEV, cache.getToken(a));
+    Assert.assertSame(AGENT, cache.getToken(b));
+    cache.invalidateAuthority("auth");
+    Assert.assertSame(DEV, cache.getToken(a));
+    Assert.assertNull(cache.getToken(b));
+    Assert.assertNull(cache.getKeystore("auth"));
+    cache.invalidateDeveloper(42);
+    Assert.assertNull(cache.getToken(a));
+    Assert.assertNull(cache.getDeveloperKeys(42));
+    // a read which started prior to an invalidation must not be cached
+    cache.putToken(generation, a, DEV, 0);
+    cache.putDeveloperKeys(generation, 42, new ArrayList<>());
+    cache.putKeystore(generation, "auth", keystore);
+    Assert.assertNull(cache.getToken(a));
+    Assert.assertNull(cache.getDeveloperKeys(42));
+    Assert.assertNull(cache.getKeystore("auth"));
+  }
+
+  @Test
+  public void bounded() {
+    AuthenticatorCache cache = new AuthenticatorCache(new AuthenticatorMetrics(new NoOpMetricsFactory()), () -> 0, 2, 500);
+    String a = AuthenticatorCache.hashOf("token-a");
+    String b = AuthenticatorCache.hashOf("token-b");
+    String c = AuthenticatorCache.hashOf("token-c");
+    cache.putToken(0, a, DEV, 0);
+    cache.putToken(0, b, DEV, 0);
+    Assert.assertNotNull(cache.getToken(a));
+    cache.putToken(0, c, DEV, 0);
+    Assert.assertNotNull(cache.getToken(a));
+    Assert.assertNull(cache.getToken(b));
+    Assert.assertNotNull(cache.getToken(c));
+  }
+}
@@ -12,9 +12,7 @@ package org.adamalang.web.client;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
@@ -38,7 +36,7 @@ public class WebClientBase {
   private final EventLoopGroup group;
 
   public WebClientBase(WebConfig config) {
-    group = new NioEventLoopGroup();
+    group = config.transport.group(0);
     this.config = config;
   }
 
@@ -54,7 +52,7 @@ public class WebClientBase {
 
     final var b = new Bootstrap();
     b.group(group);
-    b.channel(NioSocketChannel.class);
+    config.transport.client(b);
     b.handler(new ChannelInitializer<SocketChannel>() {
       @Override
       protected void initChannel(final SocketChannel ch) throws Exception {
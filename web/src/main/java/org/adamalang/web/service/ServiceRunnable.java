@@ -12,8 +12,6 @@ package org.adamalang.web.service;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.util.concurrent.ScheduledFuture;
@@ -22,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -34,7 +33,7 @@ public class ServiceRunnable implements Runnable {
   private final CountDownLatch ready;
   private final AtomicBoolean started;
   private final Runnable heartbeat;
-  private Channel channel;
+  private final ArrayList<Channel> channels;
   private boolean stopped;
 
   public ServiceRunnable(final WebConfig webConfig, final WebMetrics metrics, ServiceBase base, Runnable heartbeat) {
@@ -42,14 +41,14 @@ public class ServiceRunnable implements Runnable {
     this.metrics = metrics;
     this.base = base;
     started = new AtomicBoolean();
-    channel = null;
+    channels = new ArrayList<>();
     stopped = false;
     ready = new CountDownLatch(1);
     this.heartbeat = heartbeat;
   }
 
   public synchronized boolean isAccepting() {
-    return channel != null;
+    return channels.size() > 0;
   }
 
   public boolean waitForReady(final int ms) throws InterruptedException {
@@ -70,14 +69,20 @@ public class ServiceRunnable implements Runnable {
             context = SslContextBuilder.forServer(certificate, privateKey).build();
             LOGGER.info("found-certificate-and-key");
           }
-          final EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-          final EventLoopGroup workerGroup = new NioEventLoopGroup(webConfig.workerThreads);
+          final EventLoopGroup bossGroup = webConfig.transport.group(webConfig.transport.acceptors);
+          final EventLoopGroup workerGroup = webConfig.transport.group(webConfig.workerThreads);
           try {
             final var b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup).channel(NioServerSocketChannel.class).childHandler(new Initializer(webConfig, metrics, base, context));
+            b.group(bossGroup, workerGroup);
+            webConfig.transport.server(b);
+            b.childHandler(new Initializer(webConfig, metrics, base, context));
             final var ch = b.bind(webConfig.port).sync().channel();
             channelRegistered(ch);
-            LOGGER.info("channel-registered");
+            for (int k = 1; k < webConfig.transport.acceptors; k++) {
+              // the other acceptors share the port via SO_REUSEPORT
+              channelRegistered(b.bind(webConfig.port).sync().channel());
+            }
+            LOGGER.info("channel-registered:" + webConfig.transport.kind.name);
             ScheduledFuture<?> future = bossGroup.scheduleAtFixedRate(() -> {
               workerGroup.schedule(() -> {
                 if (alive.get()) {
@@ -104,7 +109,7 @@ public class ServiceRunnable implements Runnable {
   }
 
   private synchronized void channelRegistered(final Channel channel) {
-    this.channel = channel;
+    channels.add(channel);
     if (stopped) {
       channel.close();
     }
@@ -113,7 +118,7 @@ public class ServiceRunnable implements Runnable {
 
   public synchronized void shutdown() {
     stopped = true;
-    if (channel != null) {
+    for (Channel channel : channels) {
       channel.close();
     }
   }
@@ -10,6 +10,7 @@
 package org.adamalang.web.service;
 
 import org.adamalang.common.ConfigObject;
+import org.adamalang.common.net.NetTransport;
 
 public class WebConfig {
   public final String healthCheckPath;
@@ -25,6 +26,7 @@ public class WebConfig {
   public final int idleAllSeconds;
   public final int bossThreads;
   public final int workerThreads;
+  public final NetTransport transport;
 
   public WebConfig(ConfigObject config) {
     // HTTP properties
@@ -42,5 +44,7 @@ public class WebConfig {
     this.heartbeatTimeMilliseconds = config.intOf("websocket_heart_beat_ms", 1000);
     this.bossThreads = config.intOf("http_boss_threads", 2);
     this.workerThreads = config.intOf("http_worker_threads", 16);
+    // socket properties (http_transport, http_allocator, http_acceptors, http_tcp_no_delay, ...)
+    this.transport = new NetTransport(config, "http");
   }
 }
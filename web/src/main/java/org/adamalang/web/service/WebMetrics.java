@@ -20,6 +20,9 @@ public class WebMetrics {
   public final Runnable websockets_server_heartbeat;
   public final Runnable websockets_uncaught_exception;
   public final Runnable websockets_end_exception;
+  public final Inflight websockets_outbound_pending;
+  public final Runnable websockets_outbound_overflow;
+  public final Runnable websockets_outbound_dropped;
   public final Runnable webhandler_get;
   public final Runnable webhandler_post;
   public final Runnable webhandler_exception;
@@ -46,6 +49,9 @@ public class WebMetrics {
     this.websockets_end = factory.counter("websockets_end");
     this.websockets_uncaught_exception = factory.counter("websockets_uncaught_exception");
     this.websockets_end_exception = factory.counter("websockets_end_exception");
+    this.websockets_outbound_pending = factory.inflight("websockets_outbound_pending");
+    this.websockets_outbound_overflow = factory.counter("websockets_outbound_overflow");
+    this.websockets_outbound_dropped = factory.counter("websockets_outbound_dropped");
     this.webhandler_client_download = factory.counter("webhandler_client_download");
     this.webhandler_set_asset_key = factory.counter("webhandler_set_asset_key");
     this.webhandler_assets_no_cookie = factory.counter("webhandler_assets_no_cookie");
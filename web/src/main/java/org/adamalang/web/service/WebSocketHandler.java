@@ -43,6 +43,7 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
   private ScheduledFuture<?> future;
   private boolean closed;
   private ConnectionContext context;
+  private WebSocketOutbound outbound;
 
   public WebSocketHandler(final WebConfig webConfig, WebMetrics metrics, final ServiceBase base) {
     this.webConfig = webConfig;
@@ -54,6 +55,7 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
     this.latency = new AtomicLong();
     this.closed = false;
     this.context = DEFAULT_CONTEXT;
+    this.outbound = null;
   }
 
   @Override
@@ -63,6 +65,18 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
     super.channelActive(ctx);
   }
 
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    outbound = new WebSocketOutbound(ctx, metrics);
+    super.handlerAdded(ctx);
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    outbound.writabilityChanged();
+    super.channelWritabilityChanged(ctx);
+  }
+
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
     metrics.websockets_end.run();
@@ -81,6 +95,7 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
         future.cancel(false);
         future = null;
       }
+      outbound.close();
       if (connection != null) {
         metrics.websockets_active_child_connections.down();
         connection.kill();
@@ -124,7 +139,7 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
           end(ctx);
         } else {
           metrics.websockets_send_heartbeat.run();
-          ctx.writeAndFlush(new TextWebSocketFrame("{\"ping\":" + (System.currentTimeMillis() - created) + ",\"latency\":\"" + latency.get() + "\"}"));
+          outbound.write("{\"ping\":" + (System.currentTimeMillis() - created) + ",\"latency\":\"" + latency.get() + "\"}");
         }
       };
 
@@ -158,17 +173,17 @@ public class WebSocketHandler extends SimpleChannelInboundHandler<WebSocketFrame
       final JsonResponder responder = new JsonResponder() {
         @Override
         public void stream(String json) {
-          ctx.writeAndFlush(new TextWebSocketFrame("{\"deliver\":" + id + ",\"done\":false,\"response\":" + json + "}"));
+          outbound.deliver(id, false, json);
         }
 
         @Override
         public void finish(String json) {
-          ctx.writeAndFlush(new TextWebSocketFrame("{\"deliver\":" + id + ",\"done\":true,\"response\":" + json + "}"));
+          outbound.deliver(id, true, json);
         }
 
         @Override
         public void error(ErrorCodeException ex) {
-          ctx.writeAndFlush(new TextWebSocketFrame("{\"failure\":" + id + ",\"reason\":" + ex.code + "}"));
+          outbound.write("{\"failure\":" + id + ",\"reason\":" + ex.code + "}");
         }
       };
       // execute the request
@@ -0,0 +1,149 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * the outbound queue of a websocket. Frames written within a tick of the event loop are coalesced into a single flush. While the
+ * channel is not writable, frames wait in order within this queue (rather than netty's outbound buffer). Deltas are never merged
+ * since list orderings ("@o", "@s") and text changes are relative to the prior delta; instead, a client too slow to drain the queue
+ * beyond a byte bound is disconnected such that it reconnects with a fresh view.
+ */
+public class WebSocketOutbound {
+  /** the most bytes a slow client may have waiting before it is disconnected */
+  public static final long DEFAULT_MAX_PENDING_BYTES = 4L * 1024 * 1024;
+  private final ChannelHandlerContext ctx;
+  private final WebMetrics metrics;
+  private final ArrayDeque<Pending> pending;
+  private final long maxPendingBytes;
+  private long pendingBytes;
+  private boolean flushScheduled;
+  private boolean closed;
+
+  public WebSocketOutbound(ChannelHandlerContext ctx, WebMetrics metrics) {
+    this(ctx, metrics, DEFAULT_MAX_PENDING_BYTES);
+  }
+
+  public WebSocketOutbound(ChannelHandlerContext ctx, WebMetrics metrics, long maxPendingBytes) {
+    this.ctx = ctx;
+    this.metrics = metrics;
+    this.pending = new ArrayDeque<>();
+    this.maxPendingBytes = maxPendingBytes;
+    this.pendingBytes = 0;
+    this.flushScheduled = false;
+    this.closed = false;
+  }
+
+  /** a frame which isn't bound to a stream */
+  public void write(String json) {
+    enqueue(new Pending(-1, false, json));
+  }
+
+  /** deliver a response for the given stream */
+  public void deliver(long id, boolean done, String response) {
+    enqueue(new Pending(id, done, response));
+  }
+
+  /** the channel became writable (or not) */
+  public void writabilityChanged() {
+    if (ctx.executor().inEventLoop()) {
+      flush();
+    } else {
+      ctx.executor().execute(this::flush);
+    }
+  }
+
+  /** the channel is gone, so drop anything pending */
+  public void close() {
+    if (!ctx.executor().inEventLoop()) {
+      ctx.executor().execute(this::close);
+      return;
+    }
+    closed = true;
+    for (int k = 0; k < pending.size(); k++) {
+      metrics.websockets_outbound_dropped.run();
+      metrics.websockets_outbound_pending.down();
+    }
+    pending.clear();
+    pendingBytes = 0;
+  }
+
+  /** internal: add the frame to the queue (on the event loop) */
+  private void enqueue(Pending frame) {
+    if (!ctx.executor().inEventLoop()) {
+      try {
+        ctx.executor().execute(() -> enqueue(frame));
+      } catch (RejectedExecutionException ree) {
+        metrics.websockets_outbound_dropped.run();
+      }
+      return;
+    }
+    if (closed) {
+      metrics.websockets_outbound_dropped.run();
+      return;
+    }
+    pending.add(frame);
+    pendingBytes += frame.json.length();
+    metrics.websockets_outbound_pending.up();
+    if (pendingBytes > maxPendingBytes) {
+      // the client can't keep up, so drop it rather than hold unbounded frames; it will reconnect with a fresh view
+      metrics.websockets_outbound_overflow.run();
+      close();
+      ctx.close();
+      return;
+    }
+    if (!flushScheduled) {
+      flushScheduled = true;
+      // tasks queued on the event loop run after the current one, so everything written by this tick rides along
+      ctx.executor().execute(this::flush);
+    }
+  }
+
+  /** internal: write what the channel can take and then flush once */
+  private void flush() {
+    flushScheduled = false;
+    boolean wrote = false;
+    while (!pending.isEmpty() && ctx.channel().isWritable()) {
+      Pending frame = pending.poll();
+      pendingBytes -= frame.json.length();
+      metrics.websockets_outbound_pending.down();
+      ctx.write(new TextWebSocketFrame(frame.text()));
+      wrote = true;
+    }
+    if (wrote) {
+      ctx.flush();
+    }
+  }
+
+  /** a frame waiting to be written */
+  private static class Pending {
+    private final long id;
+    private final boolean done;
+    private final String json;
+
+    private Pending(long id, boolean done, String json) {
+      this.id = id;
+      this.done = done;
+      this.json = json;
+    }
+
+    private String text() {
+      if (id < 0) {
+        return json;
+      }
+      return "{\"deliver\":" + id + ",\"done\":" + done + ",\"response\":" + json + "}";
+    }
+  }
+}
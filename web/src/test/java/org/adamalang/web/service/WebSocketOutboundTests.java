@@ -0,0 +1,170 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.adamalang.common.Json;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WebSocketOutboundTests {
+  private static EmbeddedChannel channel(AtomicReference<WebSocketOutbound> outbound) {
+    return new EmbeddedChannel(new ChannelInboundHandlerAdapter() {
+      @Override
+      public void handlerAdded(ChannelHandlerContext ctx) {
+        outbound.set(new WebSocketOutbound(ctx, new WebMetrics(new NoOpMetricsFactory())));
+      }
+
+      @Override
+      public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        outbound.get().writabilityChanged();
+      }
+    });
+  }
+
+  private static String read(EmbeddedChannel channel) {
+    TextWebSocketFrame frame = channel.readOutbound();
+    if (frame == null) {
+      return null;
+    }
+    try {
+      return frame.text();
+    } finally {
+      frame.release();
+    }
+  }
+
+  @Test
+  public void coalesce_within_tick() {
+    AtomicReference<WebSocketOutbound> outbound = new AtomicReference<>();
+    EmbeddedChannel channel = channel(outbound);
+    outbound.get().write("{\"ping\":1}");
+    outbound.get().deliver(1, false, "{\"delta\":{\"x\":1}}");
+    outbound.get().deliver(1, false, "{\"delta\":{\"x\":2}}");
+    outbound.get().deliver(2, true, "{}");
+    Assert.assertNull(read(channel));
+    channel.runPendingTasks();
+    Assert.assertEquals("{\"ping\":1}", read(channel));
+    Assert.assertEquals("{\"deliver\":1,\"done\":false,\"response\":{\"delta\":{\"x\":1}}}", read(channel));
+    Assert.assertEquals("{\"deliver\":1,\"done\":false,\"response\":{\"delta\":{\"x\":2}}}", read(channel));
+    Assert.assertEquals("{\"deliver\":2,\"done\":true,\"response\":{}}", read(channel));
+    Assert.assertNull(read(channel));
+  }
+
+  /** a port of the client's __recMergeAndDispatchArray (keys only): "@s" truncates, and "@o" ranges index the list prior to the delta */
+  private static ArrayList<String> applyListDelta(ArrayList<String> list, JsonNode delta) {
+    ArrayList<String> result = new ArrayList<>(list);
+    if (delta.has("@s")) {
+      int size = delta.get("@s").asInt();
+      while (result.size() > size) {
+        result.remove(result.size() - 1);
+      }
+    }
+    if (delta.has("@o")) {
+      ArrayList<String> before = result;
+      result = new ArrayList<>();
+      for (JsonNode item : delta.get("@o")) {
+        if (item.isArray()) {
+          for (int k = item.get(0).asInt(); k <= item.get(1).asInt(); k++) {
+            if (k >= before.size()) {
+              throw new IndexOutOfBoundsException("@o range reads past the list:" + k);
+            }
+            result.add(before.get(k));
+          }
+        } else {
+          result.add(item.asText());
+        }
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void queue_in_order_while_unwritable() throws Exception {
+    AtomicReference<WebSocketOutbound> outbound = new AtomicReference<>();
+    EmbeddedChannel channel = channel(outbound);
+    channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+    // two appends to a list of three items; the second ordering is relative to the list after the first
+    String first = "{\"delta\":{\"data\":{\"l\":{\"@o\":[[0,2],5],\"5\":{\"v\":5}}}}}";
+    String second = "{\"delta\":{\"data\":{\"l\":{\"@o\":[[0,3],6],\"6\":{\"v\":6}}}}}";
+    outbound.get().deliver(1, false, first);
+    outbound.get().deliver(2, false, "{\"delta\":{\"z\":1}}");
+    outbound.get().deliver(1, false, second);
+    outbound.get().deliver(1, true, "{}");
+    channel.runPendingTasks();
+    Assert.assertNull(read(channel));
+    channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+    channel.runPendingTasks();
+    ArrayList<String> list = new ArrayList<>(Arrays.asList("1", "2", "3"));
+    ArrayList<String> frames = new ArrayList<>();
+    String frame;
+    while ((frame = read(channel)) != null) {
+      frames.add(frame);
+    }
+    Assert.assertEquals(4, frames.size());
+    Assert.assertEquals("{\"deliver\":1,\"done\":false,\"response\":" + first + "}", frames.get(0));
+    Assert.assertEquals("{\"deliver\":2,\"done\":false,\"response\":{\"delta\":{\"z\":1}}}", frames.get(1));
+    Assert.assertEquals("{\"deliver\":1,\"done\":false,\"response\":" + second + "}", frames.get(2));
+    Assert.assertEquals("{\"deliver\":1,\"done\":true,\"response\":{}}", frames.get(3));
+    for (String text : frames) {
+      JsonNode node = Json.parseJsonObject(text);
+      if (node.get("deliver").asInt() == 1 && node.get("response").has("delta")) {
+        list = applyListDelta(list, node.get("response").get("delta").get("data").get("l"));
+      }
+    }
+    Assert.assertEquals("[1, 2, 3, 5, 6]", list.toString());
+    // a naive merge of the two (the second ordering replacing the first) reads past the client's list
+    try {
+      applyListDelta(new ArrayList<>(Arrays.asList("1", "2", "3")), Json.parseJsonObject(second).get("delta").get("data").get("l"));
+      Assert.fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  @Test
+  public void slow_client_overflows() {
+    AtomicReference<WebSocketOutbound> outbound = new AtomicReference<>();
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter() {
+      @Override
+      public void handlerAdded(ChannelHandlerContext ctx) {
+        outbound.set(new WebSocketOutbound(ctx, new WebMetrics(new NoOpMetricsFactory()), 32));
+      }
+    });
+    channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+    outbound.get().deliver(1, false, "{\"delta\":{\"x\":1}}");
+    Assert.assertTrue(channel.isOpen());
+    outbound.get().deliver(1, false, "{\"delta\":{\"x\":2}}");
+    channel.runPendingTasks();
+    Assert.assertFalse(channel.isOpen());
+    outbound.get().deliver(1, false, "{\"delta\":{\"x\":3}}");
+    channel.runPendingTasks();
+    Assert.assertNull(read(channel));
+  }
+
+  @Test
+  public void closed_drops() {
+    AtomicReference<WebSocketOutbound> outbound = new AtomicReference<>();
+    EmbeddedChannel channel = channel(outbound);
+    outbound.get().write("{\"ping\":1}");
+    outbound.get().close();
+    outbound.get().write("{\"ping\":2}");
+    channel.runPendingTasks();
+    Assert.assertNull(read(channel));
+  }
+}